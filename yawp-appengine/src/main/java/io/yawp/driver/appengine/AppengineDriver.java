@@ -51,4 +51,9 @@ public class AppengineDriver implements Driver {
     public PipesDriver pipes() {
         return new AppenginePipesDriver(r);
     }
+
+    @Override
+    public void destroy() {
+    }
+
 }
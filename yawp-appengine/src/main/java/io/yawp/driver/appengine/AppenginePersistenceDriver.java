@@ -1,15 +1,11 @@
 package io.yawp.driver.appengine;
 
 import com.google.appengine.api.datastore.*;
-import io.yawp.commons.utils.JsonUtils;
 import io.yawp.driver.api.PersistenceDriver;
 import io.yawp.repository.FutureObject;
 import io.yawp.repository.IdRef;
-import io.yawp.repository.LazyJson;
 import io.yawp.repository.Repository;
-import io.yawp.repository.models.FieldModel;
 import io.yawp.repository.models.ObjectHolder;
-import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,12 +13,16 @@ import java.util.concurrent.Future;
 
 public class AppenginePersistenceDriver implements PersistenceDriver {
 
-    private static final String NORMALIZED_FIELD_PREFIX = "__";
+    // Datastore limit of entities per batch operation
+    private static final int BATCH_SIZE = 500;
 
     private Repository r;
 
+    private ObjectToEntityConverter toEntity;
+
     public AppenginePersistenceDriver(Repository r) {
         this.r = r;
+        this.toEntity = new ObjectToEntityConverter();
     }
 
     private DatastoreService datastore() {
@@ -60,6 +60,45 @@ public class AppenginePersistenceDriver implements PersistenceDriver {
         return new FutureObject<Void>(r, future);
     }
 
+    @Override
+    public void saveAll(List<?> objects) {
+        for (int start = 0; start < objects.size(); start += BATCH_SIZE) {
+            saveBatch(objects.subList(start, Math.min(start + BATCH_SIZE, objects.size())));
+        }
+    }
+
+    private void saveBatch(List<?> objects) {
+        List<ObjectHolder> objectHolders = new ArrayList<>(objects.size());
+        List<Entity> entities = new ArrayList<>(objects.size());
+
+        for (Object object : objects) {
+            ObjectHolder objectHolder = new ObjectHolder(object);
+            Entity entity = createEntity(objectHolder);
+            toEntity(objectHolder, entity);
+            objectHolders.add(objectHolder);
+            entities.add(entity);
+        }
+
+        List<Key> keys = datastore().put(entities);
+
+        for (int i = 0; i < objectHolders.size(); i++) {
+            ObjectHolder objectHolder = objectHolders.get(i);
+            objectHolder.setId(IdRefToKey.toIdRef(r, keys.get(i), objectHolder.getModel()));
+        }
+    }
+
+    @Override
+    public void destroyAll(List<IdRef<?>> ids) {
+        List<Key> keys = new ArrayList<>(ids.size());
+        for (IdRef<?> id : ids) {
+            keys.add(IdRefToKey.toKey(r, id));
+        }
+
+        for (int start = 0; start < keys.size(); start += BATCH_SIZE) {
+            datastore().delete(keys.subList(start, Math.min(start + BATCH_SIZE, keys.size())));
+        }
+    }
+
     private Entity createEntity(ObjectHolder objectHolder) {
         IdRef<?> id = objectHolder.getId();
 
@@ -91,94 +130,6 @@ public class AppenginePersistenceDriver implements PersistenceDriver {
     }
 
     public void toEntity(ObjectHolder objectHolder, Entity entity) {
-        List<FieldModel> fieldModels = objectHolder.getModel().getFieldModels();
-
-        for (FieldModel fieldModel : fieldModels) {
-            if (fieldModel.isId()) {
-                continue;
-            }
-
-            if (fieldModel.isTransient()) {
-                continue;
-            }
-
-            setEntityProperty(objectHolder, entity, fieldModel);
-        }
-    }
-
-    private void setEntityProperty(ObjectHolder objectHolder, Entity entity, FieldModel fieldModel) {
-        Object value = getFieldValue(fieldModel, objectHolder);
-
-        if (!fieldModel.hasIndex()) {
-            entity.setUnindexedProperty(fieldModel.getName(), value);
-            return;
-        }
-
-        if (fieldModel.isIndexNormalizable()) {
-            entity.setProperty(NORMALIZED_FIELD_PREFIX + fieldModel.getName(), normalizeValue(value));
-            entity.setUnindexedProperty(fieldModel.getName(), value);
-            return;
-        }
-
-        entity.setProperty(fieldModel.getName(), value);
-    }
-
-    private Object getFieldValue(FieldModel fieldModel, ObjectHolder objectHolder) {
-        Object value = fieldModel.getValue(objectHolder.getObject());
-
-        if (value == null) {
-            return null;
-        }
-
-        if (fieldModel.isEnum(value)) {
-            return value.toString();
-        }
-
-        if (fieldModel.isSaveAsJson()) {
-            return new Text(JsonUtils.to(value));
-        }
-
-        if (fieldModel.isSaveAsLazyJson()) {
-            String json = ((LazyJson) value).getJson();
-            if (json == null) {
-                return null;
-            }
-            return new Text(json);
-        }
-
-        if (fieldModel.isIdRef()) {
-            IdRef<?> idRef = (IdRef<?>) value;
-            return idRef.getUri();
-        }
-
-        if (fieldModel.isSaveAsText()) {
-            return new Text(value.toString());
-        }
-
-        if (fieldModel.isListOfIds()) {
-            return convertToListOfUris((List<IdRef<?>>) value);
-        }
-
-        return value;
-    }
-
-    private List<String> convertToListOfUris(List<IdRef<?>> ids) {
-        List<String> uris = new ArrayList<>(ids.size());
-        for (IdRef<?> id : ids) {
-            uris.add(id.getUri());
-        }
-        return uris;
-    }
-
-    private Object normalizeValue(Object o) {
-        if (o == null) {
-            return null;
-        }
-
-        if (!o.getClass().equals(String.class)) {
-            return o;
-        }
-
-        return StringUtils.stripAccents((String) o).toLowerCase();
+        toEntity.convert(objectHolder, entity);
     }
 }
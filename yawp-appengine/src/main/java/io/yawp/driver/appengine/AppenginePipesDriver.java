@@ -6,7 +6,6 @@ import com.google.appengine.tools.pipeline.PipelineService;
 import com.google.appengine.tools.pipeline.PipelineServiceFactory;
 import io.yawp.driver.api.PipesDriver;
 import io.yawp.driver.appengine.pipes.flow.FanoutTask;
-import io.yawp.driver.appengine.pipes.flow.ForkTask;
 import io.yawp.driver.appengine.pipes.flow.Payload;
 import io.yawp.driver.appengine.pipes.flow.drops.FlowDropsNamespaceFanoutTask;
 import io.yawp.driver.appengine.pipes.reflow.ReflowFluxTask;
@@ -16,10 +15,8 @@ import io.yawp.driver.appengine.pipes.utils.ClearPipelineTask;
 import io.yawp.driver.appengine.pipes.utils.QueueHelper;
 import io.yawp.repository.IdRef;
 import io.yawp.repository.Repository;
-import io.yawp.repository.models.ObjectHolder;
 import io.yawp.repository.pipes.Pipe;
 import io.yawp.repository.pipes.SourceMarker;
-import io.yawp.repository.query.NoResultException;
 
 import java.util.Set;
 
@@ -32,18 +29,18 @@ public class AppenginePipesDriver implements PipesDriver {
     }
 
     @Override
-    public void flux(Pipe pipe, Object source) {
-        enqueue(pipe, source, null, true);
+    public void flux(Pipe pipe, Object source, SourceMarker sourceMarker) {
+        enqueue(pipe, source, null, true, sourceMarker);
     }
 
     @Override
-    public void reflux(Pipe pipe, Object source) {
-        enqueue(pipe, source, null, false);
+    public void reflux(Pipe pipe, Object source, SourceMarker sourceMarker) {
+        enqueue(pipe, source, null, false, sourceMarker);
     }
 
     @Override
-    public void refluxOld(Pipe pipe, Object source, Object oldSource) {
-        enqueue(pipe, source, oldSource, false);
+    public void refluxOld(Pipe pipe, Object source, Object oldSource, SourceMarker sourceMarker) {
+        enqueue(pipe, source, oldSource, false, sourceMarker);
     }
 
     @Override
@@ -66,8 +63,7 @@ public class AppenginePipesDriver implements PipesDriver {
         queue.add(TaskOptions.Builder.withPayload(new FlowDropsNamespaceFanoutTask()));
     }
 
-    private void enqueue(Pipe pipe, Object source, Object oldSource, boolean present) {
-        SourceMarker sourceMarker = saveSourceMarker(source);
+    private void enqueue(Pipe pipe, Object source, Object oldSource, boolean present, SourceMarker sourceMarker) {
         Payload payload = createPayload(pipe, source, sourceMarker, oldSource, present);
 
         if (!pipe.hasSinks()) {
@@ -80,10 +76,7 @@ public class AppenginePipesDriver implements PipesDriver {
     private void fork(Pipe pipe, Payload payload) {
         Queue queue = QueueHelper.getPipeForkQueue(pipe);
         Set<IdRef<?>> sinkIds = pipe.allSinks();
-        for (IdRef<?> sinkId : sinkIds) {
-            payload.setSinkUri(sinkId);
-            queue.add(TaskOptions.Builder.withPayload(new ForkTask(payload)));
-        }
+        FanoutTask.enqueue(queue, payload, sinkIds);
     }
 
     private void fanout(Pipe pipe, Payload payload) {
@@ -96,36 +89,10 @@ public class AppenginePipesDriver implements PipesDriver {
         payload.setNs(r.namespace().getNs());
         payload.setPipeClazz(pipe.getClass());
         payload.setSourceJson(source);
-        payload.setSourceMarkerJson(marker);
+        payload.setSourceMarker(marker);
         payload.setOldSourceJson(oldSource);
         payload.setPresent(present);
         return payload;
     }
 
-    private IdRef<SourceMarker> createSourceMarkerId(ObjectHolder objectHolder) {
-        IdRef<?> objectId = objectHolder.getId();
-        if (objectId.getId() != null) {
-            return objectId.createChildId(SourceMarker.class, objectId.getId());
-        }
-        return objectId.createChildId(SourceMarker.class, objectId.getName());
-    }
-
-    private SourceMarker saveSourceMarker(Object source) {
-        ObjectHolder objectHolder = new ObjectHolder(source);
-        IdRef<SourceMarker> markerId = createSourceMarkerId(objectHolder);
-
-        SourceMarker sourceMarker;
-
-        try {
-            sourceMarker = markerId.fetch();
-            sourceMarker.increment();
-        } catch (NoResultException e) {
-            sourceMarker = new SourceMarker();
-            sourceMarker.setId(markerId);
-            sourceMarker.setParentId(objectHolder.getId());
-        }
-
-        r.save(sourceMarker);
-        return sourceMarker;
-    }
 }
@@ -3,19 +3,19 @@ package io.yawp.driver.appengine;
 import com.google.appengine.api.datastore.*;
 import com.google.appengine.api.datastore.Query.*;
 import io.yawp.commons.utils.DateUtils;
-import io.yawp.commons.utils.ReflectionUtils;
 import io.yawp.driver.api.QueryDriver;
 import io.yawp.repository.FutureObject;
 import io.yawp.repository.IdRef;
 import io.yawp.repository.Repository;
 import io.yawp.repository.models.FieldModel;
+import io.yawp.repository.models.ModelRegistry;
+import io.yawp.repository.models.ObjectModel;
 import io.yawp.repository.query.QueryBuilder;
 import io.yawp.repository.query.QueryOrder;
 import io.yawp.repository.query.condition.*;
 import org.apache.commons.lang3.StringUtils;
 
 import java.lang.reflect.Array;
-import java.lang.reflect.Field;
 import java.util.*;
 import java.util.concurrent.Future;
 
@@ -50,7 +50,7 @@ public class AppengineQueryDriver implements QueryDriver {
             List<T> objects = new ArrayList<T>();
 
             for (Entity entity : queryResult) {
-                objects.add((T) toObject.convert(builder.getModel(), entity));
+                objects.add((T) toObject.convert(builder.getModel(), entity, builder.getProjection()));
             }
 
             return objects;
@@ -95,6 +95,27 @@ public class AppengineQueryDriver implements QueryDriver {
         return new FutureObject<T>(r, new FutureEntityToObject(r, id.getClazz(), futureEntity));
     }
 
+    @Override
+    public <T> List<T> fetch(List<IdRef<T>> ids) {
+        List<Key> keys = toKeys(ids);
+        return FutureEntitiesToObjects.toObjects(toObject, ids, keys, datastore().get(keys));
+    }
+
+    @Override
+    public <T> FutureObject<List<T>> fetchAsync(List<IdRef<T>> ids) {
+        List<Key> keys = toKeys(ids);
+        Future<Map<Key, Entity>> futureEntities = asyncDatastore().get(keys);
+        return new FutureObject<List<T>>(r, new FutureEntitiesToObjects<T>(r, ids, keys, futureEntities));
+    }
+
+    private <T> List<Key> toKeys(List<IdRef<T>> ids) {
+        List<Key> keys = new ArrayList<>(ids.size());
+        for (IdRef<T> id : ids) {
+            keys.add(IdRefToKey.toKey(r, id));
+        }
+        return keys;
+    }
+
     // query
 
     private QueryResultList<Entity> generateResults(QueryBuilder<?> builder, boolean keysOnly) throws FalsePredicateException {
@@ -126,6 +147,8 @@ public class AppengineQueryDriver implements QueryDriver {
 
         if (keysOnly) {
             q.setKeysOnly();
+        } else {
+            prepareQueryProjection(builder, q);
         }
 
         prepareQueryAncestor(builder, q);
@@ -135,6 +158,78 @@ public class AppengineQueryDriver implements QueryDriver {
         return datastore().prepare(q);
     }
 
+    /**
+     * Pushes the selected fields down as a projection query when the datastore can serve all
+     * of them from its indexes, otherwise entire entities are read and only the selected fields
+     * are converted.
+     */
+    private void prepareQueryProjection(QueryBuilder<?> builder, Query q) {
+        if (!builder.hasProjection() || builder.getProjection().isEmpty()) {
+            return;
+        }
+
+        ObjectModel model = builder.getModel();
+        Set<String> equalityFields = getEqualityFields(builder.getCondition(), new HashSet<String>());
+
+        List<PropertyProjection> projections = new ArrayList<>();
+        for (String field : builder.getProjection()) {
+            FieldModel fieldModel = model.getFieldModel(field);
+            Class<?> projectionType = getProjectionType(fieldModel);
+
+            if (projectionType == null || equalityFields.contains(field)) {
+                return;
+            }
+            projections.add(new PropertyProjection(field, projectionType));
+        }
+
+        for (PropertyProjection projection : projections) {
+            q.addProjection(projection);
+        }
+    }
+
+    private Class<?> getProjectionType(FieldModel fieldModel) {
+        if (fieldModel.isId() || !fieldModel.hasIndex() || fieldModel.isIndexNormalizable()) {
+            return null;
+        }
+        if (fieldModel.isList() || fieldModel.isCollection() || fieldModel.isSaveAsJson() || fieldModel.isSaveAsLazyJson() || fieldModel.isSaveAsText()) {
+            return null;
+        }
+
+        Class<?> type = fieldModel.getField().getType();
+
+        if (fieldModel.isEnum() || fieldModel.isIdRef() || String.class.equals(type)) {
+            return String.class;
+        }
+        if (fieldModel.isInt() || Long.class.equals(type) || long.class.equals(type)) {
+            return Long.class;
+        }
+        if (Double.class.equals(type) || double.class.equals(type)) {
+            return Double.class;
+        }
+        if (Boolean.class.equals(type) || boolean.class.equals(type)) {
+            return Boolean.class;
+        }
+        if (Date.class.equals(type)) {
+            return Date.class;
+        }
+        return null;
+    }
+
+    private Set<String> getEqualityFields(BaseCondition condition, Set<String> fields) {
+        if (condition instanceof SimpleCondition) {
+            SimpleCondition c = (SimpleCondition) condition;
+            if (c.getWhereOperator() == WhereOperator.EQUAL || c.getWhereOperator() == WhereOperator.IN) {
+                fields.add(c.getField());
+            }
+        }
+        if (condition instanceof JoinedCondition) {
+            for (BaseCondition c : ((JoinedCondition) condition).getConditions()) {
+                getEqualityFields(c, fields);
+            }
+        }
+        return fields;
+    }
+
     private void prepareQueryOrder(QueryBuilder<?> builder, Query q) {
         if (builder.getPreOrders().isEmpty()) {
             return;
@@ -238,8 +333,7 @@ public class AppengineQueryDriver implements QueryDriver {
     }
 
     private <T> String getActualFieldName(String fieldName, Class<T> clazz) {
-        Field field = ReflectionUtils.getFieldRecursively(clazz, fieldName);
-        FieldModel fieldModel = new FieldModel(field);
+        FieldModel fieldModel = ModelRegistry.get(clazz).getFieldModel(fieldName);
 
         if (fieldModel.isId()) {
             return Entity.KEY_RESERVED_PROPERTY;
@@ -253,8 +347,7 @@ public class AppengineQueryDriver implements QueryDriver {
     }
 
     public <T> Object getActualFieldValue(String fieldName, Class<T> clazz, Object value) {
-        Field field = ReflectionUtils.getFieldRecursively(clazz, fieldName);
-        FieldModel fieldModel = new FieldModel(field);
+        FieldModel fieldModel = ModelRegistry.get(clazz).getFieldModel(fieldName);
 
         if (fieldModel.isCollection(value)) {
             return getActualListFieldValue(fieldName, clazz, (Collection<?>) value);
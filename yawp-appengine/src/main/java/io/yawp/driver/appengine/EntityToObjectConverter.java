@@ -2,20 +2,11 @@ package io.yawp.driver.appengine;
 
 import com.google.appengine.api.datastore.Entity;
 import com.google.appengine.api.datastore.Text;
-import io.yawp.commons.http.HttpVerb;
-import io.yawp.commons.utils.JsonUtils;
-import io.yawp.commons.utils.ReflectionUtils;
-import io.yawp.repository.IdRef;
-import io.yawp.repository.LazyJson;
 import io.yawp.repository.Repository;
-import io.yawp.repository.models.FieldModel;
+import io.yawp.repository.models.FieldConverter;
 import io.yawp.repository.models.ObjectHolder;
 import io.yawp.repository.models.ObjectModel;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
-import java.util.ArrayList;
 import java.util.List;
 
 public class EntityToObjectConverter {
@@ -27,118 +18,36 @@ public class EntityToObjectConverter {
     }
 
     public Object convert(ObjectModel model, Entity entity) {
+        return convert(model, entity, null);
+    }
+
+    /**
+     * Converts a projected entity, only the given fields are read. A null list reads them all.
+     */
+    public Object convert(ObjectModel model, Entity entity, List<String> fields) {
         Object object = model.createInstance();
 
         ObjectHolder objectHolder = new ObjectHolder(object);
         objectHolder.setId(IdRefToKey.toIdRef(r, entity.getKey(), model));
 
-        List<FieldModel> fieldModels = objectHolder.getModel().getFieldModels();
-
-        for (FieldModel fieldModel : fieldModels) {
-            if (fieldModel.isId()) {
-                continue;
-            }
-
-            if (fieldModel.isTransient()) {
+        for (FieldConverter converter : FieldConverter.of(model)) {
+            if (fields != null && !fields.contains(converter.getName())) {
                 continue;
             }
-
-            safeSetObjectProperty(entity, object, fieldModel);
+            converter.setValue(r, object, getValue(entity, converter.getName()));
         }
 
         return object;
     }
 
-    private <T> void safeSetObjectProperty(Entity entity, T object, FieldModel fieldModel) {
-        try {
-            setObjectProperty(object, entity, fieldModel, fieldModel.getField());
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    private <T> void setObjectProperty(T object, Entity entity, FieldModel fieldModel, Field field) throws IllegalAccessException {
-        Object value = entity.getProperty(field.getName());
-
-        if (value == null) {
-            field.set(object, null);
-            return;
-        }
-
-        if (fieldModel.isEnum()) {
-            setEnumProperty(object, field, value);
-            return;
-        }
-
-        if (fieldModel.isSaveAsJson()) {
-            setJsonProperty(r, object, field, value);
-            return;
-        }
-
-        if (fieldModel.isSaveAsLazyJson()) {
-            setLazyJsonProperty(object, field, value);
-            return;
-        }
-
-        if (fieldModel.isInt()) {
-            setIntProperty(object, field, value);
-            return;
-        }
-
-        if (fieldModel.isIdRef()) {
-            setIdRefProperty(r, object, field, value);
-            return;
-        }
+    private Object getValue(Entity entity, String name) {
+        Object value = entity.getProperty(name);
 
-        if (fieldModel.isSaveAsText()) {
-            setTextProperty(object, field, value);
-            return;
+        if (value instanceof Text) {
+            return ((Text) value).getValue();
         }
 
-        if (fieldModel.isListOfIds()) {
-            setListOfIdsProperty(object, field, value);
-        }
-
-        field.set(object, value);
-    }
-
-    private <T> void setIdRefProperty(Repository r, T object, Field field, Object value) throws IllegalAccessException {
-        field.set(object, IdRef.parse(r, HttpVerb.GET, (String) value));
-    }
-
-    private <T> void setIntProperty(T object, Field field, Object value) throws IllegalAccessException {
-        field.set(object, ((Long) value).intValue());
-    }
-
-    private <T> void setTextProperty(T object, Field field, Object value) throws IllegalAccessException {
-        field.set(object, ((Text) value).getValue());
+        return value;
     }
 
-    private <T> void setJsonProperty(Repository r, T object, Field field, Object value) throws IllegalAccessException {
-        String json = ((Text) value).getValue();
-        field.set(object, JsonUtils.from(r, json, field.getGenericType()));
-    }
-
-    private <T> void setLazyJsonProperty(T object, Field field, Object value) throws IllegalAccessException {
-        String json = ((Text) value).getValue();
-        Type type = ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
-        field.set(object, LazyJson.$create(type, json));
-    }
-
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    private <T> void setEnumProperty(T object, Field field, Object value) throws IllegalAccessException {
-        field.set(object, Enum.valueOf((Class) field.getType(), value.toString()));
-    }
-
-    private <T> void setListOfIdsProperty(T object, Field field, Object value) throws IllegalAccessException {
-        List<String> uris = (List<String>) value;
-        List<IdRef<?>> ids = new ArrayList<>(uris.size());
-        Class<?> listGenericClazz = ReflectionUtils.getListGenericType(field.getGenericType());
-
-        for (String uri : uris) {
-            ids.add(r.parseId(listGenericClazz, uri));
-        }
-
-        field.set(object, ids);
-    }
 }
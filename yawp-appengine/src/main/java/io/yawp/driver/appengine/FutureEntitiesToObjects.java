@@ -0,0 +1,49 @@
+package io.yawp.driver.appengine;
+
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.utils.FutureWrapper;
+import io.yawp.repository.IdRef;
+import io.yawp.repository.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+public class FutureEntitiesToObjects<T> extends FutureWrapper<Map<Key, Entity>, List<T>> {
+
+    private final Repository r;
+
+    private final List<IdRef<T>> ids;
+
+    private final List<Key> keys;
+
+    public FutureEntitiesToObjects(Repository r, List<IdRef<T>> ids, List<Key> keys, Future<Map<Key, Entity>> future) {
+        super(future);
+        this.r = r;
+        this.ids = ids;
+        this.keys = keys;
+    }
+
+    @Override
+    protected List<T> wrap(Map<Key, Entity> entities) throws Exception {
+        return toObjects(new EntityToObjectConverter(r), ids, keys, entities);
+    }
+
+    @Override
+    protected Throwable convertException(Throwable t) {
+        return t;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> List<T> toObjects(EntityToObjectConverter toObject, List<IdRef<T>> ids, List<Key> keys, Map<Key, Entity> entities) {
+        List<T> objects = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Entity entity = entities.get(keys.get(i));
+            objects.add(entity == null ? null : (T) toObject.convert(ids.get(i).getModel(), entity));
+        }
+        return objects;
+    }
+
+}
@@ -4,7 +4,7 @@ import com.google.appengine.api.datastore.Entity;
 import com.google.appengine.api.datastore.EntityNotFoundException;
 import com.google.appengine.api.utils.FutureWrapper;
 import io.yawp.repository.Repository;
-import io.yawp.repository.models.ObjectModel;
+import io.yawp.repository.models.ModelRegistry;
 
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -26,7 +26,7 @@ public class FutureEntityToObject<T> extends FutureWrapper<Entity, T> {
     @Override
     protected T wrap(Entity entity) throws Exception {
         EntityToObjectConverter toObject = new EntityToObjectConverter(r);
-        return (T) toObject.convert(new ObjectModel(clazz), entity);
+        return (T) toObject.convert(ModelRegistry.get(clazz), entity);
     }
 
     @Override
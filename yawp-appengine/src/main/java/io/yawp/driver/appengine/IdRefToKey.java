@@ -3,6 +3,7 @@ package io.yawp.driver.appengine;
 import io.yawp.commons.utils.NameGenerator;
 import io.yawp.commons.utils.kind.KindResolver;
 import io.yawp.repository.IdRef;
+import io.yawp.repository.models.ModelRegistry;
 import io.yawp.repository.models.ObjectModel;
 import io.yawp.repository.Repository;
 
@@ -82,7 +83,7 @@ public class IdRefToKey {
     private static ObjectModel createParentModel(Repository r, Key key) {
         String parentKind = key.getParent().getKind();
         Class<?> parentClazz = r.getClazzByKind(parentKind);
-        return new ObjectModel(parentClazz);
+        return ModelRegistry.get(parentClazz);
     }
 
 }
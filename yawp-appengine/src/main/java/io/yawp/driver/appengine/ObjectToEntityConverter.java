@@ -0,0 +1,47 @@
+package io.yawp.driver.appengine;
+
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.Text;
+import io.yawp.repository.models.FieldConverter;
+import io.yawp.repository.models.ObjectHolder;
+
+public class ObjectToEntityConverter {
+
+    private static final String NORMALIZED_FIELD_PREFIX = "__";
+
+    public void convert(ObjectHolder objectHolder, Entity entity) {
+        Object object = objectHolder.getObject();
+
+        for (FieldConverter converter : FieldConverter.of(objectHolder.getModel())) {
+            write(converter, object, entity);
+        }
+    }
+
+    private void write(FieldConverter converter, Object object, Entity entity) {
+        String name = converter.getName();
+        Object value = getValue(converter, object);
+
+        switch (converter.getIndexType()) {
+            case NONE:
+                entity.setUnindexedProperty(name, value);
+                break;
+            case NORMALIZED:
+                entity.setProperty(NORMALIZED_FIELD_PREFIX + name, FieldConverter.normalize(value));
+                entity.setUnindexedProperty(name, value);
+                break;
+            default:
+                entity.setProperty(name, value);
+        }
+    }
+
+    private Object getValue(FieldConverter converter, Object object) {
+        Object value = converter.getValue(object);
+
+        if (value != null && converter.getKind().isText()) {
+            return new Text(value.toString());
+        }
+
+        return value;
+    }
+
+}
@@ -11,9 +11,9 @@ public class CacheHelper {
 
     private static final String LOCK_PREFIX = "__yawp-pipe-lock";
 
-    public static final long POW_2_16 = (long) Math.pow(2, 16);
+    private static final String CLAIM_PREFIX = "__yawp-pipe-claim";
 
-    public static final long POW_2_15 = (long) Math.pow(2, 15);
+    private static final String RATE_PREFIX = "__yawp-pipe-rate";
 
     private CacheHelper() {
     }
@@ -30,6 +30,14 @@ public class CacheHelper {
         return String.format("%s-%s-%d", LOCK_PREFIX, sinkUri, index);
     }
 
+    public static String createClaimCacheKey(String sinkUri, Integer index) {
+        return String.format("%s-%s-%d", CLAIM_PREFIX, sinkUri, index);
+    }
+
+    public static String createRateCacheKey(String sinkUri) {
+        return String.format("%s-%s", RATE_PREFIX, sinkUri);
+    }
+
     public static String getSinkGroupUri(IdRef<?> sinkId) {
         IdRef<?> sinkGroupId = sinkId;
         while (sinkGroupId.getParentId() != null) {
@@ -8,17 +8,31 @@ import io.yawp.repository.IdRef;
 import io.yawp.repository.Repository;
 import io.yawp.repository.pipes.Pipe;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.logging.Logger;
 
 import static io.yawp.repository.Yawp.yawp;
 
+/**
+ * Enqueues one fork task per sink of the source. Sources with more sinks than a task
+ * can fork in one queue call are split into child fanout tasks carrying their sink uris,
+ * so neither the save request nor a single fanout task grows with the number of sinks.
+ */
 public class FanoutTask implements DeferredTask {
 
+    private static final long serialVersionUID = 8271607871008303291L;
+
     private final static Logger logger = Logger.getLogger(FanoutTask.class.getName());
 
+    private static final int SINKS_PER_TASK = 100;
+
     private Payload payload;
 
+    private ArrayList<String> sinkUris;
+
     private transient Repository r;
 
     private transient Pipe pipe;
@@ -29,6 +43,11 @@ public class FanoutTask implements DeferredTask {
         this.payload = payload;
     }
 
+    private FanoutTask(Payload payload, ArrayList<String> sinkUris) {
+        this.payload = payload;
+        this.sinkUris = sinkUris;
+    }
+
     @Override
     public void run() {
         init();
@@ -43,16 +62,43 @@ public class FanoutTask implements DeferredTask {
     }
 
     private void log() {
-        logger.info(String.format("fanout-task - pipe: %s", payload.getPipeClazz().getName()));
+        logger.info(String.format("fanout-task - pipe: %s, sinks: %s", payload.getPipeClazz().getName(), sinkUris == null ? "all" : sinkUris.size()));
     }
 
     private void fanout() {
         Queue queue = QueueHelper.getPipeForkQueue(pipe);
 
-        for (IdRef<?> sinkId : getSinkIds()) {
-            payload.setSinkUri(sinkId);
-            queue.add(TaskOptions.Builder.withPayload(new ForkTask(payload)));
+        if (sinkUris != null) {
+            enqueueUris(queue, payload, sinkUris);
+            return;
         }
+        enqueue(queue, payload, getSinkIds());
+    }
+
+    public static void enqueue(Queue queue, Payload payload, Collection<? extends IdRef<?>> sinkIds) {
+        List<String> sinkUris = new ArrayList<>();
+        for (IdRef<?> sinkId : sinkIds) {
+            sinkUris.add(sinkId.getUri());
+        }
+        enqueueUris(queue, payload, sinkUris);
+    }
+
+    private static void enqueueUris(Queue queue, Payload payload, List<String> sinkUris) {
+        List<TaskOptions> tasks = new ArrayList<>();
+
+        if (sinkUris.size() <= SINKS_PER_TASK) {
+            for (String sinkUri : sinkUris) {
+                payload.setSinkUri(sinkUri);
+                tasks.add(TaskOptions.Builder.withPayload(new ForkTask(payload)));
+            }
+        } else {
+            for (int start = 0; start < sinkUris.size(); start += SINKS_PER_TASK) {
+                List<String> chunk = sinkUris.subList(start, Math.min(start + SINKS_PER_TASK, sinkUris.size()));
+                tasks.add(TaskOptions.Builder.withPayload(new FanoutTask(payload, new ArrayList<>(chunk))));
+            }
+        }
+
+        QueueHelper.add(queue, tasks);
     }
 
     private Set<IdRef<?>> getSinkIds() {
@@ -9,11 +9,14 @@ import io.yawp.repository.pipes.Pipe;
 
 import java.util.logging.Logger;
 
-import static io.yawp.driver.appengine.pipes.flow.CacheHelper.*;
+import static io.yawp.driver.appengine.pipes.flow.CacheHelper.createIndexCacheKey;
+import static io.yawp.driver.appengine.pipes.flow.CacheHelper.createIndexHash;
 import static io.yawp.repository.Yawp.yawp;
 
 public class ForkTask implements DeferredTask {
 
+    private static final long serialVersionUID = 2167332553847743670L;
+
     private final static Logger logger = Logger.getLogger(ForkTask.class.getName());
 
     private Payload payload;
@@ -56,22 +59,22 @@ public class ForkTask implements DeferredTask {
 
     private boolean fork() {
         Integer index = getIndexSemaphore();
-        String lockCacheKey = createLockCacheKey(sinkGroupUri, index);
-
-        if (!tryToLock(lockCacheKey)) {
-            return false;
-        }
-
-        saveWork(createIndexHash(sinkGroupUri, index));
+        JoinLock lock = new JoinLock(memcache, sinkGroupUri, index);
 
         try {
+            if (!lock.enter()) {
+                return false;
+            }
 
+            saveWork(createIndexHash(sinkGroupUri, index));
             enqueue(createForkJoinTask(index));
 
         } catch (TaskAlreadyExistsException e) {
             // fan-in
         } finally {
-            memcache.increment(lockCacheKey, -1);
+            if (lock.exit()) {
+                enqueue(TaskOptions.Builder.withPayload(JoinTask.drained(payload.getNs(), payload.getPipeClazz(), sinkGroupUri, index)));
+            }
         }
 
         return true;
@@ -84,8 +87,9 @@ public class ForkTask implements DeferredTask {
 
     private TaskOptions createForkJoinTask(Integer index) {
         long now = System.currentTimeMillis();
-        return TaskOptions.Builder.withPayload(new JoinTask(payload.getNs(), sinkGroupUri, index))
-                .taskName(taskName(index, now)).etaMillis(now + 1000);
+        long delay = new JoinSchedule(memcache, sinkGroupUri).getDelayMillis();
+        return TaskOptions.Builder.withPayload(new JoinTask(payload.getNs(), payload.getPipeClazz(), sinkGroupUri, index))
+                .taskName(taskName(index, now)).etaMillis(now + delay);
     }
 
     private String taskName(Integer index, long now) {
@@ -103,15 +107,6 @@ public class ForkTask implements DeferredTask {
         return index;
     }
 
-    private boolean tryToLock(String lock) {
-        long writers = memcache.increment(lock, 1, POW_2_16);
-        if (writers < POW_2_16) {
-            memcache.increment(lock, -1);
-            return false;
-        }
-        return true;
-    }
-
     private void saveWork(String indexHash) {
         Work work = new Work(indexHash, payload);
         r.save(work);
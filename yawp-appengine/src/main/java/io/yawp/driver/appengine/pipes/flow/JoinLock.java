@@ -0,0 +1,61 @@
+package io.yawp.driver.appengine.pipes.flow;
+
+import com.google.appengine.api.memcache.MemcacheService;
+
+/**
+ * Counts the fork tasks writing works to one index of a sink group. The counter starts at
+ * {@link #OPEN} and each writer holds one unit of it while it saves its work. The join task
+ * seals the index by taking {@link #SEALED} away from it, so later writers are turned away,
+ * and the writer that leaves a sealed index last signals that the index is drained.
+ */
+public class JoinLock {
+
+    private static final long OPEN = 1L << 16;
+
+    private static final long SEALED = 1L << 15;
+
+    private final MemcacheService memcache;
+
+    private final String key;
+
+    public JoinLock(MemcacheService memcache, String sinkGroupUri, Integer index) {
+        this.memcache = memcache;
+        this.key = CacheHelper.createLockCacheKey(sinkGroupUri, index);
+    }
+
+    /**
+     * Enters the index as a writer. It must be followed by {@link #exit()}, even when the
+     * index turns out to be sealed.
+     *
+     * @return false if the index is already sealed.
+     */
+    public boolean enter() {
+        return memcache.increment(key, 1, OPEN) >= OPEN;
+    }
+
+    /**
+     * @return true if the index is sealed and this was its last writer.
+     */
+    public boolean exit() {
+        Long writers = memcache.increment(key, -1);
+        return writers != null && isDrained(writers);
+    }
+
+    /**
+     * An evicted counter is taken as drained, as nothing would ever signal it.
+     *
+     * @return true if the index has no writers left, so its works can be joined right away.
+     */
+    public boolean seal() {
+        return isDrained(memcache.increment(key, -SEALED));
+    }
+
+    public void delete() {
+        memcache.delete(key);
+    }
+
+    private boolean isDrained(Long writers) {
+        return writers == null || writers <= SEALED;
+    }
+
+}
@@ -0,0 +1,53 @@
+package io.yawp.driver.appengine.pipes.flow;
+
+import com.google.appengine.api.memcache.MemcacheService;
+
+/**
+ * Adapts the joins of a sink group to the number of works its last joins collected. A
+ * quiet group is joined almost right away, while a busy one waits longer so that each join
+ * folds more works into one transaction. A join takes at most {@link #MAX_BATCH_SIZE} works
+ * and leaves the rest to a follow-up join.
+ */
+public class JoinSchedule {
+
+    public static final int MAX_BATCH_SIZE = 100;
+
+    private static final long MIN_DELAY = 100;
+
+    private static final long MAX_DELAY = 1000;
+
+    private static final double WEIGHT = 0.25;
+
+    private final MemcacheService memcache;
+
+    private final String key;
+
+    public JoinSchedule(MemcacheService memcache, String sinkGroupUri) {
+        this.memcache = memcache;
+        this.key = CacheHelper.createRateCacheKey(sinkGroupUri);
+    }
+
+    public long getDelayMillis() {
+        Double average = (Double) memcache.get(key);
+        if (average == null) {
+            return MIN_DELAY;
+        }
+        double load = Math.min(average, MAX_BATCH_SIZE) / MAX_BATCH_SIZE;
+        return MIN_DELAY + (long) ((MAX_DELAY - MIN_DELAY) * load);
+    }
+
+    /**
+     * Folds the size of a join into the moving average of the group. Concurrent joins of a
+     * group may overwrite each other, which only makes the average a little less exact.
+     */
+    public void record(int works) {
+        Double average = (Double) memcache.get(key);
+        if (average == null) {
+            average = (double) works;
+        } else {
+            average = average * (1 - WEIGHT) + works * WEIGHT;
+        }
+        memcache.put(key, average);
+    }
+
+}
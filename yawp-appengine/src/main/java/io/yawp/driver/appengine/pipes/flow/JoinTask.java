@@ -3,96 +3,180 @@ package io.yawp.driver.appengine.pipes.flow;
 import com.google.appengine.api.memcache.MemcacheService;
 import com.google.appengine.api.memcache.MemcacheServiceFactory;
 import com.google.appengine.api.taskqueue.DeferredTask;
+import com.google.appengine.api.taskqueue.Queue;
+import com.google.appengine.api.taskqueue.TaskOptions;
+import io.yawp.commons.metrics.Metrics;
+import io.yawp.commons.utils.ReflectionUtils;
+import io.yawp.driver.appengine.pipes.utils.QueueHelper;
 import io.yawp.repository.Repository;
+import io.yawp.repository.pipes.Pipe;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
-import static io.yawp.driver.appengine.pipes.flow.CacheHelper.POW_2_15;
 import static io.yawp.repository.Yawp.yawp;
 
+/**
+ * Joins the works of one index of a sink group. The scheduled join seals the index and
+ * runs at once if no fork is still writing to it. Otherwise the last fork to leave the
+ * index enqueues a drained join, and a delayed drained join covers forks that never do.
+ * Only one join of an index claims its works at a time, the others are no-ops.
+ * <p>
+ * Joins enqueued before the pipe was recorded in the task are still read, as the
+ * serialVersionUID is the one they were written with, and go to the default queue.
+ * <p>
+ * Each joined work is recorded in the yawp.pipes.&lt;pipe&gt;.lag timer, whose count is the
+ * throughput of the pipe and whose mean and max are the time works wait to be joined.
+ */
 public class JoinTask implements DeferredTask {
 
+    private static final long serialVersionUID = 671382044952951175L;
+
     private final static Logger logger = Logger.getLogger(JoinTask.class.getName());
 
-    private static final int BUSY_WAIT_TIMES = 20;
+    private static final String LAG_TIMER = "yawp.pipes.%s.lag";
 
-    private static final int BUSY_WAIT_SLEEP = 250;
+    private static final long DRAIN_TIMEOUT = 5000;
 
     private String ns;
 
+    private String pipeClazzName;
+
     private String sinkGroupUri;
 
     private Integer index;
 
+    private boolean drained;
+
     private transient Repository r;
 
     private transient String indexCacheKey;
 
-    private transient String lockCacheKey;
+    private transient String claimCacheKey;
 
     private transient String indexHash;
 
     private transient MemcacheService memcache;
 
-    public JoinTask(String ns, String sinkGroupUri, Integer index) {
+    private transient JoinLock lock;
+
+    private transient JoinSchedule schedule;
+
+    public JoinTask(String ns, Class<? extends Pipe> pipeClazz, String sinkGroupUri, Integer index) {
+        this(ns, pipeClazz.getName(), sinkGroupUri, index, false);
+    }
+
+    private JoinTask(String ns, String pipeClazzName, String sinkGroupUri, Integer index, boolean drained) {
         this.ns = ns;
+        this.pipeClazzName = pipeClazzName;
         this.sinkGroupUri = sinkGroupUri;
         this.index = index;
+        this.drained = drained;
+    }
+
+    /**
+     * Creates the join of an index that is sealed and has no writers left.
+     */
+    public static JoinTask drained(String ns, Class<? extends Pipe> pipeClazz, String sinkGroupUri, Integer index) {
+        return new JoinTask(ns, pipeClazz.getName(), sinkGroupUri, index, true);
     }
 
     @Override
     public void run() {
         init();
         log();
-        join();
+        if (drained || seal()) {
+            join();
+        }
     }
 
     private void init() {
         this.r = yawp().namespace(ns);
         this.memcache = MemcacheServiceFactory.getMemcacheService(ns);
         this.indexCacheKey = CacheHelper.createIndexCacheKey(sinkGroupUri);
-        this.lockCacheKey = CacheHelper.createLockCacheKey(sinkGroupUri, index);
+        this.claimCacheKey = CacheHelper.createClaimCacheKey(sinkGroupUri, index);
         this.indexHash = CacheHelper.createIndexHash(sinkGroupUri, index);
+        this.lock = new JoinLock(memcache, sinkGroupUri, index);
+        this.schedule = new JoinSchedule(memcache, sinkGroupUri);
     }
 
     private void log() {
-        logger.info(String.format("join-task - sinkGroupId: %s", sinkGroupUri));
+        logger.info(String.format("join-task - sinkGroupId: %s, drained: %b", sinkGroupUri, drained));
     }
 
-    private void join() {
+    private boolean seal() {
         memcache.increment(indexCacheKey, 1);
-        memcache.increment(lockCacheKey, -1 * POW_2_15);
 
-        busyWaitForWriters(BUSY_WAIT_TIMES, BUSY_WAIT_SLEEP);
-        execute();
+        if (lock.seal()) {
+            return true;
+        }
+
+        enqueueDrained(DRAIN_TIMEOUT);
+        return false;
     }
 
-    private void execute() {
-        WorksExecutor works = new WorksExecutor(r, listWorks());
+    private void join() {
+        if (memcache.increment(claimCacheKey, 1, 0L) != 1L) {
+            return;
+        }
 
-        works.execute();
-        memcache.delete(lockCacheKey);
-        works.destroy();
+        List<Work> works;
+        try {
+            works = listWorks();
+            execute(works);
+        } finally {
+            memcache.delete(claimCacheKey);
+        }
+
+        if (works.size() == JoinSchedule.MAX_BATCH_SIZE) {
+            enqueueDrained(0);
+        } else {
+            lock.delete();
+        }
     }
 
+    private void execute(List<Work> works) {
+        if (works.isEmpty()) {
+            return;
+        }
+
+        WorksExecutor executor = new WorksExecutor(r, works);
+
+        executor.execute();
+        executor.destroy();
+
+        schedule.record(works.size());
+        recordLag(works);
+    }
 
     private List<Work> listWorks() {
-        return r.query(Work.class).where("indexHash", "=", indexHash).order("id").list();
+        return r.query(Work.class).where("indexHash", "=", indexHash).order("id").limit(JoinSchedule.MAX_BATCH_SIZE).list();
     }
 
-    private void busyWaitForWriters(int times, int sleep) {
-        for (int i = 0; i < times; i++) {
-            Long counter = (Long) memcache.get(lockCacheKey);
-            if (counter == null || counter < POW_2_15) {
-                break;
-            }
-            try {
-                Thread.sleep(sleep);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException(e);
-            }
+    private void recordLag(List<Work> works) {
+        long now = System.currentTimeMillis();
+        for (Work work : works) {
+            String timer = String.format(LAG_TIMER, work.getPipeClazz().getName());
+            Metrics.timer(timer).record(TimeUnit.MILLISECONDS.toNanos(now - work.getTimestamp()));
         }
     }
+
+    private void enqueueDrained(long countdownMillis) {
+        JoinTask task = new JoinTask(ns, pipeClazzName, sinkGroupUri, index, true);
+        getQueue().add(TaskOptions.Builder.withPayload(task).countdownMillis(countdownMillis));
+    }
+
+    private Queue getQueue() {
+        if (pipeClazzName == null) {
+            return QueueHelper.getDefaultQueue();
+        }
+        return QueueHelper.getPipeJoinQueue(Pipe.newInstance(r, getPipeClazz()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<? extends Pipe> getPipeClazz() {
+        return (Class<? extends Pipe>) ReflectionUtils.clazzForName(pipeClazzName);
+    }
+
 }
@@ -7,14 +7,59 @@ import io.yawp.repository.models.ObjectHolder;
 import io.yawp.repository.pipes.Pipe;
 import io.yawp.repository.pipes.SourceMarker;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import static io.yawp.repository.Yawp.yawp;
 
+/**
+ * The source of a pipe flow, carried by its fanout and fork tasks and stored in its works.
+ * <p>
+ * Tasks serialize it in a compact binary form: a version byte and a list of tagged fields
+ * closed by {@link #END}, where absent fields are left out. Strings are UTF-8 with a varint
+ * length, and the ones above {@link #DEFLATE_THRESHOLD} bytes are deflated when that makes
+ * them smaller. The source marker is reduced to its version.
+ * <p>
+ * Tasks and works written before this form carry the default serialized fields and the
+ * source marker json instead, and are still read.
+ */
 public class Payload implements Serializable {
 
     private static final long serialVersionUID = 8871524196612530063L;
 
+    private static final ObjectStreamField[] serialPersistentFields = {};
+
+    private static final int VERSION = 1;
+
+    private static final int DEFLATE_THRESHOLD = 256;
+
+    private static final int END = 0;
+
+    private static final int NS = 1;
+
+    private static final int PIPE_CLAZZ = 2;
+
+    private static final int SOURCE = 3;
+
+    private static final int OLD_SOURCE = 4;
+
+    private static final int SINK_URI = 5;
+
+    private static final int SOURCE_VERSION = 6;
+
+    private static final int PRESENT = 7;
+
     private String ns;
 
     private String pipeClazzName;
@@ -25,6 +70,8 @@ public class Payload implements Serializable {
 
     private String sinkUri;
 
+    private Long sourceVersion;
+
     private String sourceMarkerJson;
 
     private boolean present;
@@ -37,10 +84,6 @@ public class Payload implements Serializable {
 
     private transient IdRef<?> sinkId;
 
-    private transient SourceMarker sourceMarker;
-
-    private IdRef<?> sourceId;
-
     public String getNs() {
         return ns;
     }
@@ -96,20 +139,23 @@ public class Payload implements Serializable {
     }
 
     public void setSinkUri(IdRef<?> sinkId) {
-        this.sinkUri = sinkId.getUri();
+        setSinkUri(sinkId.getUri());
+    }
+
+    public void setSinkUri(String sinkUri) {
+        this.sinkUri = sinkUri;
         this.sinkId = null;
     }
 
-    public SourceMarker getSourceMarker() {
-        if (sourceMarker == null) {
-            sourceMarker = JsonUtils.from(yawp(), sourceMarkerJson, SourceMarker.class);
+    public Long getSourceVersion() {
+        if (sourceVersion == null && sourceMarkerJson != null) {
+            sourceVersion = JsonUtils.from(yawp(), sourceMarkerJson, SourceMarker.class).getVersion();
         }
-        return sourceMarker;
+        return sourceVersion;
     }
 
-    public void setSourceMarkerJson(SourceMarker sourceMarkerJson) {
-        this.sourceMarkerJson = JsonUtils.to(sourceMarkerJson);
-        this.sourceMarker = null;
+    public void setSourceMarker(SourceMarker sourceMarker) {
+        this.sourceVersion = sourceMarker.getVersion();
     }
 
     public boolean isPresent() {
@@ -136,4 +182,167 @@ public class Payload implements Serializable {
         return CacheHelper.getSinkGroupUri(getSinkId());
     }
 
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeByte(VERSION);
+        writeString(out, NS, ns);
+        writeString(out, PIPE_CLAZZ, pipeClazzName);
+        writeString(out, SOURCE, sourceJson);
+        writeString(out, OLD_SOURCE, oldSourceJson);
+        writeString(out, SINK_URI, sinkUri);
+        if (getSourceVersion() != null) {
+            out.writeByte(SOURCE_VERSION);
+            out.writeLong(sourceVersion);
+        }
+        if (present) {
+            out.writeByte(PRESENT);
+        }
+        out.writeByte(END);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        if (fields.getObjectStreamClass().getField("pipeClazzName") != null) {
+            readLegacyFields(fields);
+            return;
+        }
+
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new InvalidObjectException("Unknown payload version: " + version);
+        }
+
+        for (int tag = in.readUnsignedByte(); tag != END; tag = in.readUnsignedByte()) {
+            switch (tag) {
+                case NS:
+                    ns = readString(in);
+                    break;
+                case PIPE_CLAZZ:
+                    pipeClazzName = readString(in);
+                    break;
+                case SOURCE:
+                    sourceJson = readString(in);
+                    break;
+                case OLD_SOURCE:
+                    oldSourceJson = readString(in);
+                    break;
+                case SINK_URI:
+                    sinkUri = readString(in);
+                    break;
+                case SOURCE_VERSION:
+                    sourceVersion = in.readLong();
+                    break;
+                case PRESENT:
+                    present = true;
+                    break;
+                default:
+                    throw new InvalidObjectException("Unknown payload field: " + tag);
+            }
+        }
+    }
+
+    private void readLegacyFields(ObjectInputStream.GetField fields) throws IOException {
+        ns = (String) fields.get("ns", null);
+        pipeClazzName = (String) fields.get("pipeClazzName", null);
+        sourceJson = (String) fields.get("sourceJson", null);
+        oldSourceJson = (String) fields.get("oldSourceJson", null);
+        sinkUri = (String) fields.get("sinkUri", null);
+        sourceMarkerJson = (String) fields.get("sourceMarkerJson", null);
+        present = fields.get("present", false);
+    }
+
+    /**
+     * The lowest bit of the length tells whether the bytes are deflated.
+     */
+    private static void writeString(DataOutput out, int tag, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        boolean deflated = false;
+
+        if (bytes.length > DEFLATE_THRESHOLD) {
+            byte[] deflatedBytes = deflate(bytes);
+            if (deflatedBytes.length < bytes.length) {
+                bytes = deflatedBytes;
+                deflated = true;
+            }
+        }
+
+        out.writeByte(tag);
+        writeVarint(out, bytes.length << 1 | (deflated ? 1 : 0));
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = readVarint(in);
+        byte[] bytes = new byte[length >>> 1];
+        in.readFully(bytes);
+
+        if ((length & 1) != 0) {
+            bytes = inflate(bytes);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarint(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte(value & 0x7f | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarint(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new InvalidObjectException("Malformed payload varint");
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 4);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && inflater.needsInput()) {
+                    throw new InvalidObjectException("Truncated payload string");
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new InvalidObjectException(e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
 }
@@ -8,7 +8,6 @@ import io.yawp.repository.annotations.Index;
 import io.yawp.repository.annotations.Json;
 import io.yawp.repository.pipes.Pipe;
 import io.yawp.repository.pipes.SinkMarker;
-import io.yawp.repository.pipes.SourceMarker;
 
 import java.util.logging.Logger;
 
@@ -56,11 +55,11 @@ public class Work {
         }
 
         sinkMarker.setPresent(payload.isPresent());
-        sinkMarker.setVersion(payload.getSourceMarker().getVersion());
+        sinkMarker.setVersion(payload.getSourceVersion());
     }
 
     private void log() {
-        logger.info(String.format("join-work - pipe: %s, sourceId: %s, version: %d", payload.getPipeClazz().getName(), payload.getSourceId().getUri(), payload.getSourceMarker().getVersion()));
+        logger.info(String.format("join-work - pipe: %s, sourceId: %s, version: %d", payload.getPipeClazz().getName(), payload.getSourceId().getUri(), payload.getSourceVersion()));
     }
 
     private void rememberSourceInSinkMarker(SinkMarker sinkMarker) {
@@ -72,27 +71,15 @@ public class Work {
     }
 
     public IdRef<SinkMarker> createSinkMarkerId() {
-        IdRef<?> sourceId = payload.getSourceId();
-        IdRef<?> sinkId = payload.getSinkId();
-
-        IdRef<SinkMarker> sinkMarkerId;
-        if (sourceId.getId() != null) {
-            sinkMarkerId = IdRef.create(yawp(), SinkMarker.class, sourceId.getId());
-            sinkMarkerId.setParentId(sinkId.createChildId(sourceId.getClazz(), sourceId.getId()));
-        } else {
-            sinkMarkerId = IdRef.create(yawp(), SinkMarker.class, sourceId.getName());
-            sinkMarkerId.setParentId(sinkId.createChildId(sourceId.getClazz(), sourceId.getName()));
-        }
-
-        return sinkMarkerId;
+        return SinkMarker.createId(yawp(), payload.getPipeClazz(), payload.getSinkId(), payload.getSourceId());
     }
 
-    public SourceMarker getSourceMarker() {
-        return payload.getSourceMarker();
+    public IdRef<SinkMarker> createSharedSinkMarkerId() {
+        return SinkMarker.createSharedId(yawp(), payload.getSinkId(), payload.getSourceId());
     }
 
     public Long getSourceVersion() {
-        return payload.getSourceMarker().getVersion();
+        return payload.getSourceVersion();
     }
 
     public IdRef<Work> getId() {
@@ -103,6 +90,14 @@ public class Work {
         return payload.getSinkId();
     }
 
+    public Class<? extends Pipe> getPipeClazz() {
+        return payload.getPipeClazz();
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
     public void setTimestamp(long timestamp) {
         this.timestamp = timestamp;
     }
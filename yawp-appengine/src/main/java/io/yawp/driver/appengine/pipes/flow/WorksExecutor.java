@@ -1,49 +1,45 @@
 package io.yawp.driver.appengine.pipes.flow;
 
-import io.yawp.repository.AsyncRepository;
 import io.yawp.repository.FutureObject;
 import io.yawp.repository.IdRef;
 import io.yawp.repository.Repository;
 import io.yawp.repository.models.ObjectHolder;
 import io.yawp.repository.pipes.SinkMarker;
-import io.yawp.repository.query.NoResultException;
 
 import java.util.*;
 import java.util.logging.Logger;
 
-import static io.yawp.repository.Yawp.yawp;
-
+/**
+ * Executes the works of a join in one transaction. The sink markers and the sinks of all
+ * works, along with the markers shared by all pipes of their sources, are read with two
+ * concurrent batch gets, and the changed ones are written back with one batch save per kind,
+ * so a join costs the same round trips whatever its number of works.
+ */
 public class WorksExecutor {
 
     private final static Logger logger = Logger.getLogger(WorksExecutor.class.getName());
 
-    private String ns;
-
     private final List<Work> works;
 
     private Repository r;
 
-    private AsyncRepository async;
-
     private Map<IdRef<?>, Object> sinkCache = new HashMap<>();
 
-    private Set<IdRef<?>> sinksToSave = new HashSet<>();
+    private Set<IdRef<?>> sinksToSave = new LinkedHashSet<>();
 
-    private Map<IdRef<SinkMarker>, FutureObject<SinkMarker>> sinkMarkerCache = new HashMap<>();
+    private Map<IdRef<SinkMarker>, SinkMarker> sinkMarkerCache = new HashMap<>();
 
-    private Set<IdRef<SinkMarker>> sinkMarkersToSave = new HashSet<>();
+    private Set<IdRef<SinkMarker>> sinkMarkersToSave = new LinkedHashSet<>();
 
     public WorksExecutor(Repository r, List<Work> works) {
         this.r = r;
         this.works = works;
-        this.r = yawp().namespace(ns);
-        this.async = r.async();
     }
 
     public void execute() {
         try {
             r.beginX();
-            cacheSinkMarkers();
+            prefetch();
             executeWorks();
             commitIfChanged();
         } finally {
@@ -54,9 +50,11 @@ public class WorksExecutor {
     }
 
     public void destroy() {
+        List<IdRef<?>> ids = new ArrayList<>();
         for (Work work : works) {
-            async.destroy(work.getId());
+            ids.add(work.getId());
         }
+        r.destroyAll(ids);
     }
 
     private void executeWorks() {
@@ -65,28 +63,73 @@ public class WorksExecutor {
         }
     }
 
-    private void cacheSinkMarkers() {
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void prefetch() {
+        Map<IdRef<SinkMarker>, IdRef<SinkMarker>> sinkMarkerIds = new LinkedHashMap<>();
+        Set<IdRef<?>> sinkIds = new LinkedHashSet<>();
+
         for (Work work : works) {
-            putSinkMarkerOnCache(work.createSinkMarkerId());
+            sinkMarkerIds.put(work.createSinkMarkerId(), work.createSharedSinkMarkerId());
+            sinkIds.add(work.getSinkId());
+        }
+
+        List<IdRef<SinkMarker>> sinkMarkerIdsList = new ArrayList<>(sinkMarkerIds.keySet());
+        sinkMarkerIdsList.addAll(sinkMarkerIds.values());
+        List<IdRef<Object>> sinkIdsList = new ArrayList(sinkIds);
+
+        FutureObject<List<SinkMarker>> futureSinkMarkers = r.async().fetch(sinkMarkerIdsList);
+        FutureObject<List<Object>> futureSinks = r.async().fetch(sinkIdsList);
+
+        cacheSinkMarkers(sinkMarkerIdsList, futureSinkMarkers.get(), sinkMarkerIds.size());
+        cacheSinks(sinkIdsList, futureSinks.get());
+    }
+
+    /**
+     * The ids hold the markers of the pipes followed by the shared markers of the same sources.
+     */
+    private void cacheSinkMarkers(List<IdRef<SinkMarker>> ids, List<SinkMarker> sinkMarkers, int size) {
+        for (int i = 0; i < size; i++) {
+            SinkMarker sinkMarker = sinkMarkers.get(i);
+            SinkMarker sharedSinkMarker = sinkMarkers.get(size + i);
+
+            if (sinkMarker == null) {
+                sinkMarker = sharedSinkMarker != null ? sharedSinkMarker.copy(ids.get(i)) : createSinkMarker(ids.get(i));
+            }
+            sinkMarkerCache.put(ids.get(i), sinkMarker);
+        }
+    }
+
+    private void cacheSinks(List<IdRef<Object>> ids, List<Object> sinks) {
+        for (int i = 0; i < ids.size(); i++) {
+            Object sink = sinks.get(i);
+            sinkCache.put(ids.get(i), sink != null ? sink : createSink(ids.get(i)));
         }
     }
 
+    /**
+     * Sinks that are pipe sources themselves are still saved one by one, as each of them has
+     * its own pipes to flow.
+     */
     private void commitIfChanged() {
         if (sinksToSave.isEmpty()) {
             r.rollback();
             return;
         }
 
-        for (IdRef<SinkMarker> id : sinkMarkersToSave) {
-            async.save(getSinkMarkerFromCache(id));
-        }
-
+        List<Object> sinks = new ArrayList<>();
         for (IdRef<?> sinkId : sinksToSave) {
             logSave(sinkId);
-            // TODO: support pipes at async repoistory operations
-            r.saveWithHooks(sinkCache.get(sinkId));
+            sinks.add(sinkCache.get(sinkId));
         }
 
+        List<SinkMarker> sinkMarkers = new ArrayList<>();
+        for (IdRef<SinkMarker> id : sinkMarkersToSave) {
+            sinkMarkers.add(sinkMarkerCache.get(id));
+        }
+
+        r.saveAll(sinkMarkers);
+        r.saveAllWithHooks(sinks);
+
         // TODO: destroy empty sinks?
         r.commit();
     }
@@ -97,62 +140,39 @@ public class WorksExecutor {
 
     private void executeIfLastVersion(Work work) {
         IdRef<SinkMarker> sinkMarkerId = work.createSinkMarkerId();
-        SinkMarker sinkMarker = getSinkMarkerFromCache(sinkMarkerId);
+        SinkMarker sinkMarker = sinkMarkerCache.get(sinkMarkerId);
 
         if (sinkMarker.getVersion() >= work.getSourceVersion()) {
             return;
         }
 
-        Object sink = getFromCacheOrFetchOrCreateSink(work.getSinkId());
+        Object sink = sinkCache.get(work.getSinkId());
         work.execute(sink, sinkMarker);
 
         sinksToSave.add(work.getSinkId());
         sinkMarkersToSave.add(sinkMarkerId);
     }
 
-    private Object getFromCacheOrFetchOrCreateSink(IdRef<?> sinkId) {
-        if (sinkCache.containsKey(sinkId)) {
-            return sinkCache.get(sinkId);
-        }
-
-        Object sink = fetchOrCreateSink(sinkId);
-        sinkCache.put(sinkId, sink);
-        return sink;
-    }
-
-    private Object fetchOrCreateSink(IdRef<?> sinkId) {
+    private Object createSink(IdRef<?> sinkId) {
         try {
-            return sinkId.fetch();
-        } catch (NoResultException e) {
-            try {
-                Object sink = sinkId.getClazz().newInstance();
-                ObjectHolder objectHolder = new ObjectHolder(sink);
-                objectHolder.setId(sinkId);
-                if (sinkId.getParentClazz() != null) {
-                    objectHolder.setParentId(sinkId.getParentId());
-                }
-                return sink;
-            } catch (InstantiationException | IllegalAccessException e1) {
-                throw new RuntimeException(e);
+            Object sink = sinkId.getClazz().newInstance();
+            ObjectHolder objectHolder = new ObjectHolder(sink);
+            objectHolder.setId(sinkId);
+            if (sinkId.getParentClazz() != null) {
+                objectHolder.setParentId(sinkId.getParentId());
             }
+            return sink;
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new RuntimeException(e);
         }
     }
 
-    private void putSinkMarkerOnCache(IdRef<SinkMarker> sinkMarkerId) {
-        FutureObject<SinkMarker> futureSinkMarker = async.fetch(sinkMarkerId);
-        sinkMarkerCache.put(sinkMarkerId, futureSinkMarker);
-    }
-
-    private SinkMarker getSinkMarkerFromCache(IdRef<SinkMarker> sinkMarkerId) {
-        SinkMarker sinkMarker = sinkMarkerCache.get(sinkMarkerId).get();
-        if (sinkMarker == null) {
-            sinkMarker = new SinkMarker();
-            sinkMarker.setId(sinkMarkerId);
-            sinkMarker.setParentId(sinkMarkerId.getParentId());
-            sinkMarker.setVersion(0L);
-            sinkMarker.setPresent(false);
-            sinkMarkerCache.put(sinkMarkerId, new FutureObject<SinkMarker>(sinkMarker));
-        }
+    private SinkMarker createSinkMarker(IdRef<SinkMarker> sinkMarkerId) {
+        SinkMarker sinkMarker = new SinkMarker();
+        sinkMarker.setId(sinkMarkerId);
+        sinkMarker.setParentId(sinkMarkerId.getParentId());
+        sinkMarker.setVersion(0L);
+        sinkMarker.setPresent(false);
         return sinkMarker;
     }
 
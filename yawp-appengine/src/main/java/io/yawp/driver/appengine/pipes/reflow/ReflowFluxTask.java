@@ -9,6 +9,7 @@ import io.yawp.repository.IdRef;
 import io.yawp.repository.Repository;
 import io.yawp.repository.models.ObjectHolder;
 import io.yawp.repository.pipes.Pipe;
+import io.yawp.repository.pipes.RepositoryPipes;
 import io.yawp.repository.pipes.pump.IdPump;
 import io.yawp.repository.query.NoResultException;
 
@@ -113,7 +114,7 @@ public class ReflowFluxTask implements DeferredTask {
             }
 
             pipe.forceSink(sinkId);
-            r.driver().pipes().flux(pipe, source);
+            r.driver().pipes().flux(pipe, source, RepositoryPipes.saveSourceMarker(r, source));
         }
     }
 
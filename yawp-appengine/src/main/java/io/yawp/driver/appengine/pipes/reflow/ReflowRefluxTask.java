@@ -10,6 +10,7 @@ import io.yawp.repository.Repository;
 import io.yawp.repository.models.ObjectHolder;
 import io.yawp.repository.models.ObjectModel;
 import io.yawp.repository.pipes.Pipe;
+import io.yawp.repository.pipes.RepositoryPipes;
 import io.yawp.repository.pipes.SinkMarker;
 import io.yawp.repository.query.QueryBuilder;
 
@@ -84,6 +85,10 @@ public class ReflowRefluxTask implements DeferredTask {
 
     private void refluxSources(List<SinkMarker> sinkMarkers) {
         for (SinkMarker sinkMarker : sinkMarkers) {
+            if (!SinkMarker.isOf(sinkMarker.getId(), pipeClazz)) {
+                continue;
+            }
+
             Object source = sinkMarker.getSourceId().fetch();
 
             Pipe pipe = newPipeInstance();
@@ -96,7 +101,7 @@ public class ReflowRefluxTask implements DeferredTask {
             }
 
             pipe.forceSink(sinkId);
-            r.driver().pipes().reflux(pipe, source);
+            r.driver().pipes().reflux(pipe, source, RepositoryPipes.saveSourceMarker(r, source));
         }
     }
 
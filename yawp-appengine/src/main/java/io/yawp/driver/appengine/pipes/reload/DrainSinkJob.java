@@ -59,7 +59,7 @@ public class DrainSinkJob extends Job3<Void, Class<? extends Pipe>, String, Stri
 
     private void destroySinkMarkers(List<? extends IdRef<?>> markerIds) {
         for (IdRef<?> id : markerIds) {
-            if (!id.getParentId().getClazz().equals(sourceClazz)) {
+            if (!id.getParentId().getClazz().equals(sourceClazz) || !SinkMarker.isOf(id, pipeClazz)) {
                 continue;
             }
             r.destroy(id);
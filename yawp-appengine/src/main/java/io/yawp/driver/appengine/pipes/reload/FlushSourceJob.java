@@ -5,6 +5,7 @@ import com.google.appengine.tools.pipeline.Value;
 import io.yawp.repository.IdRef;
 import io.yawp.repository.Repository;
 import io.yawp.repository.pipes.Pipe;
+import io.yawp.repository.pipes.RepositoryPipes;
 
 import static io.yawp.repository.Yawp.yawp;
 
@@ -38,7 +39,7 @@ public class FlushSourceJob extends Job2<Void, Class<? extends Pipe>, String> {
             r.begin();
             Pipe pipe = newPipeInstance();
             Object source = sourceId.fetch();
-            r.driver().pipes().flux(pipe, source);
+            r.driver().pipes().flux(pipe, source, RepositoryPipes.saveSourceMarker(r, source));
             r.commit();
         } finally {
             if (r.isTransationInProgress()) {
@@ -1,9 +1,13 @@
 package io.yawp.driver.appengine.pipes.utils;
 
 import com.google.appengine.api.taskqueue.Queue;
+import com.google.appengine.api.taskqueue.QueueConstants;
 import com.google.appengine.api.taskqueue.QueueFactory;
+import com.google.appengine.api.taskqueue.TaskOptions;
 import io.yawp.repository.pipes.Pipe;
 
+import java.util.List;
+
 public class QueueHelper {
 
     private QueueHelper() {
@@ -38,4 +42,14 @@ public class QueueHelper {
     public static Queue getPipeReflowQueue(Pipe pipe) {
         return getPipeQueue(pipe, pipe.getReflowQueue());
     }
+
+    /**
+     * Adds the tasks with as few calls as the queue api allows.
+     */
+    public static void add(Queue queue, List<TaskOptions> tasks) {
+        int batchSize = QueueConstants.maxTasksPerAdd();
+        for (int start = 0; start < tasks.size(); start += batchSize) {
+            queue.add(tasks.subList(start, Math.min(start + batchSize, tasks.size())));
+        }
+    }
 }
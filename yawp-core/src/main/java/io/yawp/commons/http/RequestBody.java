@@ -0,0 +1,137 @@
+package io.yawp.commons.http;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.yawp.commons.utils.JsonUtils;
+import io.yawp.repository.Repository;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+
+/**
+ * The request body, parsed at most once. When created from a reader, the json tree is
+ * parsed straight from it; the text is only read or rebuilt when a shield or a custom
+ * action asks for it as a string.
+ */
+public class RequestBody {
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private Reader reader;
+
+    private String json;
+
+    private JsonElement element;
+
+    private List<String> properties;
+
+    public RequestBody(String json) {
+        this.json = json;
+    }
+
+    public RequestBody(Reader reader) {
+        this.reader = reader;
+    }
+
+    public String getJson() {
+        if (json != null) {
+            return json;
+        }
+
+        if (reader != null) {
+            json = read();
+        } else if (element != null && !element.isJsonNull()) {
+            json = element.toString();
+        }
+        return json;
+    }
+
+    public boolean isBlank() {
+        return getElement().isJsonNull();
+    }
+
+    public boolean isJsonArray() {
+        return getElement().isJsonArray();
+    }
+
+    public List<String> getProperties() {
+        if (properties != null) {
+            return properties;
+        }
+
+        List<String> properties = new ArrayList<>();
+        JsonElement element = getElement();
+        if (element.isJsonObject()) {
+            for (Entry<String, JsonElement> property : ((JsonObject) element).entrySet()) {
+                properties.add(property.getKey());
+            }
+        }
+
+        this.properties = Collections.unmodifiableList(properties);
+        return this.properties;
+    }
+
+    public Object from(Repository r, Type type) {
+        return JsonUtils.from(r, getElement(), type);
+    }
+
+    public List<?> fromListRaw(Repository r, Type valueType) {
+        return JsonUtils.fromListRaw(r, getElement(), valueType);
+    }
+
+    /**
+     * @return the body as a list of the given class, a single object body becomes a
+     * singleton list and a blank one null.
+     */
+    public List<?> fromList(Repository r, Class<?> clazz) {
+        if (isBlank()) {
+            return null;
+        }
+
+        if (isJsonArray()) {
+            return JsonUtils.fromListRaw(r, getElement(), clazz);
+        }
+
+        return Collections.singletonList(from(r, clazz));
+    }
+
+    private JsonElement getElement() {
+        if (element != null) {
+            return element;
+        }
+
+        if (json != null) {
+            element = new JsonParser().parse(json);
+        } else if (reader != null) {
+            element = new JsonParser().parse(reader);
+            reader = null;
+        } else {
+            element = JsonNull.INSTANCE;
+        }
+
+        return element;
+    }
+
+    private String read() {
+        try {
+            StringBuilder sb = new StringBuilder();
+            char[] buffer = new char[BUFFER_SIZE];
+            int length;
+            while ((length = reader.read(buffer)) != -1) {
+                sb.append(buffer, 0, length);
+            }
+            reader = null;
+            return sb.toString();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
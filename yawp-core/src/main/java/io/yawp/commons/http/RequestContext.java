@@ -1,16 +1,17 @@
 package io.yawp.commons.http;
 
-import io.yawp.commons.utils.JsonUtils;
-
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
 
 public class RequestContext {
 
+    private static final String DEFAULT_ENCODING = "UTF-8";
+
     private HttpServletResponse resp;
 
     private HttpServletRequest req;
@@ -19,7 +20,7 @@ public class RequestContext {
 
     protected String uri;
 
-    protected String json;
+    protected RequestBody body;
 
     protected Map<String, String> params;
 
@@ -32,7 +33,7 @@ public class RequestContext {
 
         this.method = parseMethod();
         this.uri = parseUri();
-        this.json = parseJson();
+        this.body = parseBody();
         this.params = parseParams();
     }
 
@@ -57,7 +58,11 @@ public class RequestContext {
     }
 
     public String getJson() {
-        return json;
+        return body == null ? null : body.getJson();
+    }
+
+    public RequestBody getBody() {
+        return body;
     }
 
     public Map<String, String> getParams() {
@@ -80,11 +85,12 @@ public class RequestContext {
         return req.getRequestURI().substring(req.getServletPath().length());
     }
 
-    private String parseJson() {
+    private RequestBody parseBody() {
         try {
-            return JsonUtils.readJson(req.getReader());
+            String encoding = req.getCharacterEncoding();
+            return new RequestBody(new InputStreamReader(req.getInputStream(), encoding == null ? DEFAULT_ENCODING : encoding));
         } catch (IOException e) {
-            throw new RuntimeException();
+            throw new RuntimeException(e);
         }
     }
 
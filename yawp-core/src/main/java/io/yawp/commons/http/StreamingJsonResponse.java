@@ -0,0 +1,128 @@
+package io.yawp.commons.http;
+
+import io.yawp.commons.utils.JsonUtils;
+import io.yawp.commons.utils.json.CustomJsonWriter;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Collection;
+
+/**
+ * Serializes the response object straight to the servlet writer. Collections are written
+ * element by element and flushed every {@link #FLUSH_INTERVAL} elements, so no content
+ * length is set and large results go out in chunks.
+ * <p>
+ * The first chunk is held back until it is fully serialized, so the response is not
+ * committed before then and an error in it still ends in a 500. An error in a later chunk
+ * can only cut the body short. The collection itself is already loaded in memory.
+ */
+public class StreamingJsonResponse extends HttpResponse {
+
+    private static final int FLUSH_INTERVAL = 100;
+
+    private Object object;
+
+    public StreamingJsonResponse(Object object) {
+        this.object = object;
+    }
+
+    public Object getObject() {
+        return object;
+    }
+
+    @Override
+    public String getText() {
+        StringWriter out = new StringWriter();
+        try {
+            write(out);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return out.toString();
+    }
+
+    @Override
+    public void execute(HttpServletResponse resp) throws IOException {
+        resp.setContentType("application/json;charset=UTF-8");
+        resp.setCharacterEncoding("UTF-8");
+        write(resp.getWriter());
+    }
+
+    private void write(Writer target) throws IOException {
+        FirstChunkWriter out = new FirstChunkWriter(target);
+        CustomJsonWriter writer = new CustomJsonWriter(out);
+        writer.setLenient(true);
+
+        if (object instanceof Collection) {
+            writeArray(writer, out, (Collection<?>) object);
+        } else {
+            JsonUtils.to(object, writer);
+        }
+
+        out.release();
+        writer.flush();
+    }
+
+    private void writeArray(CustomJsonWriter writer, FirstChunkWriter out, Collection<?> objects) throws IOException {
+        writer.beginArray();
+
+        int count = 0;
+        for (Object element : objects) {
+            JsonUtils.to(element, writer);
+            if (++count % FLUSH_INTERVAL == 0) {
+                out.release();
+                writer.flush();
+            }
+        }
+
+        writer.endArray();
+    }
+
+    /**
+     * Buffers what is written to it until released, then writes through.
+     */
+    private static class FirstChunkWriter extends Writer {
+
+        private final Writer out;
+
+        private StringBuilder buffer = new StringBuilder();
+
+        public FirstChunkWriter(Writer out) {
+            this.out = out;
+        }
+
+        public void release() throws IOException {
+            if (buffer == null) {
+                return;
+            }
+            out.write(buffer.toString());
+            buffer = null;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            if (buffer != null) {
+                buffer.append(cbuf, off, len);
+                return;
+            }
+            out.write(cbuf, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (buffer == null) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            release();
+            out.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,10 @@
+package io.yawp.commons.metrics;
+
+/**
+ * A value sampled when it is read, like the size of a pool.
+ */
+public interface Gauge {
+
+    long getValue();
+
+}
@@ -0,0 +1,48 @@
+package io.yawp.commons.metrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Process wide registry of named {@link Timer}s and {@link Gauge}s. Metrics are cheap to
+ * record and can be read (and exported) by the application through {@link #getTimers()}
+ * and {@link #getGauges()}.
+ */
+public final class Metrics {
+
+    private static final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+    private Metrics() {}
+
+    public static Timer timer(String name) {
+        Timer timer = timers.get(name);
+        if (timer != null) {
+            return timer;
+        }
+
+        timer = new Timer(name);
+        Timer existing = timers.putIfAbsent(name, timer);
+        return existing != null ? existing : timer;
+    }
+
+    public static Collection<Timer> getTimers() {
+        return Collections.unmodifiableCollection(timers.values());
+    }
+
+    /**
+     * Registers the gauge under the given name, replacing any previous one.
+     */
+    public static void gauge(String name, Gauge gauge) {
+        gauges.put(name, gauge);
+    }
+
+    public static Map<String, Gauge> getGauges() {
+        return Collections.unmodifiableMap(gauges);
+    }
+
+}
@@ -0,0 +1,72 @@
+package io.yawp.commons.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts timed events and keeps their total and max duration, in nanoseconds.
+ */
+public class Timer {
+
+    private final String name;
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    Timer(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void stop(long start) {
+        record(System.nanoTime() - start);
+    }
+
+    public void record(long nanos) {
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public long getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : getTotalNanos() / count;
+    }
+
+    public void reset() {
+        count.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return name + " count=" + getCount() + " mean=" + getMeanNanos() + "ns max=" + getMaxNanos() + "ns";
+    }
+
+}
@@ -1,9 +1,15 @@
 package io.yawp.commons.utils;
 
-import java.lang.reflect.Field;
+import io.yawp.repository.models.FieldModel;
+import io.yawp.repository.models.ModelRegistry;
+import io.yawp.repository.models.ObjectModel;
+
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public abstract class FacadeUtils {
 
@@ -11,6 +17,8 @@ public abstract class FacadeUtils {
         SET, GET
     }
 
+    private static final ConcurrentMap<List<Object>, List<String>> propertiesNotInFacade = new ConcurrentHashMap<>();
+
     public static <T> void get(T object, Class<? super T> facade) {
         hideProperties(object, notReadable(object.getClass(), facade));
     }
@@ -37,28 +45,17 @@ public abstract class FacadeUtils {
     }
 
     private static void hideProperties(Object object, List<String> properties) {
-        Class<?> clazz = object.getClass();
-        try {
-            for (String property : properties) {
-                Field field = ReflectionUtils.getFieldRecursively(clazz, property);
-                field.setAccessible(true);
-                field.set(object, null);
-            }
-        } catch (IllegalAccessException | SecurityException e) {
-            throw new RuntimeException(e);
+        ObjectModel model = ModelRegistry.get(object.getClass());
+        for (String property : properties) {
+            model.getFieldModel(property).setValue(object, null);
         }
     }
 
     private static void copyProperties(Object from, Object to, List<String> properties) {
-        Class<?> clazz = from.getClass();
-        try {
-            for (String property : properties) {
-                Field field = ReflectionUtils.getFieldRecursively(clazz, property);
-                field.setAccessible(true);
-                field.set(to, field.get(from));
-            }
-        } catch (IllegalAccessException | SecurityException e) {
-            throw new RuntimeException(e);
+        ObjectModel model = ModelRegistry.get(from.getClass());
+        for (String property : properties) {
+            FieldModel fieldModel = model.getFieldModel(property);
+            fieldModel.setValue(to, fieldModel.getValue(from));
         }
     }
 
@@ -85,14 +82,20 @@ public abstract class FacadeUtils {
     }
 
     private static List<String> propetiesNotInFacade(Class<?> clazz, Class<?> facade, FacadeType facadeType) {
-        return otherProperties(clazz, facadeProperties(facade, facadeType));
+        List<Object> key = Arrays.<Object>asList(clazz, facade, facadeType);
+
+        List<String> properties = propertiesNotInFacade.get(key);
+        if (properties == null) {
+            properties = otherProperties(clazz, facadeProperties(facade, facadeType));
+            propertiesNotInFacade.putIfAbsent(key, properties);
+        }
+        return properties;
     }
 
     private static List<String> otherProperties(Class<?> clazz, List<String> properties) {
         List<String> otherProperties = new ArrayList<String>();
-        List<Field> fields = ReflectionUtils.getFieldsRecursively(clazz);
-        for (Field field : fields) {
-            String name = field.getName();
+        for (FieldModel fieldModel : ModelRegistry.get(clazz).getFieldModels()) {
+            String name = fieldModel.getName();
             if (properties.contains(name)) {
                 continue;
             }
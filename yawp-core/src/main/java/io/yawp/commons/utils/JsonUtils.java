@@ -1,6 +1,8 @@
 package io.yawp.commons.utils;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import io.yawp.commons.utils.json.CustomJsonWriter;
 import io.yawp.commons.utils.json.LazyJsonDeserializer;
 import io.yawp.commons.utils.json.IdRefJsonSerializerDeserializer;
@@ -10,22 +12,27 @@ import io.yawp.repository.LazyJson;
 import io.yawp.repository.Repository;
 
 import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 public class JsonUtils {
 
+    private static final Gson gson = buildGson();
+
     private JsonUtils() {}
 
-    private static Gson buildGson(Repository r) {
+    private static Gson buildGson() {
         GsonBuilder builder = new GsonBuilder();
         builder.setDateFormat(DateUtils.TIMESTAMP_FORMAT);
-        builder.registerTypeAdapter(IdRef.class, new IdRefJsonSerializerDeserializer(r));
+        builder.registerTypeAdapter(IdRef.class, new IdRefJsonSerializerDeserializer());
         builder.registerTypeAdapter(LazyJson.class, new LazyJsonDeserializer());
         builder.registerTypeAdapterFactory(new LazyJsonTypeAdapterFactory());
 
@@ -33,21 +40,61 @@ public class JsonUtils {
     }
 
     public static Object from(Repository r, String json, Type type) {
-        JsonElement jsonElement = new JsonParser().parse(json);
-        Gson gson = buildGson(r);
-        return gson.fromJson(jsonElement, type);
+        Repository previous = IdRefJsonSerializerDeserializer.bind(r);
+        try {
+            return gson.fromJson(json, type);
+        } finally {
+            IdRefJsonSerializerDeserializer.bind(previous);
+        }
+    }
+
+    public static Object from(Repository r, Reader reader, Type type) {
+        Repository previous = IdRefJsonSerializerDeserializer.bind(r);
+        try {
+            return gson.fromJson(reader, type);
+        } finally {
+            IdRefJsonSerializerDeserializer.bind(previous);
+        }
+    }
+
+    public static Object from(Repository r, JsonElement element, Type type) {
+        Repository previous = IdRefJsonSerializerDeserializer.bind(r);
+        try {
+            return gson.fromJson(element, type);
+        } finally {
+            IdRefJsonSerializerDeserializer.bind(previous);
+        }
     }
 
     public static String to(Object o) {
-        Gson gson = buildGson(null);
         if (o == null) {
             return gson.toJson(o);
         }
         StringWriter out = new StringWriter();
-        gson.toJson(o, o.getClass(), new CustomJsonWriter(out));
+        to(o, out);
         return out.toString();
     }
 
+    public static void to(Object o, Writer out) {
+        if (o == null) {
+            gson.toJson(o, out);
+            return;
+        }
+        gson.toJson(o, o.getClass(), new CustomJsonWriter(out));
+    }
+
+    public static void to(Object o, CustomJsonWriter out) {
+        if (o == null) {
+            try {
+                out.nullValue();
+            } catch (IOException e) {
+                throw new JsonIOException(e);
+            }
+            return;
+        }
+        gson.toJson(o, o.getClass(), out);
+    }
+
     @SuppressWarnings("unchecked")
     public static <T> T from(Repository r, String json, Class<T> clazz) {
         return (T) from(r, json, (Type) clazz);
@@ -68,6 +115,11 @@ public class JsonUtils {
         return (List<?>) from(r, json, type);
     }
 
+    public static List<?> fromListRaw(Repository r, JsonElement element, Type valueType) {
+        ParameterizedTypeImpl type = new ParameterizedTypeImpl(List.class, new Type[]{valueType}, null);
+        return (List<?>) from(r, element, type);
+    }
+
     @SuppressWarnings("unchecked")
     public static <K, V> Map<K, V> fromMap(Repository r, String json, Class<K> keyClazz, Class<V> valueClazz) {
         return (Map<K, V>) fromMapRaw(r, json, keyClazz, valueClazz);
@@ -103,18 +155,36 @@ public class JsonUtils {
         if (json == null) {
             return false;
         }
-        JsonElement parsed = new JsonParser().parse(json);
-        return parsed.isJsonArray();
+        try {
+            return createReader(json).peek() == JsonToken.BEGIN_ARRAY;
+        } catch (EOFException e) {
+            return false;
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
+        }
     }
 
     public static List<String> getProperties(String json) {
         List<String> properties = new ArrayList<String>();
-        JsonObject jsonObject = new JsonParser().parse(json).getAsJsonObject();
-        for (Entry<String, JsonElement> property : jsonObject.entrySet()) {
-            properties.add(property.getKey());
+        try {
+            JsonReader reader = createReader(json);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                properties.add(reader.nextName());
+                reader.skipValue();
+            }
+            reader.endObject();
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
         }
         return properties;
     }
 
+    private static JsonReader createReader(String json) {
+        JsonReader reader = new JsonReader(new StringReader(json));
+        reader.setLenient(true);
+        return reader;
+    }
+
 
 }
@@ -8,12 +8,38 @@ import java.lang.reflect.Type;
 
 public class IdRefJsonSerializerDeserializer implements JsonSerializer<IdRef<?>>, JsonDeserializer<IdRef<?>> {
 
+    private static final ThreadLocal<Repository> current = new ThreadLocal<>();
+
     private Repository r;
 
+    /**
+     * Creates a repository independent adapter, ids are parsed with the repository
+     * bound to the current thread.
+     *
+     * @see #bind(Repository)
+     */
+    public IdRefJsonSerializerDeserializer() {
+    }
+
     public IdRefJsonSerializerDeserializer(Repository r) {
         this.r = r;
     }
 
+    /**
+     * Binds the repository used to parse ids on the current thread.
+     *
+     * @return the previously bound repository, so it can be restored.
+     */
+    public static Repository bind(Repository r) {
+        Repository previous = current.get();
+        if (r == null) {
+            current.remove();
+        } else {
+            current.set(r);
+        }
+        return previous;
+    }
+
     @Override
     public JsonElement serialize(IdRef<?> idRef, Type type, JsonSerializationContext ctx) {
         return new JsonPrimitive(idRef.toString());
@@ -22,7 +48,7 @@ public class IdRefJsonSerializerDeserializer implements JsonSerializer<IdRef<?>>
     @Override
     public IdRef<?> deserialize(JsonElement json, Type type, JsonDeserializationContext ctx) throws JsonParseException {
         String path = json.getAsJsonPrimitive().getAsString();
-        return IdRef.parse(r, null, path);
+        return IdRef.parse(r != null ? r : current.get(), null, path);
     }
 
 }
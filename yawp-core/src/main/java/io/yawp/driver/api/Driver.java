@@ -21,4 +21,10 @@ public interface Driver {
     HelpersDriver helpers();
 
     PipesDriver pipes();
+
+    /**
+     * Releases the resources of the driver kept for the whole process, when the application
+     * is shut down.
+     */
+    void destroy();
 }
@@ -3,6 +3,8 @@ package io.yawp.driver.api;
 import io.yawp.repository.FutureObject;
 import io.yawp.repository.IdRef;
 
+import java.util.List;
+
 public interface PersistenceDriver {
 
     void save(Object object);
@@ -13,4 +15,12 @@ public interface PersistenceDriver {
 
     FutureObject<Void> destroyAsync(IdRef<?> id);
 
+    /**
+     * Saves all objects in batches instead of one round trip per object. Generated ids
+     * are set back into the objects.
+     */
+    void saveAll(List<?> objects);
+
+    void destroyAll(List<IdRef<?>> ids);
+
 }
@@ -1,14 +1,15 @@
 package io.yawp.driver.api;
 
 import io.yawp.repository.pipes.Pipe;
+import io.yawp.repository.pipes.SourceMarker;
 
 public interface PipesDriver {
 
-    void flux(Pipe pipe, Object object);
+    void flux(Pipe pipe, Object object, SourceMarker sourceMarker);
 
-    void reflux(Pipe pipe, Object object);
+    void reflux(Pipe pipe, Object object, SourceMarker sourceMarker);
 
-    void refluxOld(Pipe pipe, Object source, Object oldSource);
+    void refluxOld(Pipe pipe, Object source, Object oldSource, SourceMarker sourceMarker);
 
     void reflow(Pipe pipe, Object object);
 
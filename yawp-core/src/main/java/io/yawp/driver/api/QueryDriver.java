@@ -15,4 +15,12 @@ public interface QueryDriver {
     public <T> T fetch(IdRef<T> id);
 
     <T> FutureObject<T> fetchAsync(IdRef<T> id);
+
+    /**
+     * Fetches all ids in a single round trip. The result is aligned with the given ids,
+     * objects that are not found are returned as null.
+     */
+    <T> List<T> fetch(List<IdRef<T>> ids);
+
+    <T> FutureObject<List<T>> fetchAsync(List<IdRef<T>> ids);
 }
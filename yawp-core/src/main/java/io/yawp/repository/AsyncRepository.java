@@ -1,5 +1,7 @@
 package io.yawp.repository;
 
+import java.util.List;
+
 public class AsyncRepository {
 
     Repository r;
@@ -23,4 +25,8 @@ public class AsyncRepository {
     public <T> FutureObject<T> fetch(IdRef<T> id) {
         return r.fetchAsync(id);
     }
+
+    public <T> FutureObject<List<T>> fetch(List<IdRef<T>> ids) {
+        return r.fetchAsync(ids);
+    }
 }
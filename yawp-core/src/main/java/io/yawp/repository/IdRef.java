@@ -1,7 +1,7 @@
 package io.yawp.repository;
 
 import io.yawp.commons.http.HttpVerb;
-import io.yawp.repository.actions.ActionKey;
+import io.yawp.repository.models.ModelRegistry;
 import io.yawp.repository.models.ObjectModel;
 import io.yawp.repository.query.QueryBuilder;
 import org.apache.commons.lang3.StringUtils;
@@ -36,14 +36,14 @@ public class IdRef<T> implements Comparable<IdRef<T>>, Serializable {
         this.r = r;
         this.clazz = clazz;
         this.id = id;
-        this.model = new ObjectModel(clazz);
+        this.model = ModelRegistry.get(clazz);
     }
 
     public IdRef(Repository r, Class<T> clazz, String name) {
         this.r = r;
         this.clazz = clazz;
         this.name = name;
-        this.model = new ObjectModel(clazz);
+        this.model = ModelRegistry.get(clazz);
     }
 
     public void setParentId(IdRef<?> parentId) {
@@ -84,7 +84,7 @@ public class IdRef<T> implements Comparable<IdRef<T>>, Serializable {
     }
 
     public ObjectModel getModel() {
-        return new ObjectModel(clazz);
+        return model;
     }
 
     @SuppressWarnings("unchecked")
@@ -134,39 +134,7 @@ public class IdRef<T> implements Comparable<IdRef<T>>, Serializable {
         if (StringUtils.isBlank(path)) {
             return null;
         }
-
-        String[] parts = path.substring(1).split("/");
-
-        if (parts.length < 2) {
-            return null;
-        }
-
-        IdRef<TT> lastIdRef = null;
-
-        for (int i = 0; i < parts.length; i += 2) {
-            if (isActionOrCollection(r, verb, parts, i)) {
-                break;
-            }
-
-            String endpointPath = "/" + parts[i];
-
-            IdRef<TT> currentIdRef;
-
-            if (!isString(parts[i + 1])) {
-                Long asLong = Long.valueOf(parts[i + 1]);
-                currentIdRef = (IdRef<TT>) create(r, getIdRefClazz(r, endpointPath), asLong);
-            } else {
-                String asString = parts[i + 1];
-                currentIdRef = (IdRef<TT>) create(r, getIdRefClazz(r, endpointPath), asString);
-            }
-
-            currentIdRef.setParentId(lastIdRef);
-            lastIdRef = currentIdRef;
-
-            validateParentId(currentIdRef, path);
-        }
-
-        return lastIdRef;
+        return (IdRef<TT>) r.getFeatures().getRoutes().parseId(r, verb, path);
     }
 
     public static IdRef<?> parse(Repository r, String id) {
@@ -185,54 +153,6 @@ public class IdRef<T> implements Comparable<IdRef<T>>, Serializable {
         return ids;
     }
 
-    private static void validateParentId(IdRef<?> id, String path) {
-        Class<?> parentClazz = id.getParentClazz();
-        if (parentClazz == null) {
-            return;
-        }
-
-        if (id.getParentId() == null) {
-            throw new RuntimeException("Invalid parent structure for id: " + path);
-        }
-
-        if (!parentClazz.equals(id.getParentId().getClazz())) {
-            throw new RuntimeException("Invalid parent structure for id: " + path);
-        }
-    }
-
-    private static Class<?> getIdRefClazz(Repository r, String endpointPath) {
-        return r.getFeatures().getByPath(endpointPath).getClazz();
-    }
-
-    private static boolean isActionOrCollection(Repository r, HttpVerb verb, String[] parts, int i) {
-        if (i < parts.length - 2) {
-            return false;
-        }
-
-        if (i == parts.length - 1) {
-            return true;
-        }
-
-        if (!isString(parts[parts.length - 1])) {
-            return false;
-        }
-
-        String endpointPath = "/" + parts[parts.length - 2];
-        String possibleAction = parts[parts.length - 1];
-
-        ActionKey actionKey = new ActionKey(verb, possibleAction, true);
-        return r.getFeatures().hasCustomAction(endpointPath, actionKey);
-    }
-
-    private static boolean isString(String s) {
-        try {
-            Long.valueOf(s);
-            return false;
-        } catch (NumberFormatException e) {
-            return true;
-        }
-    }
-
     public void delete() {
         r.destroy(this);
     }
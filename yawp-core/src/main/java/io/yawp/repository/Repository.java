@@ -1,5 +1,6 @@
 package io.yawp.repository;
 
+import io.yawp.commons.http.RequestBody;
 import io.yawp.commons.http.RequestContext;
 import io.yawp.driver.api.Driver;
 import io.yawp.driver.api.DriverFactory;
@@ -11,6 +12,8 @@ import io.yawp.repository.hooks.RepositoryHooks;
 import io.yawp.repository.pipes.RepositoryPipes;
 import io.yawp.repository.query.QueryBuilder;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -128,6 +131,34 @@ public class Repository implements RepositoryApi {
         }
     }
 
+    @Override
+    public <T> List<T> fetch(List<IdRef<T>> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        namespace.set(ids.get(0).getClazz());
+        try {
+            return driver().query().fetch(ids);
+        } finally {
+            namespace.reset();
+        }
+    }
+
+    @Override
+    public <T> FutureObject<List<T>> fetchAsync(List<IdRef<T>> ids) {
+        if (ids.isEmpty()) {
+            return new FutureObject<List<T>>(new ArrayList<T>());
+        }
+
+        namespace.set(ids.get(0).getClazz());
+        try {
+            return driver().query().fetchAsync(ids);
+        } finally {
+            namespace.reset();
+        }
+    }
+
     protected <T> FutureObject<T> saveAsyncWithHooks(T object) {
         namespace.set(object.getClass());
         try {
@@ -149,12 +180,62 @@ public class Repository implements RepositoryApi {
         }
     }
 
-    private void saveInternal(Object object) {
-        boolean newTransaction = beginTransactionForPipesOnSave(object);
+    @Override
+    public <T> List<T> saveAll(List<T> objects) {
+        saveAllInternal(objects, false);
+        return objects;
+    }
+
+    @Override
+    public <T> List<T> saveAllWithHooks(List<T> objects) {
+        saveAllInternal(objects, true);
+        return objects;
+    }
+
+    private void saveAllInternal(List<?> objects, boolean enableHooks) {
+        for (Map.Entry<Class<?>, List<Object>> entry : groupByClazz(objects).entrySet()) {
+            Class<?> clazz = entry.getKey();
+            List<Object> clazzObjects = entry.getValue();
+
+            namespace.set(clazz);
+            try {
+                if (enableHooks) {
+                    for (Object object : clazzObjects) {
+                        RepositoryHooks.beforeSave(this, object);
+                    }
+                }
+
+                saveAllInternal(clazz, clazzObjects);
+
+                if (enableHooks) {
+                    for (Object object : clazzObjects) {
+                        RepositoryHooks.afterSave(this, object);
+                    }
+                }
+            } finally {
+                namespace.reset();
+            }
+        }
+    }
+
+    private void saveAllInternal(Class<?> clazz, List<Object> objects) {
+        if (RepositoryPipes.isPipeSource(this, clazz)) {
+            for (Object object : objects) {
+                saveInternal(object);
+            }
+            return;
+        }
+        if (RepositoryPipes.isPipeSink(this, clazz)) {
+            saveAllSinksInternal(clazz, objects);
+            return;
+        }
+        driver().persistence().saveAll(objects);
+    }
+
+    private void saveAllSinksInternal(Class<?> clazz, List<Object> sinks) {
+        boolean newTransaction = beginTransactionForPipes();
         try {
-            updateExistingPipes(object);
-            driver().persistence().save(object);
-            fluxPipes(object);
+            RepositoryPipes.saveSinks(this, clazz, sinks);
             if (newTransaction) {
                 commit();
             }
@@ -165,14 +246,36 @@ public class Repository implements RepositoryApi {
         }
     }
 
-    private boolean beginTransactionForPipesOnSave(Object object) {
-        Class<?> endpointClazz = object.getClass();
+    private Map<Class<?>, List<Object>> groupByClazz(List<?> objects) {
+        Map<Class<?>, List<Object>> objectsByClazz = new LinkedHashMap<>();
+        for (Object object : objects) {
+            List<Object> clazzObjects = objectsByClazz.get(object.getClass());
+            if (clazzObjects == null) {
+                clazzObjects = new ArrayList<>();
+                objectsByClazz.put(object.getClass(), clazzObjects);
+            }
+            clazzObjects.add(object);
+        }
+        return objectsByClazz;
+    }
 
-        if (!RepositoryPipes.isPipeSourceOrSink(this, endpointClazz)) {
-            return false;
+    private void saveInternal(Object object) {
+        if (!RepositoryPipes.isPipeSourceOrSink(this, object.getClass())) {
+            driver().persistence().save(object);
+            return;
         }
 
-        return beginTransactionForPipes();
+        boolean newTransaction = beginTransactionForPipes();
+        try {
+            RepositoryPipes.save(this, object);
+            if (newTransaction) {
+                commit();
+            }
+        } finally {
+            if (newTransaction && isTransationInProgress()) {
+                rollback();
+            }
+        }
     }
 
     private boolean beginTransactionForPipesOnDestroy(IdRef<?> id) {
@@ -193,18 +296,10 @@ public class Repository implements RepositoryApi {
         return true;
     }
 
-    private void fluxPipes(Object object) {
-        RepositoryPipes.flux(this, object);
-    }
-
     private void refluxPipes(IdRef<?> id) {
         RepositoryPipes.reflux(this, id);
     }
 
-    private void updateExistingPipes(Object object) {
-        RepositoryPipes.updateExisting(this, object);
-    }
-
     private <T> FutureObject<T> saveInternalAsync(T object, boolean enableHooks) {
         FutureObject<T> futureObject = driver().persistence().saveAsync(object);
         futureObject.setEnableHooks(enableHooks);
@@ -213,10 +308,14 @@ public class Repository implements RepositoryApi {
 
     @Override
     public Object action(IdRef<?> id, Class<?> clazz, ActionKey actionKey, String json, Map<String, String> params) {
+        return action(id, clazz, actionKey, new RequestBody(json), params);
+    }
+
+    public Object action(IdRef<?> id, Class<?> clazz, ActionKey actionKey, RequestBody body, Map<String, String> params) {
         namespace.set(clazz);
         try {
             ActionMethod actionMethod = repositoryFeatures.getByClazz(clazz).getAction(actionKey);
-            return RepositoryActions.execute(this, actionMethod, id, json, params);
+            return RepositoryActions.execute(this, actionMethod, id, body, params);
         } finally {
             namespace.reset();
         }
@@ -246,6 +345,46 @@ public class Repository implements RepositoryApi {
         }
     }
 
+    @Override
+    public void destroyAll(List<? extends IdRef<?>> ids) {
+        Map<Class<?>, List<IdRef<?>>> idsByClazz = new LinkedHashMap<>();
+        for (IdRef<?> id : ids) {
+            List<IdRef<?>> clazzIds = idsByClazz.get(id.getClazz());
+            if (clazzIds == null) {
+                clazzIds = new ArrayList<>();
+                idsByClazz.put(id.getClazz(), clazzIds);
+            }
+            clazzIds.add(id);
+        }
+
+        for (Map.Entry<Class<?>, List<IdRef<?>>> entry : idsByClazz.entrySet()) {
+            namespace.set(entry.getKey());
+            try {
+                destroyAllInternal(entry.getKey(), entry.getValue());
+            } finally {
+                namespace.reset();
+            }
+        }
+    }
+
+    private void destroyAllInternal(Class<?> clazz, List<IdRef<?>> ids) {
+        for (IdRef<?> id : ids) {
+            RepositoryHooks.beforeDestroy(this, id);
+        }
+
+        if (RepositoryPipes.isPipeSource(this, clazz)) {
+            for (IdRef<?> id : ids) {
+                destroyInternal(id);
+            }
+        } else {
+            driver().persistence().destroyAll(ids);
+        }
+
+        for (IdRef<?> id : ids) {
+            RepositoryHooks.afterDestroy(this, id);
+        }
+    }
+
     protected FutureObject<Void> destroyAsync(IdRef<?> id) {
         namespace.set(id.getClazz());
         try {
@@ -28,10 +28,18 @@ public interface RepositoryApi {
 
     <T> T save(T object);
 
+    <T> List<T> saveAllWithHooks(List<T> objects);
+
+    <T> List<T> saveAll(List<T> objects);
+
     <T> T fetch(IdRef<T> id);
 
     <T> FutureObject<T> fetchAsync(IdRef<T> id);
 
+    <T> List<T> fetch(List<IdRef<T>> ids);
+
+    <T> FutureObject<List<T>> fetchAsync(List<IdRef<T>> ids);
+
     Object action(IdRef<?> id, Class<?> clazz, ActionKey actionKey, String json, Map<String, String> params);
 
     <T> QueryBuilder<T> queryWithHooks(Class<T> clazz);
@@ -40,6 +48,8 @@ public interface RepositoryApi {
 
     void destroy(IdRef<?> id);
 
+    void destroyAll(List<? extends IdRef<?>> ids);
+
     Class<?> getClazzByKind(String kind);
 
     @SuppressWarnings("unchecked")
@@ -14,6 +14,8 @@ public class RepositoryFeatures {
 
     private Map<String, Class<?>> kinds;
 
+    private volatile RouteTable routes;
+
     protected RepositoryFeatures() {
     }
 
@@ -102,4 +104,11 @@ public class RepositoryFeatures {
     public Set<Class<?>> getEndpointClazzes() {
         return endpoints.keySet();
     }
+
+    public RouteTable getRoutes() {
+        if (routes == null) {
+            routes = new RouteTable(this);
+        }
+        return routes;
+    }
 }
@@ -0,0 +1,45 @@
+package io.yawp.repository;
+
+import io.yawp.repository.actions.ActionKey;
+
+/**
+ * The result of resolving an uri against the {@link RouteTable}.
+ */
+public class Route {
+
+    private final Class<?> endpointClazz;
+
+    private final IdRef<?> id;
+
+    private final boolean overCollection;
+
+    private final ActionKey customActionKey;
+
+    Route(Class<?> endpointClazz, IdRef<?> id, boolean overCollection, ActionKey customActionKey) {
+        this.endpointClazz = endpointClazz;
+        this.id = id;
+        this.overCollection = overCollection;
+        this.customActionKey = customActionKey;
+    }
+
+    public Class<?> getEndpointClazz() {
+        return endpointClazz;
+    }
+
+    public IdRef<?> getId() {
+        return id;
+    }
+
+    public boolean isOverCollection() {
+        return overCollection;
+    }
+
+    public boolean isCustomAction() {
+        return customActionKey != null;
+    }
+
+    public ActionKey getCustomActionKey() {
+        return customActionKey;
+    }
+
+}
@@ -0,0 +1,214 @@
+package io.yawp.repository;
+
+import io.yawp.commons.http.HttpVerb;
+import io.yawp.commons.metrics.Metrics;
+import io.yawp.commons.metrics.Timer;
+import io.yawp.repository.actions.ActionKey;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routing table compiled from the {@link RepositoryFeatures} endpoint paths. An uri is
+ * split once and resolved, segment by segment, into the endpoint class, the id chain and
+ * the custom action (if any), without exception driven id parsing.
+ */
+public class RouteTable {
+
+    public static final String RESOLVE_TIMER = "yawp.route.resolve";
+
+    private static final String[] EMPTY = new String[0];
+
+    private final Timer resolveTimer = Metrics.timer(RESOLVE_TIMER);
+
+    private final RepositoryFeatures features;
+
+    private final Map<String, Class<?>> endpoints;
+
+    public RouteTable(RepositoryFeatures features) {
+        this.features = features;
+        this.endpoints = new HashMap<>();
+
+        for (Class<?> clazz : features.getEndpointClazzes()) {
+            String endpointPath = features.getByClazz(clazz).getEndpointPath();
+            if (endpointPath.isEmpty()) {
+                continue;
+            }
+            endpoints.put(endpointPath.substring(1), clazz);
+        }
+    }
+
+    public Route resolve(Repository r, HttpVerb verb, String uri) {
+        long start = resolveTimer.start();
+        try {
+            return resolve(r, verb, uri, split(uri));
+        } finally {
+            resolveTimer.stop(start);
+        }
+    }
+
+    public IdRef<?> parseId(Repository r, HttpVerb verb, String path) {
+        String[] segments = split(path);
+        return parseId(r, verb, path, segments, idLength(verb, segments));
+    }
+
+    private Route resolve(Repository r, HttpVerb verb, String uri, String[] segments) {
+        if (segments.length == 0) {
+            throw new EndpointNotFoundException(uri);
+        }
+
+        int idLength = idLength(verb, segments);
+        IdRef<?> id = parseId(r, verb, uri, segments, idLength);
+
+        int n = segments.length;
+
+        switch (n - idLength) {
+            case 0:
+                return new Route(id.getClazz(), id, false, null);
+            case 1:
+                return lastSegmentRoute(verb, id, segments[n - 1]);
+            default:
+                String endpointSegment = segments[n - 2];
+                ActionKey actionKey = new ActionKey(verb, segments[n - 1], true);
+                Class<?> endpointClazz = getEndpointClazz(endpointSegment);
+                return new Route(endpointClazz, id, true, hasCustomAction(endpointClazz, actionKey) ? actionKey : null);
+        }
+    }
+
+    private Route lastSegmentRoute(HttpVerb verb, IdRef<?> id, String segment) {
+        if (id != null) {
+            ActionKey actionKey = new ActionKey(verb, segment, false);
+            if (hasCustomAction(id.getClazz(), actionKey)) {
+                return new Route(id.getClazz(), id, false, actionKey);
+            }
+        }
+        return new Route(getEndpointClazz(segment), id, true, null);
+    }
+
+    /**
+     * @return how many leading segments are (endpoint, id) pairs. The last pair is not an
+     * id when its second segment names a custom action over the collection.
+     */
+    private int idLength(HttpVerb verb, String[] segments) {
+        int n = segments.length;
+        int length = n - n % 2;
+
+        if (length == 0 || n != length) {
+            return length;
+        }
+
+        String last = segments[n - 1];
+        if (parseLong(last) != null) {
+            return length;
+        }
+
+        ActionKey actionKey = new ActionKey(verb, last, true);
+        if (hasCustomAction(getEndpointClazz(segments[n - 2]), actionKey)) {
+            return length - 2;
+        }
+        return length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> IdRef<T> parseId(Repository r, HttpVerb verb, String path, String[] segments, int idLength) {
+        IdRef<T> lastIdRef = null;
+
+        for (int i = 0; i < idLength; i += 2) {
+            Class<T> clazz = (Class<T>) getEndpointClazz(segments[i]);
+            String idSegment = segments[i + 1];
+
+            Long asLong = parseLong(idSegment);
+            IdRef<T> currentIdRef = asLong != null ? IdRef.create(r, clazz, asLong) : IdRef.create(r, clazz, idSegment);
+
+            currentIdRef.setParentId(lastIdRef);
+            lastIdRef = currentIdRef;
+
+            validateParentId(currentIdRef, path);
+        }
+
+        return lastIdRef;
+    }
+
+    private boolean hasCustomAction(Class<?> endpointClazz, ActionKey actionKey) {
+        return features.hasCustomAction(endpointClazz, actionKey);
+    }
+
+    private Class<?> getEndpointClazz(String segment) {
+        Class<?> clazz = endpoints.get(segment);
+        if (clazz == null) {
+            throw new EndpointNotFoundException("/" + segment);
+        }
+        return clazz;
+    }
+
+    private static void validateParentId(IdRef<?> id, String path) {
+        Class<?> parentClazz = id.getParentClazz();
+        if (parentClazz == null) {
+            return;
+        }
+
+        if (id.getParentId() == null) {
+            throw new RuntimeException("Invalid parent structure for id: " + path);
+        }
+
+        if (!parentClazz.equals(id.getParentId().getClazz())) {
+            throw new RuntimeException("Invalid parent structure for id: " + path);
+        }
+    }
+
+    /**
+     * Same segments as {@code path.substring(1).split("/")}, trailing empty segments are
+     * dropped.
+     */
+    static String[] split(String path) {
+        int end = path.length();
+        while (end > 1 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        if (end <= 1) {
+            return EMPTY;
+        }
+
+        List<String> segments = new ArrayList<>();
+        int begin = 1;
+        for (int i = 1; i < end; i++) {
+            if (path.charAt(i) == '/') {
+                segments.add(path.substring(begin, i));
+                begin = i + 1;
+            }
+        }
+        segments.add(path.substring(begin, end));
+
+        return segments.toArray(new String[segments.size()]);
+    }
+
+    /**
+     * @return the segment as a long, or null when it is not a number.
+     */
+    static Long parseLong(String s) {
+        int length = s.length();
+        int start = length > 0 && (s.charAt(0) == '-' || s.charAt(0) == '+') ? 1 : 0;
+        if (start == length) {
+            return null;
+        }
+
+        for (int i = start; i < length; i++) {
+            if (Character.digit(s.charAt(i), 10) < 0) {
+                return null;
+            }
+        }
+
+        if (length - start < 19) {
+            return Long.parseLong(s);
+        }
+
+        try {
+            return Long.valueOf(s);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+}
@@ -142,6 +142,18 @@ public class Yawp extends ThreadLocal<Repository> implements RepositoryApi {
         return get().save(object);
     }
 
+    @Override
+    public <T> List<T> saveAllWithHooks(List<T> objects) {
+        init();
+        return get().saveAllWithHooks(objects);
+    }
+
+    @Override
+    public <T> List<T> saveAll(List<T> objects) {
+        init();
+        return get().saveAll(objects);
+    }
+
     @Override
     public <T> T fetch(IdRef<T> id) {
         init();
@@ -155,6 +167,18 @@ public class Yawp extends ThreadLocal<Repository> implements RepositoryApi {
         return get().fetchAsync(id);
     }
 
+    @Override
+    public <T> List<T> fetch(List<IdRef<T>> ids) {
+        init();
+        return get().fetch(ids);
+    }
+
+    @Override
+    public <T> FutureObject<List<T>> fetchAsync(List<IdRef<T>> ids) {
+        init();
+        return get().fetchAsync(ids);
+    }
+
     @Override
     public Object action(IdRef<?> id, Class<?> clazz, ActionKey actionKey, String json, Map<String, String> params) {
         init();
@@ -179,6 +203,12 @@ public class Yawp extends ThreadLocal<Repository> implements RepositoryApi {
         get().destroy(id);
     }
 
+    @Override
+    public void destroyAll(List<? extends IdRef<?>> ids) {
+        init();
+        get().destroyAll(ids);
+    }
+
     @Override
     public Class<?> getClazzByKind(String kind) {
         init();
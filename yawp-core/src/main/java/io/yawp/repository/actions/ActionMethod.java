@@ -1,6 +1,7 @@
 package io.yawp.repository.actions;
 
 import io.yawp.commons.http.HttpVerb;
+import io.yawp.commons.http.RequestBody;
 import io.yawp.commons.utils.ThrownExceptionsUtils;
 import io.yawp.repository.IdRef;
 import io.yawp.repository.Repository;
@@ -69,6 +70,10 @@ public class ActionMethod {
         return parameters.createArguments(r, id, json, params);
     }
 
+    public Object[] createArguments(Repository r, IdRef<?> id, RequestBody body, Map<String, String> params) {
+        return parameters.createArguments(r, id, body, params);
+    }
+
     public boolean isAtomicCrossEntities() {
         return method.getAnnotation(Atomic.class).cross();
     }
@@ -78,11 +83,15 @@ public class ActionMethod {
     }
 
     public Object invoke(Repository r, IdRef<?> id, String json, Map<String, String> params) {
+        return invoke(r, id, new RequestBody(json), params);
+    }
+
+    public Object invoke(Repository r, IdRef<?> id, RequestBody body, Map<String, String> params) {
         try {
             Class<? extends Action<?>> actionClazz = (Class<? extends Action<?>>) method.getDeclaringClass();
             Action<?> actionInstance = actionClazz.newInstance();
             actionInstance.setRepository(r);
-            return method.invoke(actionInstance, createArguments(r, id, json, params));
+            return method.invoke(actionInstance, createArguments(r, id, body, params));
         } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException | InstantiationException e) {
             throw ThrownExceptionsUtils.handle(e);
         }
@@ -1,8 +1,9 @@
 package io.yawp.repository.actions;
 
-import io.yawp.commons.utils.JsonUtils;
+import io.yawp.commons.http.RequestBody;
 import io.yawp.commons.utils.ReflectionUtils;
 import io.yawp.repository.IdRef;
+import io.yawp.repository.models.ModelRegistry;
 import io.yawp.repository.models.ObjectModel;
 import io.yawp.repository.Repository;
 
@@ -87,6 +88,14 @@ public class ActionParameters {
     }
 
     public Object[] createArguments(Repository r, IdRef<?> id, String json, Map<String, String> params) {
+        return createArguments(r, id, new RequestBody(json), params);
+    }
+
+    /**
+     * Binds the json parameter straight from the parsed body, so its text is only built when
+     * the parameter is a string.
+     */
+    public Object[] createArguments(Repository r, IdRef<?> id, RequestBody body, Map<String, String> params) {
         List<Object> arguments = new ArrayList();
 
         for (ParameterType type : order) {
@@ -96,7 +105,7 @@ public class ActionParameters {
                     arguments.add(id);
                     break;
                 case JSON:
-                    arguments.add(getJsonArgument(r, json));
+                    arguments.add(getJsonArgument(r, body));
                     break;
                 case PARAMS:
                     arguments.add(params);
@@ -131,14 +140,14 @@ public class ActionParameters {
         }
     }
 
-    private Object getJsonArgument(Repository r, String json) {
+    private Object getJsonArgument(Repository r, RequestBody body) {
         if (jsonClazz.equals(String.class)) {
-            return json;
+            return body.getJson();
         }
         if (jsonClazz.equals(List.class)) {
-            return JsonUtils.fromList(r, json, (Class<?>) jsonGenericType);
+            return body.fromListRaw(r, jsonGenericType);
         }
-        return JsonUtils.from(r, json, jsonClazz);
+        return body.from(r, jsonClazz);
     }
 
     private boolean isRootCollection() {
@@ -251,7 +260,7 @@ public class ActionParameters {
             if (!isTypeOf(IdRef.class)) {
                 return false;
             }
-            ObjectModel objectModel = new ObjectModel(endpointClazz);
+            ObjectModel objectModel = ModelRegistry.get(endpointClazz);
             Type genericType = getGenericTypeAt(0);
             if (genericType instanceof WildcardType) {
                 return false;
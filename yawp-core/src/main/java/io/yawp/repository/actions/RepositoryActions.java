@@ -1,5 +1,6 @@
 package io.yawp.repository.actions;
 
+import io.yawp.commons.http.RequestBody;
 import io.yawp.repository.IdRef;
 import io.yawp.repository.Repository;
 
@@ -10,12 +11,16 @@ public class RepositoryActions {
     private RepositoryActions() {}
 
     public static Object execute(Repository r, ActionMethod actionMethod, IdRef<?> id, String json, Map<String, String> params) {
+        return execute(r, actionMethod, id, new RequestBody(json), params);
+    }
+
+    public static Object execute(Repository r, ActionMethod actionMethod, IdRef<?> id, RequestBody body, Map<String, String> params) {
         boolean rollback = false;
         atomicBegin(r, actionMethod);
 
         try {
 
-            return actionMethod.invoke(r, id, json, params);
+            return actionMethod.invoke(r, id, body, params);
 
         } catch (Throwable t) {
             rollback = true;
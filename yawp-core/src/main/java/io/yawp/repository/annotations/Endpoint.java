@@ -12,4 +12,16 @@ public @interface Endpoint {
     String path() default "";
 
     String kind() default "";
+
+    /**
+     * Stores the indexed fields in native typed columns, for drivers that support it
+     * (PostgreSQL). Other fields are still stored as json.
+     */
+    boolean typedColumns() default false;
+
+    /**
+     * Stores each namespace in its own table partition, for drivers that support it
+     * (PostgreSQL). Queries only scan the partition of the current namespace.
+     */
+    boolean partitionByNamespace() default false;
 }
@@ -0,0 +1,317 @@
+package io.yawp.repository.models;
+
+import io.yawp.commons.http.HttpVerb;
+import io.yawp.commons.utils.DateUtils;
+import io.yawp.commons.utils.JsonUtils;
+import io.yawp.commons.utils.ReflectionUtils;
+import io.yawp.repository.IdRef;
+import io.yawp.repository.LazyJson;
+import io.yawp.repository.Repository;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Converts one persistent field to and from the value the drivers store for it, with a
+ * strategy resolved once per field. Stored values are strings, numbers, booleans, dates or
+ * lists of them; drivers with their own wrappers, such as App Engine texts, add them on top.
+ */
+public class FieldConverter {
+
+    private static final ConcurrentMap<Class<?>, FieldConverter[]> converters = new ConcurrentHashMap<>();
+
+    private final FieldModel fieldModel;
+
+    private final String name;
+
+    private final IndexType indexType;
+
+    private final Kind kind;
+
+    private final Type valueType;
+
+    private FieldConverter(FieldModel fieldModel) {
+        this.fieldModel = fieldModel;
+        this.name = fieldModel.getName();
+        this.indexType = IndexType.of(fieldModel);
+        this.kind = Kind.of(fieldModel);
+        this.valueType = kind.valueType(fieldModel);
+    }
+
+    /**
+     * @return the converters of the persistent fields of the model, ids excluded.
+     */
+    public static FieldConverter[] of(ObjectModel model) {
+        FieldConverter[] modelConverters = converters.get(model.getClazz());
+        if (modelConverters != null) {
+            return modelConverters;
+        }
+
+        List<FieldConverter> list = new ArrayList<>();
+        for (FieldModel fieldModel : model.getFieldModels()) {
+            if (fieldModel.isId() || fieldModel.isTransient()) {
+                continue;
+            }
+            list.add(new FieldConverter(fieldModel));
+        }
+
+        modelConverters = list.toArray(new FieldConverter[list.size()]);
+        FieldConverter[] existing = converters.putIfAbsent(model.getClazz(), modelConverters);
+        return existing != null ? existing : modelConverters;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public IndexType getIndexType() {
+        return indexType;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the value to store for the field of the object.
+     */
+    public Object getValue(Object object) {
+        Object value = fieldModel.getValue(object);
+
+        if (value == null) {
+            return null;
+        }
+
+        if (value instanceof Enum<?>) {
+            return value.toString();
+        }
+
+        return kind.toStored(value);
+    }
+
+    /**
+     * Sets the field of the object from its stored value.
+     */
+    public void setValue(Repository r, Object object, Object value) {
+        if (value == null) {
+            fieldModel.setValue(object, null);
+            return;
+        }
+
+        fieldModel.setValue(object, kind.fromStored(r, valueType, value));
+    }
+
+    /**
+     * @return the value stored in the normalized index of a string field.
+     */
+    public static Object normalize(Object value) {
+        if (value == null) {
+            return null;
+        }
+
+        if (!value.getClass().equals(String.class)) {
+            return value;
+        }
+
+        return StringUtils.stripAccents((String) value).toLowerCase();
+    }
+
+    public enum IndexType {
+        NONE, INDEXED, NORMALIZED;
+
+        static IndexType of(FieldModel fieldModel) {
+            if (!fieldModel.hasIndex()) {
+                return NONE;
+            }
+            if (fieldModel.isIndexNormalizable()) {
+                return NORMALIZED;
+            }
+            return INDEXED;
+        }
+    }
+
+    public enum Kind {
+
+        ENUM {
+            @Override
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Object fromStored(Repository r, Type valueType, Object value) {
+                return Enum.valueOf((Class) valueType, value.toString());
+            }
+
+            @Override
+            Type valueType(FieldModel fieldModel) {
+                return fieldModel.getField().getType();
+            }
+        },
+
+        JSON {
+            @Override
+            Object toStored(Object value) {
+                return JsonUtils.to(value);
+            }
+
+            @Override
+            Object fromStored(Repository r, Type valueType, Object value) {
+                return JsonUtils.from(r, value.toString(), valueType);
+            }
+
+            @Override
+            Type valueType(FieldModel fieldModel) {
+                return fieldModel.getField().getGenericType();
+            }
+        },
+
+        LAZY_JSON {
+            @Override
+            Object toStored(Object value) {
+                return ((LazyJson<?>) value).getJson();
+            }
+
+            @Override
+            Object fromStored(Repository r, Type valueType, Object value) {
+                return LazyJson.$create(valueType, value.toString());
+            }
+
+            @Override
+            Type valueType(FieldModel fieldModel) {
+                return ((ParameterizedType) fieldModel.getField().getGenericType()).getActualTypeArguments()[0];
+            }
+        },
+
+        INT {
+            @Override
+            Object fromStored(Repository r, Type valueType, Object value) {
+                return ((Number) value).intValue();
+            }
+        },
+
+        LONG {
+            @Override
+            Object fromStored(Repository r, Type valueType, Object value) {
+                return ((Number) value).longValue();
+            }
+        },
+
+        DATE {
+            @Override
+            Object fromStored(Repository r, Type valueType, Object value) {
+                if (value instanceof Date) {
+                    return value;
+                }
+                return DateUtils.toTimestamp(value.toString());
+            }
+        },
+
+        ID_REF {
+            @Override
+            Object toStored(Object value) {
+                return ((IdRef<?>) value).getUri();
+            }
+
+            @Override
+            Object fromStored(Repository r, Type valueType, Object value) {
+                return IdRef.parse(r, HttpVerb.GET, value.toString());
+            }
+        },
+
+        TEXT {
+            @Override
+            Object toStored(Object value) {
+                return value.toString();
+            }
+
+            @Override
+            Object fromStored(Repository r, Type valueType, Object value) {
+                return value.toString();
+            }
+        },
+
+        LIST_OF_IDS {
+            @Override
+            @SuppressWarnings("unchecked")
+            Object toStored(Object value) {
+                List<IdRef<?>> ids = (List<IdRef<?>>) value;
+                List<String> uris = new ArrayList<>(ids.size());
+                for (IdRef<?> id : ids) {
+                    uris.add(id.getUri());
+                }
+                return uris;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            Object fromStored(Repository r, Type valueType, Object value) {
+                List<String> uris = (List<String>) value;
+                List<IdRef<?>> ids = new ArrayList<>(uris.size());
+                for (String uri : uris) {
+                    ids.add(r.parseId((Class<?>) valueType, uri));
+                }
+                return ids;
+            }
+
+            @Override
+            Type valueType(FieldModel fieldModel) {
+                return ReflectionUtils.getListGenericType(fieldModel.getField().getGenericType());
+            }
+        },
+
+        PLAIN;
+
+        /**
+         * @return whether the stored value is a text document rather than an indexable string.
+         */
+        public boolean isText() {
+            return this == JSON || this == LAZY_JSON || this == TEXT;
+        }
+
+        Object toStored(Object value) {
+            return value;
+        }
+
+        Object fromStored(Repository r, Type valueType, Object value) {
+            return value;
+        }
+
+        Type valueType(FieldModel fieldModel) {
+            return null;
+        }
+
+        static Kind of(FieldModel fieldModel) {
+            if (fieldModel.isEnum()) {
+                return ENUM;
+            }
+            if (fieldModel.isSaveAsJson()) {
+                return JSON;
+            }
+            if (fieldModel.isSaveAsLazyJson()) {
+                return LAZY_JSON;
+            }
+            if (fieldModel.isInt()) {
+                return INT;
+            }
+            if (fieldModel.isLong()) {
+                return LONG;
+            }
+            if (fieldModel.isDate()) {
+                return DATE;
+            }
+            if (fieldModel.isIdRef()) {
+                return ID_REF;
+            }
+            if (fieldModel.isSaveAsText()) {
+                return TEXT;
+            }
+            if (fieldModel.isListOfIds()) {
+                return LIST_OF_IDS;
+            }
+            return PLAIN;
+        }
+    }
+}
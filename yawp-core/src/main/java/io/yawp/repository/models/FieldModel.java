@@ -1,6 +1,5 @@
 package io.yawp.repository.models;
 
-import io.yawp.commons.utils.ReflectionUtils;
 import io.yawp.repository.IdRef;
 import io.yawp.repository.LazyJson;
 import io.yawp.repository.annotations.Id;
@@ -8,19 +7,114 @@ import io.yawp.repository.annotations.Index;
 import io.yawp.repository.annotations.Json;
 
 import java.beans.Transient;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
 public class FieldModel {
 
-    private Field field;
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Field field;
+
+    private final MethodHandle getter;
+
+    private final MethodHandle setter;
+
+    private final Index index;
+
+    private final boolean id;
+
+    private final boolean enumType;
+
+    private final boolean idRef;
+
+    private final boolean collection;
+
+    private final boolean list;
+
+    private final boolean listOfIds;
+
+    private final boolean saveAsJson;
+
+    private final boolean saveAsText;
+
+    private final boolean saveAsLazyJson;
+
+    private final boolean number;
+
+    private final boolean intType;
+
+    private final boolean longType;
+
+    private final boolean date;
+
+    private final boolean string;
+
+    private final boolean transientField;
 
     public FieldModel(Field field) {
         this.field = field;
         field.setAccessible(true);
+
+        this.getter = unreflectGetter(field);
+        this.setter = unreflectSetter(field);
+
+        Class<?> type = field.getType();
+
+        this.index = field.getAnnotation(Index.class);
+        this.id = field.isAnnotationPresent(Id.class);
+        this.enumType = Enum.class.isAssignableFrom(type);
+        this.idRef = IdRef.class.isAssignableFrom(type);
+        this.collection = Collection.class.isAssignableFrom(type);
+        this.list = List.class.isAssignableFrom(type);
+        this.listOfIds = list && isListOfIds(field.getGenericType());
+        this.saveAsJson = field.isAnnotationPresent(Json.class);
+        this.saveAsText = field.isAnnotationPresent(io.yawp.repository.annotations.Text.class);
+        this.saveAsLazyJson = LazyJson.class.isAssignableFrom(type);
+        this.intType = Integer.class.isAssignableFrom(type) || type.getName().equals("int");
+        this.longType = Long.class.isAssignableFrom(type) || type.getName().equals("long");
+        this.number = Number.class.isAssignableFrom(type) || intType || longType || type.getName().equals("double");
+        this.date = Date.class.isAssignableFrom(type);
+        this.string = String.class.isAssignableFrom(type);
+        this.transientField = Modifier.isTransient(field.getModifiers()) || field.isAnnotationPresent(Transient.class);
+    }
+
+    private static MethodHandle unreflectGetter(Field field) {
+        try {
+            return MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static MethodHandle unreflectSetter(Field field) {
+        try {
+            return MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            // final fields: fallback to reflection
+            return null;
+        }
+    }
+
+    private static boolean isListOfIds(Type type) {
+        if (!(type instanceof ParameterizedType)) {
+            return false;
+        }
+        Type listGenericType = ((ParameterizedType) type).getActualTypeArguments()[0];
+        if (listGenericType instanceof ParameterizedType) {
+            listGenericType = ((ParameterizedType) listGenericType).getRawType();
+        }
+        return listGenericType instanceof Class && IdRef.class.isAssignableFrom((Class<?>) listGenericType);
     }
 
     public Field getField() {
@@ -33,18 +127,34 @@ public class FieldModel {
 
     public Object getValue(Object object) {
         try {
-            return field.get(object);
-        } catch (IllegalArgumentException | IllegalAccessException e) {
-            throw new RuntimeException(e);
+            return getter.invokeExact(object);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    public void setValue(Object object, Object value) {
+        try {
+            if (setter == null) {
+                field.set(object, value);
+                return;
+            }
+            setter.invokeExact(object, value);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
         }
     }
 
     public boolean isId() {
-        return field.isAnnotationPresent(Id.class);
+        return id;
     }
 
     public boolean hasIndex() {
-        return field.getAnnotation(Index.class) != null;
+        return index != null;
     }
 
     public boolean isIndexNormalizable() {
@@ -52,7 +162,7 @@ public class FieldModel {
             throw new RuntimeException("You must add @Index annotation the the field '" + field.getName()
                     + "' if you want to use it as a index in where statements.");
         }
-        return getIndex().normalize() && isString();
+        return index.normalize() && string;
     }
 
     public boolean isEnum(Object value) {
@@ -64,72 +174,55 @@ public class FieldModel {
     }
 
     public boolean isEnum() {
-        return Enum.class.isAssignableFrom(field.getType());
+        return enumType;
     }
 
     public boolean isIdRef() {
-        return IdRef.class.isAssignableFrom(field.getType());
+        return idRef;
     }
 
     public boolean isCollection() {
-        return Collection.class.isAssignableFrom(field.getType());
+        return collection;
     }
 
     public boolean isSaveAsJson() {
-        return field.getAnnotation(Json.class) != null;
+        return saveAsJson;
     }
 
     public boolean isSaveAsText() {
-        return field.getAnnotation(io.yawp.repository.annotations.Text.class) != null;
+        return saveAsText;
     }
-    
-    public boolean isSaveAsLazyJson() {
-		return LazyJson.class.isAssignableFrom(field.getType());
-	}
 
-    private Index getIndex() {
-        return field.getAnnotation(Index.class);
+    public boolean isSaveAsLazyJson() {
+        return saveAsLazyJson;
     }
 
     public boolean isNumber() {
-        if (Number.class.isAssignableFrom(field.getType())) {
-            return true;
-        }
-        String name = field.getType().getName();
-        return name.equals("int") || name.equals("long") || name.equals("double");
+        return number;
     }
 
     public boolean isInt() {
-        return Integer.class.isAssignableFrom(field.getType()) || field.getType().getName().equals("int");
+        return intType;
     }
 
     public boolean isLong() {
-        return Long.class.isAssignableFrom(field.getType()) || field.getType().getName().equals("long");
+        return longType;
     }
 
     public boolean isDate() {
-        return Date.class.isAssignableFrom(field.getType());
-    }
-
-    private boolean isString() {
-        return String.class.isAssignableFrom(field.getType());
+        return date;
     }
 
     public boolean isList() {
-        return List.class.isAssignableFrom(field.getType());
+        return list;
     }
 
     public boolean isListOfIds() {
-        if (!isList()) {
-            return false;
-        }
-
-        Class<?> listGenericClazz = ReflectionUtils.getListGenericType(field.getGenericType());
-        return IdRef.class.isAssignableFrom(listGenericClazz);
+        return listOfIds;
     }
 
     public boolean isTransient() {
-        return Modifier.isTransient(field.getModifiers()) || field.isAnnotationPresent(Transient.class);
+        return transientField;
     }
 
 }
@@ -0,0 +1,34 @@
+package io.yawp.repository.models;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shared, thread-safe cache of {@link ObjectModel}s. Endpoint models are registered by
+ * the {@link io.yawp.repository.scanner.RepositoryScanner} at startup, any other class
+ * is resolved (once) on its first lookup.
+ */
+public final class ModelRegistry {
+
+    private static final ConcurrentMap<Class<?>, ObjectModel> models = new ConcurrentHashMap<>();
+
+    private ModelRegistry() {}
+
+    public static ObjectModel register(Class<?> clazz) {
+        ObjectModel model = new ObjectModel(clazz);
+        models.put(clazz, model);
+        return model;
+    }
+
+    public static ObjectModel get(Class<?> clazz) {
+        ObjectModel model = models.get(clazz);
+        if (model != null) {
+            return model;
+        }
+
+        model = new ObjectModel(clazz);
+        ObjectModel existing = models.putIfAbsent(clazz, model);
+        return existing != null ? existing : model;
+    }
+
+}
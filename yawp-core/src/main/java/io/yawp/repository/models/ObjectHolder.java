@@ -13,7 +13,7 @@ public class ObjectHolder {
 
     public ObjectHolder(Object object) {
         this.object = object;
-        this.model = new ObjectModel(object.getClass());
+        this.model = ModelRegistry.get(object.getClass());
     }
 
     public ObjectModel getModel() {
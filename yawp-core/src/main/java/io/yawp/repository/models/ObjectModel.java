@@ -3,25 +3,103 @@ package io.yawp.repository.models;
 import io.yawp.commons.utils.ReflectionUtils;
 import io.yawp.commons.utils.kind.KindResolver;
 import io.yawp.repository.IdRef;
+import io.yawp.repository.annotations.Endpoint;
 import io.yawp.repository.annotations.Id;
 import io.yawp.repository.annotations.ParentId;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Immutable metadata of an endpoint class. All reflection is done once, at construction
+ * time. Use {@link ModelRegistry#get(Class)} to obtain the shared instance of a class.
+ */
 public class ObjectModel {
 
-    private Class<?> clazz;
+    private final Class<?> clazz;
+
+    private final Field idField;
+
+    private final Field parentField;
+
+    private final Class<?> parentClazz;
+
+    private final List<Class<?>> ancestors;
+
+    private final List<FieldModel> fieldModels;
+
+    private final Map<String, FieldModel> fieldModelsByName;
+
+    private final boolean typedColumns;
+
+    private final boolean partitionByNamespace;
+
+    private volatile String kind;
+
+    private volatile Constructor<?> defaultConstructor;
 
     public ObjectModel(Class<?> clazz) {
         this.clazz = clazz;
+        this.idField = ReflectionUtils.getFieldWithAnnotation(clazz, Id.class);
+        this.parentField = ReflectionUtils.getFieldWithAnnotation(clazz, ParentId.class);
+        this.parentClazz = resolveParentClazz(parentField);
+        this.ancestors = Collections.unmodifiableList(resolveAncestors(clazz, parentClazz));
+
+        List<FieldModel> fieldModels = new ArrayList<>();
+        Map<String, FieldModel> fieldModelsByName = new HashMap<>();
+
+        for (Field field : ReflectionUtils.getFieldsRecursively(clazz)) {
+            FieldModel fieldModel = new FieldModel(field);
+            fieldModels.add(fieldModel);
+            if (!fieldModelsByName.containsKey(field.getName())) {
+                fieldModelsByName.put(field.getName(), fieldModel);
+            }
+        }
+
+        this.fieldModels = Collections.unmodifiableList(fieldModels);
+        this.fieldModelsByName = fieldModelsByName;
+
+        Endpoint endpoint = clazz.getAnnotation(Endpoint.class);
+        this.typedColumns = endpoint != null && endpoint.typedColumns();
+        this.partitionByNamespace = endpoint != null && endpoint.partitionByNamespace();
+    }
+
+    private static Class<?> resolveParentClazz(Field parentField) {
+        if (parentField == null) {
+            return null;
+        }
+        Type parentType = ReflectionUtils.getGenericTypeArgumentAt(parentField.getGenericType(), 0);
+        if (!(parentType instanceof Class)) {
+            return null;
+        }
+        return (Class<?>) parentType;
+    }
+
+    private static List<Class<?>> resolveAncestors(Class<?> clazz, Class<?> parentClazz) {
+        List<Class<?>> ancestors = new ArrayList<>();
+        Class<?> ancestorClazz = parentClazz;
+
+        while (ancestorClazz != null && !ancestorClazz.equals(clazz) && !ancestors.contains(ancestorClazz)) {
+            ancestors.add(ancestorClazz);
+            Field ancestorParentField = ReflectionUtils.getFieldWithAnnotation(ancestorClazz, ParentId.class);
+            ancestorClazz = resolveParentClazz(ancestorParentField);
+        }
+
+        return ancestors;
     }
 
     public String getKind() {
-        return KindResolver.getKindFromClass(clazz);
+        if (kind == null) {
+            kind = KindResolver.getKindFromClass(clazz);
+        }
+        return kind;
     }
 
     public Class<?> getClazz() {
@@ -29,15 +107,15 @@ public class ObjectModel {
     }
 
     public Field getIdField() {
-        return ReflectionUtils.getFieldWithAnnotation(clazz, Id.class);
+        return idField;
     }
 
     public Field getParentField() {
-        return ReflectionUtils.getFieldWithAnnotation(clazz, ParentId.class);
+        return parentField;
     }
 
     public String getIdFieldName() {
-        return getIdField().getName();
+        return idField.getName();
     }
 
     public boolean isIdRef(Field field) {
@@ -45,49 +123,34 @@ public class ObjectModel {
     }
 
     public Class<?> getParentClazz() {
-        Field parentField = getParentField();
-        if (parentField == null) {
-            return null;
-        }
-        return ReflectionUtils.getIdRefEndpointClazz(parentField);
+        return parentClazz;
     }
 
     public boolean hasParent() {
-        return getParentField() != null;
+        return parentField != null;
     }
 
     public ObjectModel getParentModel() {
-        return new ObjectModel(getParentClazz());
+        return ModelRegistry.get(parentClazz);
+    }
+
+    /**
+     * @return the endpoint classes above this one in the parent hierarchy, starting with
+     * its immediate parent.
+     */
+    public List<Class<?>> getAncestors() {
+        return ancestors;
     }
 
     public Class<?> getAncestorClazz(int ancestor) {
-        Class<?> parentClazz = clazz;
-        for (int i = 0; i <= ancestor; i++) {
-            ObjectModel model = new ObjectModel(parentClazz);
-            parentClazz = model.getParentClazz();
+        if (ancestor < 0 || ancestor >= ancestors.size()) {
+            return null;
         }
-        return parentClazz;
+        return ancestors.get(ancestor);
     }
 
     public int getAncestorNumber(Class<?> ancestorClazz) {
-        if (clazz.equals(ancestorClazz)) {
-            return -1;
-        }
-
-        Class<?> parentClazz = getParentClazz();
-        int ancestorNumber = 0;
-
-        while (parentClazz != null && !parentClazz.equals(ancestorClazz)) {
-            ObjectModel model = new ObjectModel(parentClazz);
-            parentClazz = model.getParentClazz();
-            ancestorNumber++;
-        }
-
-        if (parentClazz == null) {
-            return -1;
-        }
-
-        return ancestorNumber;
+        return ancestors.indexOf(ancestorClazz);
     }
 
     public boolean isAncestor(Class<?> ancestorClazz) {
@@ -95,31 +158,33 @@ public class ObjectModel {
     }
 
     public List<FieldModel> getFieldModels() {
-        List<Field> fields = ReflectionUtils.getFieldsRecursively(clazz);
-
-        List<FieldModel> fieldModels = new ArrayList<FieldModel>();
-
-        for (Field field : fields) {
-            fieldModels.add(new FieldModel(field));
-        }
-
         return fieldModels;
     }
 
     public FieldModel getFieldModel(String fieldName) {
+        FieldModel fieldModel = fieldModelsByName.get(fieldName);
+        if (fieldModel != null) {
+            return fieldModel;
+        }
         return new FieldModel(ReflectionUtils.getFieldRecursively(clazz, fieldName));
     }
 
+    public boolean isTypedColumns() {
+        return typedColumns;
+    }
+
+    public boolean isPartitionByNamespace() {
+        return partitionByNamespace;
+    }
+
     public boolean isIdShuffled() {
-        return getIdField().getAnnotation(Id.class).shuffle();
+        return idField.getAnnotation(Id.class).shuffle();
     }
 
     @SuppressWarnings("unchecked")
     public <T> T createInstance() {
         try {
-            Constructor<T> defaultConstructor = (Constructor<T>) clazz.getDeclaredConstructor(new Class<?>[]{});
-            defaultConstructor.setAccessible(true);
-            return defaultConstructor.newInstance();
+            return (T) getDefaultConstructor().newInstance();
 
         } catch (InvocationTargetException e) {
             throw new RuntimeException("An exception was thrown when calling the default constructor of the class " + clazz.getSimpleName()
@@ -133,4 +198,13 @@ public class ObjectModel {
             throw new RuntimeException("Unexpected error: ", e);
         }
     }
+
+    private Constructor<?> getDefaultConstructor() throws NoSuchMethodException {
+        if (defaultConstructor == null) {
+            Constructor<?> constructor = clazz.getDeclaredConstructor(new Class<?>[]{});
+            constructor.setAccessible(true);
+            defaultConstructor = constructor;
+        }
+        return defaultConstructor;
+    }
 }
@@ -3,25 +3,96 @@ package io.yawp.repository.pipes;
 import io.yawp.repository.IdRef;
 import io.yawp.repository.Repository;
 import io.yawp.repository.models.ObjectHolder;
-import io.yawp.repository.query.NoResultException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Saves and destroys pipe sources and sinks. Each save or destroy of a source bumps its
+ * {@link SourceMarker} once, and every pipe of the source shares that version. The flux
+ * and reflux old works of one save never reach the same sink, so they share it as well.
+ */
 public class RepositoryPipes {
 
     private RepositoryPipes() {}
 
-    public static void flux(Repository r, Object source) {
-        Class<?> endpointClazz = source.getClass();
+    /**
+     * Saves a pipe source or sink. The old object and the source marker are read with one
+     * batch fetch, and the object and its marker are written with one batch save.
+     */
+    public static void save(Repository r, Object object) {
+        Class<?> endpointClazz = object.getClass();
+        boolean source = isPipeSource(r, endpointClazz);
+        IdRef<?> id = new ObjectHolder(object).getId();
 
-        if (!isPipeSource(r, endpointClazz)) {
+        if (id == null) {
+            saveNew(r, object, source);
             return;
         }
 
-        for (Class<? extends Pipe> pipeClazz : r.getEndpointFeatures(endpointClazz).getPipes()) {
-            Pipe pipe = Pipe.newInstance(r, pipeClazz);
-            r.driver().pipes().flux(pipe, source);
+        List<?> existing = fetchWithSourceMarker(r, id, source);
+        Object oldObject = existing.get(0);
+        SourceMarker sourceMarker = source ? nextSourceMarker(id, (SourceMarker) existing.get(1)) : null;
+
+        if (oldObject != null) {
+            refluxOld(r, endpointClazz, object, oldObject, sourceMarker);
+            reflowSink(r, endpointClazz, object, oldObject);
         }
+
+        if (!source) {
+            r.driver().persistence().save(object);
+            return;
+        }
+
+        r.driver().persistence().saveAll(Arrays.asList(object, sourceMarker));
+        flux(r, endpointClazz, object, sourceMarker);
     }
 
+    /**
+     * Saves pipe sinks that are not pipe sources. Their old versions are read with one batch
+     * fetch to check the reflow conditions, and the sinks are written with one batch save.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static void saveSinks(Repository r, Class<?> endpointClazz, List<?> sinks) {
+        List<Object> existingSinks = new ArrayList<>();
+        List<IdRef<?>> ids = new ArrayList<>();
+        for (Object sink : sinks) {
+            IdRef<?> id = new ObjectHolder(sink).getId();
+            if (id != null) {
+                existingSinks.add(sink);
+                ids.add(id);
+            }
+        }
+
+        if (!ids.isEmpty()) {
+            List<?> oldSinks = r.fetch((List) ids);
+            for (int i = 0; i < ids.size(); i++) {
+                if (oldSinks.get(i) != null) {
+                    reflowSink(r, endpointClazz, existingSinks.get(i), oldSinks.get(i));
+                }
+            }
+        }
+
+        r.driver().persistence().saveAll(sinks);
+    }
+
+    private static void saveNew(Repository r, Object object, boolean source) {
+        r.driver().persistence().save(object);
+
+        if (!source) {
+            return;
+        }
+
+        SourceMarker sourceMarker = nextSourceMarker(new ObjectHolder(object).getId(), null);
+        r.driver().persistence().save(sourceMarker);
+        flux(r, object.getClass(), object, sourceMarker);
+    }
+
+    /**
+     * Refluxes a source about to be destroyed, fetching it along with its marker.
+     */
     public static void reflux(Repository r, IdRef<?> id) {
         Class<?> endpointClazz = id.getClazz();
 
@@ -29,48 +100,49 @@ public class RepositoryPipes {
             return;
         }
 
-        // TODO: Pipes - Think about... Shield may have already loaded this source.
-        Object source;
-        try {
-            source = id.fetch();
-        } catch (NoResultException e) {
+        List<?> existing = fetchWithSourceMarker(r, id, true);
+        Object source = existing.get(0);
+        if (source == null) {
             return;
         }
 
+        SourceMarker sourceMarker = nextSourceMarker(id, (SourceMarker) existing.get(1));
+        r.driver().persistence().save(sourceMarker);
+
         for (Class<? extends Pipe> pipeClazz : r.getEndpointFeatures(endpointClazz).getPipes()) {
             Pipe pipe = Pipe.newInstance(r, pipeClazz);
-            r.driver().pipes().reflux(pipe, source);
+            r.driver().pipes().reflux(pipe, source, sourceMarker);
         }
     }
 
-    public static void updateExisting(Repository r, Object object) {
-        Class<?> endpointClazz = object.getClass();
-
-        if (!isPipeSourceOrSink(r, endpointClazz)) {
-            return;
-        }
-
-        Object oldObject;
+    /**
+     * Bumps and saves the marker of a source fluxed or refluxed outside of its own save or
+     * destroy, as reflows and reloads do.
+     */
+    public static SourceMarker saveSourceMarker(Repository r, Object source) {
+        IdRef<?> sourceId = new ObjectHolder(source).getId();
+        SourceMarker sourceMarker = r.fetch(Collections.singletonList(createSourceMarkerId(sourceId))).get(0);
+
+        sourceMarker = nextSourceMarker(sourceId, sourceMarker);
+        r.save(sourceMarker);
+        return sourceMarker;
+    }
 
-        try {
-            // TODO: Pipes - Think about... Shield may have already loaded this object.
-            oldObject = fetchOldObject(object);
-        } catch (NoResultException e) {
-            return;
+    private static void flux(Repository r, Class<?> endpointClazz, Object source, SourceMarker sourceMarker) {
+        for (Class<? extends Pipe> pipeClazz : r.getEndpointFeatures(endpointClazz).getPipes()) {
+            Pipe pipe = Pipe.newInstance(r, pipeClazz);
+            r.driver().pipes().flux(pipe, source, sourceMarker);
         }
-
-        refluxOld(r, endpointClazz, object, oldObject);
-        reflowSink(r, endpointClazz, object, oldObject);
     }
 
-    private static void refluxOld(Repository r, Class<?> endpointClazz, Object source, Object oldSource) {
-        if (!isPipeSource(r, endpointClazz)) {
+    private static void refluxOld(Repository r, Class<?> endpointClazz, Object source, Object oldSource, SourceMarker sourceMarker) {
+        if (sourceMarker == null) {
             return;
         }
 
         for (Class<? extends Pipe> pipeClazz : r.getEndpointFeatures(endpointClazz).getPipes()) {
             Pipe pipe = Pipe.newInstance(r, pipeClazz);
-            r.driver().pipes().refluxOld(pipe, source, oldSource);
+            r.driver().pipes().refluxOld(pipe, source, oldSource, sourceMarker);
         }
     }
 
@@ -89,14 +161,33 @@ public class RepositoryPipes {
         }
     }
 
-    private static Object fetchOldObject(Object object) {
-        ObjectHolder objectHolder = new ObjectHolder(object);
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<?> fetchWithSourceMarker(Repository r, IdRef<?> id, boolean source) {
+        List<IdRef<?>> ids = new ArrayList<>();
+        ids.add(id);
+        if (source) {
+            ids.add(createSourceMarkerId(id));
+        }
+        return r.fetch((List) ids);
+    }
 
-        if (objectHolder.getId() == null) {
-            throw new NoResultException();
+    private static SourceMarker nextSourceMarker(IdRef<?> sourceId, SourceMarker sourceMarker) {
+        if (sourceMarker != null) {
+            sourceMarker.increment();
+            return sourceMarker;
         }
 
-        return objectHolder.getId().fetch();
+        sourceMarker = new SourceMarker();
+        sourceMarker.setId(createSourceMarkerId(sourceId));
+        sourceMarker.setParentId(sourceId);
+        return sourceMarker;
+    }
+
+    private static IdRef<SourceMarker> createSourceMarkerId(IdRef<?> sourceId) {
+        if (sourceId.getId() != null) {
+            return sourceId.createChildId(SourceMarker.class, sourceId.getId());
+        }
+        return sourceId.createChildId(SourceMarker.class, sourceId.getName());
     }
 
     public static boolean isPipeSourceOrSink(Repository r, Class<?> endpointClazz) {
@@ -3,6 +3,7 @@ package io.yawp.repository.pipes;
 import io.yawp.commons.utils.JsonUtils;
 import io.yawp.commons.utils.ReflectionUtils;
 import io.yawp.repository.IdRef;
+import io.yawp.repository.Repository;
 import io.yawp.repository.annotations.Endpoint;
 import io.yawp.repository.annotations.Id;
 import io.yawp.repository.annotations.ParentId;
@@ -11,6 +12,14 @@ import io.yawp.repository.models.ObjectHolder;
 
 import static io.yawp.repository.Yawp.yawp;
 
+/**
+ * Remembers the last version of a source that one pipe flowed into a sink. Markers are
+ * children of the sink and the source, named after their pipe, so each pipe of a source
+ * reaching the same sink keeps its own version and its own copy of the source to reflux.
+ * <p>
+ * Markers saved before they were kept per pipe are shared by all the pipes of the source
+ * and named after it. A pipe without a marker of its own starts from the shared one.
+ */
 @Endpoint(kind = "__yawp_pipes_sink_markers")
 public class SinkMarker {
 
@@ -31,6 +40,10 @@ public class SinkMarker {
 
     private transient Object source;
 
+    public IdRef<SinkMarker> getId() {
+        return id;
+    }
+
     public void setId(IdRef<SinkMarker> id) {
         this.id = id;
     }
@@ -77,4 +90,53 @@ public class SinkMarker {
         this.sourceJson = sourceJson;
         this.source = null;
     }
+
+    /**
+     * @return a copy of the marker under the given id.
+     */
+    public SinkMarker copy(IdRef<SinkMarker> id) {
+        SinkMarker sinkMarker = new SinkMarker();
+        sinkMarker.setId(id);
+        sinkMarker.setParentId(id.getParentId());
+        sinkMarker.sourceClazzName = sourceClazzName;
+        sinkMarker.sourceJson = sourceJson;
+        sinkMarker.version = version;
+        sinkMarker.present = present;
+        return sinkMarker;
+    }
+
+    public static IdRef<SinkMarker> createId(Repository r, Class<?> pipeClazz, IdRef<?> sinkId, IdRef<?> sourceId) {
+        IdRef<SinkMarker> sinkMarkerId = IdRef.create(r, SinkMarker.class, pipeClazz.getName());
+        sinkMarkerId.setParentId(createSourceId(sinkId, sourceId));
+        return sinkMarkerId;
+    }
+
+    public static IdRef<SinkMarker> createSharedId(Repository r, IdRef<?> sinkId, IdRef<?> sourceId) {
+        IdRef<SinkMarker> sinkMarkerId;
+        if (sourceId.getId() != null) {
+            sinkMarkerId = IdRef.create(r, SinkMarker.class, sourceId.getId());
+        } else {
+            sinkMarkerId = IdRef.create(r, SinkMarker.class, sourceId.getName());
+        }
+        sinkMarkerId.setParentId(createSourceId(sinkId, sourceId));
+        return sinkMarkerId;
+    }
+
+    private static IdRef<?> createSourceId(IdRef<?> sinkId, IdRef<?> sourceId) {
+        if (sourceId.getId() != null) {
+            return sinkId.createChildId(sourceId.getClazz(), sourceId.getId());
+        }
+        return sinkId.createChildId(sourceId.getClazz(), sourceId.getName());
+    }
+
+    /**
+     * @return whether the marker is the one of the pipe or the one shared by all pipes.
+     */
+    public static boolean isOf(IdRef<?> sinkMarkerId, Class<?> pipeClazz) {
+        if (sinkMarkerId.getId() != null) {
+            return true;
+        }
+        String name = sinkMarkerId.getName();
+        return name.equals(pipeClazz.getName()) || name.equals(sinkMarkerId.getParentId().getName());
+    }
 }
@@ -2,6 +2,7 @@ package io.yawp.repository.query;
 
 import io.yawp.repository.IdRef;
 import io.yawp.repository.Repository;
+import io.yawp.repository.models.ModelRegistry;
 import io.yawp.repository.models.ObjectModel;
 import io.yawp.repository.query.condition.BaseCondition;
 import io.yawp.repository.query.condition.Condition;
@@ -32,10 +33,12 @@ public class QueryBuilder<T> {
 
     private String cursor;
 
+    private List<String> projection;
+
     private QueryBuilder(Class<T> clazz, Repository r) {
         this.clazz = clazz;
         this.r = r;
-        this.model = new ObjectModel(clazz);
+        this.model = ModelRegistry.get(clazz);
     }
 
     public static <T> QueryBuilder<T> q(Class<T> clazz, Repository r) {
@@ -109,6 +112,22 @@ public class QueryBuilder<T> {
         return this;
     }
 
+    /**
+     * Restricts the query to the given fields. Objects returned by the query have only their
+     * id and these fields populated, and drivers read nothing else from the datastore.
+     */
+    public QueryBuilder<T> select(String... fields) {
+        List<String> projection = new ArrayList<String>(fields.length);
+        for (String field : fields) {
+            if (model.getFieldModel(field).isTransient()) {
+                throw new RuntimeException("select() cannot be used with the transient field '" + field + "'.");
+            }
+            projection.add(field);
+        }
+        this.projection = projection;
+        return this;
+    }
+
     public QueryBuilder<T> cursor(String cursor) {
         this.cursor = cursor;
         return this;
@@ -158,6 +177,17 @@ public class QueryBuilder<T> {
         return preOrders;
     }
 
+    /**
+     * @return the selected fields, or null when the query reads entire objects.
+     */
+    public List<String> getProjection() {
+        return projection;
+    }
+
+    public boolean hasProjection() {
+        return projection != null;
+    }
+
     public BaseCondition getCondition() {
         return condition;
     }
@@ -240,6 +270,10 @@ public class QueryBuilder<T> {
     }
 
     private List<T> executeQuery() {
+        if (hasProjection() && hasPostFilter()) {
+            throw new RuntimeException("select() cannot be used with post query filter. You may need to add @Index to your model attributes.");
+        }
+
         List<T> objects = r.driver().query().objects(this);
         return postFilter(objects);
     }
@@ -1,7 +1,7 @@
 package io.yawp.repository.query.condition;
 
-import io.yawp.commons.utils.ReflectionUtils;
 import io.yawp.repository.IdRef;
+import io.yawp.repository.models.ModelRegistry;
 import io.yawp.repository.models.ObjectHolder;
 import io.yawp.repository.models.ObjectModel;
 
@@ -26,7 +26,7 @@ public class ConditionReference {
     public ConditionReference(String refString, Class<?> clazz, Object object) {
         this.refString = refString;
         this.clazz = clazz;
-        this.model = new ObjectModel(clazz);
+        this.model = clazz != null ? ModelRegistry.get(clazz) : null;
         this.object = object;
         this.objectHolder = new ObjectHolder(object);
 
@@ -56,7 +56,7 @@ public class ConditionReference {
         Object currentObject = advanceAncestorSequenceIfNecessary();
 
         while (hasMoreRefs()) {
-            IdRef<?> objectId = (IdRef<?>) ReflectionUtils.getFieldValue(currentObject, nextRef());
+            IdRef<?> objectId = (IdRef<?>) getFieldValue(currentObject, nextRef());
 
             if (objectId == null) {
                 return null;
@@ -65,7 +65,11 @@ public class ConditionReference {
             currentObject = objectId.fetch();
         }
 
-        return ReflectionUtils.getFieldValue(currentObject, fieldName());
+        return getFieldValue(currentObject, fieldName());
+    }
+
+    private Object getFieldValue(Object currentObject, String fieldName) {
+        return ModelRegistry.get(currentObject.getClass()).getFieldModel(fieldName).getValue(currentObject);
     }
 
     private void verifyIfConditionIsForChild() throws ConditionForChildException {
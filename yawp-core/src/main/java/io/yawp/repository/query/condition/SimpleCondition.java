@@ -2,6 +2,7 @@ package io.yawp.repository.query.condition;
 
 import io.yawp.repository.models.FieldModel;
 import io.yawp.repository.IdRef;
+import io.yawp.repository.models.ModelRegistry;
 import io.yawp.repository.models.ObjectModel;
 import io.yawp.repository.Repository;
 
@@ -37,7 +38,7 @@ public class SimpleCondition extends BaseCondition {
     public void init(Repository r, Class<?> clazz) {
         this.r = r;
         this.clazz = clazz;
-        this.model = new ObjectModel(clazz);
+        this.model = ModelRegistry.get(clazz);
         normalizeIdRefs();
     }
 
@@ -6,6 +6,7 @@ import io.yawp.repository.RepositoryFeatures;
 import io.yawp.repository.actions.Action;
 import io.yawp.repository.annotations.Endpoint;
 import io.yawp.repository.hooks.Hook;
+import io.yawp.repository.models.ModelRegistry;
 import io.yawp.repository.pipes.Pipe;
 import io.yawp.repository.shields.Shield;
 import io.yawp.repository.transformers.Transformer;
@@ -85,6 +86,7 @@ public final class RepositoryScanner {
             EndpointTree<?> tree = trees.get(endpointClazz);
             EndpointFeatures<?> endpoint = new EndpointFeatures<>(endpointClazz);
 
+            ModelRegistry.register(endpointClazz);
             actionLoader.load(endpoint, tree);
             transformerLoader.load(endpoint, tree);
             endpoint.setHooks(tree.loadHooks());
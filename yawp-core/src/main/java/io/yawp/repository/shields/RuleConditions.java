@@ -3,11 +3,13 @@ package io.yawp.repository.shields;
 import io.yawp.repository.IdRef;
 import io.yawp.repository.models.ObjectHolder;
 import io.yawp.repository.Repository;
-import io.yawp.repository.query.NoResultException;
 import io.yawp.repository.query.condition.BaseCondition;
 import io.yawp.repository.query.condition.Condition;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class RuleConditions {
 
@@ -85,7 +87,29 @@ public class RuleConditions {
             return condition.evaluate(id.fetch());
         }
 
-        return evaluateObjects(new EvaluateExisting());
+        return evaluateObjects(new EvaluateExisting(fetchExistingObjects()));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Map<IdRef<?>, Object> fetchExistingObjects() {
+        List<IdRef<?>> ids = new ArrayList<>();
+        for (Object object : objects) {
+            IdRef<?> id = new ObjectHolder(object).getId();
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+
+        Map<IdRef<?>, Object> existingObjects = new HashMap<>();
+        if (ids.isEmpty()) {
+            return existingObjects;
+        }
+
+        List<?> fetched = r.fetch((List) ids);
+        for (int i = 0; i < ids.size(); i++) {
+            existingObjects.put(ids.get(i), fetched.get(i));
+        }
+        return existingObjects;
     }
 
     private boolean evaluateObjects(Evaluate e) {
@@ -111,6 +135,13 @@ public class RuleConditions {
     }
 
     private class EvaluateExisting implements Evaluate {
+
+        private final Map<IdRef<?>, Object> existingObjects;
+
+        public EvaluateExisting(Map<IdRef<?>, Object> existingObjects) {
+            this.existingObjects = existingObjects;
+        }
+
         @Override
         public boolean evaluate(Object object) {
             ObjectHolder objectHolder = new ObjectHolder(object);
@@ -119,10 +150,8 @@ public class RuleConditions {
                 return true;
             }
 
-            Object existingObject;
-            try {
-                existingObject = id.fetch();
-            } catch (NoResultException e) {
+            Object existingObject = existingObjects.get(id);
+            if (existingObject == null) {
                 return true;
             }
 
@@ -1,6 +1,7 @@
 package io.yawp.repository.shields;
 
 import io.yawp.commons.http.HttpException;
+import io.yawp.commons.http.RequestBody;
 import io.yawp.commons.utils.FacadeUtils;
 import io.yawp.repository.Feature;
 import io.yawp.repository.IdRef;
@@ -8,10 +9,12 @@ import io.yawp.repository.models.ObjectHolder;
 import io.yawp.repository.actions.ActionKey;
 import io.yawp.repository.actions.ActionMethod;
 import io.yawp.repository.actions.InvalidActionMethodException;
+import io.yawp.repository.query.NoResultException;
 import io.yawp.repository.query.condition.BaseCondition;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -32,7 +35,7 @@ public abstract class ShieldBase<T> extends Feature {
 
     protected List<T> objects;
 
-    protected String requestJson;
+    private RequestBody requestBody;
 
     protected Map<String, String> params;
 
@@ -61,7 +64,18 @@ public abstract class ShieldBase<T> extends Feature {
     }
 
     public void setRequestJson(String requestJson) {
-        this.requestJson = requestJson;
+        setRequestBody(new RequestBody(requestJson));
+    }
+
+    public void setRequestBody(RequestBody requestBody) {
+        this.requestBody = requestBody;
+    }
+
+    /**
+     * The text is built on the first call, so shields that never read it do not pay for it.
+     */
+    protected String getRequestJson() {
+        return requestBody == null ? null : requestBody.getJson();
     }
 
     public final void setParams(Map<String, String> params) {
@@ -184,6 +198,7 @@ public abstract class ShieldBase<T> extends Feature {
             return;
         }
 
+        List<IdRef<T>> existingObjectIds = new ArrayList<>();
         for (T object : objects) {
             ObjectHolder objectHolder = new ObjectHolder(object);
             IdRef<T> existingObjectId = (IdRef<T>) objectHolder.getId();
@@ -193,7 +208,27 @@ public abstract class ShieldBase<T> extends Feature {
                 continue;
             }
 
-            FacadeUtils.set(object, existingObjectId.fetch(), facade);
+            existingObjectIds.add(existingObjectId);
+        }
+
+        if (existingObjectIds.isEmpty()) {
+            return;
+        }
+
+        List<T> existingObjects = yawp.fetch(existingObjectIds);
+
+        int i = 0;
+        for (T object : objects) {
+            if (new ObjectHolder(object).getId() == null) {
+                continue;
+            }
+
+            T existingObject = existingObjects.get(i++);
+            if (existingObject == null) {
+                throw new NoResultException();
+            }
+
+            FacadeUtils.set(object, existingObject, facade);
         }
 
     }
@@ -248,10 +283,14 @@ public abstract class ShieldBase<T> extends Feature {
         }
     }
 
+    private RequestBody getRequestBody() {
+        return requestBody == null ? new RequestBody((String) null) : requestBody;
+    }
+
     private Object[] createArguments(Method method) {
         try {
             ActionMethod actionMethod = new ActionMethod(method);
-            return actionMethod.createArguments(yawp, id, requestJson, params);
+            return actionMethod.createArguments(yawp, id, getRequestBody(), params);
         } catch (InvalidActionMethodException e) {
             throw new RuntimeException(e);
         }
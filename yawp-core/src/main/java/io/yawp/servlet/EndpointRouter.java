@@ -3,6 +3,7 @@ package io.yawp.servlet;
 import io.yawp.commons.http.HttpException;
 import io.yawp.commons.http.HttpResponse;
 import io.yawp.commons.http.HttpVerb;
+import io.yawp.commons.http.RequestBody;
 import io.yawp.commons.http.RequestContext;
 import io.yawp.commons.utils.Environment;
 import io.yawp.commons.utils.JsonUtils;
@@ -10,9 +11,7 @@ import io.yawp.repository.*;
 import io.yawp.repository.actions.ActionKey;
 import io.yawp.repository.models.ObjectHolder;
 import io.yawp.servlet.rest.RestAction;
-import org.apache.commons.lang3.StringUtils;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -34,7 +33,7 @@ public class EndpointRouter {
 
     private Class<?> endpointClazz;
 
-    private String requestJson;
+    private RequestBody requestBody;
 
     private Map<String, String> params;
 
@@ -48,7 +47,7 @@ public class EndpointRouter {
         this.r = r;
         this.verb = ctx.getHttpVerb();
         this.uri = ctx.getUri();
-        this.requestJson = ctx.getJson();
+        this.requestBody = ctx.getBody();
         this.params = ctx.getParams();
         this.features = r.getFeatures();
 
@@ -76,105 +75,18 @@ public class EndpointRouter {
     }
 
     private void parseAll() {
-        this.id = IdRef.parse(r, verb, uri);
+        Route route = features.getRoutes().resolve(r, verb, uri);
 
-        this.customActionKey = parseCustomActionKey();
-        this.overCollection = parseOverCollection();
-        this.endpointClazz = parseEndpointClazz();
+        this.id = route.getId();
+        this.customActionKey = route.getCustomActionKey();
+        this.overCollection = route.isOverCollection();
+        this.endpointClazz = route.getEndpointClazz();
 
         if (!isCustomAction()) {
             this.objects = parseRequestJson();
         }
     }
 
-    private Class<?> parseEndpointClazz() {
-        String[] parts = uri.substring(1).split("/");
-
-        if (isOverCollection()) {
-            if (isCustomAction()) {
-                return features.getByPath("/" + parts[parts.length - 2]).getClazz();
-            }
-            return features.getByPath("/" + parts[parts.length - 1]).getClazz();
-        }
-
-        return id.getClazz();
-    }
-
-    private ActionKey parseCustomActionKey() {
-
-        if (id == null) {
-            return rootCollectionCustomActionKey();
-        }
-
-        if (id.getUri().length() == uri.length()) {
-            return null;
-        }
-
-        String lastToken = uri.substring(id.getUri().length() + 1);
-        if (hasTwoParts(lastToken)) {
-            return nestedCollectionCustomActionKey(lastToken);
-        }
-
-        return singleObjectCustomActionKey(lastToken);
-    }
-
-    private ActionKey singleObjectCustomActionKey(String lastToken) {
-        ActionKey actionKey = new ActionKey(verb, lastToken, false);
-        if (features.hasCustomAction(id.getClazz(), actionKey)) {
-            return actionKey;
-        }
-
-        return null;
-    }
-
-    private ActionKey nestedCollectionCustomActionKey(String lastToken) {
-        String[] tokens = lastToken.split("/");
-
-        ActionKey actionKey = new ActionKey(verb, tokens[1], true);
-        if (features.hasCustomAction("/" + tokens[0], actionKey)) {
-            return actionKey;
-        }
-        return null;
-    }
-
-    private ActionKey rootCollectionCustomActionKey() {
-        String[] tokens = uri.substring(1).split("/");
-
-        if (tokens.length == 1) {
-            return null;
-        }
-
-        ActionKey actionKey = new ActionKey(verb, tokens[1], true);
-        if (features.hasCustomAction("/" + tokens[0], actionKey)) {
-            return actionKey;
-        }
-
-        return null;
-    }
-
-    private boolean parseOverCollection() {
-        if (id == null) {
-            return true;
-        }
-
-        if (id.getUri().length() == uri.length()) {
-            return false;
-        }
-
-        String lastToken = uri.substring(id.getUri().length() + 1);
-        if (hasTwoParts(lastToken)) {
-            return true;
-        }
-
-        ActionKey actionKey = new ActionKey(verb, lastToken, false);
-        return !features.hasCustomAction(id.getClazz(), actionKey);
-
-    }
-
-    private boolean hasTwoParts(String lastToken) {
-        return lastToken.contains("/");
-    }
-
     public boolean isOverCollection() {
         return overCollection;
     }
@@ -202,7 +114,7 @@ public class EndpointRouter {
             action.setId(id);
             action.setParams(params);
             action.setCustomActionKey(customActionKey);
-            action.setRequestJson(requestJson);
+            action.setRequestBody(requestBody);
             action.setObjects(objects);
 
             action.defineTrasnformer();
@@ -216,15 +128,10 @@ public class EndpointRouter {
     }
 
     private List<?> parseRequestJson() {
-        if (StringUtils.isBlank(requestJson)) {
+        if (requestBody == null) {
             return null;
         }
-
-        if (JsonUtils.isJsonArray(requestJson)) {
-            return JsonUtils.fromList(r, requestJson, endpointClazz);
-        }
-
-        return Collections.singletonList(JsonUtils.from(r, requestJson, endpointClazz));
+        return requestBody.fromList(r, endpointClazz);
     }
 
     public HttpResponse executeRestAction(boolean enableHooks) {
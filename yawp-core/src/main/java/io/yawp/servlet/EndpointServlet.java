@@ -41,6 +41,7 @@ public class EndpointServlet extends HttpServlet {
     @Override
     public void destroy() {
         super.destroy();
+        DriverFactory.getDriver().destroy();
         Yawp.destroyFeatures();
     }
 
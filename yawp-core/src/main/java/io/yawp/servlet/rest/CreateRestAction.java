@@ -34,17 +34,14 @@ public class CreateRestAction extends RestAction {
     }
 
     private Object saveObjecs(List<?> objects) {
-        List<FutureObject<Object>> futures = new ArrayList<FutureObject<Object>>();
         List<Object> resultObjects = new ArrayList<Object>();
 
-        for (Object object : objects) {
-            futures.add(saveObjectAsync(object));
-        }
+        saveAll(objects);
 
-        for (FutureObject<Object> future : futures) {
-            Object object = transform(future.get());
-            applyGetFacade(object);
-            resultObjects.add(object);
+        for (Object object : objects) {
+            Object resultObject = transform(object);
+            applyGetFacade(resultObject);
+            resultObjects.add(resultObject);
         }
 
         return resultObjects;
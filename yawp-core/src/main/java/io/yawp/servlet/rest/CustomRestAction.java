@@ -15,7 +15,7 @@ public class CustomRestAction extends RestAction {
 
     @Override
     public Object action() {
-        Object object = r.action(id, endpointClazz, customActionKey, requestJson, params);
+        Object object = r.action(id, endpointClazz, customActionKey, getRequestBody(), params);
 
         if (object == null) {
             return new JsonResponse();
@@ -3,8 +3,8 @@ package io.yawp.servlet.rest;
 import io.yawp.commons.http.HttpException;
 import io.yawp.commons.http.HttpResponse;
 import io.yawp.commons.http.HttpVerb;
-import io.yawp.commons.http.JsonResponse;
-import io.yawp.commons.utils.JsonUtils;
+import io.yawp.commons.http.RequestBody;
+import io.yawp.commons.http.StreamingJsonResponse;
 import io.yawp.repository.EndpointFeatures;
 import io.yawp.repository.FutureObject;
 import io.yawp.repository.IdRef;
@@ -48,9 +48,7 @@ public abstract class RestAction {
 
     private List<?> objects;
 
-    protected String requestJson;
-
-    private boolean requestBodyJsonArray;
+    protected RequestBody requestBody;
 
     public RestAction(String actionName) {
         this.actionName = actionName;
@@ -81,16 +79,19 @@ public abstract class RestAction {
     }
 
     public boolean isRequestBodyJsonArray() {
-        return requestBodyJsonArray;
+        return requestBody != null && requestBody.isJsonArray();
+    }
+
+    public void setRequestBody(RequestBody requestBody) {
+        this.requestBody = requestBody;
     }
 
     public void setRequestJson(String requestJson) {
-        this.requestJson = requestJson;
-        this.requestBodyJsonArray = JsonUtils.isJsonArray(requestJson);
+        setRequestBody(new RequestBody(requestJson));
     }
 
-    public void setRequestBodyJsonArray(boolean requestBodyJsonArray) {
-        this.requestBodyJsonArray = requestBodyJsonArray;
+    protected RequestBody getRequestBody() {
+        return requestBody == null ? new RequestBody((String) null) : requestBody;
     }
 
     protected void beforeShieldHooks() {
@@ -116,7 +117,7 @@ public abstract class RestAction {
             return (HttpResponse) object;
         }
 
-        return new JsonResponse(JsonUtils.to(object));
+        return new StreamingJsonResponse(object);
     }
 
     private void executeShield() {
@@ -146,6 +147,15 @@ public abstract class RestAction {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    protected void saveAll(List<?> objects) {
+        if (enableHooks) {
+            r.saveAllWithHooks((List<Object>) objects);
+        } else {
+            r.saveAll((List<Object>) objects);
+        }
+    }
+
     protected FutureObject<Object> saveAsync(Object object) {
         if (enableHooks) {
             return r.async().saveWithHooks(object);
@@ -250,7 +260,7 @@ public abstract class RestAction {
             shield.setEndpointClazz(endpointClazz);
             shield.setId(id);
             shield.setObjects(objects);
-            shield.setRequestJson(requestJson);
+            shield.setRequestBody(requestBody);
             shield.setParams(params);
             shield.setActionKey(customActionKey);
             shield.setActionMethods(shieldInfo.getActionMethods());
@@ -265,11 +275,11 @@ public abstract class RestAction {
     }
 
     public List<?> getObjects() {
-        return requestBodyJsonArray ? objects : null;
+        return isRequestBodyJsonArray() ? objects : null;
     }
 
     public Object getObject() {
-        return objects == null || requestBodyJsonArray ? null : objects.get(0);
+        return objects == null || isRequestBodyJsonArray() ? null : objects.get(0);
     }
 
     public static Class<? extends RestAction> getRestActionClazz(HttpVerb verb, boolean overCollection, boolean isCustomAction) {
@@ -0,0 +1,62 @@
+package io.yawp.commons.http;
+
+import io.yawp.commons.utils.EndpointTestCase;
+import io.yawp.repository.models.basic.BasicObject;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RequestBodyTest extends EndpointTestCase {
+
+    @Test
+    public void testObject() {
+        RequestBody body = new RequestBody(new StringReader("{stringValue: 'xpto', intValue: 1}"));
+
+        assertFalse(body.isBlank());
+        assertFalse(body.isJsonArray());
+        assertEquals(Arrays.asList("stringValue", "intValue"), body.getProperties());
+
+        List<?> objects = body.fromList(yawp, BasicObject.class);
+        assertEquals(1, objects.size());
+        assertEquals("xpto", ((BasicObject) objects.get(0)).getStringValue());
+    }
+
+    @Test
+    public void testArray() {
+        RequestBody body = new RequestBody(new StringReader("[{stringValue: 'xpto1'}, {stringValue: 'xpto2'}]"));
+
+        assertTrue(body.isJsonArray());
+
+        List<?> objects = body.fromList(yawp, BasicObject.class);
+        assertEquals(2, objects.size());
+        assertEquals("xpto2", ((BasicObject) objects.get(1)).getStringValue());
+    }
+
+    @Test
+    public void testListRaw() {
+        RequestBody body = new RequestBody("[{stringValue: 'xpto1'}, {stringValue: 'xpto2'}]");
+
+        List<?> objects = body.fromListRaw(yawp, BasicObject.class);
+        assertEquals(2, objects.size());
+        assertEquals("xpto1", ((BasicObject) objects.get(0)).getStringValue());
+    }
+
+    @Test
+    public void testBlank() {
+        assertTrue(new RequestBody(new StringReader(" ")).isBlank());
+        assertNull(new RequestBody((String) null).fromList(yawp, BasicObject.class));
+    }
+
+    @Test
+    public void testRawJson() {
+        assertEquals("raw text", new RequestBody(new StringReader("raw text")).getJson());
+    }
+
+}
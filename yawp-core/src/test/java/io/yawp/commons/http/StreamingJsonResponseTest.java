@@ -0,0 +1,96 @@
+package io.yawp.commons.http;
+
+import io.yawp.commons.utils.JsonUtils;
+import io.yawp.repository.models.basic.BasicObject;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class StreamingJsonResponseTest {
+
+    @Test
+    public void testObject() {
+        BasicObject object = new BasicObject("xpto");
+        assertEquals(JsonUtils.to(object), new StreamingJsonResponse(object).getText());
+        assertEquals("null", new StreamingJsonResponse(null).getText());
+    }
+
+    @Test
+    public void testList() {
+        List<BasicObject> objects = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            objects.add(new BasicObject("xpto" + i));
+        }
+        objects.add(null);
+
+        assertEquals(JsonUtils.to(objects), new StreamingJsonResponse(objects).getText());
+        assertEquals("[]", new StreamingJsonResponse(new ArrayList<>()).getText());
+    }
+
+    @Test
+    public void testErrorInFirstChunkWritesNothing() throws Exception {
+        StringWriter out = new StringWriter();
+        try {
+            new StreamingJsonResponse(failingList(250, 50)).execute(response(out));
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("", out.toString());
+        }
+    }
+
+    @Test
+    public void testErrorInLaterChunkWritesFirstChunk() throws Exception {
+        StringWriter out = new StringWriter();
+        try {
+            new StreamingJsonResponse(failingList(250, 150)).execute(response(out));
+            fail();
+        } catch (IllegalStateException e) {
+            String firstChunk = JsonUtils.to(new ArrayList<>(failingList(100, 100)));
+            assertTrue(out.toString().startsWith(firstChunk.substring(0, firstChunk.length() - 1)));
+        }
+    }
+
+    private List<BasicObject> failingList(final int size, final int failAt) {
+        return new AbstractList<BasicObject>() {
+            @Override
+            public BasicObject get(int index) {
+                if (index == failAt) {
+                    throw new IllegalStateException();
+                }
+                return new BasicObject("xpto" + index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private HttpServletResponse response(StringWriter out) {
+        final PrintWriter writer = new PrintWriter(out, true);
+        InvocationHandler handler = new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("getWriter")) {
+                    return writer;
+                }
+                return null;
+            }
+        };
+        return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{HttpServletResponse.class}, handler);
+    }
+
+}
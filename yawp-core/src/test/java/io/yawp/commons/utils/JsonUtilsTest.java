@@ -4,6 +4,8 @@ import io.yawp.repository.IdRef;
 import io.yawp.repository.models.basic.BasicObject;
 import org.junit.Test;
 
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.lang.reflect.Type;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -11,6 +13,8 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class JsonUtilsTest extends EndpointTestCase {
 
@@ -93,4 +97,32 @@ public class JsonUtilsTest extends EndpointTestCase {
 
         assertEquals("xpto", map.get(id(BasicObject.class, 1l)).getStringValue());
     }
+
+    @Test
+    public void testStreaming() {
+        BasicObject object = (BasicObject) JsonUtils.from(null, new StringReader(DATA_OBJECT_JSON), BasicObject.class);
+        object.assertObject("object1", "text", 1, 1l, 1.1, true, "2013/12/26 23:55:01");
+
+        StringWriter out = new StringWriter();
+        JsonUtils.to(object, out);
+
+        assertEquals(JsonUtils.to(object), out.toString());
+    }
+
+    @Test
+    public void testIdRefWithRepository() {
+        String json = JsonUtils.to(id(BasicObject.class, 1l));
+
+        IdRef<?> id = JsonUtils.from(yawp, json, IdRef.class);
+
+        assertEquals(id(BasicObject.class, 1l), id);
+    }
+
+    @Test
+    public void testIsJsonArrayAndProperties() {
+        assertTrue(JsonUtils.isJsonArray(" [{}]"));
+        assertFalse(JsonUtils.isJsonArray("{}"));
+        assertFalse(JsonUtils.isJsonArray(""));
+        assertEquals(Arrays.asList("a", "b"), JsonUtils.getProperties("{a: 1, b: {c: [1, 2]}}"));
+    }
 }
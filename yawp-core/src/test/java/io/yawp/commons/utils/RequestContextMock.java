@@ -1,6 +1,7 @@
 package io.yawp.commons.utils;
 
 
+import io.yawp.commons.http.RequestBody;
 import io.yawp.commons.http.RequestContext;
 
 import java.util.Map;
@@ -29,7 +30,7 @@ public class RequestContextMock extends RequestContext {
         }
 
         public Builder json(String json) {
-            mock.json = json;
+            mock.body = new RequestBody(json);
             return this;
         }
 
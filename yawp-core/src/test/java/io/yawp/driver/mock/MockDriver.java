@@ -52,4 +52,8 @@ public class MockDriver implements Driver {
         throw new DriverNotImplementedException();
     }
 
+    @Override
+    public void destroy() {
+    }
+
 }
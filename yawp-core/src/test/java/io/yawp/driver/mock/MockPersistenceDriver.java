@@ -7,6 +7,7 @@ import io.yawp.repository.Repository;
 import io.yawp.repository.models.ObjectHolder;
 import org.apache.commons.lang3.concurrent.ConcurrentUtils;
 
+import java.util.List;
 import java.util.concurrent.Future;
 
 public class MockPersistenceDriver implements PersistenceDriver {
@@ -59,6 +60,20 @@ public class MockPersistenceDriver implements PersistenceDriver {
         return new FutureObject<Void>(r, future);
     }
 
+    @Override
+    public void saveAll(List<?> objects) {
+        for (Object object : objects) {
+            save(object);
+        }
+    }
+
+    @Override
+    public void destroyAll(List<IdRef<?>> ids) {
+        for (IdRef<?> id : ids) {
+            destroy(id);
+        }
+    }
+
     private void setIdIfNecessary(ObjectHolder objectHolder) {
         IdRef<?> id = objectHolder.getId();
 
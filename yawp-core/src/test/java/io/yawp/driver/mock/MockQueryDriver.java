@@ -4,7 +4,9 @@ import io.yawp.driver.api.QueryDriver;
 import io.yawp.repository.FutureObject;
 import io.yawp.repository.IdRef;
 import io.yawp.repository.Repository;
+import io.yawp.repository.models.FieldModel;
 import io.yawp.repository.models.ObjectHolder;
+import io.yawp.repository.models.ObjectModel;
 import io.yawp.repository.query.QueryBuilder;
 import io.yawp.repository.query.QueryOrder;
 import io.yawp.repository.query.condition.BaseCondition;
@@ -26,7 +28,30 @@ public class MockQueryDriver implements QueryDriver {
 
     @Override
     public <T> List<T> objects(QueryBuilder<?> builder) {
-        return generateResults(builder);
+        List<T> objects = generateResults(builder);
+        if (!builder.hasProjection()) {
+            return objects;
+        }
+        return project(builder, objects);
+    }
+
+    private <T> List<T> project(QueryBuilder<?> builder, List<T> objects) {
+        ObjectModel model = builder.getModel();
+        List<T> projected = new ArrayList<T>();
+
+        for (T object : objects) {
+            @SuppressWarnings("unchecked")
+            T copy = (T) model.createInstance();
+            new ObjectHolder(copy).setId(new ObjectHolder(object).getId());
+
+            for (String field : builder.getProjection()) {
+                FieldModel fieldModel = model.getFieldModel(field);
+                fieldModel.setValue(copy, fieldModel.getValue(object));
+            }
+            projected.add(copy);
+        }
+
+        return projected;
     }
 
     @SuppressWarnings("unchecked")
@@ -56,6 +81,22 @@ public class MockQueryDriver implements QueryDriver {
         return new FutureObject<T>(r, futureObject);
     }
 
+    @Override
+    public <T> List<T> fetch(List<IdRef<T>> ids) {
+        List<T> objects = new ArrayList<T>();
+        for (IdRef<T> id : ids) {
+            objects.add(fetch(id));
+        }
+        return objects;
+    }
+
+    @Override
+    public <T> FutureObject<List<T>> fetchAsync(List<IdRef<T>> ids) {
+        List<T> objects = fetch(ids);
+        Future<?> futureObject = ConcurrentUtils.constantFuture(objects);
+        return new FutureObject<List<T>>(r, futureObject);
+    }
+
     private <T> List<T> generateResults(QueryBuilder<?> builder) {
         List<Object> objects = queryWhere(builder);
 
@@ -6,6 +6,9 @@ import io.yawp.repository.models.basic.HookedObject;
 import io.yawp.repository.query.NoResultException;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
 
 public class AsyncRepositoryTest extends EndpointTestCase {
@@ -77,4 +80,16 @@ public class AsyncRepositoryTest extends EndpointTestCase {
         BasicObject retrievedObject = future.get();
         assertEquals("xpto", retrievedObject.getStringValue());
     }
+
+    @Test
+    public void testFetchList() {
+        BasicObject object1 = yawp.save(new BasicObject("xpto1"));
+        BasicObject object2 = yawp.save(new BasicObject("xpto2"));
+
+        FutureObject<List<BasicObject>> future = yawp.async().fetch(Arrays.asList(object1.getId(), object2.getId()));
+
+        List<BasicObject> objects = future.get();
+        assertEquals("xpto1", objects.get(0).getStringValue());
+        assertEquals("xpto2", objects.get(1).getStringValue());
+    }
 }
@@ -195,5 +195,111 @@ public class RepositoryTest extends EndpointTestCase {
         assertEquals("xpto", retrievedObject.getStringValue());
     }
 
+    @Test
+    public void testFetchList() {
+        yawp.save(new BasicObject("xpto1"));
+        BasicObject object1 = yawp.save(new BasicObject("xpto1"));
+        BasicObject object2 = yawp.save(new BasicObject("xpto2"));
+
+        List<IdRef<BasicObject>> ids = new ArrayList<>();
+        ids.add(object2.getId());
+        ids.add(id(BasicObject.class, 999l));
+        ids.add(object1.getId());
+
+        List<BasicObject> objects = yawp.fetch(ids);
+
+        assertEquals(3, objects.size());
+        assertEquals("xpto2", objects.get(0).getStringValue());
+        assertEquals(null, objects.get(1));
+        assertEquals("xpto1", objects.get(2).getStringValue());
+    }
+
+    @Test
+    public void testFetchListOfChildren() {
+        Parent parent1 = yawp.save(new Parent());
+        Parent parent2 = yawp.save(new Parent());
+
+        Child child1 = new Child("xpto1");
+        child1.setParentId(parent1.getId());
+        yawp.save(child1);
+
+        Child child2 = new Child("xpto2");
+        child2.setParentId(parent2.getId());
+        yawp.save(child2);
+
+        List<IdRef<Child>> ids = new ArrayList<>();
+        ids.add(child1.getId());
+        ids.add(child2.getId());
+
+        List<Child> children = yawp.fetch(ids);
+
+        assertEquals("xpto1", children.get(0).getName());
+        assertEquals(parent1.getId(), children.get(0).getParentId());
+        assertEquals("xpto2", children.get(1).getName());
+        assertEquals(parent2.getId(), children.get(1).getParentId());
+        assertEquals(0, yawp.fetch(new ArrayList<IdRef<Child>>()).size());
+    }
+
+    @Test
+    public void testSaveAll() {
+        BasicObject existing = yawp.save(new BasicObject("xpto1"));
+        existing.setStringValue("xpto1 updated");
+
+        BasicObject object = new BasicObject("xpto2");
+        object.setId(id(BasicObject.class, "named"));
+
+        List<BasicObject> objects = new ArrayList<>();
+        objects.add(existing);
+        objects.add(object);
+        objects.add(new BasicObject("xpto3"));
+
+        yawp.saveAll(objects);
+
+        assertEquals("xpto1 updated", existing.getId().fetch().getStringValue());
+        assertEquals("xpto2", id(BasicObject.class, "named").fetch().getStringValue());
+        assertEquals("xpto3", objects.get(2).getId().fetch().getStringValue());
+        assertEquals(3, yawp(BasicObject.class).list().size());
+    }
+
+    @Test
+    public void testSaveAllChildren() {
+        Parent parent1 = yawp.save(new Parent());
+        Parent parent2 = yawp.save(new Parent());
+
+        Child child1 = new Child("xpto1");
+        child1.setParentId(parent1.getId());
+        Child child2 = new Child("xpto2");
+        child2.setParentId(parent2.getId());
+
+        List<Object> objects = new ArrayList<>();
+        objects.add(child1);
+        objects.add(new Parent("xpto3"));
+        objects.add(child2);
+
+        yawp.saveAll(objects);
+
+        assertEquals(parent1.getId(), child1.getId().getParentId());
+        assertEquals("xpto1", child1.getId().fetch().getName());
+        assertEquals("xpto2", child2.getId().fetch().getName());
+        assertEquals(3, yawp(Parent.class).list().size());
+    }
+
+    @Test
+    public void testDestroyAll() {
+        BasicObject object1 = yawp.save(new BasicObject("xpto1"));
+        BasicObject object2 = yawp.save(new BasicObject("xpto2"));
+        BasicObject object3 = yawp.save(new BasicObject("xpto3"));
+
+        List<IdRef<?>> ids = new ArrayList<>();
+        ids.add(object1.getId());
+        ids.add(object3.getId());
+        ids.add(id(BasicObject.class, 999l));
+
+        yawp.destroyAll(ids);
+
+        List<BasicObject> objects = yawp(BasicObject.class).list();
+        assertEquals(1, objects.size());
+        assertEquals(object2.getId(), objects.get(0).getId());
+    }
 
 }
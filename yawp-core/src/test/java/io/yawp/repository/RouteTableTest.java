@@ -0,0 +1,60 @@
+package io.yawp.repository;
+
+import io.yawp.commons.http.HttpVerb;
+import io.yawp.commons.metrics.Metrics;
+import io.yawp.commons.utils.EndpointTestCase;
+import io.yawp.repository.models.parents.Child;
+import io.yawp.repository.models.parents.Parent;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RouteTableTest extends EndpointTestCase {
+
+    @Test
+    public void testSplit() {
+        assertArrayEquals(new String[]{"parents", "1"}, RouteTable.split("/parents/1"));
+        assertArrayEquals(new String[]{"parents", "1"}, RouteTable.split("/parents/1//"));
+        assertArrayEquals(new String[]{"parents", "", "1"}, RouteTable.split("/parents//1"));
+        assertArrayEquals(new String[]{}, RouteTable.split("/"));
+    }
+
+    @Test
+    public void testParseLong() {
+        assertEquals(Long.valueOf(10), RouteTable.parseLong("10"));
+        assertEquals(Long.valueOf(-10), RouteTable.parseLong("-10"));
+        assertEquals(Long.valueOf(Long.MAX_VALUE), RouteTable.parseLong(String.valueOf(Long.MAX_VALUE)));
+        assertNull(RouteTable.parseLong("99999999999999999999"));
+        assertNull(RouteTable.parseLong("abc"));
+        assertNull(RouteTable.parseLong("-"));
+        assertNull(RouteTable.parseLong(""));
+    }
+
+    @Test
+    public void testResolve() {
+        RouteTable routes = yawp.getFeatures().getRoutes();
+
+        Route route = routes.resolve(yawp, HttpVerb.GET, "/parents/1/children");
+        assertTrue(route.isOverCollection());
+        assertFalse(route.isCustomAction());
+        assertEquals(Child.class, route.getEndpointClazz());
+        assertEquals(id(Parent.class, 1l), route.getId());
+
+        route = routes.resolve(yawp, HttpVerb.GET, "/parents/1/children/xpto");
+        assertFalse(route.isOverCollection());
+        assertEquals(Child.class, route.getEndpointClazz());
+        assertEquals("xpto", route.getId().asString());
+    }
+
+    @Test
+    public void testResolveTimer() {
+        long count = Metrics.timer(RouteTable.RESOLVE_TIMER).getCount();
+        yawp.getFeatures().getRoutes().resolve(yawp, HttpVerb.GET, "/parents");
+        assertEquals(count + 1, Metrics.timer(RouteTable.RESOLVE_TIMER).getCount());
+    }
+
+}
@@ -1,6 +1,7 @@
 package io.yawp.repository.actions.basic;
 
 import io.yawp.commons.http.HttpVerb;
+import io.yawp.commons.http.RequestBody;
 import io.yawp.commons.http.annotation.*;
 import io.yawp.repository.IdRef;
 import io.yawp.repository.actions.ActionKey;
@@ -11,6 +12,7 @@ import io.yawp.repository.models.parents.Child;
 import io.yawp.repository.models.parents.Parent;
 import org.junit.Test;
 
+import java.io.StringReader;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
@@ -197,6 +199,19 @@ public class ActionMethodTest {
         assertActionKey(HttpVerb.POST, "parent-root-collection-json-string-and-params", true, keys.get(0));
     }
 
+    @Test
+    public void testJsonArgumentsFromRequestBody() throws InvalidActionMethodException {
+        RequestBody body = new RequestBody(new StringReader("{stringValue: 'xpto'}"));
+
+        ActionMethod objectMethod = new ActionMethod(getMethod("singleObjectWithJsonObject", IdRef.class, BasicObject.class));
+        Object[] arguments = objectMethod.createArguments(null, null, body, null);
+        assertEquals("xpto", ((BasicObject) arguments[1]).getStringValue());
+
+        ActionMethod stringMethod = new ActionMethod(getMethod("singleObjectWithJsonString", IdRef.class, String.class));
+        arguments = stringMethod.createArguments(null, null, body, null);
+        assertEquals("{\"stringValue\":\"xpto\"}", arguments[1]);
+    }
+
     private void assertActionKey(HttpVerb verb, String actionName, boolean overCollection, ActionKey actual) {
         ActionKey expected = new ActionKey(verb, actionName, overCollection);
         assertEquals(expected, actual);
@@ -0,0 +1,160 @@
+package io.yawp.repository.models;
+
+import io.yawp.commons.utils.EndpointTestCase;
+import io.yawp.repository.IdRef;
+import io.yawp.repository.models.FieldConverter.IndexType;
+import io.yawp.repository.models.FieldConverter.Kind;
+import io.yawp.repository.models.basic.BasicObject;
+import io.yawp.repository.models.basic.Pojo;
+import io.yawp.repository.models.basic.Status;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class FieldConverterTest extends EndpointTestCase {
+
+    @Test
+    public void testSharedConverters() {
+        ObjectModel model = ModelRegistry.get(BasicObject.class);
+        assertSame(FieldConverter.of(model), FieldConverter.of(model));
+    }
+
+    @Test
+    public void testKindsAndIndexTypes() {
+        assertConverter("stringValue", Kind.PLAIN, IndexType.NORMALIZED);
+        assertConverter("textValue", Kind.TEXT, IndexType.NONE);
+        assertConverter("intValue", Kind.INT, IndexType.INDEXED);
+        assertConverter("longValue", Kind.LONG, IndexType.NONE);
+        assertConverter("dateValue", Kind.DATE, IndexType.NONE);
+        assertConverter("jsonValue", Kind.JSON, IndexType.NONE);
+        assertConverter("objectId", Kind.ID_REF, IndexType.NONE);
+        assertConverter("status", Kind.ENUM, IndexType.INDEXED);
+        assertConverter("idList", Kind.LIST_OF_IDS, IndexType.INDEXED);
+        assertConverter("lazyPojo", Kind.LAZY_JSON, IndexType.NONE);
+    }
+
+    @Test
+    public void testListOfIdsRoundTrip() {
+        BasicObject object = new BasicObject();
+        object.setIdList(Arrays.asList(id(BasicObject.class, 1L), id(BasicObject.class, 2L)));
+
+        BasicObject copy = roundTrip("idList", object);
+
+        List<IdRef<BasicObject>> ids = copy.getIdList();
+        assertEquals(2, ids.size());
+        assertEquals(id(BasicObject.class, 1L), ids.get(0));
+        assertEquals(id(BasicObject.class, 2L), ids.get(1));
+        assertEquals(BasicObject.class, ids.get(0).getClazz());
+    }
+
+    @Test
+    public void testListOfIdsStoredAsUris() {
+        BasicObject object = new BasicObject();
+        object.setIdList(Arrays.asList(id(BasicObject.class, 1L)));
+
+        assertEquals(Arrays.asList("/basic_objects/1"), converter("idList").getValue(object));
+    }
+
+    @Test
+    public void testIdRefRoundTrip() {
+        BasicObject object = new BasicObject();
+        object.setObjectId(id(BasicObject.class, 10L));
+
+        assertEquals("/basic_objects/10", converter("objectId").getValue(object));
+        assertEquals(id(BasicObject.class, 10L), roundTrip("objectId", object).getObjectId());
+    }
+
+    @Test
+    public void testJsonRoundTrip() {
+        BasicObject object = new BasicObject();
+        object.setJsonValue(new Pojo("xpto"));
+        object.setJsonList(Arrays.asList(new Pojo("xpto1"), new Pojo("xpto2")));
+
+        BasicObject copy = roundTrip("jsonList", roundTrip("jsonValue", object), object);
+
+        assertEquals("xpto", copy.getJsonValue().getStringValue());
+        assertEquals(2, copy.getJsonList().size());
+        assertEquals("xpto2", copy.getJsonList().get(1).getStringValue());
+    }
+
+    @Test
+    public void testEnumRoundTrip() {
+        BasicObject object = new BasicObject();
+        object.setStatus(Status.RUNNING);
+
+        assertEquals("RUNNING", converter("status").getValue(object));
+        assertEquals(Status.RUNNING, roundTrip("status", object).getStatus());
+    }
+
+    @Test
+    public void testNumbersAndDatesRoundTrip() {
+        Date date = new Date();
+
+        BasicObject object = new BasicObject();
+        object.setIntValue(7);
+        object.setLongValue(8L);
+        object.setDateValue(date);
+
+        FieldConverter intConverter = converter("intValue");
+        FieldConverter longConverter = converter("longValue");
+
+        BasicObject copy = new BasicObject();
+        intConverter.setValue(yawp, copy, 7L);
+        longConverter.setValue(yawp, copy, 8);
+        converter("dateValue").setValue(yawp, copy, converter("dateValue").getValue(object));
+
+        assertEquals(7, copy.getIntValue());
+        assertEquals(8L, copy.getLongValue());
+        assertEquals(date, copy.getDateValue());
+    }
+
+    @Test
+    public void testNullRoundTrip() {
+        BasicObject object = new BasicObject();
+        object.setObjectId(id(BasicObject.class, 1L));
+
+        converter("objectId").setValue(yawp, object, null);
+
+        assertNull(object.getObjectId());
+        assertNull(converter("idList").getValue(object));
+    }
+
+    @Test
+    public void testNormalize() {
+        assertEquals("acao", FieldConverter.normalize("AÇÃO"));
+        assertEquals(1L, FieldConverter.normalize(1L));
+        assertNull(FieldConverter.normalize(null));
+    }
+
+    private void assertConverter(String name, Kind kind, IndexType indexType) {
+        FieldConverter converter = converter(name);
+        assertEquals(name, kind, converter.getKind());
+        assertEquals(name, indexType, converter.getIndexType());
+    }
+
+    private BasicObject roundTrip(String name, BasicObject object) {
+        return roundTrip(name, new BasicObject(), object);
+    }
+
+    private BasicObject roundTrip(String name, BasicObject copy, BasicObject object) {
+        FieldConverter converter = converter(name);
+        converter.setValue(yawp, copy, converter.getValue(object));
+        return copy;
+    }
+
+    private FieldConverter converter(String name) {
+        for (FieldConverter converter : FieldConverter.of(ModelRegistry.get(BasicObject.class))) {
+            if (converter.getName().equals(name)) {
+                return converter;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+}
@@ -0,0 +1,63 @@
+package io.yawp.repository.models;
+
+import io.yawp.repository.models.basic.BasicObject;
+import io.yawp.repository.models.parents.Child;
+import io.yawp.repository.models.parents.Grandchild;
+import io.yawp.repository.models.parents.Parent;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ModelRegistryTest {
+
+    @Test
+    public void testSharedInstance() {
+        assertSame(ModelRegistry.get(BasicObject.class), ModelRegistry.get(BasicObject.class));
+    }
+
+    @Test
+    public void testIdAndParentFields() {
+        ObjectModel model = ModelRegistry.get(Grandchild.class);
+
+        assertEquals("id", model.getIdFieldName());
+        assertEquals("childId", model.getParentField().getName());
+        assertEquals(Child.class, model.getParentClazz());
+        assertTrue(model.hasParent());
+        assertFalse(ModelRegistry.get(Parent.class).hasParent());
+    }
+
+    @Test
+    public void testAncestors() {
+        ObjectModel model = ModelRegistry.get(Grandchild.class);
+
+        assertEquals(2, model.getAncestors().size());
+        assertEquals(Child.class, model.getAncestorClazz(0));
+        assertEquals(Parent.class, model.getAncestorClazz(1));
+        assertNull(model.getAncestorClazz(2));
+
+        assertEquals(0, model.getAncestorNumber(Child.class));
+        assertEquals(1, model.getAncestorNumber(Parent.class));
+        assertEquals(-1, model.getAncestorNumber(Grandchild.class));
+        assertEquals(-1, model.getAncestorNumber(BasicObject.class));
+    }
+
+    @Test
+    public void testFieldModels() {
+        ObjectModel model = ModelRegistry.get(Grandchild.class);
+
+        FieldModel name = model.getFieldModel("name");
+        assertSame(name, model.getFieldModel("name"));
+        assertTrue(name.hasIndex());
+        assertFalse(name.isId());
+
+        assertTrue(model.getFieldModel("id").isId());
+        assertTrue(model.getFieldModel("childId").isIdRef());
+        assertTrue(model.getFieldModel("age").isInt());
+        assertTrue(model.getFieldModel("age").isNumber());
+    }
+
+}
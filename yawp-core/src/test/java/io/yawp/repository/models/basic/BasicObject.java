@@ -59,6 +59,9 @@ public class BasicObject implements Serializable {
     @Index
     private List<IdRef<BasicObject>> idList;
 
+    @Index
+    private List<Boolean> booleanList;
+
     @Json
     private Map<String, LazyJson<List<Pojo>>> mapLazyPojoList;
 
@@ -212,6 +215,14 @@ public class BasicObject implements Serializable {
         this.idList = idList;
     }
 
+    public List<Boolean> getBooleanList() {
+        return booleanList;
+    }
+
+    public void setBooleanList(List<Boolean> booleanList) {
+        this.booleanList = booleanList;
+    }
+
     public Pojo getLazyPojo() {
         return lazyPojo.get();
     }
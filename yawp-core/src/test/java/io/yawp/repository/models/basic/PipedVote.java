@@ -0,0 +1,45 @@
+package io.yawp.repository.models.basic;
+
+import io.yawp.repository.IdRef;
+import io.yawp.repository.annotations.Endpoint;
+import io.yawp.repository.annotations.Id;
+
+@Endpoint(path = "/piped_votes")
+public class PipedVote {
+
+    @Id
+    private IdRef<PipedVote> id;
+
+    private IdRef<PipedVoteTally> tallyId;
+
+    private Integer score;
+
+    public PipedVote() {
+
+    }
+
+    public PipedVote(IdRef<PipedVoteTally> tallyId, Integer score) {
+        this.tallyId = tallyId;
+        this.score = score;
+    }
+
+    public IdRef<PipedVote> getId() {
+        return id;
+    }
+
+    public void setId(IdRef<PipedVote> id) {
+        this.id = id;
+    }
+
+    public IdRef<PipedVoteTally> getTallyId() {
+        return tallyId;
+    }
+
+    public Integer getScore() {
+        return score;
+    }
+
+    public void setScore(Integer score) {
+        this.score = score;
+    }
+}
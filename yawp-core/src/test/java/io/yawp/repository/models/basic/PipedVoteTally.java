@@ -0,0 +1,40 @@
+package io.yawp.repository.models.basic;
+
+import io.yawp.repository.IdRef;
+import io.yawp.repository.annotations.Endpoint;
+import io.yawp.repository.annotations.Id;
+
+@Endpoint(path = "/piped_vote_tallies")
+public class PipedVoteTally {
+
+    @Id
+    private IdRef<PipedVoteTally> id;
+
+    private Integer count = 0;
+
+    private Integer score = 0;
+
+    public IdRef<PipedVoteTally> getId() {
+        return id;
+    }
+
+    public void setId(IdRef<PipedVoteTally> id) {
+        this.id = id;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void addCount(Integer count) {
+        this.count += count;
+    }
+
+    public Integer getScore() {
+        return score;
+    }
+
+    public void addScore(Integer score) {
+        this.score += score;
+    }
+}
@@ -1,12 +1,18 @@
 package io.yawp.repository.pipes.basic;
 
 import io.yawp.commons.utils.EndpointTestCase;
+import io.yawp.commons.utils.JsonUtils;
 import io.yawp.repository.IdRef;
 import io.yawp.repository.models.basic.PipedObject;
 import io.yawp.repository.models.basic.PipedObjectCounter;
+import io.yawp.repository.models.basic.PipedVote;
+import io.yawp.repository.models.basic.PipedVoteTally;
+import io.yawp.repository.pipes.SinkMarker;
+import io.yawp.repository.pipes.SourceMarker;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
@@ -185,6 +191,99 @@ public class CounterPipeTest extends EndpointTestCase {
         assertEquals((Integer) 1, counterSink2.getCountGroupB());
     }
 
+    @Test
+    public void testSourceMarkerBumpedOncePerSave() {
+        if (pipesDriverNotImplemented()) {
+            return;
+        }
+
+        PipedObject object = new PipedObject("group-a");
+        yawp.save(object);
+
+        object.setGroup("group-b");
+        yawp.save(object);
+        awaitAsync(20, TimeUnit.SECONDS);
+
+        SourceMarker sourceMarker = yawp(SourceMarker.class).from(object.getId()).only();
+        assertEquals((Long) 2L, sourceMarker.getVersion());
+
+        PipedObjectCounter counter = yawp(PipedObjectCounter.class).only();
+        assertEquals((Integer) 1, counter.getCount());
+        assertEquals((Integer) 0, counter.getCountGroupA());
+        assertEquals((Integer) 1, counter.getCountGroupB());
+    }
+
+    @Test
+    public void testTwoPipesOfOneSourceReachingTheSameSink() {
+        if (pipesDriverNotImplemented()) {
+            return;
+        }
+
+        IdRef<PipedVoteTally> tallyId = id(PipedVoteTally.class, 1L);
+
+        PipedVote vote = new PipedVote(tallyId, 3);
+        yawp.save(vote);
+        PipedVote otherVote = yawp.save(new PipedVote(tallyId, 2));
+        awaitAsync(20, TimeUnit.SECONDS);
+
+        vote.setScore(5);
+        yawp.save(vote);
+        yawp.destroy(otherVote.getId());
+        awaitAsync(20, TimeUnit.SECONDS);
+
+        SourceMarker sourceMarker = yawp(SourceMarker.class).from(vote.getId()).only();
+        assertEquals((Long) 2L, sourceMarker.getVersion());
+
+        PipedVoteTally tally = tallyId.fetch();
+        assertEquals((Integer) 1, tally.getCount());
+        assertEquals((Integer) 5, tally.getScore());
+    }
+
+    @Test
+    public void testPipesStartFromTheSharedSinkMarker() {
+        if (pipesDriverNotImplemented()) {
+            return;
+        }
+
+        IdRef<PipedVoteTally> tallyId = id(PipedVoteTally.class, 1L);
+        PipedVote vote = new PipedVote(tallyId, 3);
+        vote.setId(id(PipedVote.class, 1L));
+        saveFlowedBeforeMarkersPerPipe(vote);
+
+        vote.setScore(5);
+        yawp.save(vote);
+        awaitAsync(20, TimeUnit.SECONDS);
+
+        PipedVoteTally tally = tallyId.fetch();
+        assertEquals((Integer) 1, tally.getCount());
+        assertEquals((Integer) 5, tally.getScore());
+    }
+
+    private void saveFlowedBeforeMarkersPerPipe(PipedVote vote) {
+        yawp.driver().persistence().save(vote);
+
+        PipedVoteTally tally = new PipedVoteTally();
+        tally.setId(vote.getTallyId());
+        tally.addCount(1);
+        tally.addScore(vote.getScore());
+        yawp.save(tally);
+
+        SourceMarker sourceMarker = new SourceMarker();
+        sourceMarker.setId(vote.getId().createChildId(SourceMarker.class, vote.getId().getId()));
+        sourceMarker.setParentId(vote.getId());
+        sourceMarker.setVersion(1L);
+        yawp.save(sourceMarker);
+
+        IdRef<SinkMarker> sinkMarkerId = SinkMarker.createSharedId(yawp, vote.getTallyId(), vote.getId());
+        SinkMarker sinkMarker = new SinkMarker();
+        sinkMarker.setId(sinkMarkerId);
+        sinkMarker.setParentId(sinkMarkerId.getParentId());
+        sinkMarker.setSourceJson(PipedVote.class, JsonUtils.to(vote));
+        sinkMarker.setPresent(true);
+        sinkMarker.setVersion(1L);
+        yawp.save(sinkMarker);
+    }
+
     @Test
     public void testSinkReflow() {
         if (pipesDriverNotImplemented()) {
@@ -209,6 +308,26 @@ public class CounterPipeTest extends EndpointTestCase {
         assertEquals((Integer) 2, counter.getCount());
     }
 
+    @Test
+    public void testSinkReflowOnSaveAll() {
+        if (pipesDriverNotImplemented()) {
+            return;
+        }
+
+        IdRef<PipedObjectCounter> counterId = turnDefaultCounterInactive();
+
+        yawp.save(new PipedObject("xpto", counterId));
+        yawp.save(new PipedObject("xpto", counterId));
+
+        PipedObjectCounter counter = yawp(PipedObjectCounter.class).only();
+        counter.setActive(true);
+        yawp.saveAll(Collections.singletonList(counter));
+        awaitAsync(20, TimeUnit.SECONDS);
+
+        counter = yawp(PipedObjectCounter.class).only();
+        assertEquals((Integer) 2, counter.getCount());
+    }
+
     private IdRef<PipedObjectCounter> turnDefaultCounterInactive() {
         IdRef<PipedObjectCounter> counterId = id(PipedObjectCounter.class, 1L);
         PipedObjectCounter counter = counterId.fetch();
@@ -0,0 +1,28 @@
+package io.yawp.repository.pipes.basic;
+
+import io.yawp.repository.models.basic.PipedVote;
+import io.yawp.repository.models.basic.PipedVoteTally;
+import io.yawp.repository.pipes.Pipe;
+
+public class VoteScorePipe extends Pipe<PipedVote, PipedVoteTally> {
+
+    @Override
+    public String getDefaultQueue() {
+        return "default";
+    }
+
+    @Override
+    public void configureSinks(PipedVote vote) {
+        addSinkId(vote.getTallyId());
+    }
+
+    @Override
+    public void flux(PipedVote vote, PipedVoteTally tally) {
+        tally.addScore(vote.getScore());
+    }
+
+    @Override
+    public void reflux(PipedVote vote, PipedVoteTally tally) {
+        tally.addScore(-vote.getScore());
+    }
+}
@@ -267,6 +267,49 @@ public class DatastoreQueryTest extends EndpointTestCase {
         assertEquals(3, objects.get(0).getIntValue());
     }
 
+    @Test
+    public void testOrderIsNumeric() {
+        saveOneObject("xpto", 1);
+        saveOneObject("xpto", 9);
+        saveOneObject("xpto", 19);
+
+        List<BasicObject> objects = yawp(BasicObject.class).order("intValue").list();
+
+        assertEquals(2, objects.get(0).getIntValue());
+        assertEquals(10, objects.get(1).getIntValue());
+        assertEquals(20, objects.get(2).getIntValue());
+    }
+
+    @Test
+    public void testCursorWithNumericOrder() {
+        saveOneObject("xpto", 1);
+        saveOneObject("xpto", 9);
+        saveOneObject("xpto", 19);
+
+        QueryBuilder<BasicObject> q = yawp(BasicObject.class).order("intValue", "desc").limit(2);
+
+        List<BasicObject> objects1 = q.list();
+        assertEquals(20, objects1.get(0).getIntValue());
+        assertEquals(10, objects1.get(1).getIntValue());
+
+        List<BasicObject> objects2 = q.list();
+        assertEquals(1, objects2.size());
+        assertEquals(2, objects2.get(0).getIntValue());
+    }
+
+    @Test
+    public void testOrderById() {
+        yawp.save(setId(new BasicObject("a"), 9));
+        yawp.save(setId(new BasicObject("b"), 10));
+        yawp.save(setId(new BasicObject("c"), 2));
+
+        List<BasicObject> objects = yawp(BasicObject.class).order("id", "desc").list();
+
+        assertEquals("b", objects.get(0).getStringValue());
+        assertEquals("a", objects.get(1).getStringValue());
+        assertEquals("c", objects.get(2).getStringValue());
+    }
+
     @Test
     public void testCursor() {
         saveManyBasicObjects(3);
@@ -385,6 +428,31 @@ public class DatastoreQueryTest extends EndpointTestCase {
         assertEquals(3, objects.size());
     }
 
+    @Test
+    public void testSelect() {
+        saveManyBasicObjects(3);
+        yawp.save(new BasicObject("different"));
+
+        List<BasicObject> objects = yawp(BasicObject.class).where("stringValue", "=", "xpto").select("intValue").order("intValue").list();
+
+        assertEquals(3, objects.size());
+        assertEquals(1, objects.get(0).getIntValue());
+        assertEquals(3, objects.get(2).getIntValue());
+        assertNull(objects.get(0).getStringValue());
+        assertEquals("xpto", objects.get(0).getId().fetch().getStringValue());
+    }
+
+    @Test
+    public void testSelectFieldUsedInFilter() {
+        saveManyBasicObjects(2);
+
+        List<BasicObject> objects = yawp(BasicObject.class).where("intValue", "=", 2).select("stringValue", "intValue").list();
+
+        assertEquals(1, objects.size());
+        assertEquals("xpto", objects.get(0).getStringValue());
+        assertEquals(2, objects.get(0).getIntValue());
+    }
+
     @Test
     public void testOnlyId() {
         Long firstId = saveOneObject("xpto", 10).getId().asLong();
@@ -621,6 +689,21 @@ public class DatastoreQueryTest extends EndpointTestCase {
         assertEquals("xpto", retrievedObject.getStringValue());
     }
 
+    @Test
+    public void testListOfBooleansProperty() {
+        BasicObject object = new BasicObject("xpto");
+        object.setBooleanList(Arrays.asList(true));
+        yawp.save(object);
+
+        BasicObject retrievedObject;
+
+        retrievedObject = yawp(BasicObject.class).where("booleanList", "=", true).first();
+        assertEquals("xpto", retrievedObject.getStringValue());
+
+        retrievedObject = yawp(BasicObject.class).where("booleanList", "=", false).first();
+        assertNull(retrievedObject);
+    }
+
     private void assertObjects(List<BasicObject> objects, String... strings) {
         assertEquals(strings.length, objects.size());
         for (int i = 0; i < strings.length; i++) {
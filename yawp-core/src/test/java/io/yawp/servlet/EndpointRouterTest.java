@@ -11,6 +11,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.HashMap;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -46,6 +47,11 @@ public class EndpointRouterTest extends ServletTestCase {
         public EndpointFeatures<?> getByClazz(Class<?> clazz) {
             return features.getByClazz(clazz);
         }
+
+        @Override
+        public Set<Class<?>> getEndpointClazzes() {
+            return features.getEndpointClazzes();
+        }
     }
 
     @Before
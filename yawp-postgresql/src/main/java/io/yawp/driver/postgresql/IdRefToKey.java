@@ -3,8 +3,10 @@ package io.yawp.driver.postgresql;
 import io.yawp.commons.utils.NameGenerator;
 import io.yawp.commons.utils.kind.KindResolver;
 import io.yawp.driver.postgresql.datastore.Key;
+import io.yawp.driver.postgresql.datastore.KindColumns;
 import io.yawp.driver.postgresql.datastore.KeyFactory;
 import io.yawp.repository.IdRef;
+import io.yawp.repository.models.ModelRegistry;
 import io.yawp.repository.models.ObjectModel;
 import io.yawp.repository.Repository;
 
@@ -21,6 +23,7 @@ public class IdRefToKey {
         try {
             Key parent = id.getParentId() == null ? null : toKey(r, id.getParentId());
             String kind = KindResolver.getKindFromClass(id.getClazz());
+            KindColumns.register(ModelRegistry.get(id.getClazz()));
             return createKey(id, parent, kind);
 
         } finally {
@@ -81,7 +84,7 @@ public class IdRefToKey {
     private static ObjectModel createParentModel(Repository r, Key key) {
         String parentKind = key.getParent().getKind();
         Class<?> parentClazz = r.getClazzByKind(parentKind);
-        return new ObjectModel(parentClazz);
+        return ModelRegistry.get(parentClazz);
     }
     
 }
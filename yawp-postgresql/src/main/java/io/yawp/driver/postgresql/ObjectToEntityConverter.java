@@ -0,0 +1,39 @@
+package io.yawp.driver.postgresql;
+
+import io.yawp.driver.postgresql.datastore.Entity;
+import io.yawp.driver.postgresql.datastore.KindColumns;
+import io.yawp.repository.models.FieldConverter;
+import io.yawp.repository.models.ObjectHolder;
+import io.yawp.repository.models.ObjectModel;
+
+public class ObjectToEntityConverter {
+
+    public void convert(ObjectHolder objectHolder, Entity entity) {
+        ObjectModel model = objectHolder.getModel();
+        Object object = objectHolder.getObject();
+
+        KindColumns.register(model);
+
+        for (FieldConverter converter : FieldConverter.of(model)) {
+            write(converter, object, entity);
+        }
+    }
+
+    private void write(FieldConverter converter, Object object, Entity entity) {
+        String name = converter.getName();
+        Object value = converter.getValue(object);
+
+        switch (converter.getIndexType()) {
+            case NONE:
+                entity.setUnindexedProperty(name, value);
+                break;
+            case NORMALIZED:
+                entity.setProperty(Entity.NORMALIZED_FIELD_PREFIX + name, FieldConverter.normalize(value));
+                entity.setUnindexedProperty(name, value);
+                break;
+            default:
+                entity.setProperty(name, value);
+        }
+    }
+
+}
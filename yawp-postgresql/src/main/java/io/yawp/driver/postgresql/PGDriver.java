@@ -1,6 +1,7 @@
 package io.yawp.driver.postgresql;
 
 import io.yawp.driver.api.*;
+import io.yawp.driver.postgresql.pipes.PipesWorkers;
 import io.yawp.driver.postgresql.sql.ConnectionManager;
 import io.yawp.repository.Repository;
 
@@ -14,6 +15,15 @@ public class PGDriver implements Driver {
     public void init(Repository r) {
         this.r = r;
         this.connectionManager = new ConnectionManager();
+        PipesWorkers.start(r.getFeatures());
+    }
+
+    /**
+     * @return the connection manager shared by the drivers of the repository, which holds
+     * its transaction.
+     */
+    public ConnectionManager getConnectionManager() {
+        return connectionManager;
     }
 
     @Override
@@ -53,7 +63,12 @@ public class PGDriver implements Driver {
 
     @Override
     public PipesDriver pipes() {
-        throw new DriverNotImplementedException();
+        return new PGPipesDriver(r, connectionManager);
+    }
+
+    @Override
+    public void destroy() {
+        PipesWorkers.stop();
     }
 
 }
@@ -1,6 +1,5 @@
 package io.yawp.driver.postgresql;
 
-import io.yawp.commons.utils.JsonUtils;
 import io.yawp.driver.api.PersistenceDriver;
 import io.yawp.driver.postgresql.datastore.Datastore;
 import io.yawp.driver.postgresql.datastore.Entity;
@@ -8,12 +7,8 @@ import io.yawp.driver.postgresql.datastore.Key;
 import io.yawp.driver.postgresql.sql.ConnectionManager;
 import io.yawp.repository.FutureObject;
 import io.yawp.repository.IdRef;
-import io.yawp.repository.LazyJson;
 import io.yawp.repository.Repository;
-import io.yawp.repository.models.FieldModel;
 import io.yawp.repository.models.ObjectHolder;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.concurrent.ConcurrentUtils;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -25,9 +20,12 @@ public class PGPersistenceDriver implements PersistenceDriver {
 
     private Datastore datastore;
 
+    private ObjectToEntityConverter toEntity;
+
     public PGPersistenceDriver(Repository r, ConnectionManager connectionManager) {
         this.r = r;
         this.datastore = Datastore.create(connectionManager);
+        this.toEntity = new ObjectToEntityConverter();
     }
 
     @Override
@@ -53,11 +51,48 @@ public class PGPersistenceDriver implements PersistenceDriver {
 
     @Override
     public FutureObject<Void> destroyAsync(IdRef<?> id) {
-        destroy(id);
-        Future<Void> future = ConcurrentUtils.constantFuture(null);
+        final Key key = IdRefToKey.toKey(r, id);
+
+        Future<Void> future = datastore.async(new Datastore.Operation<Void>() {
+            @Override
+            public Void execute(Datastore datastore) {
+                datastore.delete(key);
+                return null;
+            }
+        });
         return new FutureObject<Void>(r, future);
     }
 
+    @Override
+    public void saveAll(List<?> objects) {
+        List<ObjectHolder> objectHolders = new ArrayList<>(objects.size());
+        List<Entity> entities = new ArrayList<>(objects.size());
+
+        for (Object object : objects) {
+            ObjectHolder objectHolder = new ObjectHolder(object);
+            Entity entity = createEntity(objectHolder);
+            toEntity(objectHolder, entity);
+            objectHolders.add(objectHolder);
+            entities.add(entity);
+        }
+
+        datastore.put(entities);
+
+        for (int i = 0; i < objectHolders.size(); i++) {
+            ObjectHolder objectHolder = objectHolders.get(i);
+            objectHolder.setId(IdRefToKey.toIdRef(r, entities.get(i).getKey(), objectHolder.getModel()));
+        }
+    }
+
+    @Override
+    public void destroyAll(List<IdRef<?>> ids) {
+        List<Key> keys = new ArrayList<>(ids.size());
+        for (IdRef<?> id : ids) {
+            keys.add(IdRefToKey.toKey(r, id));
+        }
+        datastore.delete(keys);
+    }
+
     private Entity createEntity(ObjectHolder objectHolder) {
         IdRef<?> id = objectHolder.getId();
 
@@ -83,102 +118,19 @@ public class PGPersistenceDriver implements PersistenceDriver {
     }
 
     @SuppressWarnings("unchecked")
-    private <T> FutureObject<T> saveEntityAsync(ObjectHolder objectHolder, Entity entity) {
-        Key key = datastore.put(entity);
-        Future<?> futureId = ConcurrentUtils.constantFuture(IdRefToKey.toIdRef(r, key, objectHolder.getModel()));
-        return new FutureObject<T>(r, (Future<IdRef<?>>) futureId, (T) objectHolder.getObject());
-    }
-
-    public void toEntity(ObjectHolder objectHolder, Entity entity) {
-        List<FieldModel> fieldModels = objectHolder.getModel().getFieldModels();
-
-        for (FieldModel fieldModel : fieldModels) {
-            if (fieldModel.isId()) {
-                continue;
-            }
-
-            if (fieldModel.isTransient()) {
-                continue;
-            }
-
-            setEntityProperty(objectHolder, entity, fieldModel);
-        }
-    }
-
-    private void setEntityProperty(ObjectHolder objectHolder, Entity entity, FieldModel fieldModel) {
-        Object value = getFieldValue(fieldModel, objectHolder);
-
-        if (!fieldModel.hasIndex()) {
-            entity.setUnindexedProperty(fieldModel.getName(), value);
-            return;
-        }
-
-        if (fieldModel.isIndexNormalizable()) {
-            entity.setProperty(Entity.NORMALIZED_FIELD_PREFIX + fieldModel.getName(), normalizeValue(value));
-            entity.setUnindexedProperty(fieldModel.getName(), value);
-            return;
-        }
-
-        entity.setProperty(fieldModel.getName(), value);
-    }
-
-    private Object getFieldValue(FieldModel fieldModel, ObjectHolder objectHolder) {
-        Object value = fieldModel.getValue(objectHolder.getObject());
-
-        if (value == null) {
-            return null;
-        }
-
-        if (fieldModel.isEnum(value)) {
-            return value.toString();
-        }
-
-        if (fieldModel.isSaveAsJson()) {
-            return JsonUtils.to(value);
-        }
-
-        if (fieldModel.isSaveAsLazyJson()) {
-            String json = ((LazyJson) value).getJson();
-            if (json == null) {
-                return null;
+    private <T> FutureObject<T> saveEntityAsync(final ObjectHolder objectHolder, final Entity entity) {
+        Future<IdRef<?>> futureId = datastore.async(new Datastore.Operation<IdRef<?>>() {
+            @Override
+            public IdRef<?> execute(Datastore datastore) {
+                Key key = datastore.put(entity);
+                return IdRefToKey.toIdRef(r, key, objectHolder.getModel());
             }
-            return json;
-        }
-
-        if (fieldModel.isIdRef()) {
-            IdRef<?> idRef = (IdRef<?>) value;
-            return idRef.getUri();
-        }
-
-        if (fieldModel.isSaveAsText()) {
-            return value.toString();
-        }
-
-        if (fieldModel.isListOfIds()) {
-            return convertToListOfUris((List<IdRef<?>>) value);
-        }
-
-        return value;
+        });
+        return new FutureObject<T>(r, futureId, (T) objectHolder.getObject());
     }
 
-    private List<String> convertToListOfUris(List<IdRef<?>> ids) {
-        List<String> uris = new ArrayList<>(ids.size());
-        for (IdRef<?> id : ids) {
-            uris.add(id.getUri());
-        }
-        return uris;
-    }
-
-    private Object normalizeValue(Object o) {
-        if (o == null) {
-            return null;
-        }
-
-        if (!o.getClass().equals(String.class)) {
-            return o;
-        }
-
-        return StringUtils.stripAccents((String) o).toLowerCase();
+    public void toEntity(ObjectHolder objectHolder, Entity entity) {
+        toEntity.convert(objectHolder, entity);
     }
 
 }
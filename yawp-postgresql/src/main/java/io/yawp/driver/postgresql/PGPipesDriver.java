@@ -0,0 +1,107 @@
+package io.yawp.driver.postgresql;
+
+import io.yawp.driver.api.PipesDriver;
+import io.yawp.driver.postgresql.datastore.NamespaceManager;
+import io.yawp.driver.postgresql.pipes.Payload;
+import io.yawp.driver.postgresql.pipes.PipesQueue;
+import io.yawp.driver.postgresql.pipes.PipesWorkers;
+import io.yawp.driver.postgresql.pipes.ReflowTask;
+import io.yawp.driver.postgresql.pipes.ReloadTask;
+import io.yawp.driver.postgresql.pipes.TaskType;
+import io.yawp.driver.postgresql.sql.ConnectionManager;
+import io.yawp.repository.IdRef;
+import io.yawp.repository.Repository;
+import io.yawp.repository.pipes.Pipe;
+import io.yawp.repository.pipes.SourceMarker;
+
+import java.util.Set;
+
+public class PGPipesDriver implements PipesDriver {
+
+    private Repository r;
+
+    private PipesQueue queue;
+
+    public PGPipesDriver(Repository r, ConnectionManager connectionManager) {
+        this.r = r;
+        this.queue = new PipesQueue(connectionManager);
+    }
+
+    @Override
+    public void flux(Pipe pipe, Object source, SourceMarker sourceMarker) {
+        enqueue(pipe, source, null, true, sourceMarker);
+    }
+
+    @Override
+    public void reflux(Pipe pipe, Object source, SourceMarker sourceMarker) {
+        enqueue(pipe, source, null, false, sourceMarker);
+    }
+
+    @Override
+    public void refluxOld(Pipe pipe, Object source, Object oldSource, SourceMarker sourceMarker) {
+        enqueue(pipe, source, oldSource, false, sourceMarker);
+    }
+
+    @Override
+    public void reflow(Pipe pipe, Object sink) {
+        queue.add(currentNs(), TaskType.REFLOW, "", new ReflowTask(pipe, sink).toJson());
+        wakeUpWorkers();
+    }
+
+    @Override
+    public void reload(Class<? extends Pipe> pipeClazz) {
+        queue.add(currentNs(), TaskType.RELOAD, "", new ReloadTask(pipeClazz).toJson());
+        wakeUpWorkers();
+    }
+
+    @Override
+    public void flowDrops() {
+        queue.release();
+        wakeUpWorkers();
+    }
+
+    private void enqueue(Pipe pipe, Object source, Object oldSource, boolean present, SourceMarker sourceMarker) {
+        Payload payload = createPayload(pipe, source, sourceMarker, oldSource, present);
+
+        if (!pipe.hasSinks()) {
+            queue.add(payload.getNs(), TaskType.FANOUT, "", payload.toJson());
+        } else {
+            fork(pipe, payload);
+        }
+
+        wakeUpWorkers();
+    }
+
+    private void fork(Pipe pipe, Payload payload) {
+        Set<IdRef<?>> sinkIds = pipe.allSinks();
+        for (IdRef<?> sinkId : sinkIds) {
+            payload.setSinkUri(sinkId);
+            queue.addWork(payload);
+        }
+    }
+
+    /**
+     * Repositories without a namespace run in the one of the current thread, which the
+     * workers must use as well.
+     */
+    private String currentNs() {
+        String ns = r.namespace().getNs();
+        return ns != null ? ns : NamespaceManager.get();
+    }
+
+    private void wakeUpWorkers() {
+        PipesWorkers.start(r.getFeatures()).wakeUp();
+    }
+
+    private Payload createPayload(Pipe pipe, Object source, SourceMarker marker, Object oldSource, boolean present) {
+        Payload payload = new Payload();
+        payload.setNs(currentNs());
+        payload.setPipeClazz(pipe.getClass());
+        payload.setSourceJson(source);
+        payload.setSourceMarkerJson(marker);
+        payload.setOldSourceJson(oldSource);
+        payload.setPresent(present);
+        return payload;
+    }
+
+}
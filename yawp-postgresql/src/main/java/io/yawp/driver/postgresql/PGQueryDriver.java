@@ -7,11 +7,11 @@ import io.yawp.repository.FutureObject;
 import io.yawp.repository.IdRef;
 import io.yawp.repository.Repository;
 import io.yawp.repository.query.QueryBuilder;
-import org.apache.commons.lang3.concurrent.ConcurrentUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Future;
 
 public class PGQueryDriver implements QueryDriver {
@@ -37,7 +37,7 @@ public class PGQueryDriver implements QueryDriver {
             List<T> objects = new ArrayList<T>();
 
             for (Entity entity : queryResult) {
-                objects.add((T) toObject.convert(builder.getModel(), entity));
+                objects.add((T) toObject.convert(builder.getModel(), entity, builder.getProjection()));
             }
 
             return objects;
@@ -50,7 +50,7 @@ public class PGQueryDriver implements QueryDriver {
     @Override
     public <T> List<IdRef<T>> ids(QueryBuilder<?> builder) {
         try {
-            List<Entity> queryResult = generateResults(builder, false);
+            List<Entity> queryResult = generateResults(builder, true);
 
             List<IdRef<T>> ids = new ArrayList<IdRef<T>>();
 
@@ -64,11 +64,14 @@ public class PGQueryDriver implements QueryDriver {
         }
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public <T> T fetch(IdRef<T> id) {
+        return fetch(datastore, IdRefToKey.toKey(r, id), id);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T fetch(Datastore datastore, Key key, IdRef<T> id) {
         try {
-            Key key = IdRefToKey.toKey(r, id);
             Entity entity = datastore.get(key);
             return (T) toObject.convert(id.getModel(), entity);
         } catch (EntityNotFoundException e) {
@@ -77,12 +80,56 @@ public class PGQueryDriver implements QueryDriver {
     }
 
     @Override
-    public <T> FutureObject<T> fetchAsync(IdRef<T> id) {
-        T object = fetch(id);
-        Future<?> futureObject = ConcurrentUtils.constantFuture(object);
+    public <T> FutureObject<T> fetchAsync(final IdRef<T> id) {
+        final Key key = IdRefToKey.toKey(r, id);
+
+        Future<T> futureObject = datastore.async(new Datastore.Operation<T>() {
+            @Override
+            public T execute(Datastore datastore) {
+                return fetch(datastore, key, id);
+            }
+        });
         return new FutureObject<T>(r, futureObject);
     }
 
+    @Override
+    public <T> List<T> fetch(List<IdRef<T>> ids) {
+        return fetch(datastore, toKeys(ids), ids);
+    }
+
+    private <T> List<Key> toKeys(List<IdRef<T>> ids) {
+        List<Key> keys = new ArrayList<>(ids.size());
+        for (IdRef<T> id : ids) {
+            keys.add(IdRefToKey.toKey(r, id));
+        }
+        return keys;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> fetch(Datastore datastore, List<Key> keys, List<IdRef<T>> ids) {
+        Map<Key, Entity> entities = datastore.get(keys);
+
+        List<T> objects = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Entity entity = entities.get(keys.get(i));
+            objects.add(entity == null ? null : (T) toObject.convert(ids.get(i).getModel(), entity));
+        }
+        return objects;
+    }
+
+    @Override
+    public <T> FutureObject<List<T>> fetchAsync(final List<IdRef<T>> ids) {
+        final List<Key> keys = toKeys(ids);
+
+        Future<List<T>> futureObjects = datastore.async(new Datastore.Operation<List<T>>() {
+            @Override
+            public List<T> execute(Datastore datastore) {
+                return fetch(datastore, keys, ids);
+            }
+        });
+        return new FutureObject<List<T>>(r, futureObjects);
+    }
+
     // query
 
     private List<Entity> generateResults(QueryBuilder<?> builder, boolean keysOnly) throws FalsePredicateException {
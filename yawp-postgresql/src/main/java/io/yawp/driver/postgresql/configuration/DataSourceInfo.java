@@ -1,20 +1,33 @@
 package io.yawp.driver.postgresql.configuration;
 
+import org.apache.commons.beanutils.BeanUtils;
+import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.dbcp2.BasicDataSource;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class DataSourceInfo {
 
     public static final String INIT_DATASOURCE = "jdbc/_yawp_init";
 
+    private static final String DRIVER_CLASS_NAME_PROPERTY = "driverClassName";
+
+    private static final String URL_PROPERTY = "url";
+
     private String name;
 
     private String driverClassName;
 
     private String url;
 
+    private String dataSourceClassName = BasicDataSource.class.getName();
+
+    private Map<String, String> properties = new LinkedHashMap<String, String>();
+
     public String getName() {
         return name;
     }
@@ -39,22 +52,105 @@ public class DataSourceInfo {
         this.url = url;
     }
 
+    public String getDataSourceClassName() {
+        return dataSourceClassName;
+    }
+
+    public void setDataSourceClassName(String dataSourceClassName) {
+        this.dataSourceClassName = dataSourceClassName;
+    }
+
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Sets a bean property of the pool, like maxTotal or removeAbandonedTimeout.
+     */
+    public void setProperty(String name, String value) {
+        properties.put(name, value);
+    }
+
+    public static boolean isConnectionProperty(String name) {
+        return DRIVER_CLASS_NAME_PROPERTY.equals(name) || URL_PROPERTY.equals(name);
+    }
+
+    /**
+     * Builds the configured pool, the same way jetty does from jetty-env.xml. A dbcp2
+     * {@link BasicDataSource} is used by default and tuned for the driver: borrowing does
+     * not validate, idle connections are validated and abandoned ones reclaimed by the
+     * evictor instead, and prepared statements are pooled per connection. Any configured
+     * property overrides these defaults.
+     */
     public DataSource buildDatasource() {
-        BasicDataSource ds = new BasicDataSource();
+        DataSource ds = createDataSource();
 
-        ds.setDriverClassName(driverClassName);
-        ds.setUrl(url);
-        ds.setMaxTotal(50);
+        if (ds instanceof BasicDataSource) {
+            setDefaults((BasicDataSource) ds);
+        }
+
+        setProperty(ds, DRIVER_CLASS_NAME_PROPERTY, driverClassName);
+        setProperty(ds, URL_PROPERTY, url);
+
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            setProperty(ds, property.getKey(), property.getValue());
+        }
 
         return ds;
     }
 
+    private DataSource createDataSource() {
+        try {
+            return (DataSource) Class.forName(dataSourceClassName).newInstance();
+        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException e) {
+            throw new RuntimeException("Could not create data source " + dataSourceClassName, e);
+        }
+    }
+
+    private void setDefaults(BasicDataSource ds) {
+        ds.setMaxTotal(50);
+        ds.setMinIdle(2);
+        ds.setMaxIdle(10);
+        ds.setMaxWaitMillis(10000);
+        ds.setDefaultAutoCommit(true);
+        ds.setTestOnBorrow(false);
+        ds.setTestWhileIdle(true);
+        ds.setTimeBetweenEvictionRunsMillis(30000);
+        ds.setRemoveAbandonedOnMaintenance(true);
+        ds.setRemoveAbandonedTimeout(300);
+        ds.setPoolPreparedStatements(true);
+        ds.setMaxOpenPreparedStatements(256);
+    }
+
+    /**
+     * BeanUtils silently skips properties the data source does not have, so a misspelled
+     * property is rejected here instead of being ignored.
+     */
+    private void setProperty(DataSource ds, String name, String value) {
+        if (!PropertyUtils.isWriteable(ds, name)) {
+            throw new RuntimeException("Unknown data source property " + name + " for " + ds.getClass().getName());
+        }
+        try {
+            BeanUtils.setProperty(ds, name, value);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new RuntimeException("Could not set data source property " + name, e);
+        }
+    }
+
+    /**
+     * The init data source is only used to create and drop databases, so it does not keep
+     * idle connections to template1 around, which would block the create database.
+     */
     public DataSourceInfo getInitDatasource() {
         DataSourceInfo dsInit = new DataSourceInfo();
 
         dsInit.setName(INIT_DATASOURCE);
         dsInit.setDriverClassName(getDriverClassName());
         dsInit.setUrl(getInitDatabaseUrl());
+        dsInit.setDataSourceClassName(getDataSourceClassName());
+        dsInit.properties.putAll(properties);
+        dsInit.setProperty("minIdle", "0");
+        dsInit.setProperty("maxIdle", "0");
 
         return dsInit;
     }
@@ -2,6 +2,8 @@ package io.yawp.driver.postgresql.configuration;
 
 import io.yawp.commons.utils.Environment;
 import io.yawp.commons.utils.ResourceFinder;
+import io.yawp.driver.postgresql.sql.ConnectionPool;
+import org.apache.commons.dbcp2.BasicDataSource;
 
 import javax.naming.Context;
 import javax.naming.InitialContext;
@@ -10,6 +12,7 @@ import javax.naming.spi.InitialContextFactory;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Map;
@@ -58,14 +61,34 @@ public class InitialContextSetup implements InitialContextFactory {
         return context;
     }
 
+    /**
+     * Binds the object to the name. A pool bound to the name before is closed, as nothing
+     * looks it up anymore.
+     */
     public static void bind(String name, Object obj) {
         try {
+            Object previous = context.lookup(name);
             context.bind(name, obj);
+            ConnectionPool.unregister(name);
+            if (previous != obj) {
+                close(previous);
+            }
         } catch (NamingException e) {
             throw new RuntimeException(e);
         }
     }
 
+    private static void close(Object dataSource) {
+        if (!(dataSource instanceof BasicDataSource)) {
+            return;
+        }
+        try {
+            ((BasicDataSource) dataSource).close();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public static void unregister() {
         System.clearProperty(Context.INITIAL_CONTEXT_FACTORY);
     }
@@ -16,6 +16,10 @@ public class JettyConfiguration {
 
     private static final String XPATH_URL = "Arg/New/Set[@name='url']";
 
+    private static final String XPATH_DATASOURCE = "Arg/New";
+
+    private static final String XPATH_DATASOURCE_PROPERTIES = "Arg/New/Set";
+
     private static final int ENV_PREFIX_LENGTH = "yawp_".length();
 
     private static final int NAME_PREFIX_LENGTH = "java:comp/env/".length();
@@ -51,6 +55,8 @@ public class JettyConfiguration {
             ds.setName(parseName(envXml));
             ds.setDriverClassName(parseDriverClassName(envXml));
             ds.setUrl(parseUrl(envXml));
+            ds.setDataSourceClassName(parseDataSourceClassName(envXml));
+            parseProperties(envXml, ds);
 
             envs.put(parseEnv(envXml), ds);
         }
@@ -68,6 +74,20 @@ public class JettyConfiguration {
         return envXml.find(XPATH_DRIVER_CLASS_NAME).get(0).getTextContent();
     }
 
+    private String parseDataSourceClassName(XmlLoader envXml) {
+        return envXml.find(XPATH_DATASOURCE).get(0).getAttributeText("class");
+    }
+
+    private void parseProperties(XmlLoader envXml, DataSourceInfo ds) {
+        for (XmlLoader propertyXml : envXml.find(XPATH_DATASOURCE_PROPERTIES)) {
+            String name = propertyXml.getAttributeText("name");
+            if (DataSourceInfo.isConnectionProperty(name)) {
+                continue;
+            }
+            ds.setProperty(name, propertyXml.getTextContent());
+        }
+    }
+
     private String parseName(XmlLoader envXml) {
         String name = envXml.find(XPATH_NAME).get(1).getTextContent();
         return name.substring(NAME_PREFIX_LENGTH);
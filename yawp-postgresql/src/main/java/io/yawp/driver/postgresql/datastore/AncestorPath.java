@@ -0,0 +1,62 @@
+package io.yawp.driver.postgresql.datastore;
+
+/**
+ * The materialized ancestor path of the rows of kinds with parents, such as
+ * /parents/1/children/~a%2Fb/ for a grandchild. The path is stored in a "C" collated
+ * column, so the rows of any ancestor are a range of a b-tree index.
+ */
+public class AncestorPath {
+
+    public static final String COLUMN = "ancestors";
+
+    public static final String SQL_TYPE = "text collate \"C\"";
+
+    private static final char SEPARATOR = '/';
+
+    private static final String NAME_PREFIX = "~";
+
+    private AncestorPath() {}
+
+    /**
+     * @return the path of the parents of the key, or null for keys without parent.
+     */
+    public static String of(Key key) {
+        if (key.getParent() == null) {
+            return null;
+        }
+        return prefix(key.getParent());
+    }
+
+    /**
+     * @return the path shared by every descendant of the key, itself included.
+     */
+    public static String prefix(Key key) {
+        StringBuilder sb = new StringBuilder();
+        append(sb, key);
+        return sb.append(SEPARATOR).toString();
+    }
+
+    /**
+     * @return the smallest path after all the ones starting with the prefix.
+     */
+    public static String prefixEnd(String prefix) {
+        return prefix.substring(0, prefix.length() - 1) + (char) (SEPARATOR + 1);
+    }
+
+    private static void append(StringBuilder sb, Key key) {
+        if (key.getParent() != null) {
+            append(sb, key.getParent());
+        }
+        sb.append(SEPARATOR).append(key.getKind()).append(SEPARATOR);
+        if (key.getId() != null) {
+            sb.append(key.getId());
+        } else {
+            sb.append(NAME_PREFIX).append(escape(key.getName()));
+        }
+    }
+
+    private static String escape(String name) {
+        return name.replace("%", "%25").replace("/", "%2F");
+    }
+
+}
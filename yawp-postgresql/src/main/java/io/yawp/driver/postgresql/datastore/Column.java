@@ -0,0 +1,190 @@
+package io.yawp.driver.postgresql.datastore;
+
+import io.yawp.repository.models.FieldModel;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * A native typed column holding one indexed entity property, for endpoints stored with
+ * typed columns.
+ */
+public class Column {
+
+    private static final String COLUMN_PREFIX = "p_";
+
+    private final String property;
+
+    private final String label;
+
+    private final String name;
+
+    private final Type type;
+
+    private Column(String property, Type type) {
+        this.property = property;
+        this.label = COLUMN_PREFIX + property;
+        this.name = "\"" + label + "\"";
+        this.type = type;
+    }
+
+    /**
+     * @return the column of the indexed field, or null when it cannot be stored natively.
+     */
+    public static Column of(FieldModel fieldModel) {
+        if (fieldModel.isId() || fieldModel.isTransient() || !fieldModel.hasIndex()) {
+            return null;
+        }
+        if (fieldModel.isList() || fieldModel.isCollection() || fieldModel.isSaveAsJson() || fieldModel.isSaveAsLazyJson()) {
+            return null;
+        }
+
+        String property = fieldModel.getName();
+        if (fieldModel.isIndexNormalizable()) {
+            return new Column(Entity.NORMALIZED_FIELD_PREFIX + property, Type.TEXT);
+        }
+
+        return new Column(property, Type.of(fieldModel));
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return the quoted column name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public String getSqlType() {
+        return type.sqlType;
+    }
+
+    public Object toJdbc(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return type.toJdbc(value);
+    }
+
+    public Object read(ResultSet rs) throws SQLException {
+        Object value = type.read(rs, label);
+        return rs.wasNull() ? null : value;
+    }
+
+    private enum Type {
+
+        BIGINT("bigint") {
+            @Override
+            Object toJdbc(Object value) {
+                return ((Number) value).longValue();
+            }
+
+            @Override
+            Object read(ResultSet rs, String column) throws SQLException {
+                return rs.getLong(column);
+            }
+        },
+
+        NUMERIC("numeric") {
+            @Override
+            Object toJdbc(Object value) {
+                return value instanceof BigDecimal ? value : new BigDecimal(value.toString());
+            }
+
+            @Override
+            Object read(ResultSet rs, String column) throws SQLException {
+                return rs.getDouble(column);
+            }
+        },
+
+        DECIMAL("numeric") {
+            @Override
+            Object toJdbc(Object value) {
+                return NUMERIC.toJdbc(value);
+            }
+
+            @Override
+            Object read(ResultSet rs, String column) throws SQLException {
+                return rs.getBigDecimal(column);
+            }
+        },
+
+        TIMESTAMPTZ("timestamptz") {
+            @Override
+            Object toJdbc(Object value) {
+                return new Timestamp(((Date) value).getTime());
+            }
+
+            @Override
+            Object read(ResultSet rs, String column) throws SQLException {
+                return rs.getTimestamp(column);
+            }
+        },
+
+        BOOLEAN("boolean") {
+            @Override
+            Object toJdbc(Object value) {
+                return value;
+            }
+
+            @Override
+            Object read(ResultSet rs, String column) throws SQLException {
+                return rs.getBoolean(column);
+            }
+        },
+
+        TEXT("text") {
+            @Override
+            Object toJdbc(Object value) {
+                return value.toString();
+            }
+
+            @Override
+            Object read(ResultSet rs, String column) throws SQLException {
+                return rs.getString(column);
+            }
+        };
+
+        private final String sqlType;
+
+        Type(String sqlType) {
+            this.sqlType = sqlType;
+        }
+
+        abstract Object toJdbc(Object value);
+
+        abstract Object read(ResultSet rs, String column) throws SQLException;
+
+        static Type of(FieldModel fieldModel) {
+            Class<?> type = fieldModel.getField().getType();
+
+            if (fieldModel.isInt() || fieldModel.isLong()) {
+                return BIGINT;
+            }
+            if (BigDecimal.class.isAssignableFrom(type)) {
+                return DECIMAL;
+            }
+            if (fieldModel.isNumber()) {
+                return NUMERIC;
+            }
+            if (fieldModel.isDate()) {
+                return TIMESTAMPTZ;
+            }
+            if (Boolean.class.equals(type) || boolean.class.equals(type)) {
+                return BOOLEAN;
+            }
+            return TEXT;
+        }
+    }
+
+}
@@ -1,23 +1,54 @@
 package io.yawp.driver.postgresql.datastore;
 
+import io.yawp.driver.postgresql.sql.AsyncExecutor;
 import io.yawp.driver.postgresql.sql.ConnectionManager;
 import io.yawp.driver.postgresql.sql.SqlRunner;
+import org.apache.commons.lang3.concurrent.ConcurrentUtils;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 public class Datastore {
 
-    private static final String SQL_CREATE = "insert into :kind (key, properties) values (:key, :properties)";
+    private static final String SQL_PUT = "insert into :kind (key, properties%4$s) values (:key, :properties%2$s) "
+            + "on conflict (key) do update set properties = excluded.properties%3$s";
 
-    private static final String SQL_UPDATE = "update :kind set properties = :properties where key @> :key";
+    private static final String SQL_GET = "select key, properties%1$s from :kind where key = :key";
 
-    private static final String SQL_GET = "select key, properties from :kind where key @> :key";
+    private static final String SQL_GET_ALL = "select key, properties%1$s from :kind where key in (select jsonb_array_elements(:keys))";
 
-    private static final String SQL_EXISTS = "select exists(select 1 from :kind where key @> :key) as exists";
+    private static final String SQL_PUT_ALL = "insert into :kind (key, properties%4$s) select value->'key', value->'properties'%5$s from jsonb_array_elements(:entities) "
+            + "on conflict (key) do update set properties = excluded.properties";
 
-    private static final String SQL_DELETE = "delete from :kind where key @> :key";
+    private static final String SQL_DELETE_ALL = "delete from :kind where key in (select jsonb_array_elements(:keys))";
+
+    private static final String SQL_DELETE = "delete from :kind where key = :key";
+
+    private static final String SQL_PUT_PARTITIONED = "insert into :kind (ns, key, properties%4$s) values (:ns, :key, :properties%2$s) "
+            + "on conflict (ns, key) do update set properties = excluded.properties%3$s";
+
+    private static final String SQL_GET_PARTITIONED = "select key, properties%1$s from :kind where ns = :ns and key = :key";
+
+    private static final String SQL_GET_ALL_PARTITIONED = "select key, properties%1$s from :kind where ns = :ns and key in (select jsonb_array_elements(:keys))";
+
+    private static final String SQL_PUT_ALL_PARTITIONED = "insert into :kind (ns, key, properties%4$s) "
+            + "select coalesce(value->'key'->>'ns', ''), value->'key', value->'properties'%5$s from jsonb_array_elements(:entities) "
+            + "on conflict (ns, key) do update set properties = excluded.properties";
+
+    private static final String SQL_DELETE_ALL_PARTITIONED = "delete from :kind where ns = :ns and key in (select jsonb_array_elements(:keys))";
+
+    private static final String SQL_DELETE_PARTITIONED = "delete from :kind where ns = :ns and key = :key";
+
+    private static final int BATCH_SIZE = 1000;
 
     private ConnectionManager connectionManager;
 
@@ -29,28 +60,102 @@ public class Datastore {
         return new Datastore(connectionManager);
     }
 
+    /**
+     * Executes the operation in the async pool, with a connection of its own. A transaction
+     * connection cannot be shared with other threads, so inside a transaction the operation
+     * runs right away and the returned future is already done.
+     */
+    public <T> Future<T> async(final Operation<T> operation) {
+        if (connectionManager.isTransactionInProgress()) {
+            return ConcurrentUtils.constantFuture(operation.execute(this));
+        }
+
+        final Datastore detached = new Datastore(connectionManager.detached());
+        return AsyncExecutor.submit(new Callable<T>() {
+            @Override
+            public T call() {
+                return operation.execute(detached);
+            }
+        });
+    }
+
+    public interface Operation<T> {
+        T execute(Datastore datastore);
+    }
+
+    /**
+     * Creates or updates the entity with a single upsert on the unique key index.
+     */
     public Key put(Entity entity) {
-        if (isNewEntity(entity)) {
-            createEntity(entity);
+        generateKey(entity);
+        if (isPartitioned(entity.getKind())) {
+            ensurePartition(entity.getKey());
+            execute(SQL_PUT_PARTITIONED, entity);
         } else {
-            updateEntity(entity);
+            execute(SQL_PUT, entity);
         }
         return entity.getKey();
     }
 
-    private void createEntity(Entity entity) {
-        generateKey(entity);
-        execute(SQL_CREATE, entity);
+    /**
+     * Creates or updates all entities with one upsert per kind and batch. Keys are
+     * deduplicated first, since a statement cannot update the same row twice.
+     */
+    public void put(List<Entity> entities) {
+        Map<String, Map<Key, Entity>> entitiesByKind = new LinkedHashMap<>();
+
+        for (Entity entity : entities) {
+            generateKey(entity);
+
+            Map<Key, Entity> kindEntities = entitiesByKind.get(entity.getKind());
+            if (kindEntities == null) {
+                kindEntities = new LinkedHashMap<>();
+                entitiesByKind.put(entity.getKind(), kindEntities);
+            }
+            kindEntities.put(entity.getKey(), entity);
+        }
+
+        for (Map.Entry<String, Map<Key, Entity>> entry : entitiesByKind.entrySet()) {
+            List<Entity> kindEntities = new ArrayList<>(entry.getValue().values());
+            for (int start = 0; start < kindEntities.size(); start += BATCH_SIZE) {
+                putBatch(entry.getKey(), kindEntities.subList(start, Math.min(start + BATCH_SIZE, kindEntities.size())));
+            }
+        }
     }
 
-    private void updateEntity(Entity entity) {
-        execute(SQL_UPDATE, entity);
+    private void putBatch(String kind, final List<Entity> entities) {
+        if (!KindColumns.get(kind).isEmpty()) {
+            for (Entity entity : entities) {
+                put(entity);
+            }
+            return;
+        }
+
+        boolean partitioned = isPartitioned(kind);
+        if (partitioned) {
+            for (Entity entity : entities) {
+                ensurePartition(entity.getKey());
+            }
+        }
+
+        SqlRunner runner = new DatastoreSqlRunner(kind, KindColumns.get(kind).format(partitioned ? SQL_PUT_ALL_PARTITIONED : SQL_PUT_ALL)) {
+            @Override
+            public void bind() {
+                bindEntities("entities", entities);
+            }
+        };
+
+        connectionManager.execute(runner);
     }
 
     public Entity get(final Key key) throws EntityNotFoundException {
-        SqlRunner runner = new DatastoreSqlRunner(key.getKind(), SQL_GET) {
+        KindColumns kindColumns = KindColumns.get(key.getKind());
+        String sql = kindColumns.format(kindColumns.isPartitioned() ? SQL_GET_PARTITIONED : SQL_GET);
+
+        SqlRunner runner = new DatastoreSqlRunner(key.getKind(), sql) {
             @Override
             public void bind() {
+                bind("ns", NamespacePartitions.ns(key));
                 bind("key", key);
             }
 
@@ -68,41 +173,125 @@ public class Datastore {
         return entity;
     }
 
-    public void delete(Key key) {
-        execute(SQL_DELETE, key);
-    }
-
-    public List<Entity> query(Query query) throws FalsePredicateException {
-        return query.execute(connectionManager);
+    /**
+     * Gets all keys with one query per kind, or per kind and namespace for partitioned kinds.
+     *
+     * @return the found entities, mapped by their keys.
+     */
+    public Map<Key, Entity> get(List<Key> keys) {
+        Map<Key, Entity> entities = new HashMap<>();
+        for (Map.Entry<String, List<Key>> entry : groupByKind(keys).entrySet()) {
+            for (List<Key> partitionKeys : groupByPartition(entry.getKey(), entry.getValue())) {
+                for (Entity entity : get(entry.getKey(), partitionKeys)) {
+                    entities.put(entity.getKey(), entity);
+                }
+            }
+        }
+        return entities;
     }
 
-    private boolean isNewEntity(Entity entity) {
-        Key key = entity.getKey();
-        return key.isNew() || !existsEntityWithThisKey(key);
-    }
+    private List<Entity> get(String kind, final List<Key> keys) {
+        KindColumns kindColumns = KindColumns.get(kind);
+        String sql = kindColumns.format(kindColumns.isPartitioned() ? SQL_GET_ALL_PARTITIONED : SQL_GET_ALL);
 
-    private boolean existsEntityWithThisKey(final Key key) {
-        SqlRunner runner = new DatastoreSqlRunner(key.getKind(), SQL_EXISTS) {
+        SqlRunner runner = new DatastoreSqlRunner(kind, sql) {
             @Override
             public void bind() {
-                bind("key", key);
+                bind("ns", NamespacePartitions.ns(keys.get(0)));
+                bind("keys", keys);
             }
 
             @Override
-            protected Object collectSingle(ResultSet rs) throws SQLException {
-                return rs.getBoolean(1);
+            protected Object collect(ResultSet rs) throws SQLException {
+                return getEntities(rs);
             }
         };
 
         return connectionManager.executeQuery(runner);
     }
 
+    public void delete(Key key) {
+        execute(isPartitioned(key.getKind()) ? SQL_DELETE_PARTITIONED : SQL_DELETE, key);
+    }
+
+    public void delete(List<Key> keys) {
+        for (Map.Entry<String, List<Key>> entry : groupByKind(keys).entrySet()) {
+            String sql = isPartitioned(entry.getKey()) ? SQL_DELETE_ALL_PARTITIONED : SQL_DELETE_ALL;
+
+            for (List<Key> partitionKeys : groupByPartition(entry.getKey(), entry.getValue())) {
+                for (int start = 0; start < partitionKeys.size(); start += BATCH_SIZE) {
+                    final List<Key> batch = partitionKeys.subList(start, Math.min(start + BATCH_SIZE, partitionKeys.size()));
+
+                    SqlRunner runner = new DatastoreSqlRunner(entry.getKey(), sql) {
+                        @Override
+                        public void bind() {
+                            bind("ns", NamespacePartitions.ns(batch.get(0)));
+                            bind("keys", batch);
+                        }
+                    };
+
+                    connectionManager.execute(runner);
+                }
+            }
+        }
+    }
+
+    public List<Entity> query(Query query) throws FalsePredicateException {
+        return query.execute(connectionManager);
+    }
+
+    private Map<String, List<Key>> groupByKind(List<Key> keys) {
+        Map<String, List<Key>> keysByKind = new LinkedHashMap<>();
+        for (Key key : keys) {
+            List<Key> kindKeys = keysByKind.get(key.getKind());
+            if (kindKeys == null) {
+                kindKeys = new ArrayList<>();
+                keysByKind.put(key.getKind(), kindKeys);
+            }
+            kindKeys.add(key);
+        }
+        return keysByKind;
+    }
+
+    /**
+     * Splits the keys of a partitioned kind by namespace, so each statement only touches
+     * one partition. Keys of other kinds are kept together.
+     */
+    private Collection<List<Key>> groupByPartition(String kind, List<Key> keys) {
+        if (!isPartitioned(kind)) {
+            return Collections.singletonList(keys);
+        }
+
+        Map<String, List<Key>> keysByNs = new LinkedHashMap<>();
+        for (Key key : keys) {
+            String ns = NamespacePartitions.ns(key);
+            List<Key> nsKeys = keysByNs.get(ns);
+            if (nsKeys == null) {
+                nsKeys = new ArrayList<>();
+                keysByNs.put(ns, nsKeys);
+            }
+            nsKeys.add(key);
+        }
+        return keysByNs.values();
+    }
+
+    private boolean isPartitioned(String kind) {
+        return KindColumns.get(kind).isPartitioned();
+    }
+
+    private void ensurePartition(Key key) {
+        NamespacePartitions.ensure(connectionManager, key.getKind(), NamespacePartitions.ns(key));
+    }
+
     private void execute(String query, final Entity entity) {
-        SqlRunner runner = new DatastoreSqlRunner(entity.getKind(), query) {
+        SqlRunner runner = new DatastoreSqlRunner(entity.getKind(), KindColumns.get(entity.getKind()).format(query)) {
             @Override
             public void bind() {
+                bind("ns", NamespacePartitions.ns(entity.getKey()));
                 bind("key", entity.getKey());
                 bind("properties", entity);
+                bind(AncestorPath.COLUMN, AncestorPath.of(entity.getKey()));
+                bindColumns(entity);
             }
         };
 
@@ -113,6 +302,7 @@ public class Datastore {
         SqlRunner runner = new DatastoreSqlRunner(key.getKind(), query) {
             @Override
             public void bind() {
+                bind("ns", NamespacePartitions.ns(key));
                 bind("key", key);
             }
         };
@@ -1,19 +1,65 @@
 package io.yawp.driver.postgresql.datastore;
 
+import io.yawp.commons.utils.JsonUtils;
 import io.yawp.driver.postgresql.sql.PlaceHolder;
 import io.yawp.driver.postgresql.sql.SqlRunner;
+import io.yawp.driver.postgresql.sql.SqlTemplate;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.postgresql.util.PGobject;
 
 public class DatastoreSqlRunner extends SqlRunner {
 
+    private static final int MAX_CACHED_STATEMENTS = 256;
+
+    private static final ConcurrentMap<String, ConcurrentMap<String, SqlTemplate>> templates = new ConcurrentHashMap<>();
+
     public DatastoreSqlRunner(String kind, String sql) {
-        super(sql.replaceAll(":kind", kind));
+        super(getTemplate(kind, sql));
+    }
+
+    protected DatastoreSqlRunner(SqlTemplate template) {
+        super(template);
+    }
+
+    /**
+     * Dynamic query sql has too many shapes for the per statement cache, so its templates
+     * are only cached by {@link SqlTemplate} itself.
+     */
+    public static SqlTemplate dynamicTemplate(String kind, String sql) {
+        return SqlTemplate.get(sql.replaceAll(":kind", kind));
+    }
+
+    /**
+     * Caches the kind substituted templates of the fixed datastore statements, so they skip
+     * all string processing.
+     */
+    private static SqlTemplate getTemplate(String kind, String sql) {
+        ConcurrentMap<String, SqlTemplate> kindTemplates = templates.get(sql);
+        if (kindTemplates == null && templates.size() >= MAX_CACHED_STATEMENTS) {
+            return SqlTemplate.get(sql.replaceAll(":kind", kind));
+        }
+        if (kindTemplates == null) {
+            kindTemplates = new ConcurrentHashMap<>();
+            ConcurrentMap<String, SqlTemplate> existing = templates.putIfAbsent(sql, kindTemplates);
+            if (existing != null) {
+                kindTemplates = existing;
+            }
+        }
+
+        SqlTemplate template = kindTemplates.get(kind);
+        if (template == null) {
+            template = SqlTemplate.get(sql.replaceAll(":kind", kind));
+            kindTemplates.putIfAbsent(kind, template);
+        }
+        return template;
     }
 
     protected final void bind(String placeHolderKey, Object value) {
@@ -24,26 +70,81 @@ public class DatastoreSqlRunner extends SqlRunner {
         super.bind(placeHolderKey, value);
     }
 
+    protected final void bind(String placeHolderKey, List<Key> keys) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < keys.size(); i++) {
+            if (i > 0) {
+                json.append(",");
+            }
+            json.append(keys.get(i).serialize());
+        }
+        json.append("]");
+
+        PlaceHolder placeHolderObject = new PlaceHolder(createJsonObject(json.toString()));
+        bind(placeHolderKey, placeHolderObject);
+    }
+
     protected final void bind(String placeHolderKey, Key key) {
         PlaceHolder placeHolderObject = new PlaceHolder(createJsonObject(key.serialize()));
         bind(placeHolderKey, placeHolderObject);
     }
 
     protected final void bind(String placeHolderKey, Entity entity) {
-        PlaceHolder placeHolderObject = new PlaceHolder(createJsonObject(entity.serializeProperties()));
+        Set<String> columnProperties = KindColumns.get(entity.getKind()).getProperties();
+        PlaceHolder placeHolderObject = new PlaceHolder(createJsonObject(entity.serializeProperties(columnProperties)));
+        bind(placeHolderKey, placeHolderObject);
+    }
+
+    protected final void bindColumns(Entity entity) {
+        List<Column> columns = KindColumns.get(entity.getKind()).getColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            bind(KindColumns.placeHolder(i), column.toJdbc(entity.getProperty(column.getProperty())));
+        }
+    }
+
+    protected final void bindEntities(String placeHolderKey, List<Entity> entities) {
+        boolean ancestors = !entities.isEmpty() && KindColumns.get(entities.get(0).getKind()).hasAncestors();
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            if (i > 0) {
+                json.append(",");
+            }
+            json.append("{\"key\":").append(entity.getKey().serialize());
+            if (ancestors) {
+                json.append(",\"").append(AncestorPath.COLUMN).append("\":").append(JsonUtils.to(AncestorPath.of(entity.getKey())));
+            }
+            json.append(",\"properties\":").append(entity.serializeProperties()).append("}");
+        }
+        json.append("]");
+
+        PlaceHolder placeHolderObject = new PlaceHolder(createJsonObject(json.toString()));
         bind(placeHolderKey, placeHolderObject);
     }
 
     protected final Entity getEntity(ResultSet rs) throws SQLException {
-        PGobject keyObject = (PGobject) rs.getObject("key");
         PGobject propertiesObject = (PGobject) rs.getObject("properties");
 
-        Entity entity = new Entity(Key.deserialize(keyObject.getValue()));
+        Entity entity = getKeyEntity(rs);
         entity.deserializeProperties(propertiesObject.getValue());
 
+        KindColumns kindColumns = KindColumns.get(entity.getKind());
+        if (!kindColumns.isEmpty()) {
+            kindColumns.read(rs, entity);
+        }
+
         return entity;
     }
 
+    /**
+     * @return an entity with the row key and no properties, for rows selected without them.
+     */
+    protected final Entity getKeyEntity(ResultSet rs) throws SQLException {
+        PGobject keyObject = (PGobject) rs.getObject("key");
+        return new Entity(Key.deserialize(keyObject.getValue()));
+    }
+
     protected final Object getEntities(ResultSet rs) throws SQLException {
         List<Entity> entities = new ArrayList<Entity>();
 
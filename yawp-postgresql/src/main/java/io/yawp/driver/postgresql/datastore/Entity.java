@@ -4,6 +4,7 @@ import io.yawp.commons.utils.JsonUtils;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 public class Entity {
 
@@ -43,6 +44,19 @@ public class Entity {
         return JsonUtils.to(properties);
     }
 
+    /**
+     * Serializes the properties that are not stored elsewhere, like in typed columns.
+     */
+    public String serializeProperties(Set<String> excluded) {
+        if (excluded.isEmpty()) {
+            return serializeProperties();
+        }
+
+        Map<String, Object> remainder = new HashMap<String, Object>(properties);
+        remainder.keySet().removeAll(excluded);
+        return JsonUtils.to(remainder);
+    }
+
     @SuppressWarnings("unchecked")
     public void deserializeProperties(String json) {
         this.properties = JsonUtils.from(null, json, Map.class);
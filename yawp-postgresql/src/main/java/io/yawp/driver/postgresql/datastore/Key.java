@@ -67,4 +67,33 @@ public class Key {
         this.name = NameGenerator.generateFromUUID();
     }
 
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((ns == null) ? 0 : ns.hashCode());
+        result = prime * result + ((parent == null) ? 0 : parent.hashCode());
+        result = prime * result + ((kind == null) ? 0 : kind.hashCode());
+        result = prime * result + ((id == null) ? 0 : id.hashCode());
+        result = prime * result + ((name == null) ? 0 : name.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        Key other = (Key) obj;
+        return equals(ns, other.ns) && equals(parent, other.parent) && equals(kind, other.kind) && equals(id, other.id)
+                && equals(name, other.name);
+    }
+
+    private static boolean equals(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
 }
\ No newline at end of file
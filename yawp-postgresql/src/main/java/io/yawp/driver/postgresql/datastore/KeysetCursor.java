@@ -0,0 +1,57 @@
+package io.yawp.driver.postgresql.datastore;
+
+import io.yawp.commons.utils.JsonUtils;
+import org.apache.commons.codec.binary.Base64;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * An opaque query cursor holding the order by values and the row id of the last returned
+ * entity, so the next page resumes right after it instead of skipping rows with an offset.
+ */
+public class KeysetCursor {
+
+    private long id;
+
+    private List<String> values;
+
+    public KeysetCursor(long id, List<String> values) {
+        this.id = id;
+        this.values = values;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public List<String> getValues() {
+        return values;
+    }
+
+    public String encode() {
+        return Base64.encodeBase64URLSafeString(JsonUtils.to(this).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded cursor, or null for the numeric offset cursors of previous versions.
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (isOffset(cursor)) {
+            return null;
+        }
+
+        String json = new String(Base64.decodeBase64(cursor), StandardCharsets.UTF_8);
+        return JsonUtils.from(null, json, KeysetCursor.class);
+    }
+
+    public static boolean isOffset(String cursor) {
+        for (int i = 0; i < cursor.length(); i++) {
+            if (!Character.isDigit(cursor.charAt(i))) {
+                return false;
+            }
+        }
+        return !cursor.isEmpty();
+    }
+
+}
@@ -0,0 +1,188 @@
+package io.yawp.driver.postgresql.datastore;
+
+import io.yawp.repository.models.FieldModel;
+import io.yawp.repository.models.ObjectModel;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The typed columns of a kind table, whether it is partitioned by namespace and whether it
+ * stores the {@link AncestorPath} of its rows. Kinds are
+ * registered from their endpoint model by the driver before their entities are read or
+ * written, kinds without typed columns keep every property in the jsonb properties column.
+ */
+public class KindColumns {
+
+    private static final KindColumns NONE = new KindColumns(Collections.<Column>emptyList(), false, false);
+
+    private static final ConcurrentMap<String, KindColumns> kinds = new ConcurrentHashMap<>();
+
+    private final List<Column> columns;
+
+    private final boolean partitioned;
+
+    private final boolean ancestors;
+
+    private final Map<String, Column> columnsByProperty = new HashMap<>();
+
+    private final Set<String> properties = new HashSet<>();
+
+    private final String names;
+
+    private final String placeHolders;
+
+    private final String updates;
+
+    private final String insertNames;
+
+    private final String batchValues;
+
+    private final ConcurrentMap<String, String> statements = new ConcurrentHashMap<>();
+
+    private KindColumns(List<Column> columns, boolean partitioned, boolean ancestors) {
+        this.columns = Collections.unmodifiableList(columns);
+        this.partitioned = partitioned;
+        this.ancestors = ancestors;
+
+        StringBuilder names = new StringBuilder();
+        StringBuilder placeHolders = new StringBuilder();
+        StringBuilder updates = new StringBuilder();
+
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            columnsByProperty.put(column.getProperty(), column);
+            properties.add(column.getProperty());
+
+            names.append(", ").append(column.getName());
+            placeHolders.append(", :").append(placeHolder(i));
+            updates.append(", ").append(column.getName()).append(" = excluded.").append(column.getName());
+        }
+
+        this.names = names.toString();
+        this.updates = updates.toString();
+
+        if (ancestors) {
+            this.insertNames = this.names + ", " + AncestorPath.COLUMN;
+            this.placeHolders = placeHolders.append(", :").append(AncestorPath.COLUMN).toString();
+            this.batchValues = String.format(", value->>'%s'", AncestorPath.COLUMN);
+        } else {
+            this.insertNames = this.names;
+            this.placeHolders = placeHolders.toString();
+            this.batchValues = "";
+        }
+    }
+
+    public static KindColumns register(ObjectModel model) {
+        KindColumns kindColumns = kinds.get(model.getKind());
+        if (kindColumns != null) {
+            return kindColumns;
+        }
+
+        kindColumns = create(model);
+        KindColumns existing = kinds.putIfAbsent(model.getKind(), kindColumns);
+        return existing != null ? existing : kindColumns;
+    }
+
+    private static KindColumns create(ObjectModel model) {
+        boolean ancestors = model.hasParent();
+        if (!model.isTypedColumns() && !model.isPartitionByNamespace() && !ancestors) {
+            return NONE;
+        }
+
+        List<Column> columns = new ArrayList<>();
+        if (model.isTypedColumns()) {
+            for (FieldModel fieldModel : model.getFieldModels()) {
+                Column column = Column.of(fieldModel);
+                if (column != null) {
+                    columns.add(column);
+                }
+            }
+        }
+        return new KindColumns(columns, model.isPartitionByNamespace(), ancestors);
+    }
+
+    public static KindColumns get(String kind) {
+        KindColumns kindColumns = kinds.get(kind);
+        return kindColumns != null ? kindColumns : NONE;
+    }
+
+    public boolean isEmpty() {
+        return columns.isEmpty();
+    }
+
+    /**
+     * @return true if the kind table is partitioned by the ns column.
+     */
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
+    /**
+     * @return true if the kind has parents, so its rows store their ancestor path.
+     */
+    public boolean hasAncestors() {
+        return ancestors;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    public Column getColumn(String property) {
+        return columnsByProperty.get(property);
+    }
+
+    /**
+     * @return the properties stored in columns, which are left out of the jsonb properties.
+     */
+    public Set<String> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Formats a statement for this kind, memoized per statement. The statement arguments are
+     * the column names, their :c0, :c1... placeholders and their upsert assignments, followed
+     * by the inserted column names and the values of a jsonb_array_elements batch insert, each
+     * one prefixed by a comma, or empty for kinds without typed columns. The inserted columns
+     * and placeholders include the ancestor path of kinds with parents, which is never updated
+     * since it is derived from the key.
+     */
+    public String format(String sql) {
+        String statement = statements.get(sql);
+        if (statement != null) {
+            return statement;
+        }
+
+        statement = String.format(sql, names, placeHolders, updates, insertNames, batchValues);
+        statements.putIfAbsent(sql, statement);
+        return statement;
+    }
+
+    /**
+     * @return the column names, each one prefixed by a comma.
+     */
+    public String getNames() {
+        return names;
+    }
+
+    public static String placeHolder(int index) {
+        return "c" + index;
+    }
+
+    public void read(ResultSet rs, Entity entity) throws SQLException {
+        for (Column column : columns) {
+            entity.setProperty(column.getProperty(), column.read(rs));
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+package io.yawp.driver.postgresql.datastore;
+
+import io.yawp.driver.postgresql.sql.ConnectionManager;
+import io.yawp.driver.postgresql.sql.SqlRunner;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * The list partitions of the kind tables partitioned by namespace. Each namespace gets its
+ * own partition, created right before its first write.
+ */
+public class NamespacePartitions {
+
+    public static final String COLUMN = "ns";
+
+    private static final String SEPARATOR = "__ns_";
+
+    private static final int MAX_NAME_LENGTH = 63;
+
+    private static final Pattern SIMPLE_NS = Pattern.compile("[a-z0-9_]*");
+
+    private static final String SQL_PARTITION_EXISTS = "select to_regclass(:name) is not null as found";
+
+    private static final String SQL_PARTITION_CREATE = "create table if not exists \"%s\" partition of \"%s\" for values in (%s)";
+
+    private static final Set<String> existing = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private NamespacePartitions() {}
+
+    /**
+     * @return the partition value of the key, the global namespace being an empty string.
+     */
+    public static String ns(Key key) {
+        return key.getNs() == null ? "" : key.getNs();
+    }
+
+    public static String name(String kind, String ns) {
+        String name = kind + SEPARATOR + (SIMPLE_NS.matcher(ns).matches() ? ns : DigestUtils.md5Hex(ns));
+        if (name.length() <= MAX_NAME_LENGTH) {
+            return name;
+        }
+        String hash = DigestUtils.md5Hex(name);
+        return kind.substring(0, Math.min(kind.length(), MAX_NAME_LENGTH - hash.length() - 1)) + "_" + hash;
+    }
+
+    /**
+     * Creates the partition of the namespace if it does not exist yet. Partitions seen
+     * outside a transaction are remembered, the ones created inside a transaction are
+     * checked again until one is seen committed, since the transaction may roll back.
+     */
+    public static void ensure(ConnectionManager connectionManager, String kind, String ns) {
+        String name = name(kind, ns);
+        if (existing.contains(name)) {
+            return;
+        }
+
+        if (!exists(connectionManager, name)) {
+            create(connectionManager, kind, ns, name);
+        }
+
+        if (!connectionManager.isTransactionInProgress()) {
+            existing.add(name);
+        }
+    }
+
+    private static void create(ConnectionManager connectionManager, String kind, String ns, String name) {
+        try {
+            connectionManager.execute(String.format(SQL_PARTITION_CREATE, name, kind, literal(ns)));
+        } catch (RuntimeException e) {
+            // another connection may have created it concurrently
+            if (connectionManager.isTransactionInProgress() || !exists(connectionManager, name)) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Writes the namespace as a unicode escaped literal, so no quote or placeholder
+     * character reaches the statement.
+     */
+    private static String literal(String ns) {
+        StringBuilder sb = new StringBuilder("U&'");
+        for (int i = 0; i < ns.length(); i += Character.charCount(ns.codePointAt(i))) {
+            int c = ns.codePointAt(i);
+            if (c < 128 && Character.isLetterOrDigit(c)) {
+                sb.appendCodePoint(c);
+            } else {
+                sb.append(String.format("\\+%06X", c));
+            }
+        }
+        return sb.append("'").toString();
+    }
+
+    public static boolean exists(ConnectionManager connectionManager, final String name) {
+        Boolean exists = connectionManager.executeQuery(new SqlRunner(SQL_PARTITION_EXISTS) {
+            @Override
+            protected void bind() {
+                bind("name", "\"" + name + "\"");
+            }
+
+            @Override
+            protected Boolean collectSingle(ResultSet rs) throws SQLException {
+                return rs.getBoolean("found");
+            }
+        });
+        return exists != null && exists;
+    }
+
+    /**
+     * Forgets the known partitions, after they were dropped.
+     */
+    public static void clear() {
+        existing.clear();
+    }
+
+}
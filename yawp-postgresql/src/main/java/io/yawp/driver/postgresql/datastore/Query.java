@@ -1,7 +1,7 @@
 package io.yawp.driver.postgresql.datastore;
 
 import io.yawp.commons.utils.DateUtils;
-import io.yawp.commons.utils.ReflectionUtils;
+import io.yawp.commons.utils.JsonUtils;
 import io.yawp.driver.postgresql.IdRefToKey;
 import io.yawp.driver.postgresql.sql.ConnectionManager;
 import io.yawp.driver.postgresql.sql.SqlRunner;
@@ -9,6 +9,7 @@ import io.yawp.repository.IdRef;
 import io.yawp.repository.Namespace;
 import io.yawp.repository.Repository;
 import io.yawp.repository.models.FieldModel;
+import io.yawp.repository.models.ModelRegistry;
 import io.yawp.repository.query.QueryBuilder;
 import io.yawp.repository.query.QueryOrder;
 import io.yawp.repository.query.condition.*;
@@ -16,28 +17,38 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.lang.reflect.Array;
-import java.lang.reflect.Field;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
 
 public class Query {
 
-    private static final String SQL_PREFIX = "select key, properties from :kind";
+    private static final String SQL_SELECT = "select id, key%s%s from :kind";
+
+    private static final String ORDER_COLUMN_PREFIX = "o";
+
+    private static final String SQL_ORDER_KEY = "coalesce(lpad(key->>'id', 20, '0'), key->>'name')";
+
+    private static final String SQL_ORDER_ID_REF = "(case when substring(%1$s from '[^/]*$') ~ '^[0-9]+$' "
+            + "then lpad(substring(%1$s from '[^/]*$'), 20, '0') else substring(%1$s from '[^/]*$') end)";
 
     private Repository r;
 
     private QueryBuilder<?> builder;
 
-    // TODO: select only keys, today we fetch the entire row from database
     private boolean keysOnly;
 
     private Map<String, Object> whereBinds = new HashMap<String, Object>();
 
+    private KeysetCursor lastRow;
+
+    private KindColumns columns;
+
     public Query(QueryBuilder<?> builder, boolean keysOnly) {
         this.builder = builder;
         this.keysOnly = keysOnly;
         this.r = builder.getRepository();
+        this.columns = KindColumns.register(builder.getModel());
     }
 
     public List<Entity> execute(ConnectionManager connectionManager) throws FalsePredicateException {
@@ -51,15 +62,14 @@ public class Query {
             return;
         }
 
-        long previousCursor = builder.getCursor() != null ? Long.valueOf(builder.getCursor()) : 0;
-        builder.setCursor(String.valueOf(previousCursor + entities.size()));
+        builder.setCursor(lastRow.encode());
     }
 
     private SqlRunner createRunner() throws FalsePredicateException {
 
-        String sql = SQL_PREFIX + where() + order() + offset() + limit();
+        String sql = select() + where() + order() + offset() + limit();
 
-        return new DatastoreSqlRunner(getKind(), sql) {
+        return new DatastoreSqlRunner(DatastoreSqlRunner.dynamicTemplate(getKind(), sql)) {
             @Override
             protected void bind() {
                 for (String key : whereBinds.keySet()) {
@@ -69,37 +79,143 @@ public class Query {
 
             @Override
             protected Object collect(ResultSet rs) throws SQLException {
-                return getEntities(rs);
+                List<Entity> entities = new ArrayList<>();
+
+                while (rs.next()) {
+                    entities.add(keysOnly ? getKeyEntity(rs) : getEntity(rs));
+                    if (rs.isLast()) {
+                        lastRow = getLastRow(rs);
+                    }
+                }
+
+                return entities;
             }
 
         };
     }
 
+    private KeysetCursor getLastRow(ResultSet rs) throws SQLException {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < getPreOrders().size(); i++) {
+            values.add(rs.getString(ORDER_COLUMN_PREFIX + i));
+        }
+        return new KeysetCursor(rs.getLong("id"), values);
+    }
+
+    private String select() {
+        StringBuilder sb = new StringBuilder();
+        List<QueryOrder> orders = getPreOrders();
+        for (int i = 0; i < orders.size(); i++) {
+            sb.append(String.format(", %s as %s%d", orderLink(orders.get(i)), ORDER_COLUMN_PREFIX, i));
+        }
+        return String.format(SQL_SELECT, selectProperties(), sb.toString());
+    }
+
+    private String selectProperties() {
+        if (keysOnly) {
+            return "";
+        }
+
+        if (!builder.hasProjection()) {
+            return ", properties" + columns.getNames();
+        }
+
+        List<String> pairs = new ArrayList<>();
+        for (String field : builder.getProjection()) {
+            pairs.add(String.format("'%s', properties->'%s'", field, field));
+        }
+        return String.format(", jsonb_strip_nulls(jsonb_build_object(%s)) as properties%s", StringUtils.join(pairs, ", "), columns.getNames());
+    }
+
     private String getKind() {
         return builder.getModel().getKind();
     }
 
     private String where() throws FalsePredicateException {
-        if (!hasAnyKindOfFilter()) {
+        List<String> wheres = new ArrayList<>();
+
+        if (columns.isPartitioned()) {
+            wheres.add(wherePartition());
+        }
+
+        if (hasAnyKindOfFilter()) {
+            if (!columns.isPartitioned()) {
+                wheres.add(whereNamespace());
+            }
+
+            if (hasPropertyFilter()) {
+                wheres.add(where(builder.getCondition()));
+            }
+
+            if (hasAncestorFilter()) {
+                wheres.add(whereAncestor());
+            }
+        }
+
+        if (hasKeysetCursor()) {
+            wheres.add(whereKeyset(KeysetCursor.decode(builder.getCursor())));
+        }
+
+        if (wheres.isEmpty()) {
             return "";
         }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append(" where ");
+        return " where " + StringUtils.join(wheres, " and ");
+    }
 
-        sb.append(whereNamespace());
+    private boolean hasKeysetCursor() {
+        return builder.getCursor() != null && !KeysetCursor.isOffset(builder.getCursor());
+    }
+
+    /**
+     * Selects the rows that come after the cursor in the (order by values, id) order,
+     * following postgres null ordering: nulls last when ascending and first when descending.
+     */
+    private String whereKeyset(KeysetCursor cursor) {
+        List<QueryOrder> orders = getPreOrders();
+        List<String> values = cursor.getValues();
 
-        if (hasPropertyFilter()) {
-            sb.append(" and ");
-            sb.append(where(builder.getCondition()));
+        if (values == null || values.size() != orders.size()) {
+            throw new RuntimeException("Query cursor does not match the query order: " + builder.getCursor());
         }
 
-        if (hasAncestorFilter()) {
-            sb.append(" and ");
-            sb.append(whereAncestor());
+        List<String> alternatives = new ArrayList<>();
+        StringBuilder equals = new StringBuilder();
+
+        for (int i = 0; i < orders.size(); i++) {
+            String link = orderLink(orders.get(i));
+            String value = values.get(i);
+            String type = orderType(orders.get(i));
+
+            String after = whereAfter(link, type, orders.get(i).isDesc(), value);
+            if (after != null) {
+                alternatives.add(String.format("(%s%s)", equals, after));
+            }
+
+            if (value == null) {
+                equals.append(String.format("%s is null and ", link));
+            } else {
+                equals.append(String.format("%s = cast(:%s as %s) and ", link, bindValue(value), type));
+            }
         }
 
-        return sb.toString();
+        alternatives.add(String.format("(%sid > :%s)", equals, bindValue(cursor.getId())));
+
+        return "(" + StringUtils.join(alternatives, " or ") + ")";
+    }
+
+    private String whereAfter(String link, String type, boolean desc, String value) {
+        if (desc) {
+            if (value == null) {
+                return String.format("%s is not null", link);
+            }
+            return String.format("%s < cast(:%s as %s)", link, bindValue(value), type);
+        }
+
+        if (value == null) {
+            return null;
+        }
+        return String.format("(%s > cast(:%s as %s) or %s is null)", link, bindValue(value), type, link);
     }
 
     private boolean hasAnyKindOfFilter() {
@@ -135,28 +251,26 @@ public class Query {
         return String.format("key->>'ns' = :%s", placeHolder);
     }
 
+    /**
+     * Filters by the partition column of the current namespace, so postgres only scans
+     * its partition.
+     */
+    private String wherePartition() {
+        String placeHolder = bindValue(NamespaceManager.get());
+        return String.format("%s = :%s", NamespacePartitions.COLUMN, placeHolder);
+    }
+
     private String whereGlobaleNamespace() {
         return "(key->'ns') is null";
     }
 
+    /**
+     * Ancestor queries of any level are a range of the materialized ancestor path.
+     */
     private String whereAncestor() {
         IdRef<?> parentId = builder.getParentId();
-        String placeHolder = bindValue(IdRefToKey.toKey(r, parentId));
-        return String.format("key%s = :%s", ancetorLink(parentId), placeHolder);
-    }
-
-    private String ancetorLink(IdRef<?> parentId) {
-        StringBuilder sb = new StringBuilder();
-        int ancestorNumber = getAncetorNumber(parentId);
-        for (int i = -1; i < ancestorNumber; i++) {
-            sb.append("->'parent'");
-        }
-        String ancestorLink = sb.toString();
-        return ancestorLink;
-    }
-
-    protected int getAncetorNumber(IdRef<?> parentId) {
-        return builder.getModel().getAncestorNumber(parentId.getClazz());
+        String prefix = AncestorPath.prefix(IdRefToKey.toKey(r, parentId));
+        return String.format("%1$s >= :%2$s and %1$s < :%3$s", AncestorPath.COLUMN, bindValue(prefix), bindValue(AncestorPath.prefixEnd(prefix)));
     }
 
     private String where(BaseCondition condition) throws FalsePredicateException {
@@ -200,7 +314,7 @@ public class Query {
                 first = false;
             }
 
-            String placeHolder = bindValue(actualValue);
+            String placeHolder = bindValue(columnValue(actualFieldName, actualValue));
             sb.append(":");
             sb.append(placeHolder);
         }
@@ -213,7 +327,12 @@ public class Query {
         if (isNull(whereOperator, actualValue)) {
             return whereSingleValueIsNull(actualFieldName);
         }
-        String placeHolder = bindValue(actualValue);
+        if (isList(fieldName) && whereOperator == WhereOperator.EQUAL) {
+            String placeHolder = bindValue(JsonUtils.to(Collections.singletonList(actualValue)));
+            return String.format("%s @> cast(:%s as jsonb)", propertyLink(fieldName, actualFieldName, false), placeHolder);
+        }
+
+        String placeHolder = bindValue(columnValue(actualFieldName, actualValue));
 
         if (isList(fieldName)) {
             return String.format(":%s %s ANY(ARRAY(select * from json_array_elements_text(to_json(%s))))", placeHolder, filterOperatorAsText(whereOperator.reverse()), propertyLink(fieldName, actualFieldName, false));
@@ -222,9 +341,24 @@ public class Query {
     }
 
     private String whereSingleValueIsNull(String actualFieldName) {
+        Column column = columns.getColumn(actualFieldName);
+        if (column != null) {
+            return String.format("%s is null", column.getName());
+        }
         return String.format("(properties->'%s') is null", actualFieldName);
     }
 
+    private Object columnValue(String actualFieldName, Object actualValue) {
+        Column column = columns.getColumn(actualFieldName);
+        if (column != null) {
+            return column.toJdbc(actualValue);
+        }
+        if (actualValue instanceof Boolean) {
+            return actualValue.toString();
+        }
+        return actualValue;
+    }
+
     private boolean isNull(WhereOperator whereOperator, Object actualValue) {
         return whereOperator.equals(WhereOperator.EQUAL) && actualValue == null;
     }
@@ -247,6 +381,11 @@ public class Query {
             return "key";
         }
 
+        Column column = columns.getColumn(actualFieldName);
+        if (column != null && scalar) {
+            return column.getName();
+        }
+
         if (fieldModel.isNumber()) {
             return String.format("cast(properties-%s'%s' as numeric)", retrieveOperator, actualFieldName);
         }
@@ -285,36 +424,81 @@ public class Query {
         return applyLogicalOperator(logicalOperator, wheres);
     }
 
+    /**
+     * Always ends with the row id, so the order is total and a keyset cursor can resume
+     * from any row.
+     */
     private String order() {
-        if (CollectionUtils.isEmpty(builder.getPreOrders())) {
-            return "";
-        }
-
-        Class<?> clazz = builder.getModel().getClazz();
-
-        boolean first = true;
         StringBuilder sb = new StringBuilder();
         sb.append(" order by ");
 
-        for (QueryOrder order : builder.getPreOrders()) {
-            if (!first) {
-                sb.append(", ");
-            } else {
-                first = false;
-            }
-
-            sb.append(String.format("properties->>'%s'", getActualFieldName(order.getProperty(), clazz)));
+        for (QueryOrder order : getPreOrders()) {
+            sb.append(orderLink(order));
 
             if (order.isDesc()) {
                 sb.append(" desc");
             }
+
+            sb.append(", ");
         }
 
+        sb.append("id");
         return sb.toString();
     }
 
+    /**
+     * The order expression of a property. Numbers are sorted as numeric, like their indexes, and
+     * ids by their own long id or name, like IdRef.compareTo. Dates are stored in the fixed width
+     * timestamp format, so they already sort chronologically as text.
+     */
+    private String orderLink(QueryOrder order) {
+        FieldModel fieldModel = builder.getModel().getFieldModel(order.getProperty());
+        String actualFieldName = getActualFieldName(order.getProperty(), builder.getModel().getClazz());
+
+        Column column = columns.getColumn(actualFieldName);
+        if (column != null) {
+            return column.getName();
+        }
+
+        if (fieldModel.isId()) {
+            return SQL_ORDER_KEY;
+        }
+
+        if (fieldModel.isNumber()) {
+            return String.format("cast(properties->>'%s' as numeric)", actualFieldName);
+        }
+
+        if (fieldModel.isIdRef()) {
+            return String.format(SQL_ORDER_ID_REF, String.format("(properties->>'%s')", actualFieldName));
+        }
+
+        return String.format("properties->>'%s'", actualFieldName);
+    }
+
+    private String orderType(QueryOrder order) {
+        FieldModel fieldModel = builder.getModel().getFieldModel(order.getProperty());
+        String actualFieldName = getActualFieldName(order.getProperty(), builder.getModel().getClazz());
+
+        Column column = columns.getColumn(actualFieldName);
+        if (column != null) {
+            return column.getSqlType();
+        }
+
+        if (!fieldModel.isId() && fieldModel.isNumber()) {
+            return "numeric";
+        }
+        return "text";
+    }
+
+    private List<QueryOrder> getPreOrders() {
+        if (CollectionUtils.isEmpty(builder.getPreOrders())) {
+            return Collections.emptyList();
+        }
+        return builder.getPreOrders();
+    }
+
     private String offset() {
-        if (builder.getCursor() == null) {
+        if (builder.getCursor() == null || hasKeysetCursor()) {
             return "";
         }
         return String.format(" offset %s", builder.getCursor());
@@ -348,8 +532,7 @@ public class Query {
     }
 
     private <T> String getActualFieldName(String fieldName, Class<T> clazz) {
-        Field field = ReflectionUtils.getFieldRecursively(clazz, fieldName);
-        FieldModel fieldModel = new FieldModel(field);
+        FieldModel fieldModel = ModelRegistry.get(clazz).getFieldModel(fieldName);
 
         if (fieldModel.isId()) {
             return Entity.KEY_RESERVED_PROPERTY;
@@ -363,8 +546,7 @@ public class Query {
     }
 
     public <T> Object getActualFieldValue(String fieldName, Class<T> clazz, Object value) {
-        Field field = ReflectionUtils.getFieldRecursively(clazz, fieldName);
-        FieldModel fieldModel = new FieldModel(field);
+        FieldModel fieldModel = ModelRegistry.get(clazz).getFieldModel(fieldName);
 
         if (fieldModel.isCollection(value)) {
             return getActualListFieldValue(fieldName, clazz, (Collection<?>) value);
@@ -0,0 +1,64 @@
+package io.yawp.driver.postgresql.pipes;
+
+import io.yawp.repository.IdRef;
+import io.yawp.repository.Repository;
+import io.yawp.repository.pipes.Pipe;
+
+import java.util.Set;
+
+/**
+ * Configures the sinks of a source and queues one work for each of them.
+ */
+public class FanoutTask {
+
+    private final Repository r;
+
+    private final PipesQueue queue;
+
+    private final Payload payload;
+
+    public FanoutTask(Repository r, PipesQueue queue, Payload payload) {
+        this.r = r;
+        this.queue = queue;
+        this.payload = payload;
+    }
+
+    public void execute() {
+        for (IdRef<?> sinkId : getSinkIds()) {
+            payload.setSinkUri(sinkId);
+            queue.addWork(payload);
+        }
+    }
+
+    private Set<IdRef<?>> getSinkIds() {
+        if (payload.isRefluxOld()) {
+            return getRemovedSinkIds();
+        }
+        return getAddedSinkIds();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<IdRef<?>> getAddedSinkIds() {
+        Pipe pipe = newPipeInstance();
+        pipe.configureSinks(payload.getSource());
+        return pipe.allSinks();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<IdRef<?>> getRemovedSinkIds() {
+        Pipe oldPipe = newPipeInstance();
+        oldPipe.configureSinks(payload.getOldSource());
+
+        Pipe newPipe = newPipeInstance();
+        newPipe.configureSinks(payload.getSource());
+
+        Set<IdRef<?>> oldSinks = oldPipe.allSinks();
+        oldSinks.removeAll(newPipe.allSinks());
+        return oldSinks;
+    }
+
+    private Pipe newPipeInstance() {
+        return Pipe.newInstance(r, payload.getPipeClazz());
+    }
+
+}
@@ -0,0 +1,150 @@
+package io.yawp.driver.postgresql.pipes;
+
+import io.yawp.commons.utils.JsonUtils;
+import io.yawp.commons.utils.ReflectionUtils;
+import io.yawp.repository.IdRef;
+import io.yawp.repository.models.ObjectHolder;
+import io.yawp.repository.pipes.Pipe;
+import io.yawp.repository.pipes.SourceMarker;
+
+import static io.yawp.repository.Yawp.yawp;
+
+public class Payload {
+
+    private String ns;
+
+    private String pipeClazzName;
+
+    private String sourceJson;
+
+    private String oldSourceJson;
+
+    private String sinkUri;
+
+    private String sourceMarkerJson;
+
+    private boolean present;
+
+    private transient Class<? extends Pipe> pipeClazz;
+
+    private transient Object source;
+
+    private transient Object oldSource;
+
+    private transient IdRef<?> sinkId;
+
+    private transient SourceMarker sourceMarker;
+
+    public String getNs() {
+        return ns;
+    }
+
+    public void setNs(String ns) {
+        this.ns = ns;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Class<? extends Pipe> getPipeClazz() {
+        if (pipeClazz == null) {
+            pipeClazz = (Class<? extends Pipe>) ReflectionUtils.clazzForName(pipeClazzName);
+        }
+        return pipeClazz;
+    }
+
+    public void setPipeClazz(Class<? extends Pipe> pipeClazz) {
+        this.pipeClazzName = pipeClazz.getName();
+    }
+
+    public String getSourceJson() {
+        return sourceJson;
+    }
+
+    public void setSourceJson(Object source) {
+        this.sourceJson = JsonUtils.to(source);
+        this.source = null;
+    }
+
+    public Object getSource() {
+        if (source == null) {
+            source = JsonUtils.from(yawp(), sourceJson, ReflectionUtils.getFeatureEndpointClazz(getPipeClazz()));
+        }
+        return source;
+    }
+
+    public void setOldSourceJson(Object oldSource) {
+        this.oldSourceJson = JsonUtils.to(oldSource);
+        this.oldSource = null;
+    }
+
+    public Object getOldSource() {
+        if (oldSource == null) {
+            oldSource = JsonUtils.from(yawp(), oldSourceJson, ReflectionUtils.getFeatureEndpointClazz(getPipeClazz()));
+        }
+        return oldSource;
+    }
+
+    public IdRef<?> getSinkId() {
+        if (sinkId == null) {
+            sinkId = IdRef.parse(yawp(), sinkUri);
+        }
+        return sinkId;
+    }
+
+    public void setSinkUri(IdRef<?> sinkId) {
+        this.sinkUri = sinkId.getUri();
+        this.sinkId = null;
+    }
+
+    public String getSinkUri() {
+        return sinkUri;
+    }
+
+    public SourceMarker getSourceMarker() {
+        if (sourceMarker == null) {
+            sourceMarker = JsonUtils.from(yawp(), sourceMarkerJson, SourceMarker.class);
+        }
+        return sourceMarker;
+    }
+
+    public void setSourceMarkerJson(SourceMarker sourceMarker) {
+        this.sourceMarkerJson = JsonUtils.to(sourceMarker);
+        this.sourceMarker = null;
+    }
+
+    public boolean isPresent() {
+        return present;
+    }
+
+    public void setPresent(boolean present) {
+        this.present = present;
+    }
+
+    public IdRef<?> getSourceId() {
+        return new ObjectHolder(getSource()).getId();
+    }
+
+    public boolean isRefluxOld() {
+        return !isPresent() && getOldSource() != null;
+    }
+
+    /**
+     * @return the uri of the sink root ancestor. Works of the same group are executed together
+     * and never concurrently.
+     */
+    public String getSinkGroupUri() {
+        IdRef<?> sinkGroupId = getSinkId();
+        while (sinkGroupId.getParentId() != null) {
+            sinkGroupId = sinkGroupId.getParentId();
+        }
+        return sinkGroupId.getUri();
+    }
+
+    public String toJson() {
+        return JsonUtils.to(this);
+    }
+
+    public static Payload fromJson(String json) {
+        return JsonUtils.from(null, json, Payload.class);
+    }
+
+}
@@ -0,0 +1,265 @@
+package io.yawp.driver.postgresql.pipes;
+
+import io.yawp.driver.postgresql.sql.ConnectionManager;
+import io.yawp.driver.postgresql.sql.SqlRunner;
+import org.apache.commons.lang3.StringUtils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The transactional outbox of the pipes driver. Tasks are added through the connection
+ * manager of the repository that produced them, so workers only see them once the source
+ * changes are committed. Workers claim tasks with select for update skip locked and delete
+ * them in the same transaction after they are executed. Failed tasks are retried after an
+ * exponential backoff until they reach {@code yawp.pg.pipes.attempts} attempts, then they are
+ * kept in the table as dead tasks, which are never claimed again.
+ */
+public class PipesQueue {
+
+    public static final String TABLE = "__yawp_pipe_queue";
+
+    public static final String SQL_TABLE_CREATE = "create table if not exists " + TABLE
+            + " (id bigserial primary key, ns text not null, type text not null, sink_group text not null, payload text not null, "
+            + "attempts integer not null default 0, available_at timestamptz not null default now(), dead boolean not null default false)";
+
+    public static final String SQL_DEAD_COLUMN_CREATE = "alter table " + TABLE + " add column if not exists dead boolean not null default false";
+
+    public static final String SQL_INDEX_CREATE = "create index if not exists " + TABLE + "_group_idx on " + TABLE
+            + " (ns, type, sink_group, id)";
+
+    private static final String SQL_ADD = "insert into " + TABLE + " (ns, type, sink_group, payload) values (:ns, :type, :sinkGroup, :payload)";
+
+    private static final String SQL_GROUPS = "select ns, type, sink_group, min(id) as head from " + TABLE
+            + " where not dead and available_at <= now() group by ns, type, sink_group order by head limit :limit";
+
+    private static final String SQL_LOCK_GROUP = "select pg_try_advisory_xact_lock(:classId, :objId) as locked";
+
+    private static final String SQL_CLAIM = "select id, payload from " + TABLE
+            + " where ns = :ns and type = :type and sink_group = :sinkGroup and not dead and available_at <= now() order by id limit :limit for update skip locked";
+
+    private static final String SQL_CLAIM_TASK = "select id, payload from " + TABLE + " where id = :id and not dead for update skip locked";
+
+    private static final String SQL_DELETE = "delete from " + TABLE + " where id = any(cast(string_to_array(:ids, ',') as bigint[]))";
+
+    private static final String SQL_FAIL = "update " + TABLE + " set attempts = attempts + 1, "
+            + "available_at = now() + interval '1 second' * least(power(2, attempts), 300), dead = attempts + 1 >= :maxAttempts "
+            + "where id = any(cast(string_to_array(:ids, ',') as bigint[])) returning id, dead";
+
+    private static final String SQL_RELEASE = "update " + TABLE + " set available_at = now() where not dead and available_at > now()";
+
+    private static final String SQL_SIZE = "select count(*) as size from " + TABLE + " where not dead";
+
+    private static final String SQL_DEAD_SIZE = "select count(*) as size from " + TABLE + " where dead";
+
+    public static final int MAX_ATTEMPTS = Integer.getInteger("yawp.pg.pipes.attempts", 10);
+
+    private static final int LOCK_CLASS_ID = 0x79617770;
+
+    private final ConnectionManager connectionManager;
+
+    public PipesQueue(ConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    public void add(final String ns, final TaskType type, final String sinkGroup, final String payload) {
+        connectionManager.execute(new SqlRunner(SQL_ADD) {
+            @Override
+            protected void bind() {
+                bind("ns", nsOrEmpty(ns));
+                bind("type", type.name());
+                bind("sinkGroup", sinkGroup == null ? "" : sinkGroup);
+                bind("payload", payload);
+            }
+        });
+    }
+
+    public void addWork(Payload payload) {
+        add(payload.getNs(), TaskType.WORK, payload.getSinkGroupUri(), payload.toJson());
+    }
+
+    /**
+     * @return the oldest available groups of tasks, which are not claimed yet.
+     */
+    public List<TaskGroup> groups(final int limit) {
+        return connectionManager.executeQuery(new SqlRunner(SQL_GROUPS) {
+            @Override
+            protected void bind() {
+                bind("limit", limit);
+            }
+
+            @Override
+            protected List<TaskGroup> collect(ResultSet rs) throws SQLException {
+                List<TaskGroup> groups = new ArrayList<>();
+                while (rs.next()) {
+                    groups.add(new TaskGroup(rs.getString("ns"), TaskType.valueOf(rs.getString("type")), rs.getString("sink_group")));
+                }
+                return groups;
+            }
+        });
+    }
+
+    /**
+     * Claims the tasks of a group until the current transaction ends. Works of a sink group
+     * are also guarded by an advisory lock, so two workers never change the same sinks.
+     *
+     * @return the claimed tasks, or an empty list if another worker holds the group.
+     */
+    public List<Task> claim(final TaskGroup group) {
+        if (group.getType() == TaskType.WORK && !lock(group)) {
+            return new ArrayList<>();
+        }
+
+        return connectionManager.executeQuery(new ClaimRunner(SQL_CLAIM, group) {
+            @Override
+            protected void bind() {
+                bind("ns", nsOrEmpty(group.getNs()));
+                bind("type", group.getType().name());
+                bind("sinkGroup", group.getSinkGroup());
+                bind("limit", group.getType().getBatchSize());
+            }
+        });
+    }
+
+    /**
+     * Claims a single task of a group, so the tasks of a failed batch can be executed one
+     * by one.
+     *
+     * @return the claimed task, or an empty list if it is held by another worker, dead or
+     * already executed.
+     */
+    public List<Task> claim(final TaskGroup group, final Task task) {
+        if (group.getType() == TaskType.WORK && !lock(group)) {
+            return new ArrayList<>();
+        }
+
+        return connectionManager.executeQuery(new ClaimRunner(SQL_CLAIM_TASK, group) {
+            @Override
+            protected void bind() {
+                bind("id", task.getId());
+            }
+        });
+    }
+
+    private static class ClaimRunner extends SqlRunner {
+
+        private final TaskGroup group;
+
+        public ClaimRunner(String sql, TaskGroup group) {
+            super(sql);
+            this.group = group;
+        }
+
+        @Override
+        protected List<Task> collect(ResultSet rs) throws SQLException {
+            List<Task> tasks = new ArrayList<>();
+            while (rs.next()) {
+                tasks.add(new Task(rs.getLong("id"), group.getNs(), group.getType(), rs.getString("payload")));
+            }
+            return tasks;
+        }
+
+    }
+
+    private boolean lock(final TaskGroup group) {
+        Boolean locked = connectionManager.executeQuery(new SqlRunner(SQL_LOCK_GROUP) {
+            @Override
+            protected void bind() {
+                bind("classId", LOCK_CLASS_ID);
+                bind("objId", (nsOrEmpty(group.getNs()) + group.getSinkGroup()).hashCode());
+            }
+
+            @Override
+            protected Boolean collectSingle(ResultSet rs) throws SQLException {
+                return rs.getBoolean("locked");
+            }
+        });
+        return locked != null && locked;
+    }
+
+    public void delete(List<Task> tasks) {
+        final String ids = joinIds(tasks);
+
+        connectionManager.execute(new SqlRunner(SQL_DELETE) {
+            @Override
+            protected void bind() {
+                bind("ids", ids);
+            }
+        });
+    }
+
+    /**
+     * Makes failed tasks available again after an exponential backoff. Tasks that reach
+     * {@link #MAX_ATTEMPTS} attempts are dead and never claimed again.
+     *
+     * @return the ids of the tasks that are dead now.
+     */
+    public List<Long> fail(List<Task> tasks) {
+        final String ids = joinIds(tasks);
+
+        return connectionManager.executeQuery(new SqlRunner(SQL_FAIL) {
+            @Override
+            protected void bind() {
+                bind("ids", ids);
+                bind("maxAttempts", MAX_ATTEMPTS);
+            }
+
+            @Override
+            protected List<Long> collect(ResultSet rs) throws SQLException {
+                List<Long> dead = new ArrayList<>();
+                while (rs.next()) {
+                    if (rs.getBoolean("dead")) {
+                        dead.add(rs.getLong("id"));
+                    }
+                }
+                return dead;
+            }
+        });
+    }
+
+    private String joinIds(List<Task> tasks) {
+        List<Long> ids = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return StringUtils.join(ids, ",");
+    }
+
+    /**
+     * Makes every task waiting for a retry available right away.
+     */
+    public void release() {
+        connectionManager.execute(SQL_RELEASE);
+    }
+
+    /**
+     * @return the number of tasks waiting or being executed, dead tasks aside.
+     */
+    public long size() {
+        return count(SQL_SIZE);
+    }
+
+    /**
+     * @return the number of dead tasks, which stay in the table until they are inspected.
+     */
+    public long deadSize() {
+        return count(SQL_DEAD_SIZE);
+    }
+
+    private long count(String sql) {
+        Long size = connectionManager.executeQuery(new SqlRunner(sql) {
+            @Override
+            protected Long collectSingle(ResultSet rs) throws SQLException {
+                return rs.getLong("size");
+            }
+        });
+        return size == null ? 0 : size;
+    }
+
+    private static String nsOrEmpty(String ns) {
+        return ns == null ? "" : ns;
+    }
+
+}
@@ -0,0 +1,154 @@
+package io.yawp.driver.postgresql.pipes;
+
+import io.yawp.driver.postgresql.PGDriver;
+import io.yawp.driver.postgresql.sql.ConnectionManager;
+import io.yawp.repository.Repository;
+import io.yawp.repository.RepositoryFeatures;
+import io.yawp.repository.Yawp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Polls the pipes queue and executes each claimed group of tasks. Transactional tasks are
+ * claimed, executed and deleted in one transaction of the repository that executes them.
+ * Other tasks are claimed and deleted in a transaction of their own and commit their
+ * writes themselves. When a batch fails, its tasks are executed again one by one, so only
+ * the failing ones are retried later. Tasks that keep failing end up dead in the queue.
+ */
+public class PipesWorker implements Runnable {
+
+    private final static Logger logger = Logger.getLogger(PipesWorker.class.getName());
+
+    private static final int GROUPS_LIMIT = 16;
+
+    private final PipesWorkers workers;
+
+    private final PipesQueue queue = new PipesQueue(new ConnectionManager());
+
+    public PipesWorker(PipesWorkers workers) {
+        this.workers = workers;
+    }
+
+    @Override
+    public void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            int executed;
+            try {
+                executed = poll();
+            } catch (RuntimeException e) {
+                logger.log(Level.SEVERE, "error polling the pipes queue", e);
+                executed = 0;
+            }
+
+            if (executed == 0 && !workers.await()) {
+                return;
+            }
+        }
+    }
+
+    private int poll() {
+        int executed = 0;
+        for (TaskGroup group : queue.groups(GROUPS_LIMIT)) {
+            executed += execute(group);
+        }
+        return executed;
+    }
+
+    private int execute(TaskGroup group) {
+        List<Task> failed = new ArrayList<>();
+        int executed = execute(group, null, failed);
+
+        if (failed.size() > 1) {
+            List<Task> batch = failed;
+            failed = new ArrayList<>();
+            for (Task task : batch) {
+                executed += execute(group, task, failed);
+            }
+        }
+
+        if (!failed.isEmpty()) {
+            fail(failed);
+        }
+        return executed;
+    }
+
+    /**
+     * Executes the claimed tasks of a group, or only the given task if it is not null.
+     *
+     * @return the number of executed tasks. The tasks of a failed execution are rolled back
+     * and added to failed.
+     */
+    private int execute(TaskGroup group, Task task, List<Task> failed) {
+        Repository r = createRepository(group);
+        boolean transactional = group.getType().isTransactional();
+        ConnectionManager connectionManager = transactional ? ((PGDriver) r.driver()).getConnectionManager() : new ConnectionManager();
+        PipesQueue txQueue = new PipesQueue(connectionManager);
+        List<Task> tasks = null;
+
+        try {
+            if (transactional) {
+                r.begin();
+            } else {
+                connectionManager.beginTransaction();
+            }
+
+            tasks = task == null ? txQueue.claim(group) : txQueue.claim(group, task);
+            if (tasks.isEmpty()) {
+                return 0;
+            }
+
+            group.getType().execute(r, txQueue, tasks);
+
+            txQueue.delete(tasks);
+            commit(r, connectionManager, transactional);
+            return tasks.size();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "error executing pipes tasks", e);
+            rollback(r, connectionManager, transactional);
+            if (tasks != null) {
+                failed.addAll(tasks);
+            }
+            return 0;
+        } finally {
+            rollback(r, connectionManager, transactional);
+            Yawp.dispose();
+        }
+    }
+
+    private void fail(List<Task> tasks) {
+        List<Long> dead = queue.fail(tasks);
+        for (Task task : tasks) {
+            if (dead.contains(task.getId())) {
+                logger.log(Level.SEVERE, String.format("pipes task %d failed %d times and is dead: %s", task.getId(),
+                        PipesQueue.MAX_ATTEMPTS, task.getPayload()));
+            }
+        }
+    }
+
+    private Repository createRepository(TaskGroup group) {
+        RepositoryFeatures features = workers.getFeatures();
+        Repository r = Repository.r(group.getNs()).setFeatures(features);
+        Yawp.yawp.set(r);
+        return r;
+    }
+
+    private void commit(Repository r, ConnectionManager connectionManager, boolean transactional) {
+        if (transactional) {
+            r.commit();
+        } else {
+            connectionManager.commit();
+        }
+    }
+
+    private void rollback(Repository r, ConnectionManager connectionManager, boolean transactional) {
+        if (transactional && r.isTransationInProgress()) {
+            r.rollback();
+        } else if (!transactional && connectionManager.isTransactionInProgress()) {
+            connectionManager.rollback();
+        }
+    }
+
+}
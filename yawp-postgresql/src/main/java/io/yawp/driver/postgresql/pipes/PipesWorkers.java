@@ -0,0 +1,149 @@
+package io.yawp.driver.postgresql.pipes;
+
+import io.yawp.driver.postgresql.sql.ConnectionManager;
+import io.yawp.repository.RepositoryFeatures;
+import io.yawp.repository.Yawp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The daemon threads executing the pipes queue of this process. They are started with the
+ * driver of the first repository, so tasks left in the queue by a previous process are
+ * executed without waiting for a new one. They poll the queue every
+ * {@code yawp.pg.pipes.poll} milliseconds and are woken up early when new tasks are added.
+ * The number of threads is set by the {@code yawp.pg.pipes.workers} system property. They
+ * are stopped when the driver is destroyed.
+ */
+public class PipesWorkers {
+
+    private static final int WORKERS = Integer.getInteger("yawp.pg.pipes.workers", 2);
+
+    private static final long POLL_MILLIS = Long.getLong("yawp.pg.pipes.poll", 1000);
+
+    private static final long STOP_MILLIS = 10000;
+
+    private static volatile PipesWorkers instance;
+
+    private volatile RepositoryFeatures features;
+
+    private final List<Thread> threads = new ArrayList<>();
+
+    private boolean awake;
+
+    private PipesWorkers(RepositoryFeatures features) {
+        this.features = features;
+    }
+
+    /**
+     * Starts the workers once per process. Null features leave the current ones untouched.
+     */
+    public static PipesWorkers start(RepositoryFeatures features) {
+        PipesWorkers workers = instance;
+        if (workers != null && (features == null || workers.features == features)) {
+            return workers;
+        }
+        return startOrUpdate(features);
+    }
+
+    private static synchronized PipesWorkers startOrUpdate(RepositoryFeatures features) {
+        if (instance != null) {
+            if (features != null) {
+                instance.features = features;
+            }
+            return instance;
+        }
+
+        PipesWorkers workers = new PipesWorkers(features);
+        for (int i = 0; i < WORKERS; i++) {
+            Thread thread = new Thread(new PipesWorker(workers), "yawp-pipes-worker-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            workers.threads.add(thread);
+        }
+        instance = workers;
+        return workers;
+    }
+
+    /**
+     * Interrupts the workers and waits for them to finish the tasks they are executing. The
+     * next repository starts them again.
+     */
+    public static synchronized void stop() {
+        PipesWorkers workers = instance;
+        if (workers == null) {
+            return;
+        }
+        instance = null;
+
+        for (Thread thread : workers.threads) {
+            thread.interrupt();
+        }
+        try {
+            for (Thread thread : workers.threads) {
+                thread.join(STOP_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Workers started before any task was added use the default features of the process.
+     */
+    public RepositoryFeatures getFeatures() {
+        RepositoryFeatures current = features;
+        if (current != null) {
+            return current;
+        }
+        return Yawp.yawp().getFeatures();
+    }
+
+    public synchronized void wakeUp() {
+        awake = true;
+        notifyAll();
+    }
+
+    /**
+     * Waits for the next poll or for a wake up.
+     *
+     * @return false if the worker was interrupted and should stop.
+     */
+    synchronized boolean await() {
+        try {
+            if (!awake) {
+                wait(POLL_MILLIS);
+            }
+            awake = false;
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Waits until every queued task is executed, mainly for tests.
+     *
+     * @return true if the queue was emptied before the timeout.
+     */
+    public static boolean awaitEmpty(long timeout, TimeUnit unit) {
+        PipesQueue queue = new PipesQueue(new ConnectionManager());
+        long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+
+        while (queue.size() > 0) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,132 @@
+package io.yawp.driver.postgresql.pipes;
+
+import io.yawp.commons.utils.JsonUtils;
+import io.yawp.commons.utils.ReflectionUtils;
+import io.yawp.repository.IdRef;
+import io.yawp.repository.Repository;
+import io.yawp.repository.models.ObjectHolder;
+import io.yawp.repository.pipes.Pipe;
+import io.yawp.repository.pipes.RepositoryPipes;
+import io.yawp.repository.pipes.SinkMarker;
+import io.yawp.repository.pipes.pump.IdPump;
+import io.yawp.repository.query.QueryBuilder;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Recomputes a sink after it changed: sources that now flow into it are fluxed, and sources
+ * that flowed into it but no longer do are refluxed.
+ */
+public class ReflowTask {
+
+    private static final int BATCH_SIZE = 100;
+
+    private String pipeClazzName;
+
+    private String sinkClazzName;
+
+    private String sinkJson;
+
+    private transient Repository r;
+
+    private transient Class<? extends Pipe> pipeClazz;
+
+    private transient Object sink;
+
+    private transient IdRef<?> sinkId;
+
+    public ReflowTask(Pipe pipe, Object sink) {
+        this.pipeClazzName = pipe.getClass().getName();
+        this.sinkClazzName = sink.getClass().getName();
+        this.sinkJson = JsonUtils.to(sink);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void execute(Repository r) {
+        this.r = r;
+        this.pipeClazz = (Class<? extends Pipe>) ReflectionUtils.clazzForName(pipeClazzName);
+        this.sink = JsonUtils.from(r, sinkJson, ReflectionUtils.clazzForName(sinkClazzName));
+        this.sinkId = new ObjectHolder(sink).getId();
+
+        fluxSourcesToSink();
+        refluxSourcesFromSink();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void fluxSourcesToSink() {
+        Pipe pipe = newPipeInstance();
+        pipe.configureSources(sink);
+        IdPump<?> sourcePump = pipe.getSourcePump();
+
+        while (sourcePump.hasMore()) {
+            for (IdRef<?> sourceId : sourcePump.more()) {
+                Object source = r.fetch(sourceId);
+                if (source == null) {
+                    continue;
+                }
+
+                Pipe sourcePipe = newPipeInstance();
+                sourcePipe.configureSinks(source);
+
+                Set<IdRef<?>> sinks = sourcePipe.allSinks();
+                if (!sinks.contains(sinkId)) {
+                    continue;
+                }
+
+                sourcePipe.forceSink(sinkId);
+                r.driver().pipes().flux(sourcePipe, source, RepositoryPipes.saveSourceMarker(r, source));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void refluxSourcesFromSink() {
+        String cursor = null;
+
+        do {
+            QueryBuilder<SinkMarker> q = r.query(SinkMarker.class).from(sinkId).order("id").limit(BATCH_SIZE);
+            if (cursor != null) {
+                q.cursor(cursor);
+            }
+
+            List<SinkMarker> sinkMarkers = q.list();
+            for (SinkMarker sinkMarker : sinkMarkers) {
+                if (!SinkMarker.isOf(sinkMarker.getId(), pipeClazz)) {
+                    continue;
+                }
+
+                Object source = r.fetch(sinkMarker.getSourceId());
+                if (source == null) {
+                    continue;
+                }
+
+                Pipe sourcePipe = newPipeInstance();
+                sourcePipe.configureSinks(source);
+
+                Set<IdRef<?>> sinks = sourcePipe.allSinks();
+                if (sinks.contains(sinkId)) {
+                    continue;
+                }
+
+                sourcePipe.forceSink(sinkId);
+                r.driver().pipes().reflux(sourcePipe, source, RepositoryPipes.saveSourceMarker(r, source));
+            }
+
+            cursor = sinkMarkers.size() == BATCH_SIZE ? q.getCursor() : null;
+        } while (cursor != null);
+    }
+
+    private Pipe newPipeInstance() {
+        return Pipe.newInstance(r, pipeClazz);
+    }
+
+    public String toJson() {
+        return JsonUtils.to(this);
+    }
+
+    public static ReflowTask fromJson(String json) {
+        return JsonUtils.from(null, json, ReflowTask.class);
+    }
+
+}
@@ -0,0 +1,135 @@
+package io.yawp.driver.postgresql.pipes;
+
+import io.yawp.commons.utils.JsonUtils;
+import io.yawp.commons.utils.ReflectionUtils;
+import io.yawp.repository.IdRef;
+import io.yawp.repository.Repository;
+import io.yawp.repository.pipes.Pipe;
+import io.yawp.repository.pipes.RepositoryPipes;
+import io.yawp.repository.pipes.SinkMarker;
+import io.yawp.repository.query.QueryBuilder;
+
+import java.util.List;
+
+/**
+ * Reloads a pipe from scratch: every sink is drained and its sink markers are destroyed,
+ * then every source is fluxed again.
+ */
+public class ReloadTask {
+
+    private static final int BATCH_SIZE = 100;
+
+    private String pipeClazzName;
+
+    private transient Repository r;
+
+    private transient Class<? extends Pipe> pipeClazz;
+
+    private transient Class<?> sourceClazz;
+
+    public ReloadTask(Class<? extends Pipe> pipeClazz) {
+        this.pipeClazzName = pipeClazz.getName();
+    }
+
+    @SuppressWarnings("unchecked")
+    public void execute(Repository r) {
+        this.r = r;
+        this.pipeClazz = (Class<? extends Pipe>) ReflectionUtils.clazzForName(pipeClazzName);
+        this.sourceClazz = ReflectionUtils.getFeatureEndpointClazz(pipeClazz);
+
+        drainSinks();
+        flushSources();
+    }
+
+    private void drainSinks() {
+        Class<?> sinkClazz = ReflectionUtils.getFeatureTypeArgumentAt(pipeClazz, 1);
+
+        String cursor = null;
+        do {
+            QueryBuilder<?> q = r.query(sinkClazz).order("id").limit(BATCH_SIZE);
+            if (cursor != null) {
+                q.cursor(cursor);
+            }
+
+            List<? extends IdRef<?>> ids = q.ids();
+            for (IdRef<?> id : ids) {
+                drainSink(id);
+            }
+
+            cursor = ids.size() == BATCH_SIZE ? q.getCursor() : null;
+        } while (cursor != null);
+    }
+
+    private void drainSink(IdRef<?> sinkId) {
+        String cursor = null;
+        do {
+            QueryBuilder<SinkMarker> q = r.query(SinkMarker.class).from(sinkId).order("id").limit(BATCH_SIZE);
+            if (cursor != null) {
+                q.cursor(cursor);
+            }
+
+            List<IdRef<SinkMarker>> markerIds = q.ids();
+            for (IdRef<SinkMarker> markerId : markerIds) {
+                if (markerId.getParentId().getClazz().equals(sourceClazz) && SinkMarker.isOf(markerId, pipeClazz)) {
+                    r.destroy(markerId);
+                }
+            }
+
+            cursor = markerIds.size() == BATCH_SIZE ? q.getCursor() : null;
+        } while (cursor != null);
+
+        Object sink = r.fetch(sinkId);
+        if (sink == null) {
+            return;
+        }
+
+        Pipe pipe = newPipeInstance();
+        pipe.drain(sink);
+        r.save(sink);
+    }
+
+    private void flushSources() {
+        String cursor = null;
+        do {
+            QueryBuilder<?> q = r.query(sourceClazz).order("id").limit(BATCH_SIZE);
+            if (cursor != null) {
+                q.cursor(cursor);
+            }
+
+            List<? extends IdRef<?>> ids = q.ids();
+            for (IdRef<?> id : ids) {
+                flushSource(id);
+            }
+
+            cursor = ids.size() == BATCH_SIZE ? q.getCursor() : null;
+        } while (cursor != null);
+    }
+
+    private void flushSource(IdRef<?> sourceId) {
+        try {
+            r.begin();
+            Object source = r.fetch(sourceId);
+            if (source != null) {
+                r.driver().pipes().flux(newPipeInstance(), source, RepositoryPipes.saveSourceMarker(r, source));
+            }
+            r.commit();
+        } finally {
+            if (r.isTransationInProgress()) {
+                r.rollback();
+            }
+        }
+    }
+
+    private Pipe newPipeInstance() {
+        return Pipe.newInstance(r, pipeClazz);
+    }
+
+    public String toJson() {
+        return JsonUtils.to(this);
+    }
+
+    public static ReloadTask fromJson(String json) {
+        return JsonUtils.from(null, json, ReloadTask.class);
+    }
+
+}
@@ -0,0 +1,39 @@
+package io.yawp.driver.postgresql.pipes;
+
+/**
+ * A row of the pipes queue.
+ */
+public class Task {
+
+    private final long id;
+
+    private final String ns;
+
+    private final TaskType type;
+
+    private final String payload;
+
+    public Task(long id, String ns, TaskType type, String payload) {
+        this.id = id;
+        this.ns = ns;
+        this.type = type;
+        this.payload = payload;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getNs() {
+        return ns;
+    }
+
+    public TaskType getType() {
+        return type;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+}
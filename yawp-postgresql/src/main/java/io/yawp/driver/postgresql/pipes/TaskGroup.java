@@ -0,0 +1,32 @@
+package io.yawp.driver.postgresql.pipes;
+
+/**
+ * Tasks of the same namespace, type and sink group, which are claimed together.
+ */
+public class TaskGroup {
+
+    private final String ns;
+
+    private final TaskType type;
+
+    private final String sinkGroup;
+
+    public TaskGroup(String ns, TaskType type, String sinkGroup) {
+        this.ns = ns == null || ns.isEmpty() ? null : ns;
+        this.type = type;
+        this.sinkGroup = sinkGroup;
+    }
+
+    public String getNs() {
+        return ns;
+    }
+
+    public TaskType getType() {
+        return type;
+    }
+
+    public String getSinkGroup() {
+        return sinkGroup;
+    }
+
+}
@@ -0,0 +1,73 @@
+package io.yawp.driver.postgresql.pipes;
+
+import io.yawp.repository.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The kinds of tasks of the pipes queue. Works of the same sink group are claimed and
+ * executed together, the other tasks one at a time. Transactional tasks are claimed,
+ * executed and deleted in one transaction of the repository, so their writes and their
+ * removal from the queue commit together. Reloads commit each source on its own instead.
+ */
+public enum TaskType {
+
+    WORK(100, true) {
+        @Override
+        void execute(Repository r, PipesQueue queue, List<Task> tasks) {
+            List<Work> works = new ArrayList<>(tasks.size());
+            for (Task task : tasks) {
+                works.add(new Work(Payload.fromJson(task.getPayload())));
+            }
+            new WorksExecutor(r, works).execute();
+        }
+    },
+
+    FANOUT(1, true) {
+        @Override
+        void execute(Repository r, PipesQueue queue, List<Task> tasks) {
+            for (Task task : tasks) {
+                new FanoutTask(r, queue, Payload.fromJson(task.getPayload())).execute();
+            }
+        }
+    },
+
+    REFLOW(1, true) {
+        @Override
+        void execute(Repository r, PipesQueue queue, List<Task> tasks) {
+            for (Task task : tasks) {
+                ReflowTask.fromJson(task.getPayload()).execute(r);
+            }
+        }
+    },
+
+    RELOAD(1, false) {
+        @Override
+        void execute(Repository r, PipesQueue queue, List<Task> tasks) {
+            for (Task task : tasks) {
+                ReloadTask.fromJson(task.getPayload()).execute(r);
+            }
+        }
+    };
+
+    private final int batchSize;
+
+    private final boolean transactional;
+
+    TaskType(int batchSize, boolean transactional) {
+        this.batchSize = batchSize;
+        this.transactional = transactional;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public boolean isTransactional() {
+        return transactional;
+    }
+
+    abstract void execute(Repository r, PipesQueue queue, List<Task> tasks);
+
+}
@@ -0,0 +1,67 @@
+package io.yawp.driver.postgresql.pipes;
+
+import io.yawp.commons.utils.ReflectionUtils;
+import io.yawp.repository.IdRef;
+import io.yawp.repository.Repository;
+import io.yawp.repository.pipes.Pipe;
+import io.yawp.repository.pipes.SinkMarker;
+
+import java.util.logging.Logger;
+
+/**
+ * The flux or reflux of one source version into one sink.
+ */
+public class Work {
+
+    private final static Logger logger = Logger.getLogger(Work.class.getName());
+
+    private final Payload payload;
+
+    public Work(Payload payload) {
+        this.payload = payload;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T, S> void execute(Repository r, Object sink, SinkMarker sinkMarker) {
+        log();
+
+        Pipe<T, S> pipe = Pipe.newInstance(r, payload.getPipeClazz());
+
+        if (sinkMarker.isPresent()) {
+            pipe.reflux((T) sinkMarker.getSource(), (S) sink);
+        }
+
+        if (payload.isPresent()) {
+            pipe.flux((T) payload.getSource(), (S) sink);
+            rememberSourceInSinkMarker(sinkMarker);
+        }
+
+        sinkMarker.setPresent(payload.isPresent());
+        sinkMarker.setVersion(payload.getSourceMarker().getVersion());
+    }
+
+    private void log() {
+        logger.fine(String.format("pipe-work - pipe: %s, sourceId: %s, version: %d", payload.getPipeClazz().getName(), payload.getSourceId().getUri(), payload.getSourceMarker().getVersion()));
+    }
+
+    private void rememberSourceInSinkMarker(SinkMarker sinkMarker) {
+        sinkMarker.setSourceJson(ReflectionUtils.getFeatureEndpointClazz(payload.getPipeClazz()), payload.getSourceJson());
+    }
+
+    public IdRef<SinkMarker> createSinkMarkerId(Repository r) {
+        return SinkMarker.createId(r, payload.getPipeClazz(), payload.getSinkId(), payload.getSourceId());
+    }
+
+    public IdRef<SinkMarker> createSharedSinkMarkerId(Repository r) {
+        return SinkMarker.createSharedId(r, payload.getSinkId(), payload.getSourceId());
+    }
+
+    public Long getSourceVersion() {
+        return payload.getSourceMarker().getVersion();
+    }
+
+    public IdRef<?> getSinkId() {
+        return payload.getSinkId();
+    }
+
+}
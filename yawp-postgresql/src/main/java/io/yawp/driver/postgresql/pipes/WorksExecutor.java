@@ -0,0 +1,133 @@
+package io.yawp.driver.postgresql.pipes;
+
+import io.yawp.repository.IdRef;
+import io.yawp.repository.Repository;
+import io.yawp.repository.models.ObjectHolder;
+import io.yawp.repository.pipes.SinkMarker;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Executes a batch of works of the same sink group in the transaction of the worker that
+ * claimed them, which deletes them when it commits. Each sink and sink marker is read once,
+ * changed by every work in order, and saved once. Works older than the sink marker version
+ * were already applied and are skipped, so duplicated works are safe to execute.
+ */
+public class WorksExecutor {
+
+    private final Repository r;
+
+    private final List<Work> works;
+
+    private Map<IdRef<?>, Object> sinkCache = new HashMap<>();
+
+    private Set<IdRef<?>> sinksToSave = new LinkedHashSet<>();
+
+    private Map<IdRef<SinkMarker>, SinkMarker> sinkMarkerCache = new HashMap<>();
+
+    private Set<IdRef<SinkMarker>> sinkMarkersToSave = new LinkedHashSet<>();
+
+    public WorksExecutor(Repository r, List<Work> works) {
+        this.r = r;
+        this.works = works;
+    }
+
+    public void execute() {
+        executeWorks();
+        saveIfChanged();
+    }
+
+    private void executeWorks() {
+        for (Work work : works) {
+            executeIfLastVersion(work);
+        }
+    }
+
+    private void saveIfChanged() {
+        if (sinksToSave.isEmpty()) {
+            return;
+        }
+
+        for (IdRef<SinkMarker> id : sinkMarkersToSave) {
+            r.save(sinkMarkerCache.get(id));
+        }
+
+        for (IdRef<?> sinkId : sinksToSave) {
+            r.saveWithHooks(sinkCache.get(sinkId));
+        }
+    }
+
+    private void executeIfLastVersion(Work work) {
+        IdRef<SinkMarker> sinkMarkerId = work.createSinkMarkerId(r);
+        SinkMarker sinkMarker = getFromCacheOrFetchOrCreateSinkMarker(sinkMarkerId, work.createSharedSinkMarkerId(r));
+
+        if (sinkMarker.getVersion() >= work.getSourceVersion()) {
+            return;
+        }
+
+        Object sink = getFromCacheOrFetchOrCreateSink(work.getSinkId());
+        work.execute(r, sink, sinkMarker);
+
+        sinksToSave.add(work.getSinkId());
+        sinkMarkersToSave.add(sinkMarkerId);
+    }
+
+    private Object getFromCacheOrFetchOrCreateSink(IdRef<?> sinkId) {
+        if (sinkCache.containsKey(sinkId)) {
+            return sinkCache.get(sinkId);
+        }
+
+        Object sink = r.fetch(sinkId);
+        if (sink == null) {
+            sink = createSink(sinkId);
+        }
+        sinkCache.put(sinkId, sink);
+        return sink;
+    }
+
+    private Object createSink(IdRef<?> sinkId) {
+        try {
+            Object sink = sinkId.getClazz().newInstance();
+            ObjectHolder objectHolder = new ObjectHolder(sink);
+            objectHolder.setId(sinkId);
+            if (sinkId.getParentClazz() != null) {
+                objectHolder.setParentId(sinkId.getParentId());
+            }
+            return sink;
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * A pipe without a sink marker of its own starts from the one shared by all pipes of the
+     * source, if any, which is read in the same fetch.
+     */
+    private SinkMarker getFromCacheOrFetchOrCreateSinkMarker(IdRef<SinkMarker> sinkMarkerId, IdRef<SinkMarker> sharedSinkMarkerId) {
+        SinkMarker sinkMarker = sinkMarkerCache.get(sinkMarkerId);
+        if (sinkMarker != null) {
+            return sinkMarker;
+        }
+
+        List<SinkMarker> sinkMarkers = r.fetch(Arrays.asList(sinkMarkerId, sharedSinkMarkerId));
+        sinkMarker = sinkMarkers.get(0);
+        if (sinkMarker == null && sinkMarkers.get(1) != null) {
+            sinkMarker = sinkMarkers.get(1).copy(sinkMarkerId);
+        }
+        if (sinkMarker == null) {
+            sinkMarker = new SinkMarker();
+            sinkMarker.setId(sinkMarkerId);
+            sinkMarker.setParentId(sinkMarkerId.getParentId());
+            sinkMarker.setVersion(0L);
+            sinkMarker.setPresent(false);
+        }
+        sinkMarkerCache.put(sinkMarkerId, sinkMarker);
+        return sinkMarker;
+    }
+
+}
@@ -0,0 +1,54 @@
+package io.yawp.driver.postgresql.sql;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The bounded pool executing the asynchronous statements of the driver. Its size and queue
+ * length are set by the {@code yawp.pg.async.threads} and {@code yawp.pg.async.queue} system
+ * properties. When the queue is full the statement runs in the calling thread, so callers
+ * slow down instead of failing.
+ */
+public class AsyncExecutor {
+
+    private static final int THREADS = Integer.getInteger("yawp.pg.async.threads", 8);
+
+    private static final int QUEUE_SIZE = Integer.getInteger("yawp.pg.async.queue", 1024);
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private static ThreadPoolExecutor executor;
+
+    private AsyncExecutor() {}
+
+    public static <T> Future<T> submit(Callable<T> task) {
+        return executor().submit(task);
+    }
+
+    private static synchronized ThreadPoolExecutor executor() {
+        if (executor == null) {
+            executor = new ThreadPoolExecutor(THREADS, THREADS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<Runnable>(QUEUE_SIZE), new DaemonThreadFactory(), new ThreadPoolExecutor.CallerRunsPolicy());
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "yawp-pg-async-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
@@ -16,6 +16,18 @@ public class ConnectionManager {
         this.connectionPool = new ConnectionPool(dataSourceName);
     }
 
+    private ConnectionManager(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    /**
+     * @return a manager on the same pool that never joins the transactions of this one, for
+     * statements executed by other threads.
+     */
+    public ConnectionManager detached() {
+        return new ConnectionManager(connectionPool);
+    }
+
     private Connection getConnection() {
         if (isTransactionInProgress()) {
             return connection;
@@ -27,7 +39,7 @@ public class ConnectionManager {
         connectionPool.close(connection);
     }
 
-    private boolean isTransactionInProgress() {
+    public boolean isTransactionInProgress() {
         return this.connection != null;
     }
 
@@ -1,6 +1,10 @@
 package io.yawp.driver.postgresql.sql;
 
+import io.yawp.commons.metrics.Gauge;
+import io.yawp.commons.metrics.Metrics;
+import io.yawp.commons.metrics.Timer;
 import io.yawp.commons.utils.Environment;
+import org.apache.commons.dbcp2.BasicDataSource;
 
 import javax.naming.Context;
 import javax.naming.InitialContext;
@@ -8,19 +12,35 @@ import javax.naming.NamingException;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class ConnectionPool {
 
     private static final String JDBC_YAWP_PREFIX = "jdbc/yawp_";
 
+    private static final String METRICS_PREFIX = "yawp.pg.pool.";
+
+    private static final ConcurrentMap<String, DataSource> dataSources = new ConcurrentHashMap<>();
+
     private String dataSourceName;
 
+    private Timer waitTimer;
+
     public ConnectionPool() {
-        this.dataSourceName = JDBC_YAWP_PREFIX + Environment.getOrDefault();
+        this(JDBC_YAWP_PREFIX + Environment.getOrDefault());
     }
 
     public ConnectionPool(String dataSourceName) {
         this.dataSourceName = dataSourceName;
+        this.waitTimer = Metrics.timer(METRICS_PREFIX + dataSourceName + ".wait");
+    }
+
+    /**
+     * Forgets the cached data source, so the next connection looks it up again.
+     */
+    public static void unregister(String dataSourceName) {
+        dataSources.remove(dataSourceName);
     }
 
     protected Connection connection() {
@@ -29,16 +49,72 @@ public class ConnectionPool {
 
     protected Connection connection(boolean autoCommit) {
         try {
-            Context ctx = (Context) new InitialContext().lookup("java:comp/env");
-            DataSource ds = (DataSource) ctx.lookup(dataSourceName);
+            DataSource ds = getDataSource();
+
+            long start = waitTimer.start();
             Connection connection = ds.getConnection();
-            connection.setAutoCommit(autoCommit);
+            waitTimer.stop(start);
+
+            if (connection.getAutoCommit() != autoCommit) {
+                connection.setAutoCommit(autoCommit);
+            }
             return connection;
-        } catch (SQLException | NamingException e) {
+        } catch (SQLException e) {
             throw new RuntimeException(e);
         }
     }
 
+    private DataSource getDataSource() {
+        DataSource ds = dataSources.get(dataSourceName);
+        if (ds != null) {
+            return ds;
+        }
+
+        ds = lookupDataSource();
+        DataSource existing = dataSources.putIfAbsent(dataSourceName, ds);
+        if (existing != null) {
+            return existing;
+        }
+
+        registerGauges(ds);
+        return ds;
+    }
+
+    private DataSource lookupDataSource() {
+        try {
+            Context ctx = (Context) new InitialContext().lookup("java:comp/env");
+            DataSource ds = (DataSource) ctx.lookup(dataSourceName);
+            if (ds == null) {
+                throw new RuntimeException("No data source bound to " + dataSourceName);
+            }
+            return ds;
+        } catch (NamingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void registerGauges(DataSource ds) {
+        if (!(ds instanceof BasicDataSource)) {
+            return;
+        }
+
+        final BasicDataSource pool = (BasicDataSource) ds;
+
+        Metrics.gauge(METRICS_PREFIX + dataSourceName + ".active", new Gauge() {
+            @Override
+            public long getValue() {
+                return pool.getNumActive();
+            }
+        });
+
+        Metrics.gauge(METRICS_PREFIX + dataSourceName + ".idle", new Gauge() {
+            @Override
+            public long getValue() {
+                return pool.getNumIdle();
+            }
+        });
+    }
+
     protected void close(Connection connection) {
         try {
             connection.close();
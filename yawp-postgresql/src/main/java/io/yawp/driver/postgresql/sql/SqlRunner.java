@@ -8,8 +8,6 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.postgresql.util.PGobject;
 
@@ -24,17 +22,18 @@ public class SqlRunner {
 
     protected String sql;
 
+    private Map<String, int[]> indexes;
+
     protected Map<String, PlaceHolder> placeHolders = new HashMap<String, PlaceHolder>();
 
     public SqlRunner(String sql) {
-        this.sql = sql;
-        init();
+        this(SqlTemplate.get(sql));
     }
 
-    private void init() {
+    protected SqlRunner(SqlTemplate template) {
+        this.sql = template.getSql();
+        this.indexes = template.getIndexes();
         bind();
-        parsePlaceHoldersIndexes();
-        removePlaceHolders();
     }
 
     protected void bind() {
@@ -65,8 +64,14 @@ public class SqlRunner {
     }
 
     private void prepareBinded(PreparedStatement ps) throws SQLException {
-        for (PlaceHolder placeHolder : placeHolders.values()) {
-            placeHolder.setValue(ps);
+        for (Map.Entry<String, int[]> entry : indexes.entrySet()) {
+            PlaceHolder placeHolder = placeHolders.get(entry.getKey());
+            if (placeHolder == null) {
+                throw new RuntimeException("No value bound to " + entry.getKey() + " in sql: " + sql);
+            }
+            for (int index : entry.getValue()) {
+                placeHolder.setValue(ps, index);
+            }
         }
     }
 
@@ -131,27 +136,6 @@ public class SqlRunner {
         }
     }
 
-    private void parsePlaceHoldersIndexes() {
-        Pattern pattern = Pattern.compile("\\:\\w+");
-        Matcher matcher = pattern.matcher(sql);
-
-        int index = 1;
-
-        while (matcher.find()) {
-            String key = matcher.group();
-            PlaceHolder placeHolder = placeHolders.get(key);
-            placeHolder.addIndex(index++);
-        }
-
-        return;
-    }
-
-    private void removePlaceHolders() {
-        for (String placeHolderKey : placeHolders.keySet()) {
-            sql = sql.replaceAll(placeHolderKey, "?");
-        }
-    }
-
     protected final PGobject createJsonObject(String json) {
         try {
             PGobject jsonObject = new PGobject();
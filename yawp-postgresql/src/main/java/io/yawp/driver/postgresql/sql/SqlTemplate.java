@@ -0,0 +1,89 @@
+package io.yawp.driver.postgresql.sql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A sql statement with its named placeholders already replaced by jdbc parameters. Templates
+ * are parsed once per statement shape and shared, so the same sql string reaches the jdbc
+ * driver every time and its prepared statement cache can reuse server side plans.
+ */
+public class SqlTemplate {
+
+    private static final Pattern PLACE_HOLDER_PATTERN = Pattern.compile("\\:\\w+");
+
+    private static final int MAX_CACHED_TEMPLATES = 2048;
+
+    private static final ConcurrentMap<String, SqlTemplate> templates = new ConcurrentHashMap<>();
+
+    private final String sql;
+
+    private final Map<String, int[]> indexes;
+
+    private SqlTemplate(String namedSql) {
+        Map<String, List<Integer>> indexes = new HashMap<>();
+        StringBuffer sb = new StringBuffer();
+
+        Matcher matcher = PLACE_HOLDER_PATTERN.matcher(namedSql);
+        int index = 1;
+        while (matcher.find()) {
+            String key = matcher.group();
+            List<Integer> keyIndexes = indexes.get(key);
+            if (keyIndexes == null) {
+                keyIndexes = new ArrayList<>();
+                indexes.put(key, keyIndexes);
+            }
+            keyIndexes.add(index++);
+            matcher.appendReplacement(sb, "?");
+        }
+        matcher.appendTail(sb);
+
+        this.sql = sb.toString();
+        this.indexes = toArrays(indexes);
+    }
+
+    private static Map<String, int[]> toArrays(Map<String, List<Integer>> indexes) {
+        Map<String, int[]> result = new HashMap<>();
+        for (Map.Entry<String, List<Integer>> entry : indexes.entrySet()) {
+            List<Integer> list = entry.getValue();
+            int[] array = new int[list.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = list.get(i);
+            }
+            result.put(entry.getKey(), array);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    public static SqlTemplate get(String namedSql) {
+        SqlTemplate template = templates.get(namedSql);
+        if (template != null) {
+            return template;
+        }
+
+        template = new SqlTemplate(namedSql);
+        if (templates.size() < MAX_CACHED_TEMPLATES) {
+            templates.putIfAbsent(namedSql, template);
+        }
+        return template;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return the placeholders, with their colon prefix, mapped to their jdbc parameter indexes.
+     */
+    public Map<String, int[]> getIndexes() {
+        return indexes;
+    }
+
+}
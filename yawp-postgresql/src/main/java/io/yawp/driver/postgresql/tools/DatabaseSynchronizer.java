@@ -1,19 +1,32 @@
 package io.yawp.driver.postgresql.tools;
 
+import io.yawp.commons.utils.JsonUtils;
 import io.yawp.driver.postgresql.configuration.DataSourceInfo;
 import io.yawp.driver.postgresql.configuration.JettyConfiguration;
+import io.yawp.driver.postgresql.datastore.AncestorPath;
+import io.yawp.driver.postgresql.datastore.Column;
+import io.yawp.driver.postgresql.datastore.Key;
+import io.yawp.driver.postgresql.datastore.KindColumns;
+import io.yawp.driver.postgresql.datastore.NamespacePartitions;
+import io.yawp.driver.postgresql.pipes.PipesQueue;
 import io.yawp.driver.postgresql.sql.ConnectionManager;
 import io.yawp.driver.postgresql.sql.SqlRunner;
+import io.yawp.repository.models.ModelRegistry;
 import io.yawp.repository.models.ObjectModel;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.logging.Logger;
 
 public class DatabaseSynchronizer {
 
+    private final static Logger logger = Logger.getLogger(DatabaseSynchronizer.class.getName());
+
     private static final String SQL_DATABASE_EXISTS = "SELECT 1 AS result FROM pg_database WHERE datname = :database";
 
     private static final String SQL_DATABASE_KILL_ACTIVITY = "SELECT pg_terminate_backend(pg_stat_activity.pid) FROM pg_stat_activity WHERE datname = :database AND state='idle'";
@@ -24,9 +37,41 @@ public class DatabaseSynchronizer {
 
     private static final String SQL_CATALOG_SELECT = "SELECT c.* FROM pg_catalog.pg_class c JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace";
 
-    private static final String SQL_CATALOG_TABLES = "WHERE c.relkind = 'r' AND n.nspname = ANY (CURRENT_SCHEMAS(false))";
+    private static final String SQL_CATALOG_TABLES = "WHERE c.relkind IN ('r', 'p') AND n.nspname = ANY (CURRENT_SCHEMAS(false)) "
+            + "AND NOT EXISTS (SELECT 1 FROM pg_catalog.pg_inherits i WHERE i.inhrelid = c.oid)";
+
+    private static final String SQL_CATALOG_PARTITIONED_TABLES = "WHERE c.relkind = 'p' AND n.nspname = ANY (CURRENT_SCHEMAS(false))";
+
+    private static final String SQL_TABLE_CREATE = "create table \"%s\" (id bigserial primary key, key jsonb not null, properties jsonb)";
+
+    private static final String SQL_TABLE_CREATE_PARTITIONED = "create table \"%s\" (id bigserial, ns text not null, key jsonb not null, properties jsonb, "
+            + "primary key (ns, id)) partition by list (ns)";
+
+    private static final String SQL_TABLE_INDEXES = "select i.relname as name, x.indisvalid as valid from pg_catalog.pg_index x "
+            + "join pg_catalog.pg_class i on i.oid = x.indexrelid join pg_catalog.pg_class t on t.oid = x.indrelid "
+            + "join pg_catalog.pg_namespace n on n.oid = t.relnamespace where t.relname = :table and n.nspname = ANY (CURRENT_SCHEMAS(false))";
+
+    private static final String SQL_INDEX_DROP = "drop index concurrently if exists \"%s\"";
+
+    private static final String SQL_TABLE_COLUMNS = "select column_name as name from information_schema.columns "
+            + "where table_name = :table and table_schema = ANY (CURRENT_SCHEMAS(false))";
+
+    private static final String SQL_COLUMN_ADD = "alter table \"%s\" add column if not exists %s %s";
+
+    private static final String SQL_COLUMN_MIGRATE = "update \"%1$s\" set %2$s = cast(properties->>'%3$s' as %4$s), "
+            + "properties = properties - '%3$s' where properties->'%3$s' is not null";
+
+    private static final String SQL_ANCESTORS_MISSING = "select id, key from \"%1$s\" where %2$s is null and key->'parent' is not null limit %3$d";
+
+    private static final String SQL_ANCESTORS_FILL = "update \"%1$s\" t set %2$s = v->>'%2$s' "
+            + "from jsonb_array_elements(cast(:rows as jsonb)) v where t.id = cast(v->>'id' as bigint)";
+
+    private static final int ANCESTORS_BATCH_SIZE = 1000;
+
+    private static final String SQL_KEY_DUPLICATES = "select count(*) as duplicates from \"%1$s\" a "
+            + "where exists (select 1 from \"%1$s\" b where b.key = a.key and b.id > a.id)";
 
-    private static final String SQL_TABLE_CREATE = "create table \"%s\" (id bigserial primary key, key jsonb, properties jsonb)";
+    private static final String SQL_KEY_DEDUPE = "delete from \"%1$s\" a using \"%1$s\" b where b.key = a.key and b.id > a.id";
 
     private ConnectionManager initConnectionManager = new ConnectionManager(DataSourceInfo.INIT_DATASOURCE);
 
@@ -90,11 +135,21 @@ public class DatabaseSynchronizer {
         for (Class<?> endpointClazz : endpointClazzes) {
             sync(existingTables, endpointClazz);
         }
+
+        syncPipesQueue();
+    }
+
+    private void syncPipesQueue() {
+        connectionManager.execute(PipesQueue.SQL_TABLE_CREATE);
+        connectionManager.execute(PipesQueue.SQL_DEAD_COLUMN_CREATE);
+        connectionManager.execute(PipesQueue.SQL_INDEX_CREATE);
     }
 
     protected List<String> getExistingTables() {
-        String sql = String.format("%s %s", SQL_CATALOG_SELECT, SQL_CATALOG_TABLES);
+        return getTables(String.format("%s %s", SQL_CATALOG_SELECT, SQL_CATALOG_TABLES));
+    }
 
+    private List<String> getTables(String sql) {
         SqlRunner runner = new SqlRunner(sql) {
             @Override
             public List<String> collect(ResultSet rs) throws SQLException {
@@ -112,17 +167,190 @@ public class DatabaseSynchronizer {
     }
 
     private void sync(List<String> existingTables, Class<?> endpointClazz) {
-        ObjectModel model = new ObjectModel(endpointClazz);
+        ObjectModel model = ModelRegistry.get(endpointClazz);
+
+        if (!existingTables.contains(model.getKind())) {
+            createTable(model);
+        } else if (model.isPartitionByNamespace() && !getPartitionedTables().contains(model.getKind())) {
+            throw new RuntimeException("Table " + model.getKind() + " is not partitioned by namespace, its rows must be moved to a partitioned table first");
+        }
+
+        syncColumns(model);
+        syncIndexes(model);
+    }
+
+    private void createTable(ObjectModel model) {
+        String sql = model.isPartitionByNamespace() ? SQL_TABLE_CREATE_PARTITIONED : SQL_TABLE_CREATE;
+        connectionManager.execute(String.format(sql, model.getKind()));
+    }
+
+    private List<String> getPartitionedTables() {
+        return getTables(String.format("%s %s", SQL_CATALOG_SELECT, SQL_CATALOG_PARTITIONED_TABLES));
+    }
+
+    /**
+     * Adds the typed columns the table is missing and moves their values out of the jsonb
+     * properties, so existing rows of an endpoint switched to typed columns stay queryable.
+     * Kinds with parents get their ancestor path column, filled from the keys of the rows
+     * written before it existed.
+     */
+    private void syncColumns(ObjectModel model) {
+        KindColumns kindColumns = KindColumns.register(model);
+        if (kindColumns.isEmpty() && !kindColumns.hasAncestors()) {
+            return;
+        }
+
+        String kind = model.getKind();
+        List<String> existingColumns = getExistingColumns(kind);
+
+        for (Column column : kindColumns.getColumns()) {
+            if (existingColumns.contains(column.getLabel())) {
+                continue;
+            }
+            connectionManager.execute(String.format(SQL_COLUMN_ADD, kind, column.getName(), column.getSqlType()));
+            connectionManager.execute(String.format(SQL_COLUMN_MIGRATE, kind, column.getName(), column.getProperty(), column.getSqlType()));
+        }
+
+        if (kindColumns.hasAncestors() && !existingColumns.contains(AncestorPath.COLUMN)) {
+            connectionManager.execute(String.format(SQL_COLUMN_ADD, kind, AncestorPath.COLUMN, AncestorPath.SQL_TYPE));
+            fillAncestors(kind);
+        }
+    }
+
+    /**
+     * Fills the ancestor path of existing rows in batches, computing it from their keys the
+     * same way the datastore does on writes.
+     */
+    private void fillAncestors(String kind) {
+        while (true) {
+            final String rows = getMissingAncestors(kind);
+            if (rows == null) {
+                return;
+            }
+
+            connectionManager.execute(new SqlRunner(String.format(SQL_ANCESTORS_FILL, kind, AncestorPath.COLUMN)) {
+                @Override
+                protected void bind() {
+                    bind("rows", rows);
+                }
+            });
+        }
+    }
+
+    private String getMissingAncestors(String kind) {
+        SqlRunner runner = new SqlRunner(String.format(SQL_ANCESTORS_MISSING, kind, AncestorPath.COLUMN, ANCESTORS_BATCH_SIZE)) {
+            @Override
+            public String collect(ResultSet rs) throws SQLException {
+                List<Map<String, Object>> rows = new ArrayList<>();
+
+                while (rs.next()) {
+                    Map<String, Object> row = new HashMap<>();
+                    row.put("id", rs.getLong("id"));
+                    row.put(AncestorPath.COLUMN, AncestorPath.of(Key.deserialize(rs.getString("key"))));
+                    rows.add(row);
+                }
+
+                return rows.isEmpty() ? null : JsonUtils.to(rows);
+            }
+        };
 
-        if (existingTables.contains(model.getKind())) {
+        return connectionManager.executeQuery(runner);
+    }
+
+    protected List<String> getExistingColumns(final String table) {
+        SqlRunner runner = new SqlRunner(SQL_TABLE_COLUMNS) {
+            @Override
+            protected void bind() {
+                bind("table", table);
+            }
+
+            @Override
+            public List<String> collect(ResultSet rs) throws SQLException {
+                List<String> columns = new ArrayList<String>();
+
+                while (rs.next()) {
+                    columns.add(rs.getString("name"));
+                }
+
+                return columns;
+            }
+        };
+
+        return connectionManager.executeQuery(runner);
+    }
+
+    /**
+     * Creates the indexes derived from the endpoint model that the table is missing,
+     * including the unique key index that backs the datastore upserts. Indexes are built
+     * concurrently, so big tables stay writable. An invalid index left behind by a failed
+     * concurrent build is dropped and built again.
+     * <p>
+     * Tables created before the unique key index may hold rows with the same key, inserted by
+     * concurrent saves of the old exists-then-insert path. Before the unique index is built,
+     * those duplicates are deleted, keeping the row with the highest id, which is the last
+     * one inserted. Updates used to be applied to every row of a key, so the rows only differ
+     * when the racing inserts did. To review them first, run the sync against a copy, or look
+     * for keys with more than one row before deploying.
+     */
+    private void syncIndexes(ObjectModel model) {
+        Map<String, Boolean> existingIndexes = getExistingIndexes(model.getKind());
+
+        for (IndexDefinition index : IndexDefinition.of(model)) {
+            Boolean valid = existingIndexes.get(index.getName());
+            if (valid != null && valid) {
+                continue;
+            }
+            if (valid != null) {
+                connectionManager.execute(String.format(SQL_INDEX_DROP, index.getName()));
+            }
+            if (index.isUnique()) {
+                dedupeKeys(index.getTable());
+            }
+            connectionManager.execute(index.createSql());
+        }
+    }
+
+    private void dedupeKeys(String table) {
+        long duplicates = countKeyDuplicates(table);
+        if (duplicates == 0) {
             return;
         }
 
-        createTable(model.getKind());
+        logger.warning(String.format("deleting %d rows of %s that duplicate the key of a newer row", duplicates, table));
+        connectionManager.execute(String.format(SQL_KEY_DEDUPE, table));
     }
 
-    private void createTable(String kind) {
-        connectionManager.execute(String.format(SQL_TABLE_CREATE, kind));
+    private long countKeyDuplicates(String table) {
+        SqlRunner runner = new SqlRunner(String.format(SQL_KEY_DUPLICATES, table)) {
+            @Override
+            protected Long collectSingle(ResultSet rs) throws SQLException {
+                return rs.getLong("duplicates");
+            }
+        };
+
+        return connectionManager.executeQuery(runner);
+    }
+
+    protected Map<String, Boolean> getExistingIndexes(final String table) {
+        SqlRunner runner = new SqlRunner(SQL_TABLE_INDEXES) {
+            @Override
+            protected void bind() {
+                bind("table", table);
+            }
+
+            @Override
+            public Map<String, Boolean> collect(ResultSet rs) throws SQLException {
+                Map<String, Boolean> indexes = new HashMap<String, Boolean>();
+
+                while (rs.next()) {
+                    indexes.put(rs.getString("name"), rs.getBoolean("valid"));
+                }
+
+                return indexes;
+            }
+        };
+
+        return connectionManager.executeQuery(runner);
     }
 
     public void recreate(String schema) {
@@ -136,6 +364,18 @@ public class DatabaseSynchronizer {
         }
     }
 
+    /**
+     * Empties the partitions of a namespace, leaving the other namespaces untouched.
+     */
+    public void truncateNamespace(String ns) {
+        for (String table : getPartitionedTables()) {
+            String partition = NamespacePartitions.name(table, ns);
+            if (NamespacePartitions.exists(connectionManager, partition)) {
+                connectionManager.execute(String.format("truncate table \"%s\"", partition));
+            }
+        }
+    }
+
     private void truncate(String table) {
         connectionManager.execute(String.format("truncate table %s cascade", table));
     }
@@ -0,0 +1,126 @@
+package io.yawp.driver.postgresql.tools;
+
+import io.yawp.driver.postgresql.datastore.AncestorPath;
+import io.yawp.driver.postgresql.datastore.Column;
+import io.yawp.driver.postgresql.datastore.Entity;
+import io.yawp.driver.postgresql.datastore.NamespacePartitions;
+import io.yawp.repository.models.FieldModel;
+import io.yawp.repository.models.ObjectModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An index of a kind table, derived from its endpoint model. The expressions must match
+ * the ones used by the datastore queries, otherwise postgres will not pick them.
+ */
+public class IndexDefinition {
+
+    private static final int MAX_NAME_LENGTH = 63;
+
+    private static final String SQL_INDEX_CREATE = "create %sindex %sif not exists \"%s\" on \"%s\" using %s (%s)";
+
+    private final String table;
+
+    private final String name;
+
+    private final String method;
+
+    private final String expression;
+
+    private final boolean unique;
+
+    private boolean concurrently = true;
+
+    private IndexDefinition(String table, String suffix, String method, String expression, boolean unique) {
+        this.table = table;
+        this.name = indexName(table, suffix);
+        this.method = method;
+        this.expression = expression;
+        this.unique = unique;
+    }
+
+    /**
+     * Tables partitioned by namespace get their unique key index on (ns, key), since unique
+     * indexes must include the partition column, and need no namespace index. Indexes of
+     * partitioned tables cannot be built concurrently.
+     */
+    public static List<IndexDefinition> of(ObjectModel model) {
+        String kind = model.getKind();
+        List<IndexDefinition> indexes = new ArrayList<>();
+
+        if (model.isPartitionByNamespace()) {
+            indexes.add(new IndexDefinition(kind, "key", "btree", NamespacePartitions.COLUMN + ", key", true));
+        } else {
+            indexes.add(new IndexDefinition(kind, "key", "btree", "key", true));
+            indexes.add(new IndexDefinition(kind, "ns", "btree", "(key->>'ns')", false));
+        }
+
+        if (model.hasParent()) {
+            indexes.add(new IndexDefinition(kind, AncestorPath.COLUMN, "btree", AncestorPath.COLUMN, false));
+        }
+
+        for (FieldModel fieldModel : model.getFieldModels()) {
+            if (fieldModel.isId() || fieldModel.isTransient() || !fieldModel.hasIndex()) {
+                continue;
+            }
+            indexes.add(of(kind, fieldModel, model.isTypedColumns()));
+        }
+
+        if (model.isPartitionByNamespace()) {
+            for (IndexDefinition index : indexes) {
+                index.concurrently = false;
+            }
+        }
+
+        return indexes;
+    }
+
+    private static IndexDefinition of(String kind, FieldModel fieldModel, boolean typedColumns) {
+        Column column = typedColumns ? Column.of(fieldModel) : null;
+        if (column != null) {
+            return new IndexDefinition(kind, column.getLabel(), "btree", column.getName(), false);
+        }
+
+        String property = fieldModel.getName();
+        if (fieldModel.isIndexNormalizable()) {
+            property = Entity.NORMALIZED_FIELD_PREFIX + property;
+        }
+
+        if (fieldModel.isList()) {
+            return new IndexDefinition(kind, property, "gin", String.format("(properties->'%s') jsonb_path_ops", property), false);
+        }
+
+        if (fieldModel.isNumber()) {
+            return new IndexDefinition(kind, property, "btree", String.format("cast(properties->>'%s' as numeric)", property), false);
+        }
+
+        return new IndexDefinition(kind, property, "btree", String.format("(properties->>'%s')", property), false);
+    }
+
+    private static String indexName(String table, String suffix) {
+        String name = String.format("%s_%s_idx", table, suffix);
+        if (name.length() <= MAX_NAME_LENGTH) {
+            return name;
+        }
+        String hash = Integer.toHexString(name.hashCode());
+        return name.substring(0, MAX_NAME_LENGTH - hash.length() - 1) + "_" + hash;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isUnique() {
+        return unique;
+    }
+
+    public String createSql() {
+        return String.format(SQL_INDEX_CREATE, unique ? "unique " : "", concurrently ? "concurrently " : "", name, table, method, expression);
+    }
+
+}
@@ -2,6 +2,7 @@ package io.yawp.driver.postgresql.configuration;
 
 import io.yawp.commons.utils.Environment;
 import io.yawp.commons.utils.ResourceFinder;
+import org.apache.commons.dbcp2.BasicDataSource;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -14,7 +15,9 @@ import javax.sql.DataSource;
 import java.io.File;
 import java.io.IOException;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 public class InitialContextSetupTest {
 
@@ -40,6 +43,21 @@ public class InitialContextSetupTest {
         assertInitialContextHasDataSource();
     }
 
+    @Test
+    public void testRebindClosesPreviousPool() {
+        BasicDataSource previous = new BasicDataSource();
+        BasicDataSource current = new BasicDataSource();
+
+        InitialContextSetup.bind("jdbc/yawp_rebind", previous);
+        InitialContextSetup.bind("jdbc/yawp_rebind", current);
+
+        assertTrue(previous.isClosed());
+        assertFalse(current.isClosed());
+
+        InitialContextSetup.bind("jdbc/yawp_rebind", current);
+        assertFalse(current.isClosed());
+    }
+
     private void assertInitialContextHasDataSource() throws NamingException {
         Context ctx = (Context) new InitialContext().lookup("java:comp/env");
         DataSource ds = (DataSource) ctx.lookup(InitialContextSetup.envDataSourceName());
@@ -1,6 +1,7 @@
 package io.yawp.driver.postgresql.configuration;
 
 import io.yawp.commons.utils.ResourceFinder;
+import org.apache.commons.dbcp2.BasicDataSource;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -8,6 +9,7 @@ import java.io.IOException;
 import java.net.URL;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 public class JettyConfigurationTest {
 
@@ -49,6 +51,32 @@ public class JettyConfigurationTest {
 
     }
 
+    @Test
+    public void testPoolProperties() {
+        DataSourceInfo dsDevelopment = config.getDatasourceInfo("development");
+        assertEquals(BasicDataSource.class.getName(), dsDevelopment.getDataSourceClassName());
+        assertEquals("20", dsDevelopment.getProperties().get("maxTotal"));
+        assertFalse(dsDevelopment.getProperties().containsKey("url"));
+
+        BasicDataSource ds = (BasicDataSource) dsDevelopment.buildDatasource();
+        assertEquals("jdbc:postgresql://127.0.0.1:5432/yawp_pg_driver_development?user=jim", ds.getUrl());
+        assertEquals(20, ds.getMaxTotal());
+        assertEquals(60, ds.getRemoveAbandonedTimeout());
+        assertEquals(10, ds.getMaxIdle());
+        assertFalse(ds.getTestOnBorrow());
+
+        BasicDataSource dsInit = (BasicDataSource) dsDevelopment.getInitDatasource().buildDatasource();
+        assertEquals(20, dsInit.getMaxTotal());
+        assertEquals(0, dsInit.getMaxIdle());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testUnknownPoolProperty() {
+        DataSourceInfo dsDevelopment = config.getDatasourceInfo("development");
+        dsDevelopment.setProperty("maxTotl", "20");
+        dsDevelopment.buildDatasource();
+    }
+
     private String getPath() throws IOException {
         URL url = new ResourceFinder().find("configuration/jetty-env-test.xml");
         return url.getFile();
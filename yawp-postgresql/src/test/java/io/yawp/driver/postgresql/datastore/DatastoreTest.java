@@ -3,6 +3,8 @@ package io.yawp.driver.postgresql.datastore;
 import static io.yawp.repository.query.condition.Condition.and;
 import static io.yawp.repository.query.condition.Condition.c;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
 
 import io.yawp.commons.utils.Environment;
 import io.yawp.driver.postgresql.IdRefToKey;
@@ -17,6 +19,7 @@ import io.yawp.repository.query.QueryBuilder;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Future;
 
 import org.junit.*;
 
@@ -86,6 +89,20 @@ public class DatastoreTest extends DatastoreTestCase {
 
     }
 
+    @Test
+    public void testUpsertExistingKey() throws EntityNotFoundException, FalsePredicateException {
+        Entity entity = new Entity(KeyFactory.createKey("parents", 123l));
+        entity.setProperty("name", "jim");
+        datastore.put(entity);
+
+        Entity anotherEntity = new Entity(KeyFactory.createKey("parents", 123l));
+        anotherEntity.setProperty("name", "robert");
+        datastore.put(anotherEntity);
+
+        assertEquals("robert", datastore.get(KeyFactory.createKey("parents", 123l)).getProperty("name"));
+        assertEquals(1, datastore.query(new Query(QueryBuilder.q(Parent.class, yawp), false)).size());
+    }
+
     @Test(expected = EntityNotFoundException.class)
     public void delete() throws EntityNotFoundException {
         Key key = KeyFactory.createKey("parents", "xpto");
@@ -97,6 +114,54 @@ public class DatastoreTest extends DatastoreTestCase {
         datastore.get(key);
     }
 
+    @Test
+    public void testAsyncRunsInAnotherThread() throws Exception {
+        final Thread caller = Thread.currentThread();
+
+        Future<Key> future = datastore.async(new Datastore.Operation<Key>() {
+            @Override
+            public Key execute(Datastore datastore) {
+                assertNotSame(caller, Thread.currentThread());
+                Entity entity = new Entity("parents");
+                entity.setProperty("name", "jim");
+                return datastore.put(entity);
+            }
+        });
+
+        assertEquals("jim", datastore.get(future.get()).getProperty("name"));
+    }
+
+    @Test
+    public void testAsyncInsideTransaction() throws Exception {
+        ConnectionManager connectionManager = new ConnectionManager();
+        Datastore datastore = Datastore.create(connectionManager);
+
+        final Key key = KeyFactory.createKey("parents", "xpto");
+        Entity entity = new Entity(key);
+        entity.setProperty("name", "jim");
+
+        connectionManager.beginTransaction();
+        try {
+            datastore.put(entity);
+
+            Future<Entity> future = datastore.async(new Datastore.Operation<Entity>() {
+                @Override
+                public Entity execute(Datastore datastore) {
+                    try {
+                        return datastore.get(key);
+                    } catch (EntityNotFoundException e) {
+                        return null;
+                    }
+                }
+            });
+
+            assertTrue(future.isDone());
+            assertEquals("jim", future.get().getProperty("name"));
+        } finally {
+            connectionManager.rollback();
+        }
+    }
+
     @Test
     public void testForceName() throws EntityNotFoundException {
         Key key = KeyFactory.createKey("parents", "xpto");
@@ -191,6 +256,29 @@ public class DatastoreTest extends DatastoreTestCase {
         assertEquals("jim", entities.get(0).getProperty("name"));
     }
 
+    @Test
+    public void testKeysetCursor() throws FalsePredicateException {
+        saveParentWithName("jim");
+        saveParentWithName("jim");
+        saveParentWithName("robert");
+
+        QueryBuilder<Parent> builder = QueryBuilder.q(Parent.class, yawp);
+        builder.order("name", "desc");
+        builder.limit(2);
+
+        List<Entity> page1 = datastore.query(new Query(builder, false));
+        assertEquals("robert", page1.get(0).getProperty("name"));
+        assertEquals("jim", page1.get(1).getProperty("name"));
+
+        saveParentWithName("zeca");
+
+        List<Entity> page2 = datastore.query(new Query(builder, false));
+        assertEquals(1, page2.size());
+        assertEquals("jim", page2.get(0).getProperty("name"));
+
+        assertEquals(0, datastore.query(new Query(builder, false)).size());
+    }
+
     @Test
     public void testQueryOrder() throws FalsePredicateException {
         saveParentWithName("jim");
@@ -244,6 +332,45 @@ public class DatastoreTest extends DatastoreTestCase {
         assertJimIsFromAncestor(Grandchild.class, Parent.class, parentKey);
     }
 
+    @Test
+    public void testQueryAncestorDoesNotMatchSiblingPrefix() throws FalsePredicateException {
+        connectionManager.execute("truncate table children;");
+
+        Key parentKey = KeyFactory.createKey("parents", 1l);
+        saveWithParentAndName(parentKey, "children", "jim");
+        saveWithParentAndName(KeyFactory.createKey("parents", 10l), "children", "robert");
+
+        assertJimIsFromAncestor(Child.class, Parent.class, parentKey);
+    }
+
+    @Test
+    public void testQueryNamedAncestor() throws FalsePredicateException {
+        connectionManager.execute("truncate table grandchildren;");
+
+        Key parentKey = KeyFactory.createKey("parents", "a/b%");
+        Key childKey = KeyFactory.createKey(parentKey, "children", "c");
+        saveWithParentAndName(childKey, "grandchildren", "jim");
+        saveWithParentAndName(KeyFactory.createKey(KeyFactory.createKey("parents", "a"), "children", "b%"), "grandchildren", "robert");
+
+        assertJimIsFromAncestor(Grandchild.class, Child.class, childKey);
+        assertJimIsFromAncestor(Grandchild.class, Parent.class, parentKey);
+    }
+
+    @Test
+    public void testAncestorPathIsFilledOnSync() throws FalsePredicateException {
+        connectionManager.execute("truncate table grandchildren;");
+
+        Key parentKey = KeyFactory.createKey("parents", "a/b%");
+        Key childKey = KeyFactory.createKey(parentKey, "children", 10l);
+        saveWithParentAndName(childKey, "grandchildren", "jim");
+
+        connectionManager.execute("alter table grandchildren drop column ancestors;");
+        createDatabase();
+
+        assertJimIsFromAncestor(Grandchild.class, Child.class, childKey);
+        assertJimIsFromAncestor(Grandchild.class, Parent.class, parentKey);
+    }
+
     @Test
     public void testQueryIn() throws FalsePredicateException {
         Entity entity = new Entity("parents");
@@ -0,0 +1,119 @@
+package io.yawp.driver.postgresql.datastore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import io.yawp.commons.utils.Environment;
+import io.yawp.driver.postgresql.configuration.InitialContextSetup;
+import io.yawp.driver.postgresql.datastore.models.PartitionedObject;
+import io.yawp.driver.postgresql.tools.DatabaseSynchronizer;
+import io.yawp.repository.Repository;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.*;
+
+public class NamespacePartitionsTest extends DatastoreTestCase {
+
+    private static DatabaseSynchronizer dbSynchronizer;
+
+    private Repository r1;
+
+    private Repository r2;
+
+    @BeforeClass
+    public static void setUpClass() {
+        Environment.set("test");
+        InitialContextSetup.configure("configuration/jetty-env-test.xml");
+        dbSynchronizer = new DatabaseSynchronizer();
+        dbSynchronizer.sync(yawp.getFeatures().getEndpointClazzes());
+        yawp = Repository.r().setFeatures(yawp.getFeatures());
+    }
+
+    @AfterClass
+    public static void tearDownTestCase() {
+        InitialContextSetup.unregister();
+    }
+
+    @Before
+    public void before() {
+        connectionManager.execute("truncate table partitioned_objects;");
+        r1 = Repository.r("ns1").setFeatures(yawp.getFeatures());
+        r2 = Repository.r("ns2").setFeatures(yawp.getFeatures());
+    }
+
+    @Test
+    public void testPartitionIsCreatedOnFirstWrite() {
+        r1.save(new PartitionedObject("jim"));
+        r2.save(new PartitionedObject("robert"));
+
+        assertTrue(NamespacePartitions.exists(connectionManager, NamespacePartitions.name("partitioned_objects", "ns1")));
+        assertTrue(NamespacePartitions.exists(connectionManager, NamespacePartitions.name("partitioned_objects", "ns2")));
+    }
+
+    @Test
+    public void testQueriesOnlySeeTheirNamespace() {
+        PartitionedObject jim = r1.save(new PartitionedObject("jim"));
+        r2.save(new PartitionedObject("robert"));
+
+        List<PartitionedObject> objects = r1.query(PartitionedObject.class).list();
+        assertEquals(1, objects.size());
+        assertEquals("jim", objects.get(0).getName());
+
+        assertEquals("robert", r2.query(PartitionedObject.class).where("name", "=", "robert").only().getName());
+        assertNull(r2.query(PartitionedObject.class).where("name", "=", "jim").first());
+        assertEquals("jim", r1.fetch(jim.getId()).getName());
+    }
+
+    @Test
+    public void testSameIdInTwoNamespaces() {
+        PartitionedObject jim = new PartitionedObject("jim");
+        jim.setId(r1.parseId(PartitionedObject.class, "/partitioned_objects/1"));
+        r1.save(jim);
+
+        PartitionedObject robert = new PartitionedObject("robert");
+        robert.setId(r2.parseId(PartitionedObject.class, "/partitioned_objects/1"));
+        r2.save(robert);
+
+        assertEquals("jim", r1.query(PartitionedObject.class).only().getName());
+        assertEquals("robert", r2.query(PartitionedObject.class).only().getName());
+    }
+
+    @Test
+    public void testBatches() {
+        PartitionedObject jim = r1.save(new PartitionedObject("jim"));
+        PartitionedObject paul = r1.save(new PartitionedObject("paul"));
+        r2.save(new PartitionedObject("robert"));
+
+        List<PartitionedObject> objects = r1.fetch(Arrays.asList(jim.getId(), paul.getId()));
+        assertEquals("jim", objects.get(0).getName());
+        assertEquals("paul", objects.get(1).getName());
+
+        r1.destroyAll(Arrays.asList(jim.getId(), paul.getId()));
+        assertEquals(0, r1.query(PartitionedObject.class).list().size());
+        assertEquals(1, r2.query(PartitionedObject.class).list().size());
+    }
+
+    @Test
+    public void testTruncateNamespace() {
+        r1.save(new PartitionedObject("jim"));
+        r2.save(new PartitionedObject("robert"));
+
+        dbSynchronizer.truncateNamespace("ns1");
+
+        assertEquals(0, r1.query(PartitionedObject.class).list().size());
+        assertEquals(1, r2.query(PartitionedObject.class).list().size());
+    }
+
+    @Test
+    public void testPartitionNames() {
+        assertEquals("kind__ns_tenant_1", NamespacePartitions.name("kind", "tenant_1"));
+        assertEquals("kind__ns_", NamespacePartitions.name("kind", ""));
+        assertNotEquals(NamespacePartitions.name("kind", "a:b"), NamespacePartitions.name("kind", "a;b"));
+        assertTrue(NamespacePartitions.name("kind", "Tenant 'X'").matches("kind__ns_[0-9a-f]{32}"));
+    }
+
+}
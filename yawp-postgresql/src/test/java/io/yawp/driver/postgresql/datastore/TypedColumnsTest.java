@@ -0,0 +1,144 @@
+package io.yawp.driver.postgresql.datastore;
+
+import static io.yawp.repository.query.condition.Condition.c;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import io.yawp.commons.utils.DateUtils;
+import io.yawp.commons.utils.Environment;
+import io.yawp.driver.postgresql.configuration.InitialContextSetup;
+import io.yawp.driver.postgresql.datastore.models.TypedObject;
+import io.yawp.driver.postgresql.sql.SqlRunner;
+import io.yawp.driver.postgresql.tools.DatabaseSynchronizer;
+import io.yawp.repository.Repository;
+import io.yawp.repository.query.QueryBuilder;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.*;
+
+public class TypedColumnsTest extends DatastoreTestCase {
+
+    @BeforeClass
+    public static void setUpClass() {
+        Environment.set("test");
+        InitialContextSetup.configure("configuration/jetty-env-test.xml");
+        new DatabaseSynchronizer().sync(yawp.getFeatures().getEndpointClazzes());
+        yawp = Repository.r().setFeatures(yawp.getFeatures());
+    }
+
+    @AfterClass
+    public static void tearDownTestCase() {
+        InitialContextSetup.unregister();
+    }
+
+    @Before
+    public void before() {
+        connectionManager.execute("truncate table typed_objects;");
+    }
+
+    @Test
+    public void testSaveAndFetch() {
+        TypedObject object = save("Jim", 27, 10l, 1.5, "2013/12/26 23:55:01", true);
+
+        TypedObject retrieved = object.getId().fetch();
+        assertEquals("Jim", retrieved.getName());
+        assertEquals((Integer) 27, retrieved.getAge());
+        assertEquals(10l, retrieved.getCounter());
+        assertEquals((Double) 1.5, retrieved.getScore());
+        assertEquals(DateUtils.toTimestamp("2013/12/26 23:55:01"), retrieved.getBirthday());
+        assertTrue(retrieved.getActive());
+        assertEquals("notes of Jim", retrieved.getNotes());
+    }
+
+    @Test
+    public void testPropertiesAreStoredInColumns() {
+        save("Jim", 27, 10l, 1.5, "2013/12/26 23:55:01", true);
+
+        String properties = connectionManager.executeQuery(new SqlRunner("select properties, \"p_age\" from typed_objects") {
+            @Override
+            protected String collectSingle(ResultSet rs) throws SQLException {
+                assertEquals(27, rs.getLong("p_age"));
+                return rs.getString("properties");
+            }
+        });
+
+        assertFalse(properties.contains("age"));
+        assertTrue(properties.contains("notes"));
+    }
+
+    @Test
+    public void testNullValues() {
+        TypedObject object = save("Jim", null, 10l, null, null, null);
+
+        TypedObject retrieved = object.getId().fetch();
+        assertNull(retrieved.getAge());
+        assertNull(retrieved.getScore());
+        assertNull(retrieved.getBirthday());
+        assertNull(retrieved.getActive());
+
+        assertEquals(1, yawp.query(TypedObject.class).where("age", "=", null).list().size());
+    }
+
+    @Test
+    public void testWhere() {
+        save("Jim", 27, 10l, 1.5, "2013/12/26 23:55:01", true);
+        save("Robert", 9, 20l, 2.5, "2014/12/26 23:55:01", false);
+
+        assertEquals("Jim", yawp.query(TypedObject.class).where("name", "=", "jim").only().getName());
+        assertEquals("Jim", yawp.query(TypedObject.class).where("age", ">", 10).only().getName());
+        assertEquals("Robert", yawp.query(TypedObject.class).where("counter", ">=", 20l).only().getName());
+        assertEquals("Robert", yawp.query(TypedObject.class).where("score", ">", 2).only().getName());
+        assertEquals("Robert", yawp.query(TypedObject.class).where("birthday", ">", "2014/01/01 00:00:00").only().getName());
+        assertEquals("Jim", yawp.query(TypedObject.class).where("active", "=", true).only().getName());
+        assertEquals(2, yawp.query(TypedObject.class).where(c("age", "in", Arrays.asList(9, 27))).list().size());
+    }
+
+    @Test
+    public void testOrderIsNumeric() {
+        save("Jim", 27, 10l, 1.5, null, true);
+        save("Robert", 9, 20l, 2.5, null, false);
+        save("Paul", 100, 30l, 3.5, null, false);
+
+        List<TypedObject> objects = yawp.query(TypedObject.class).order("age").list();
+
+        assertEquals("Robert", objects.get(0).getName());
+        assertEquals("Jim", objects.get(1).getName());
+        assertEquals("Paul", objects.get(2).getName());
+    }
+
+    @Test
+    public void testKeysetCursor() {
+        save("Jim", 27, 10l, 1.5, null, true);
+        save("Robert", 9, 20l, 2.5, null, false);
+        save("Paul", 100, 30l, 3.5, null, false);
+
+        QueryBuilder<TypedObject> q = yawp.query(TypedObject.class).order("age", "desc").limit(2);
+
+        List<TypedObject> page1 = q.list();
+        assertEquals("Paul", page1.get(0).getName());
+        assertEquals("Jim", page1.get(1).getName());
+
+        List<TypedObject> page2 = q.list();
+        assertEquals(1, page2.size());
+        assertEquals("Robert", page2.get(0).getName());
+    }
+
+    private TypedObject save(String name, Integer age, long counter, Double score, String birthday, Boolean active) {
+        TypedObject object = new TypedObject();
+        object.setName(name);
+        object.setAge(age);
+        object.setCounter(counter);
+        object.setScore(score);
+        object.setBirthday(birthday == null ? null : DateUtils.toTimestamp(birthday));
+        object.setActive(active);
+        object.setNotes("notes of " + name);
+        return yawp.save(object);
+    }
+
+}
@@ -0,0 +1,40 @@
+package io.yawp.driver.postgresql.datastore.models;
+
+import io.yawp.repository.IdRef;
+import io.yawp.repository.annotations.Endpoint;
+import io.yawp.repository.annotations.Id;
+import io.yawp.repository.annotations.Index;
+
+@Endpoint(path = "/partitioned_objects", partitionByNamespace = true)
+public class PartitionedObject {
+
+    @Id
+    private IdRef<PartitionedObject> id;
+
+    @Index
+    private String name;
+
+    public PartitionedObject() {
+    }
+
+    public PartitionedObject(String name) {
+        this.name = name;
+    }
+
+    public IdRef<PartitionedObject> getId() {
+        return id;
+    }
+
+    public void setId(IdRef<PartitionedObject> id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+}
@@ -0,0 +1,99 @@
+package io.yawp.driver.postgresql.datastore.models;
+
+import io.yawp.repository.IdRef;
+import io.yawp.repository.annotations.Endpoint;
+import io.yawp.repository.annotations.Id;
+import io.yawp.repository.annotations.Index;
+
+import java.util.Date;
+
+@Endpoint(path = "/typed_objects", typedColumns = true)
+public class TypedObject {
+
+    @Id
+    private IdRef<TypedObject> id;
+
+    @Index
+    private String name;
+
+    @Index
+    private Integer age;
+
+    @Index
+    private long counter;
+
+    @Index
+    private Double score;
+
+    @Index
+    private Date birthday;
+
+    @Index
+    private Boolean active;
+
+    private String notes;
+
+    public IdRef<TypedObject> getId() {
+        return id;
+    }
+
+    public void setId(IdRef<TypedObject> id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+
+    public long getCounter() {
+        return counter;
+    }
+
+    public void setCounter(long counter) {
+        this.counter = counter;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+
+    public Date getBirthday() {
+        return birthday;
+    }
+
+    public void setBirthday(Date birthday) {
+        this.birthday = birthday;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+}
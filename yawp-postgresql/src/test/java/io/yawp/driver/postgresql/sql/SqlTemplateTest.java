@@ -0,0 +1,26 @@
+package io.yawp.driver.postgresql.sql;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class SqlTemplateTest {
+
+    @Test
+    public void testParsePlaceHolders() {
+        SqlTemplate template = SqlTemplate.get("select * from t where a = :p1 and b = :p10 or c = :p1");
+
+        assertEquals("select * from t where a = ? and b = ? or c = ?", template.getSql());
+        assertArrayEquals(new int[]{1, 3}, template.getIndexes().get(":p1"));
+        assertArrayEquals(new int[]{2}, template.getIndexes().get(":p10"));
+    }
+
+    @Test
+    public void testSharedTemplate() {
+        String sql = "select * from t where key = :key";
+        assertSame(SqlTemplate.get(sql), SqlTemplate.get(sql));
+    }
+
+}
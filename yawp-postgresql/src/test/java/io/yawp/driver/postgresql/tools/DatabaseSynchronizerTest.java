@@ -3,13 +3,28 @@ package io.yawp.driver.postgresql.tools;
 import io.yawp.commons.utils.Environment;
 import io.yawp.driver.postgresql.configuration.InitialContextSetup;
 import io.yawp.driver.postgresql.datastore.DatastoreTestCase;
+import io.yawp.driver.postgresql.datastore.models.Child;
+import io.yawp.driver.postgresql.sql.SqlRunner;
+import io.yawp.repository.models.ModelRegistry;
 import io.yawp.repository.scanner.RepositoryScanner;
 import org.junit.Before;
+import org.junit.FixMethodOrder;
 import org.junit.Test;
+import org.junit.runners.MethodSorters;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+/**
+ * Dropping the database leaves dead connections in the pool, so testDatabaseCreation must
+ * run after the tests that sync tables.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
 public class DatabaseSynchronizerTest extends DatastoreTestCase {
 
     @Before
@@ -38,4 +53,43 @@ public class DatabaseSynchronizerTest extends DatastoreTestCase {
         dbSynchronizer.sync(yawp.getFeatures().getEndpointClazzes());
     }
 
+    @Test
+    public void testCreateTablesTwice() {
+        DatabaseSynchronizer dbSynchronizer = new DatabaseSynchronizer();
+        dbSynchronizer.sync(yawp.getFeatures().getEndpointClazzes());
+
+        Map<String, Boolean> indexes = dbSynchronizer.getExistingIndexes("children");
+        dbSynchronizer.sync(yawp.getFeatures().getEndpointClazzes());
+
+        assertEquals(indexes, dbSynchronizer.getExistingIndexes("children"));
+        for (IndexDefinition index : IndexDefinition.of(ModelRegistry.get(Child.class))) {
+            assertTrue(index.getName(), indexes.get(index.getName()));
+        }
+    }
+
+    @Test
+    public void testCreateTablesDedupesKeys() {
+        DatabaseSynchronizer dbSynchronizer = new DatabaseSynchronizer();
+        dbSynchronizer.sync(yawp.getFeatures().getEndpointClazzes());
+
+        connectionManager.execute("drop index if exists parents_key_idx");
+        connectionManager.execute("delete from parents where key->>'name' = 'duplicated'");
+        for (int i = 0; i < 3; i++) {
+            connectionManager.execute("insert into parents (key, properties) values "
+                    + "(cast('{\"kind\": \"parents\", \"name\": \"duplicated\"}' as jsonb), cast('{\"name\": \"" + i + "\"}' as jsonb))");
+        }
+
+        dbSynchronizer.sync(yawp.getFeatures().getEndpointClazzes());
+
+        assertTrue(dbSynchronizer.getExistingIndexes("parents").get("parents_key_idx"));
+        assertEquals("2", connectionManager.executeQuery(new SqlRunner("select properties->>'name' as name from parents where key->>'name' = 'duplicated'") {
+            @Override
+            protected String collectSingle(ResultSet rs) throws SQLException {
+                return rs.getString("name");
+            }
+        }));
+
+        connectionManager.execute("delete from parents where key->>'name' = 'duplicated'");
+    }
+
 }
@@ -0,0 +1,81 @@
+package io.yawp.driver.postgresql.tools;
+
+import io.yawp.driver.postgresql.datastore.models.Child;
+import io.yawp.driver.postgresql.datastore.models.Parent;
+import io.yawp.driver.postgresql.datastore.models.PartitionedObject;
+import io.yawp.driver.postgresql.datastore.models.TypedObject;
+import io.yawp.repository.models.ModelRegistry;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class IndexDefinitionTest {
+
+    @Test
+    public void testPropertyIndexes() {
+        Map<String, String> indexes = createSqls(Parent.class);
+
+        assertEquals(4, indexes.size());
+        assertEquals("create unique index concurrently if not exists \"parents_key_idx\" on \"parents\" using btree (key)",
+                indexes.get("parents_key_idx"));
+        assertEquals("create index concurrently if not exists \"parents_ns_idx\" on \"parents\" using btree ((key->>'ns'))",
+                indexes.get("parents_ns_idx"));
+        assertEquals("create index concurrently if not exists \"parents___name_idx\" on \"parents\" using btree ((properties->>'__name'))",
+                indexes.get("parents___name_idx"));
+        assertEquals("create index concurrently if not exists \"parents_age_idx\" on \"parents\" using btree (cast(properties->>'age' as numeric))",
+                indexes.get("parents_age_idx"));
+    }
+
+    @Test
+    public void testAncestorsIndex() {
+        Map<String, String> indexes = createSqls(Child.class);
+
+        assertEquals("create index concurrently if not exists \"children_ancestors_idx\" on \"children\" using btree (ancestors)",
+                indexes.get("children_ancestors_idx"));
+        assertFalse(createSqls(Parent.class).containsKey("parents_ancestors_idx"));
+    }
+
+    @Test
+    public void testTypedColumnIndexes() {
+        Map<String, String> indexes = createSqls(TypedObject.class);
+
+        assertEquals("create index concurrently if not exists \"typed_objects_p_age_idx\" on \"typed_objects\" using btree (\"p_age\")",
+                indexes.get("typed_objects_p_age_idx"));
+        assertEquals("create index concurrently if not exists \"typed_objects_p___name_idx\" on \"typed_objects\" using btree (\"p___name\")",
+                indexes.get("typed_objects_p___name_idx"));
+    }
+
+    @Test
+    public void testPartitionedIndexes() {
+        Map<String, String> indexes = createSqls(PartitionedObject.class);
+
+        assertEquals(2, indexes.size());
+        assertEquals("create unique index if not exists \"partitioned_objects_key_idx\" on \"partitioned_objects\" using btree (ns, key)",
+                indexes.get("partitioned_objects_key_idx"));
+        assertFalse(indexes.containsKey("partitioned_objects_ns_idx"));
+    }
+
+    @Test
+    public void testUniqueKeyIndexOnly() {
+        for (IndexDefinition index : IndexDefinition.of(ModelRegistry.get(Parent.class))) {
+            assertEquals(index.getName().equals("parents_key_idx"), index.isUnique());
+            assertEquals("parents", index.getTable());
+        }
+    }
+
+    private Map<String, String> createSqls(Class<?> clazz) {
+        List<IndexDefinition> definitions = IndexDefinition.of(ModelRegistry.get(clazz));
+
+        Map<String, String> indexes = new LinkedHashMap<>();
+        for (IndexDefinition index : definitions) {
+            indexes.put(index.getName(), index.createSql());
+        }
+        return indexes;
+    }
+
+}
@@ -12,6 +12,10 @@ public class Counter {
 
     private long count;
 
+    public void setId(IdRef<Counter> id) {
+        this.id = id;
+    }
+
     public void inc() {
         this.count++;
     }
@@ -0,0 +1,103 @@
+package io.yawp.testing.appengine.pipes.flow;
+
+import com.google.appengine.api.taskqueue.DeferredTask;
+import io.yawp.driver.appengine.pipes.flow.FanoutTask;
+import io.yawp.driver.appengine.pipes.flow.ForkTask;
+import io.yawp.driver.appengine.pipes.flow.Payload;
+import io.yawp.repository.IdRef;
+import io.yawp.repository.pipes.SourceMarker;
+import io.yawp.testing.EndpointTestCaseBase;
+import io.yawp.testing.appengine.models.Counter;
+import io.yawp.testing.appengine.models.Like;
+import io.yawp.testing.appengine.models.LikeToCounterPipe;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class FanoutTaskTest extends EndpointTestCaseBase {
+
+    @Test
+    public void testOneForkPerSink() throws Exception {
+        QueueRecorder recorder = new QueueRecorder();
+        FanoutTask.enqueue(recorder.queue(), createPayload(), createSinkIds(3));
+
+        List<DeferredTask> tasks = recorder.getTasks();
+        assertEquals(3, tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(ForkTask.class, tasks.get(i).getClass());
+            Payload payload = (Payload) field(tasks.get(i), "payload");
+            assertEquals("/counters/" + (i + 1), payload.getSinkUri());
+        }
+    }
+
+    @Test
+    public void testHundredSinks() {
+        QueueRecorder recorder = new QueueRecorder();
+        FanoutTask.enqueue(recorder.queue(), createPayload(), createSinkIds(100));
+
+        for (DeferredTask task : recorder.getTasks()) {
+            assertEquals(ForkTask.class, task.getClass());
+        }
+        assertEquals(Arrays.asList(100), recorder.getBatchSizes());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSplitAboveHundredSinks() throws Exception {
+        QueueRecorder recorder = new QueueRecorder();
+        FanoutTask.enqueue(recorder.queue(), createPayload(), createSinkIds(250));
+
+        List<DeferredTask> tasks = recorder.getTasks();
+        assertEquals(3, tasks.size());
+
+        List<String> sinkUris = new ArrayList<>();
+        int[] sizes = new int[]{100, 100, 50};
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(FanoutTask.class, tasks.get(i).getClass());
+            List<String> chunk = (List<String>) field(tasks.get(i), "sinkUris");
+            assertEquals(sizes[i], chunk.size());
+            sinkUris.addAll(chunk);
+        }
+
+        assertEquals(250, sinkUris.size());
+        assertEquals("/counters/1", sinkUris.get(0));
+        assertEquals("/counters/250", sinkUris.get(249));
+    }
+
+    private List<IdRef<Counter>> createSinkIds(int count) {
+        List<IdRef<Counter>> ids = new ArrayList<>();
+        for (long i = 1; i <= count; i++) {
+            ids.add(id(Counter.class, i));
+        }
+        return ids;
+    }
+
+    private Payload createPayload() {
+        Like like = new Like();
+        like.setId(id(Like.class, 1l));
+
+        SourceMarker sourceMarker = new SourceMarker();
+        sourceMarker.setId(like.getId().createChildId(SourceMarker.class, 1l));
+        sourceMarker.setParentId(like.getId());
+        sourceMarker.setVersion(1);
+
+        Payload payload = new Payload();
+        payload.setPipeClazz(LikeToCounterPipe.class);
+        payload.setSourceMarker(sourceMarker);
+        payload.setSourceJson(like);
+        payload.setPresent(true);
+        return payload;
+    }
+
+    private Object field(Object object, String name) throws Exception {
+        Field field = object.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(object);
+    }
+
+}
@@ -47,7 +47,7 @@ public class FlowDropsTest extends EndpointTestCaseBase {
         Payload payload = new Payload();
         payload.setSinkUri(IdRef.create(yawp, Counter.class, 1l));
         payload.setPipeClazz(LikeToCounterPipe.class);
-        payload.setSourceMarkerJson(likeSourceMarker);
+        payload.setSourceMarker(likeSourceMarker);
         payload.setSourceJson(like);
         payload.setPresent(true);
 
@@ -0,0 +1,67 @@
+package io.yawp.testing.appengine.pipes.flow;
+
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
+import io.yawp.driver.appengine.pipes.flow.JoinLock;
+import io.yawp.testing.EndpointTestCaseBase;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JoinLockTest extends EndpointTestCaseBase {
+
+    private JoinLock lock;
+
+    @Before
+    public void before() {
+        lock = new JoinLock(MemcacheServiceFactory.getMemcacheService(), "/counters/1", 1);
+    }
+
+    @Test
+    public void testExitOpenIndex() {
+        assertTrue(lock.enter());
+        assertTrue(lock.enter());
+
+        assertFalse(lock.exit());
+        assertFalse(lock.exit());
+    }
+
+    @Test
+    public void testSealWithoutWriters() {
+        assertTrue(lock.enter());
+        assertFalse(lock.exit());
+
+        assertTrue(lock.seal());
+    }
+
+    @Test
+    public void testLastWriterDrainsSealedIndex() {
+        assertTrue(lock.enter());
+        assertTrue(lock.enter());
+
+        assertFalse(lock.seal());
+        assertFalse(lock.exit());
+        assertTrue(lock.exit());
+    }
+
+    @Test
+    public void testEnterSealedIndex() {
+        assertTrue(lock.enter());
+        assertFalse(lock.seal());
+
+        assertFalse(lock.enter());
+        assertFalse(lock.exit());
+        assertTrue(lock.exit());
+    }
+
+    @Test
+    public void testEvictedCounter() {
+        assertTrue(lock.enter());
+        lock.delete();
+
+        assertFalse(lock.exit());
+        assertTrue(lock.seal());
+    }
+
+}
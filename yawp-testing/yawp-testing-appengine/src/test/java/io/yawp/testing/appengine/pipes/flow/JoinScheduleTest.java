@@ -0,0 +1,51 @@
+package io.yawp.testing.appengine.pipes.flow;
+
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
+import io.yawp.driver.appengine.pipes.flow.JoinSchedule;
+import io.yawp.testing.EndpointTestCaseBase;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class JoinScheduleTest extends EndpointTestCaseBase {
+
+    private JoinSchedule schedule;
+
+    @Before
+    public void before() {
+        schedule = new JoinSchedule(MemcacheServiceFactory.getMemcacheService(), "/counters/1");
+    }
+
+    @Test
+    public void testQuietGroup() {
+        assertEquals(100, schedule.getDelayMillis());
+    }
+
+    @Test
+    public void testBusyGroup() {
+        schedule.record(JoinSchedule.MAX_BATCH_SIZE);
+        assertEquals(1000, schedule.getDelayMillis());
+
+        schedule.record(JoinSchedule.MAX_BATCH_SIZE * 2);
+        assertEquals(1000, schedule.getDelayMillis());
+    }
+
+    @Test
+    public void testMovingAverage() {
+        schedule.record(50);
+        assertEquals(550, schedule.getDelayMillis());
+
+        schedule.record(10);
+        assertEquals(460, schedule.getDelayMillis());
+    }
+
+    @Test
+    public void testGroupsApart() {
+        schedule.record(JoinSchedule.MAX_BATCH_SIZE);
+
+        JoinSchedule other = new JoinSchedule(MemcacheServiceFactory.getMemcacheService(), "/counters/2");
+        assertEquals(100, other.getDelayMillis());
+    }
+
+}
@@ -0,0 +1,88 @@
+package io.yawp.testing.appengine.pipes.flow;
+
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
+import io.yawp.driver.appengine.pipes.flow.CacheHelper;
+import io.yawp.driver.appengine.pipes.flow.JoinLock;
+import io.yawp.driver.appengine.pipes.flow.JoinTask;
+import io.yawp.driver.appengine.pipes.flow.Payload;
+import io.yawp.driver.appengine.pipes.flow.Work;
+import io.yawp.repository.IdRef;
+import io.yawp.repository.pipes.SourceMarker;
+import io.yawp.testing.EndpointTestCaseBase;
+import io.yawp.testing.appengine.models.Counter;
+import io.yawp.testing.appengine.models.Like;
+import io.yawp.testing.appengine.models.LikeToCounterPipe;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JoinTaskTest extends EndpointTestCaseBase {
+
+    private static final String SINK_GROUP_URI = "/counters/1";
+
+    private long nextLikeId;
+
+    @Before
+    public void before() {
+        nextLikeId = 1;
+    }
+
+    @Test
+    public void testReusedIndexJoinsAgain() {
+        saveOneLikeToCounterWork(1);
+        new JoinTask(null, LikeToCounterPipe.class, SINK_GROUP_URI, 1).run();
+
+        saveOneLikeToCounterWork(1);
+        new JoinTask(null, LikeToCounterPipe.class, SINK_GROUP_URI, 1).run();
+
+        assertEquals(2, id(Counter.class, 1l).fetch().getCount());
+        assertEquals(0, yawp(Work.class).ids().size());
+    }
+
+    @Test
+    public void testJoinEnqueuedWithoutPipe() throws Exception {
+        JoinLock lock = new JoinLock(MemcacheServiceFactory.getMemcacheService(), SINK_GROUP_URI, 1);
+        assertTrue(lock.enter());
+        saveOneLikeToCounterWork(1);
+
+        JoinTask task = new JoinTask(null, LikeToCounterPipe.class, SINK_GROUP_URI, 1);
+        Field pipeClazzName = JoinTask.class.getDeclaredField("pipeClazzName");
+        pipeClazzName.setAccessible(true);
+        pipeClazzName.set(task, null);
+
+        task.run();
+        awaitAsync(20, TimeUnit.SECONDS);
+
+        assertEquals(1, id(Counter.class, 1l).fetch().getCount());
+    }
+
+    private void saveOneLikeToCounterWork(Integer index) {
+        Like like = new Like();
+        like.setId(id(Like.class, nextLikeId++));
+
+        Payload payload = new Payload();
+        payload.setSinkUri(IdRef.create(yawp, Counter.class, 1l));
+        payload.setPipeClazz(LikeToCounterPipe.class);
+        payload.setSourceMarker(createLikeSourceMarker(like));
+        payload.setSourceJson(like);
+        payload.setPresent(true);
+
+        yawp.save(new Work(CacheHelper.createIndexHash(SINK_GROUP_URI, index), payload));
+    }
+
+    private SourceMarker createLikeSourceMarker(Like like) {
+        IdRef<Like> likeId = like.getId();
+
+        SourceMarker sourceMarker = new SourceMarker();
+        sourceMarker.setId(likeId.createChildId(SourceMarker.class, likeId.asLong()));
+        sourceMarker.setParentId(likeId);
+        sourceMarker.setVersion(1);
+        return sourceMarker;
+    }
+
+}
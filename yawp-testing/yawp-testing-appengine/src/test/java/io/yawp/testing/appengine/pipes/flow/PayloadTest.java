@@ -0,0 +1,140 @@
+package io.yawp.testing.appengine.pipes.flow;
+
+import io.yawp.commons.utils.JsonUtils;
+import io.yawp.driver.appengine.pipes.flow.ForkTask;
+import io.yawp.driver.appengine.pipes.flow.Payload;
+import io.yawp.repository.IdRef;
+import io.yawp.repository.pipes.SourceMarker;
+import io.yawp.testing.EndpointTestCaseBase;
+import io.yawp.testing.appengine.models.Counter;
+import io.yawp.testing.appengine.models.Like;
+import io.yawp.testing.appengine.models.LikeToCounterPipe;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PayloadTest extends EndpointTestCaseBase {
+
+    /**
+     * A work payload as stored before the compact form, with its source marker as json.
+     */
+    static final String LEGACY_WORK_JSON = "{\"ns\":\"ns\",\"pipeClazzName\":\"io.yawp.testing.appengine.models.LikeToCounterPipe\","
+            + "\"sourceJson\":\"{\\\"id\\\":\\\"/likes/1\\\",\\\"counterId\\\":\\\"/counters/1\\\"}\",\"sinkUri\":\"/counters/1\","
+            + "\"sourceMarkerJson\":\"{\\\"version\\\":3}\",\"present\":true}";
+
+    /**
+     * A fork task of the same payload, serialized before the compact form.
+     */
+    private static final String LEGACY_FORK_TASK = "rO0ABXNyACxpby55YXdwLmRyaXZlci5hcHBlbmdpbmUucGlwZXMuZmxvdy5Gb3JrVGFzax4T6XmGPCS2AgABTAAHcGF5bG9hZHQA"
+            + "LUxpby95YXdwL2RyaXZlci9hcHBlbmdpbmUvcGlwZXMvZmxvdy9QYXlsb2FkO3hwc3IAK2lvLnlhd3AuZHJpdmVyLmFwcGVuZ2lu"
+            + "ZS5waXBlcy5mbG93LlBheWxvYWR7HfxA419fjwIACFoAB3ByZXNlbnRMAAJuc3QAEkxqYXZhL2xhbmcvU3RyaW5nO0wADW9sZFNv"
+            + "dXJjZUpzb25xAH4ABEwADXBpcGVDbGF6ek5hbWVxAH4ABEwAB3NpbmtVcmlxAH4ABEwACHNvdXJjZUlkdAAaTGlvL3lhd3AvcmVw"
+            + "b3NpdG9yeS9JZFJlZjtMAApzb3VyY2VKc29ucQB+AARMABBzb3VyY2VNYXJrZXJKc29ucQB+AAR4cAF0AAJuc3B0ADJpby55YXdw"
+            + "LnRlc3RpbmcuYXBwZW5naW5lLm1vZGVscy5MaWtlVG9Db3VudGVyUGlwZXQACy9jb3VudGVycy8xcHQAK3siaWQiOiIvbGlrZXMv"
+            + "MSIsImNvdW50ZXJJZCI6Ii9jb3VudGVycy8xIn10AA17InZlcnNpb24iOjN9";
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Payload payload = createPayload("counter");
+        payload.setPresent(true);
+
+        Payload copy = deserialize(serialize(payload));
+
+        assertEquals("ns", copy.getNs());
+        assertEquals(LikeToCounterPipe.class, copy.getPipeClazz());
+        assertEquals(payload.getSourceJson(), copy.getSourceJson());
+        assertNull(copy.getOldSource());
+        assertEquals("/counters/counter", copy.getSinkUri());
+        assertEquals((Long) 3L, copy.getSourceVersion());
+        assertTrue(copy.isPresent());
+    }
+
+    @Test
+    public void testLongStringsAreDeflated() throws Exception {
+        String sinkName = StringUtils.repeat("counter", 200);
+        Payload payload = createPayload(sinkName);
+
+        byte[] bytes = serialize(payload);
+        Payload copy = deserialize(bytes);
+
+        assertTrue(bytes.length < sinkName.length());
+        assertEquals("/counters/" + sinkName, copy.getSinkUri());
+        assertFalse(copy.isPresent());
+    }
+
+    @Test
+    public void testLegacyWorkJson() {
+        Payload payload = JsonUtils.from(yawp, LEGACY_WORK_JSON, Payload.class);
+
+        assertLegacyPayload(payload);
+    }
+
+    @Test
+    public void testLegacyForkTask() throws Exception {
+        ForkTask task;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(Base64.decodeBase64(LEGACY_FORK_TASK)))) {
+            task = (ForkTask) in.readObject();
+        }
+
+        Field field = ForkTask.class.getDeclaredField("payload");
+        field.setAccessible(true);
+        Payload payload = (Payload) field.get(task);
+
+        assertLegacyPayload(payload);
+        assertLegacyPayload(deserialize(serialize(payload)));
+    }
+
+    private void assertLegacyPayload(Payload payload) {
+        assertEquals("ns", payload.getNs());
+        assertEquals(LikeToCounterPipe.class, payload.getPipeClazz());
+        assertEquals(id(Like.class, 1l), payload.getSourceId());
+        assertNull(payload.getOldSource());
+        assertEquals("/counters/1", payload.getSinkUri());
+        assertEquals((Long) 3L, payload.getSourceVersion());
+        assertTrue(payload.isPresent());
+    }
+
+    private Payload createPayload(String sinkName) {
+        Like like = new Like();
+        like.setId(id(Like.class, 1l));
+
+        SourceMarker sourceMarker = new SourceMarker();
+        sourceMarker.setVersion(3);
+
+        Payload payload = new Payload();
+        payload.setNs("ns");
+        payload.setPipeClazz(LikeToCounterPipe.class);
+        payload.setSourceJson(like);
+        payload.setOldSourceJson(null);
+        payload.setSinkUri(IdRef.create(yawp, Counter.class, sinkName));
+        payload.setSourceMarker(sourceMarker);
+        return payload;
+    }
+
+    private byte[] serialize(Payload payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(payload);
+        }
+        return bytes.toByteArray();
+    }
+
+    private Payload deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (Payload) in.readObject();
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+package io.yawp.testing.appengine.pipes.flow;
+
+import com.google.appengine.api.taskqueue.QueueConstants;
+import com.google.appengine.api.taskqueue.TaskOptions;
+import io.yawp.driver.appengine.pipes.utils.QueueHelper;
+import io.yawp.testing.EndpointTestCaseBase;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class QueueHelperTest extends EndpointTestCaseBase {
+
+    private static final int MAX = QueueConstants.maxTasksPerAdd();
+
+    @Test
+    public void testNoTasks() {
+        assertEquals(Collections.<Integer>emptyList(), add(0));
+    }
+
+    @Test
+    public void testOneBatch() {
+        assertEquals(Arrays.asList(1), add(1));
+        assertEquals(Arrays.asList(MAX), add(MAX));
+    }
+
+    @Test
+    public void testManyBatches() {
+        assertEquals(Arrays.asList(MAX, 1), add(MAX + 1));
+        assertEquals(Arrays.asList(MAX, MAX, MAX / 2), add(MAX * 2 + MAX / 2));
+    }
+
+    private List<Integer> add(int count) {
+        List<TaskOptions> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(TaskOptions.Builder.withTaskName("task-" + i));
+        }
+
+        QueueRecorder recorder = new QueueRecorder();
+        QueueHelper.add(recorder.queue(), tasks);
+        return recorder.getBatchSizes();
+    }
+
+}
@@ -0,0 +1,68 @@
+package io.yawp.testing.appengine.pipes.flow;
+
+import com.google.appengine.api.taskqueue.DeferredTask;
+import com.google.appengine.api.taskqueue.Queue;
+import com.google.appengine.api.taskqueue.TaskOptions;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A queue that records the batches of tasks added to it instead of running them.
+ */
+public class QueueRecorder implements InvocationHandler {
+
+    private final List<List<TaskOptions>> batches = new ArrayList<>();
+
+    public Queue queue() {
+        return (Queue) Proxy.newProxyInstance(Queue.class.getClassLoader(), new Class<?>[]{Queue.class}, this);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        if (!method.getName().equals("add") || args == null || !(args[0] instanceof Iterable)) {
+            throw new UnsupportedOperationException(method.getName());
+        }
+
+        List<TaskOptions> batch = new ArrayList<>();
+        for (TaskOptions task : (Iterable<TaskOptions>) args[0]) {
+            batch.add(task);
+        }
+        batches.add(batch);
+        return null;
+    }
+
+    public List<Integer> getBatchSizes() {
+        List<Integer> sizes = new ArrayList<>();
+        for (List<TaskOptions> batch : batches) {
+            sizes.add(batch.size());
+        }
+        return sizes;
+    }
+
+    public List<DeferredTask> getTasks() {
+        List<DeferredTask> tasks = new ArrayList<>();
+        for (List<TaskOptions> batch : batches) {
+            for (TaskOptions task : batch) {
+                tasks.add(deserialize(task.getPayload()));
+            }
+        }
+        return tasks;
+    }
+
+    private DeferredTask deserialize(byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (DeferredTask) in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
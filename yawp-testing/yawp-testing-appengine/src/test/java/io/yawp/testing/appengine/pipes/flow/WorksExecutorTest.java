@@ -0,0 +1,154 @@
+package io.yawp.testing.appengine.pipes.flow;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.Text;
+import com.google.apphosting.api.ApiProxy;
+import io.yawp.driver.appengine.IdRefToKey;
+import io.yawp.driver.appengine.pipes.flow.Payload;
+import io.yawp.driver.appengine.pipes.flow.Work;
+import io.yawp.driver.appengine.pipes.flow.WorksExecutor;
+import io.yawp.repository.IdRef;
+import io.yawp.repository.pipes.SinkMarker;
+import io.yawp.repository.pipes.SourceMarker;
+import io.yawp.testing.EndpointTestCaseBase;
+import io.yawp.testing.appengine.models.Counter;
+import io.yawp.testing.appengine.models.Like;
+import io.yawp.testing.appengine.models.LikeToCounterPipe;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class WorksExecutorTest extends EndpointTestCaseBase {
+
+    private ApiProxy.Delegate<?> delegate;
+
+    private Map<String, Integer> datastoreCalls = new HashMap<>();
+
+    @Before
+    public void before() {
+        delegate = ApiProxy.getDelegate();
+    }
+
+    @After
+    @SuppressWarnings("unchecked")
+    public void after() {
+        ApiProxy.setDelegate((ApiProxy.Delegate) delegate);
+    }
+
+    @Test
+    public void testBatchedReadsAndWrites() {
+        Counter counter = new Counter();
+        counter.setId(id(Counter.class, 1l));
+        counter.inc();
+        yawp.save(counter);
+
+        List<Work> works = new ArrayList<>();
+        works.add(saveWork(1l, 1l));
+        works.add(saveWork(2l, 1l));
+        works.add(saveWork(3l, 2l));
+        works.add(saveWork(4l, 2l));
+        works.add(saveWork(5l, 3l));
+
+        countDatastoreCalls();
+        WorksExecutor executor = new WorksExecutor(yawp, works);
+        executor.execute();
+        executor.destroy();
+
+        assertEquals((Integer) 3, datastoreCalls.get("Get"));
+        assertEquals((Integer) 2, datastoreCalls.get("Put"));
+        assertEquals((Integer) 1, datastoreCalls.get("Delete"));
+
+        assertEquals(3, id(Counter.class, 1l).fetch().getCount());
+        assertEquals(2, id(Counter.class, 2l).fetch().getCount());
+        assertEquals(1, id(Counter.class, 3l).fetch().getCount());
+        assertEquals(0, yawp(Work.class).ids().size());
+    }
+
+    @Test
+    public void testAppliedWorksAreSkipped() {
+        Work work = saveWork(1l, 1l);
+
+        SinkMarker sinkMarker = new SinkMarker();
+        IdRef<SinkMarker> sinkMarkerId = SinkMarker.createId(yawp, LikeToCounterPipe.class, id(Counter.class, 1l), id(Like.class, 1l));
+        sinkMarker.setId(sinkMarkerId);
+        sinkMarker.setParentId(sinkMarkerId.getParentId());
+        sinkMarker.setVersion(1l);
+        yawp.save(sinkMarker);
+
+        countDatastoreCalls();
+        new WorksExecutor(yawp, Collections.singletonList(work)).execute();
+
+        assertNull(datastoreCalls.get("Put"));
+        assertEquals(0, yawp(Counter.class).ids().size());
+    }
+
+    @Test
+    public void testLegacyWork() throws Exception {
+        Work work = saveWork(1l, 1l);
+
+        DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
+        Entity entity = datastore.get(IdRefToKey.toKey(yawp, work.getId()));
+        entity.setUnindexedProperty("payload", new Text(PayloadTest.LEGACY_WORK_JSON));
+        datastore.put(entity);
+
+        new WorksExecutor(yawp, Collections.singletonList(work.getId().fetch())).execute();
+
+        IdRef<SinkMarker> sinkMarkerId = SinkMarker.createId(yawp, LikeToCounterPipe.class, id(Counter.class, 1l), id(Like.class, 1l));
+        assertEquals(1, id(Counter.class, 1l).fetch().getCount());
+        assertEquals((Long) 3l, sinkMarkerId.fetch().getVersion());
+    }
+
+    private Work saveWork(long likeId, long counterId) {
+        Like like = new Like();
+        like.setId(id(Like.class, likeId));
+
+        SourceMarker sourceMarker = new SourceMarker();
+        sourceMarker.setId(like.getId().createChildId(SourceMarker.class, likeId));
+        sourceMarker.setParentId(like.getId());
+        sourceMarker.setVersion(1);
+
+        Payload payload = new Payload();
+        payload.setSinkUri(id(Counter.class, counterId));
+        payload.setPipeClazz(LikeToCounterPipe.class);
+        payload.setSourceMarker(sourceMarker);
+        payload.setSourceJson(like);
+        payload.setPresent(true);
+
+        return yawp.save(new Work("x", payload));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void countDatastoreCalls() {
+        InvocationHandler handler = new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getName().startsWith("make") && "datastore_v3".equals(args[1])) {
+                    String call = (String) args[2];
+                    datastoreCalls.put(call, datastoreCalls.containsKey(call) ? datastoreCalls.get(call) + 1 : 1);
+                }
+                try {
+                    return method.invoke(delegate, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+        ApiProxy.setDelegate((ApiProxy.Delegate) Proxy.newProxyInstance(ApiProxy.Delegate.class.getClassLoader(), new Class<?>[]{ApiProxy.Delegate.class}, handler));
+    }
+
+}
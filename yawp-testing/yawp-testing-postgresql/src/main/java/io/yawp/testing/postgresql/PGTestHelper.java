@@ -4,6 +4,7 @@ import io.yawp.commons.utils.Environment;
 import io.yawp.commons.utils.ResourceFinder;
 import io.yawp.driver.api.testing.TestHelper;
 import io.yawp.driver.postgresql.configuration.InitialContextSetup;
+import io.yawp.driver.postgresql.pipes.PipesWorkers;
 import io.yawp.driver.postgresql.tools.DatabaseSynchronizer;
 import io.yawp.repository.Repository;
 
@@ -50,7 +51,9 @@ public class PGTestHelper implements TestHelper {
 
     @Override
     public void awaitAsync(long timeout, TimeUnit unit) {
-
+        if (!PipesWorkers.awaitEmpty(timeout, unit)) {
+            throw new RuntimeException(String.format("Pipes queue was not emptied in %d %s", timeout, unit.toString().toLowerCase()));
+        }
     }
 
     public boolean isUserTest() {
@@ -0,0 +1,34 @@
+package io.yawp.testing.postgresql.models;
+
+import io.yawp.repository.IdRef;
+import io.yawp.repository.annotations.Endpoint;
+import io.yawp.repository.annotations.Id;
+
+@Endpoint(path = "/counters")
+public class Counter {
+
+    @Id
+    private IdRef<Counter> id;
+
+    private long count;
+
+    public void setId(IdRef<Counter> id) {
+        this.id = id;
+    }
+
+    public void inc() {
+        this.count++;
+    }
+
+    public void dec() {
+        this.count--;
+    }
+
+    public void reset() {
+        this.count = 0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,25 @@
+package io.yawp.testing.postgresql.models;
+
+import io.yawp.repository.pipes.Pipe;
+
+public class LikeToCounterPipe extends Pipe<Like, Counter> {
+    @Override
+    public void configureSinks(Like like) {
+        addSinkId(like.getCounterId());
+    }
+
+    @Override
+    public void flux(Like like, Counter counter) {
+        counter.inc();
+    }
+
+    @Override
+    public void reflux(Like like, Counter counter) {
+        counter.dec();
+    }
+
+    @Override
+    public void drain(Counter counter) {
+        counter.reset();
+    }
+}
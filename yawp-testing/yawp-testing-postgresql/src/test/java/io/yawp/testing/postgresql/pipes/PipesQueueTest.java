@@ -0,0 +1,214 @@
+package io.yawp.testing.postgresql.pipes;
+
+import io.yawp.driver.postgresql.pipes.PipesQueue;
+import io.yawp.driver.postgresql.pipes.PipesWorkers;
+import io.yawp.driver.postgresql.pipes.Task;
+import io.yawp.driver.postgresql.pipes.TaskGroup;
+import io.yawp.driver.postgresql.pipes.TaskType;
+import io.yawp.driver.postgresql.sql.ConnectionManager;
+import io.yawp.driver.postgresql.sql.SqlRunner;
+import io.yawp.testing.EndpointTestCaseBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The workers are stopped, so only the transactions of the test claim tasks.
+ */
+public class PipesQueueTest extends EndpointTestCaseBase {
+
+    private static final TaskGroup REFLOWS = new TaskGroup("", TaskType.REFLOW, "");
+
+    private static final TaskGroup COUNTER_1_WORKS = new TaskGroup("", TaskType.WORK, "/counters/1");
+
+    private static final TaskGroup COUNTER_2_WORKS = new TaskGroup("", TaskType.WORK, "/counters/2");
+
+    private ConnectionManager connectionManager;
+
+    private List<ConnectionManager> transactions = new ArrayList<>();
+
+    private PipesQueue queue;
+
+    @Before
+    public void before() {
+        PipesWorkers.stop();
+        connectionManager = new ConnectionManager();
+        queue = new PipesQueue(connectionManager);
+    }
+
+    @After
+    public void after() {
+        PipesWorkers.start(yawp.getFeatures());
+    }
+
+    @Test
+    public void testClaimSkipsLockedTasks() {
+        add(REFLOWS);
+        add(REFLOWS);
+
+        try {
+            List<Task> tasks1 = new PipesQueue(begin()).claim(REFLOWS);
+            List<Task> tasks2 = new PipesQueue(begin()).claim(REFLOWS);
+
+            assertEquals(1, tasks1.size());
+            assertEquals(1, tasks2.size());
+            assertNotEquals(tasks1.get(0).getId(), tasks2.get(0).getId());
+            assertEquals(0, new PipesQueue(begin()).claim(REFLOWS).size());
+        } finally {
+            rollback();
+        }
+    }
+
+    @Test
+    public void testWorksOfASinkGroupAreClaimedByOneTransaction() {
+        add(COUNTER_1_WORKS);
+
+        ConnectionManager tx1 = begin();
+        try {
+            assertEquals(1, new PipesQueue(tx1).claim(COUNTER_1_WORKS).size());
+
+            add(COUNTER_1_WORKS);
+            add(COUNTER_2_WORKS);
+
+            PipesQueue queue2 = new PipesQueue(begin());
+            assertEquals(0, queue2.claim(COUNTER_1_WORKS).size());
+            assertEquals(1, queue2.claim(COUNTER_2_WORKS).size());
+        } finally {
+            rollback();
+        }
+
+        ConnectionManager tx3 = begin();
+        try {
+            assertEquals(2, new PipesQueue(tx3).claim(COUNTER_1_WORKS).size());
+        } finally {
+            rollback();
+        }
+    }
+
+    @Test
+    public void testClaimSingleTask() {
+        add(COUNTER_1_WORKS);
+        add(COUNTER_1_WORKS);
+        List<Task> tasks = claimAndRollback(COUNTER_1_WORKS);
+
+        ConnectionManager tx = begin();
+        try {
+            List<Task> claimed = new PipesQueue(tx).claim(COUNTER_1_WORKS, tasks.get(1));
+            assertEquals(1, claimed.size());
+            assertEquals(tasks.get(1).getId(), claimed.get(0).getId());
+        } finally {
+            rollback();
+        }
+    }
+
+    @Test
+    public void testFailedTasksBackOff() {
+        add(REFLOWS);
+        List<Task> tasks = claimAndRollback(REFLOWS);
+
+        assertEquals(0, queue.fail(tasks).size());
+        assertEquals(1, count("attempts = 1 and not dead and available_at > now() + interval '500 milliseconds'"));
+        assertEquals(0, queue.groups(16).size());
+        assertEquals(1, queue.size());
+
+        queue.fail(tasks);
+        assertEquals(1, count("attempts = 2 and available_at > now() + interval '1500 milliseconds'"));
+
+        queue.release();
+        assertEquals(1, queue.groups(16).size());
+    }
+
+    @Test
+    public void testExhaustedTasksAreDead() {
+        add(REFLOWS);
+        add(REFLOWS);
+        connectionManager.execute("update " + PipesQueue.TABLE + " set attempts = " + (PipesQueue.MAX_ATTEMPTS - 1));
+
+        List<Task> tasks = claimAndRollback(REFLOWS);
+        assertEquals(Arrays.asList(tasks.get(0).getId()), queue.fail(tasks));
+
+        assertEquals(1, queue.size());
+        assertEquals(1, queue.deadSize());
+
+        queue.release();
+        List<Task> alive = claimAndRollback(REFLOWS);
+        assertEquals(1, alive.size());
+        assertNotEquals(tasks.get(0).getId(), alive.get(0).getId());
+
+        ConnectionManager tx = begin();
+        try {
+            assertEquals(0, new PipesQueue(tx).claim(REFLOWS, tasks.get(0)).size());
+        } finally {
+            rollback();
+        }
+    }
+
+    @Test
+    public void testStopInterruptsTheWorkers() {
+        assertEquals(0, workerThreads());
+
+        PipesWorkers.start(yawp.getFeatures());
+        assertTrue(workerThreads() > 0);
+
+        PipesWorkers.stop();
+        assertEquals(0, workerThreads());
+    }
+
+    private void add(TaskGroup group) {
+        queue.add(group.getNs(), group.getType(), group.getSinkGroup(), "{}");
+    }
+
+    private ConnectionManager begin() {
+        ConnectionManager tx = new ConnectionManager();
+        tx.beginTransaction();
+        transactions.add(tx);
+        return tx;
+    }
+
+    private void rollback() {
+        for (ConnectionManager tx : transactions) {
+            tx.rollback();
+        }
+        transactions.clear();
+    }
+
+    private List<Task> claimAndRollback(TaskGroup group) {
+        ConnectionManager tx = begin();
+        try {
+            return new PipesQueue(tx).claim(group);
+        } finally {
+            rollback();
+        }
+    }
+
+    private long count(String where) {
+        Long count = connectionManager.executeQuery(new SqlRunner("select count(*) as count from " + PipesQueue.TABLE + " where " + where) {
+            @Override
+            protected Long collectSingle(ResultSet rs) throws SQLException {
+                return rs.getLong("count");
+            }
+        });
+        return count;
+    }
+
+    private int workerThreads() {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("yawp-pipes-worker-") && thread.isAlive()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,142 @@
+package io.yawp.testing.postgresql.pipes;
+
+import io.yawp.driver.postgresql.pipes.PipesQueue;
+import io.yawp.driver.postgresql.pipes.PipesWorkers;
+import io.yawp.driver.postgresql.pipes.ReloadTask;
+import io.yawp.driver.postgresql.pipes.TaskGroup;
+import io.yawp.driver.postgresql.pipes.TaskType;
+import io.yawp.driver.postgresql.sql.ConnectionManager;
+import io.yawp.driver.postgresql.sql.SqlRunner;
+import io.yawp.repository.IdRef;
+import io.yawp.testing.EndpointTestCaseBase;
+import io.yawp.testing.postgresql.models.Counter;
+import io.yawp.testing.postgresql.models.Like;
+import io.yawp.testing.postgresql.models.LikeToCounterPipe;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PipesWorkerTest extends EndpointTestCaseBase {
+
+    private static final String BAD_PAYLOAD = "not a payload";
+
+    private ConnectionManager connectionManager;
+
+    private PipesQueue queue;
+
+    private IdRef<Counter> counterId;
+
+    @Before
+    public void before() {
+        connectionManager = new ConnectionManager();
+        queue = new PipesQueue(connectionManager);
+
+        counterId = id(Counter.class, 1l);
+        Counter counter = new Counter();
+        counter.setId(counterId);
+        yawp.save(counter);
+    }
+
+    @After
+    public void after() {
+        PipesWorkers.start(yawp.getFeatures());
+    }
+
+    @Test
+    public void testReloadLeftByAPreviousProcess() {
+        saveLike();
+        saveLike();
+        awaitAsync(20, TimeUnit.SECONDS);
+
+        PipesWorkers.stop();
+
+        Counter counter = counterId.fetch();
+        counter.reset();
+        yawp.save(counter);
+        queue.add("", TaskType.RELOAD, "", new ReloadTask(LikeToCounterPipe.class).toJson());
+
+        sleep(500);
+        assertEquals(1, queue.size());
+
+        PipesWorkers.start(yawp.getFeatures());
+        awaitAsync(20, TimeUnit.SECONDS);
+
+        assertEquals(2, counterId.fetch().getCount());
+        assertEquals(0, count("true"));
+    }
+
+    @Test
+    public void testFailedTaskOfABatchIsRetriedAlone() {
+        String sinkGroup = counterId.getUri();
+
+        ConnectionManager tx = new ConnectionManager();
+        tx.beginTransaction();
+        try {
+            new PipesQueue(tx).claim(new TaskGroup("", TaskType.WORK, sinkGroup));
+
+            saveLike();
+            queue.add("", TaskType.WORK, sinkGroup, BAD_PAYLOAD);
+            saveLike();
+        } finally {
+            tx.rollback();
+        }
+
+        PipesWorkers.start(yawp.getFeatures()).wakeUp();
+        awaitSize(1);
+
+        assertEquals(2, counterId.fetch().getCount());
+        assertEquals(1, count("payload = '" + BAD_PAYLOAD + "' and attempts >= 1 and not dead"));
+    }
+
+    @Test
+    public void testExhaustedTaskIsDead() {
+        queue.add("", TaskType.RELOAD, "", BAD_PAYLOAD);
+        connectionManager.execute("update " + PipesQueue.TABLE + " set attempts = " + (PipesQueue.MAX_ATTEMPTS - 1));
+
+        PipesWorkers.start(yawp.getFeatures()).wakeUp();
+        awaitAsync(20, TimeUnit.SECONDS);
+
+        assertEquals(1, queue.deadSize());
+        assertEquals(1, count("attempts = " + PipesQueue.MAX_ATTEMPTS + " and dead"));
+    }
+
+    private void saveLike() {
+        Like like = new Like();
+        like.setCounterId(counterId);
+        yawp.save(like);
+    }
+
+    private void awaitSize(long size) {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(20);
+        while (queue.size() > size) {
+            assertTrue("pipes queue was not drained in 20 seconds", System.currentTimeMillis() < deadline);
+            sleep(50);
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private long count(String where) {
+        Long count = connectionManager.executeQuery(new SqlRunner("select count(*) as count from " + PipesQueue.TABLE + " where " + where) {
+            @Override
+            protected Long collectSingle(ResultSet rs) throws SQLException {
+                return rs.getLong("count");
+            }
+        });
+        return count;
+    }
+
+}